@@ -0,0 +1,139 @@
+package com.bankaya.pokemon.benchmark;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.bankaya.pokemon.PokemonSoapServiceApplication;
+import com.bankaya.pokemon.infrastructure.adapter.enums.RequestStatus;
+import com.bankaya.pokemon.infrastructure.adapter.persistence.AuditPayloadStore;
+import com.bankaya.pokemon.infrastructure.adapter.persistence.CopySoapAuditLogRepositoryAdapter;
+import com.bankaya.pokemon.infrastructure.adapter.persistence.R2dbcSoapAuditLogRepositoryAdapter;
+import com.bankaya.pokemon.infrastructure.adapter.persistence.SoapAuditLogRepositoryAdapter;
+import com.bankaya.pokemon.infrastructure.adapter.persistence.entity.SoapAuditLogEntity;
+import com.bankaya.pokemon.infrastructure.utils.DateTimeUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Audit persistence benchmark: batched JPA inserts vs PostgreSQL COPY (binary) vs pipelined R2DBC
+ * Writes audit batches through SoapAuditLogRepositoryAdapter (Hibernate batching +
+ * reWriteBatchedInserts), CopySoapAuditLogRepositoryAdapter and R2dbcSoapAuditLogRepositoryAdapter
+ * (pool of 2 connections) against a local PostgreSQL.
+ * Scores are per audit row. The schema is created by the Flyway migrations and the table is
+ * truncated after every iteration.
+ * Run with: ./gradlew jmh -PjmhIncludes=AuditPersistenceBenchmark
+ * Database: -Dbenchmark.postgres.url=jdbc:postgresql://localhost:5432/pokemon
+ * -Dbenchmark.postgres.user=pokemon -Dbenchmark.postgres.password=pokemon
+ * -Dbenchmark.r2dbc.url=r2dbc:postgresql://localhost:5432/pokemon
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AuditPersistenceBenchmark {
+
+    private static final int BATCH_SIZE = 500;
+    private static final String PAYLOAD = """
+            <soapenv:Envelope xmlns:soapenv="http://schemas.xmlsoap.org/soap/envelope/"><soapenv:Body>\
+            <ns2:GetPokemonAbilitiesResponse xmlns:ns2="http://bankaya.com/pokemon/soap">\
+            <ns2:abilities><ns2:name>static</ns2:name><ns2:url>https://pokeapi.co/api/v2/ability/9/</ns2:url>\
+            <ns2:hidden>false</ns2:hidden><ns2:slot>1</ns2:slot></ns2:abilities>\
+            </ns2:GetPokemonAbilitiesResponse></soapenv:Body></soapenv:Envelope>""";
+
+    @Param({"SMALL", "LARGE"})
+    public String payloadSize;
+
+    private ConfigurableApplicationContext context;
+    private SoapAuditLogRepositoryAdapter jpaAdapter;
+    private CopySoapAuditLogRepositoryAdapter copyAdapter;
+    private R2dbcSoapAuditLogRepositoryAdapter r2dbcAdapter;
+    private JdbcTemplate jdbcTemplate;
+    private String responsePayload;
+    private List<SoapAuditLogEntity> batch;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(PokemonSoapServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=" + System.getProperty("benchmark.postgres.url",
+                                "jdbc:postgresql://localhost:5432/pokemon"),
+                        "--spring.datasource.username=" + System.getProperty("benchmark.postgres.user", "pokemon"),
+                        "--spring.datasource.password=" + System.getProperty("benchmark.postgres.password", "pokemon"),
+                        "--spring.jpa.show-sql=false");
+        jpaAdapter = context.getBean(SoapAuditLogRepositoryAdapter.class);
+        copyAdapter = new CopySoapAuditLogRepositoryAdapter(context.getBean(DataSource.class), jpaAdapter,
+                context.getBean(AuditPayloadStore.class), context.getBean(DateTimeUtils.class), new SimpleMeterRegistry());
+        r2dbcAdapter = new R2dbcSoapAuditLogRepositoryAdapter(jpaAdapter, context.getBean(AuditPayloadStore.class),
+                context.getBean(DateTimeUtils.class), new SimpleMeterRegistry(),
+                System.getProperty("benchmark.r2dbc.url", "r2dbc:postgresql://localhost:5432/pokemon"),
+                System.getProperty("benchmark.postgres.user", "pokemon"),
+                System.getProperty("benchmark.postgres.password", "pokemon"), 2, Duration.ofSeconds(30));
+        jdbcTemplate = new JdbcTemplate(context.getBean(DataSource.class));
+        responsePayload = "LARGE".equals(payloadSize) ? PAYLOAD.repeat(40) : PAYLOAD;
+    }
+
+    @Setup(Level.Invocation)
+    public void newBatch() {
+        // Entidades nuevas en cada invocación: JPA asigna el id sobre la instancia
+        batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            batch.add(SoapAuditLogEntity.builder()
+                    .ipOrigin("192.168.1.100")
+                    .soapMethod("GetPokemonAbilitiesRequest")
+                    .durationMs(12L)
+                    .requestPayload(PAYLOAD)
+                    .responsePayload(responsePayload)
+                    .status(RequestStatus.SUCCESS)
+                    .endpointClass("PokemonEndpoint")
+                    .build());
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void truncate() {
+        jdbcTemplate.execute("TRUNCATE TABLE soap_audit_log");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        r2dbcAdapter.close();
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void jpaBatchedInsert() {
+        jpaAdapter.saveAll(batch);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void copyBinary() {
+        copyAdapter.saveAll(batch);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void r2dbcPipelined() {
+        r2dbcAdapter.saveAll(batch);
+    }
+}
@@ -0,0 +1,239 @@
+package com.bankaya.pokemon.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.parsers.SAXParserFactory;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.ws.context.DefaultMessageContext;
+import org.springframework.ws.context.MessageContext;
+import org.springframework.ws.soap.saaj.SaajSoapMessage;
+import org.springframework.ws.transport.TransportInputStream;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
+
+import com.bankaya.pokemon.infrastructure.adapter.soap.FastInfosetSoapMessageFactory;
+import com.bankaya.pokemon.infrastructure.adapter.soap.PokemonEndpoint;
+import com.bankaya.pokemon.infrastructure.adapter.soap.PooledJaxbPayloadMethodProcessor;
+import com.bankaya.pokemon.infrastructure.utils.FastInfosetUtils;
+import com.bankaya.pokemon.soap.Ability;
+import com.bankaya.pokemon.soap.GetPokemonAbilitiesResponse;
+import com.bankaya.pokemon.soap.GetPokemonHeldItemsResponse;
+import com.bankaya.pokemon.soap.HeldItem;
+import com.bankaya.pokemon.soap.PokemonNameRequest;
+import com.sun.xml.fastinfoset.sax.SAXDocumentSerializer;
+
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.soap.SOAPBody;
+
+/**
+ * Fast Infoset vs text SOAP microbenchmark
+ * Server-side cost of writing the abilities and held-items responses as text XML versus
+ * Fast Infoset written natively by SAAJ (FastInfosetSoapMessageFactory), plus the cost of
+ * parsing an incoming request in each encoding. Payload sizes are reported as the
+ * "bytes" secondary metric of each benchmark.
+ * Run with: ./gradlew jmh -PjmhIncludes=FastInfosetBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FastInfosetBenchmark {
+
+    private static final byte[] REQUEST = """
+            <soapenv:Envelope xmlns:soapenv="http://schemas.xmlsoap.org/soap/envelope/">
+                <soapenv:Body>
+                    <GetPokemonAbilitiesRequest xmlns="http://bankaya.com/pokemon/soap">
+                        <name>pikachu</name>
+                    </GetPokemonAbilitiesRequest>
+                </soapenv:Body>
+            </soapenv:Envelope>
+            """.getBytes(StandardCharsets.UTF_8);
+
+    @Param({"ABILITIES", "HELD_ITEMS"})
+    public String operation;
+
+    private FastInfosetSoapMessageFactory messageFactory;
+    private PooledJaxbPayloadMethodProcessor processor;
+    private MethodParameter responseType;
+    private Object response;
+    private byte[] fastInfosetRequest;
+    private ServletRequestAttributes textClient;
+    private ServletRequestAttributes fastInfosetClient;
+
+    /**
+     * Encoded size of the last payload produced by the benchmark thread
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class PayloadSize {
+        public long bytes;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        messageFactory = new FastInfosetSoapMessageFactory();
+        messageFactory.afterPropertiesSet();
+        processor = new PooledJaxbPayloadMethodProcessor(
+                JAXBContext.newInstance("com.bankaya.pokemon.soap"), "com.bankaya.pokemon.soap", 8);
+        fastInfosetRequest = encode(REQUEST);
+        textClient = client("text/xml");
+        fastInfosetClient = client(FastInfosetUtils.CONTENT_TYPE);
+
+        if ("ABILITIES".equals(operation)) {
+            Method method = PokemonEndpoint.class.getMethod("getPokemonAbilities", PokemonNameRequest.class);
+            responseType = new MethodParameter(method, -1);
+            GetPokemonAbilitiesResponse abilities = new GetPokemonAbilitiesResponse();
+            abilities.getAbilities().add(ability("static", "https://pokeapi.co/api/v2/ability/9/", false, 1));
+            abilities.getAbilities().add(ability("lightning-rod", "https://pokeapi.co/api/v2/ability/31/", true, 3));
+            response = abilities;
+        } else {
+            Method method = PokemonEndpoint.class.getMethod("getPokemonHeldItems", PokemonNameRequest.class);
+            responseType = new MethodParameter(method, -1);
+            GetPokemonHeldItemsResponse heldItems = new GetPokemonHeldItemsResponse();
+            heldItems.getHeldItems().add(heldItem("oran-berry", "https://pokeapi.co/api/v2/item/132/"));
+            heldItems.getHeldItems().add(heldItem("light-ball", "https://pokeapi.co/api/v2/item/213/"));
+            heldItems.getHeldItems().add(heldItem("sitrus-berry", "https://pokeapi.co/api/v2/item/135/"));
+            response = heldItems;
+        }
+    }
+
+    @Benchmark
+    public byte[] textXmlResponse(PayloadSize size) throws Exception {
+        byte[] xml = writeResponse(textClient);
+        size.bytes = xml.length;
+        return xml;
+    }
+
+    @Benchmark
+    public byte[] fastInfosetResponse(PayloadSize size) throws Exception {
+        byte[] fastInfoset = writeResponse(fastInfosetClient);
+        size.bytes = fastInfoset.length;
+        return fastInfoset;
+    }
+
+    @Benchmark
+    public SOAPBody textXmlRequestParsing(PayloadSize size) throws Exception {
+        size.bytes = REQUEST.length;
+        return parseRequest(REQUEST, "text/xml;charset=UTF-8");
+    }
+
+    @Benchmark
+    public SOAPBody fastInfosetRequestParsing(PayloadSize size) throws Exception {
+        size.bytes = fastInfosetRequest.length;
+        return parseRequest(fastInfosetRequest, FastInfosetUtils.CONTENT_TYPE);
+    }
+
+    private byte[] writeResponse(ServletRequestAttributes client) throws Exception {
+        RequestContextHolder.setRequestAttributes(client);
+        try {
+            MessageContext context = new DefaultMessageContext(
+                    messageFactory.createWebServiceMessage(new ByteArrayInputStream(REQUEST)), messageFactory);
+            processor.handleReturnValue(context, responseType, response);
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream(1024);
+            context.getResponse().writeTo(out);
+            return out.toByteArray();
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+
+    /**
+     * SAAJ parses lazily: reading the body forces the whole envelope to be parsed
+     */
+    private SOAPBody parseRequest(byte[] body, String contentType) throws Exception {
+        SaajSoapMessage message = messageFactory.createWebServiceMessage(new HttpInputStream(body, contentType));
+        return message.getSaajMessage().getSOAPBody();
+    }
+
+    /**
+     * Encodes the request as a Fast Infoset client would (the service itself only decodes)
+     */
+    private static byte[] encode(byte[] xml) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        SAXDocumentSerializer serializer = new SAXDocumentSerializer();
+        serializer.setOutputStream(out);
+        SAXParserFactory factory = SAXParserFactory.newInstance();
+        factory.setNamespaceAware(true);
+        XMLReader reader = factory.newSAXParser().getXMLReader();
+        reader.setContentHandler(serializer);
+        reader.setProperty("http://xml.org/sax/properties/lexical-handler", serializer);
+        reader.parse(new InputSource(new ByteArrayInputStream(xml)));
+        return out.toByteArray();
+    }
+
+    private static ServletRequestAttributes client(String accept) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/pokemon/ws");
+        request.addHeader(HttpHeaders.ACCEPT, accept);
+        return new ServletRequestAttributes(request, new MockHttpServletResponse());
+    }
+
+    private static Ability ability(String name, String url, boolean hidden, int slot) {
+        Ability ability = new Ability();
+        ability.setName(name);
+        ability.setUrl(url);
+        ability.setIsHidden(hidden);
+        ability.setSlot(slot);
+        return ability;
+    }
+
+    private static HeldItem heldItem(String name, String url) {
+        HeldItem heldItem = new HeldItem();
+        heldItem.setName(name);
+        heldItem.setUrl(url);
+        return heldItem;
+    }
+
+    /**
+     * Request body with its Content-Type, as the HTTP transport hands it to the message factory
+     */
+    private static final class HttpInputStream extends TransportInputStream {
+
+        private final byte[] body;
+        private final String contentType;
+
+        private HttpInputStream(byte[] body, String contentType) {
+            this.body = body;
+            this.contentType = contentType;
+        }
+
+        @Override
+        protected InputStream createInputStream() {
+            return new ByteArrayInputStream(body);
+        }
+
+        @Override
+        public Iterator<String> getHeaderNames() {
+            return Collections.singletonList(HttpHeaders.CONTENT_TYPE).iterator();
+        }
+
+        @Override
+        public Iterator<String> getHeaders(String name) {
+            return HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(name)
+                    ? Collections.singletonList(contentType).iterator()
+                    : Collections.emptyIterator();
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.bankaya.pokemon.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.core.MethodParameter;
+import org.springframework.ws.context.DefaultMessageContext;
+import org.springframework.ws.context.MessageContext;
+import org.springframework.ws.server.endpoint.adapter.method.jaxb.XmlRootElementPayloadMethodProcessor;
+import org.springframework.ws.soap.saaj.SaajSoapMessageFactory;
+
+import com.bankaya.pokemon.infrastructure.adapter.soap.PokemonEndpoint;
+import com.bankaya.pokemon.infrastructure.adapter.soap.PooledJaxbPayloadMethodProcessor;
+import com.bankaya.pokemon.soap.Ability;
+import com.bankaya.pokemon.soap.GetPokemonAbilitiesResponse;
+import com.bankaya.pokemon.soap.PokemonNameRequest;
+
+import jakarta.xml.bind.JAXBContext;
+
+/**
+ * JAXB marshalling microbenchmark
+ * Compares Spring WS's default XmlRootElementPayloadMethodProcessor (lazy context,
+ * marshaller created per call) with the pooled processor used by the SOAP endpoint,
+ * unmarshalling a GetPokemonAbilitiesRequest and marshalling its response.
+ * Run with: ./gradlew jmh -PjmhIncludes=JaxbMarshallingBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JaxbMarshallingBenchmark {
+
+    private static final byte[] REQUEST = """
+            <soapenv:Envelope xmlns:soapenv="http://schemas.xmlsoap.org/soap/envelope/">
+                <soapenv:Body>
+                    <GetPokemonAbilitiesRequest xmlns="http://bankaya.com/pokemon/soap">
+                        <name>pikachu</name>
+                    </GetPokemonAbilitiesRequest>
+                </soapenv:Body>
+            </soapenv:Envelope>
+            """.getBytes(StandardCharsets.UTF_8);
+
+    private SaajSoapMessageFactory messageFactory;
+    private MethodParameter requestParameter;
+    private MethodParameter responseType;
+    private GetPokemonAbilitiesResponse response;
+
+    private XmlRootElementPayloadMethodProcessor defaultProcessor;
+    private PooledJaxbPayloadMethodProcessor pooledProcessor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        messageFactory = new SaajSoapMessageFactory();
+        messageFactory.afterPropertiesSet();
+
+        Method method = PokemonEndpoint.class.getMethod("getPokemonAbilities", PokemonNameRequest.class);
+        requestParameter = new MethodParameter(method, 0);
+        responseType = new MethodParameter(method, -1);
+
+        response = new GetPokemonAbilitiesResponse();
+        response.getAbilities().add(ability("static", "https://pokeapi.co/api/v2/ability/9/", false, 1));
+        response.getAbilities().add(ability("lightning-rod", "https://pokeapi.co/api/v2/ability/31/", true, 3));
+
+        defaultProcessor = new XmlRootElementPayloadMethodProcessor();
+        pooledProcessor = new PooledJaxbPayloadMethodProcessor(
+                JAXBContext.newInstance("com.bankaya.pokemon.soap"), "com.bankaya.pokemon.soap", 8);
+    }
+
+    @Benchmark
+    public Object defaultProcessor() throws Exception {
+        MessageContext context = newMessageContext();
+        Object request = defaultProcessor.resolveArgument(context, requestParameter);
+        defaultProcessor.handleReturnValue(context, responseType, response);
+        return request;
+    }
+
+    @Benchmark
+    public Object pooledProcessor() throws Exception {
+        MessageContext context = newMessageContext();
+        Object request = pooledProcessor.resolveArgument(context, requestParameter);
+        pooledProcessor.handleReturnValue(context, responseType, response);
+        return request;
+    }
+
+    /**
+     * First request served by a freshly started default processor: includes the lazy JAXBContext creation
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    public Object defaultProcessorFirstRequest() throws Exception {
+        XmlRootElementPayloadMethodProcessor coldProcessor = new XmlRootElementPayloadMethodProcessor();
+        MessageContext context = newMessageContext();
+        Object request = coldProcessor.resolveArgument(context, requestParameter);
+        coldProcessor.handleReturnValue(context, responseType, response);
+        return request;
+    }
+
+    private MessageContext newMessageContext() throws Exception {
+        return new DefaultMessageContext(
+                messageFactory.createWebServiceMessage(new ByteArrayInputStream(REQUEST)), messageFactory);
+    }
+
+    private static Ability ability(String name, String url, boolean hidden, int slot) {
+        Ability ability = new Ability();
+        ability.setName(name);
+        ability.setUrl(url);
+        ability.setIsHidden(hidden);
+        ability.setSlot(slot);
+        return ability;
+    }
+}
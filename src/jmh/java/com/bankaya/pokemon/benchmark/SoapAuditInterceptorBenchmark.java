@@ -0,0 +1,145 @@
+package com.bankaya.pokemon.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.config.Configurator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.ws.context.DefaultMessageContext;
+import org.springframework.ws.context.MessageContext;
+import org.springframework.ws.server.endpoint.MethodEndpoint;
+import org.springframework.ws.soap.saaj.SaajSoapMessageFactory;
+
+import com.bankaya.pokemon.domain.model.AuditRollup;
+import com.bankaya.pokemon.domain.model.SoapAuditLog;
+import com.bankaya.pokemon.domain.ports.AuditRollupRepositoryPort;
+import com.bankaya.pokemon.infrastructure.adapter.soap.PokemonEndpoint;
+import com.bankaya.pokemon.infrastructure.audit.AuditPipeline;
+import com.bankaya.pokemon.infrastructure.audit.AuditRollupAggregator;
+import com.bankaya.pokemon.infrastructure.audit.AuditSinkChannel;
+import com.bankaya.pokemon.infrastructure.audit.AuditSpool;
+import com.bankaya.pokemon.infrastructure.audit.OverflowPolicy;
+import com.bankaya.pokemon.infrastructure.audit.WaitStrategy;
+import com.bankaya.pokemon.infrastructure.filter.SoapPayloadCaptureFilter;
+import com.bankaya.pokemon.infrastructure.interceptor.SoapAuditInterceptor;
+import com.bankaya.pokemon.infrastructure.utils.DateTimeUtils;
+import com.bankaya.pokemon.soap.PokemonNameRequest;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * SoapAuditInterceptor microbenchmark
+ * One audited SOAP exchange as in production: SoapPayloadCaptureFilter tees the HTTP bytes
+ * and the interceptor runs handleRequest, handleResponse and afterCompletion for a
+ * PokemonEndpoint method, behind X-Forwarded-For. The audit pipeline is not started, so the
+ * record is handed to a no-op handler on the benchmark thread; interceptor logging is
+ * raised to WARN so console output is not measured.
+ * Run with: ./gradlew jmh -PjmhIncludes=SoapAuditInterceptorBenchmark
+ * (add -prof gc through jmh.profilers to see the allocation rate per exchange)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SoapAuditInterceptorBenchmark {
+
+    private static final byte[] REQUEST = """
+            <soapenv:Envelope xmlns:soapenv="http://schemas.xmlsoap.org/soap/envelope/">
+                <soapenv:Body>
+                    <GetPokemonIdRequest xmlns="http://bankaya.com/pokemon/soap">
+                        <name>pikachu</name>
+                    </GetPokemonIdRequest>
+                </soapenv:Body>
+            </soapenv:Envelope>
+            """.getBytes(StandardCharsets.UTF_8);
+
+    private SoapAuditInterceptor interceptor;
+    private SoapPayloadCaptureFilter captureFilter;
+    private MessageContext messageContext;
+    private MethodEndpoint endpoint;
+    private MockHttpServletRequest httpRequest;
+    private MockHttpServletResponse httpResponse;
+    private FilterChain exchange;
+    private volatile SoapAuditLog lastAuditLog;
+
+    @Setup
+    public void setUp() throws Exception {
+        Configurator.setLevel(SoapAuditInterceptor.class.getName(), Level.WARN);
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AuditSpool spool = new AuditSpool(Files.createTempDirectory("audit-spool"), 1 << 20, 2, meterRegistry);
+        AuditPipeline pipeline = new AuditPipeline(
+                List.of(new AuditSinkChannel("benchmark", batch -> lastAuditLog = batch.get(0), spool)), 1024, 50, 200,
+                WaitStrategy.PARKING, OverflowPolicy.BLOCK, 0, meterRegistry);
+        DateTimeUtils dateTimeUtils = new DateTimeUtils("America/Mexico_City");
+        AuditRollupAggregator rollupAggregator = new AuditRollupAggregator(new NoOpRollupRepository(), dateTimeUtils,
+                meterRegistry, Duration.ofDays(90));
+        interceptor = new SoapAuditInterceptor(pipeline, rollupAggregator, dateTimeUtils);
+        captureFilter = new SoapPayloadCaptureFilter(4, 64 * 1024);
+
+        SaajSoapMessageFactory messageFactory = new SaajSoapMessageFactory();
+        messageFactory.afterPropertiesSet();
+        messageContext = new DefaultMessageContext(
+                messageFactory.createWebServiceMessage(new ByteArrayInputStream(REQUEST)), messageFactory);
+        Method method = PokemonEndpoint.class.getMethod("getPokemonId", PokemonNameRequest.class);
+        endpoint = new MethodEndpoint(new PokemonEndpoint(null), method);
+
+        httpRequest = new MockHttpServletRequest("POST", "/ws");
+        httpRequest.setRemoteAddr("127.0.0.1");
+        httpRequest.addHeader("X-Forwarded-For", "10.0.0.1, 10.0.0.2");
+        httpResponse = new MockHttpServletResponse();
+        exchange = (request, response) -> {
+            // MessageDispatcherServlet expone la petición envuelta por el filtro
+            RequestContextHolder.setRequestAttributes(new ServletRequestAttributes((HttpServletRequest) request));
+            interceptor.handleRequest(messageContext, endpoint);
+            interceptor.handleResponse(messageContext, endpoint);
+            interceptor.afterCompletion(messageContext, endpoint, null);
+            RequestContextHolder.resetRequestAttributes();
+        };
+    }
+
+    @Benchmark
+    public SoapAuditLog auditedExchange() throws Exception {
+        captureFilter.doFilter(httpRequest, httpResponse, exchange);
+        return lastAuditLog;
+    }
+
+    /**
+     * Rollups are never flushed during the benchmark
+     */
+    private static final class NoOpRollupRepository implements AuditRollupRepositoryPort {
+
+        @Override
+        public void saveAll(List<AuditRollup> rollups) {
+        }
+
+        @Override
+        public List<AuditRollup> find(LocalDateTime from, LocalDateTime to, String soapMethod) {
+            return List.of();
+        }
+
+        @Override
+        public int deleteBefore(LocalDateTime cutoff) {
+            return 0;
+        }
+    }
+}
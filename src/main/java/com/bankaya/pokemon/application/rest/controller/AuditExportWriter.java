@@ -0,0 +1,161 @@
+package com.bankaya.pokemon.application.rest.controller;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+import com.bankaya.pokemon.application.rest.dto.AuditSearchResponses.AuditLogDTO;
+import com.bankaya.pokemon.domain.exception.BadRequestException;
+import com.bankaya.pokemon.domain.model.PhaseTimings;
+import com.bankaya.pokemon.domain.model.SoapAuditLog;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * Audit Export Writer
+ * Serializes exported audit logs one at a time, nothing is kept between rows:
+ * NDJSON (one AuditLogDTO JSON object per line) or RFC 4180 CSV with a header row
+ */
+abstract class AuditExportWriter {
+
+    private static final String[] CSV_COLUMNS = {"id", "request_date", "ip_origin", "soap_method", "status",
+            "duration_ms", "error_message", "endpoint_class", "parse_us", "cache_us", "upstream_us", "marshal_us",
+            "audit_us"};
+    private static final String[] CSV_PAYLOAD_COLUMNS = {"request_payload", "response_payload"};
+
+    protected final OutputStream out;
+
+    private AuditExportWriter(OutputStream out) {
+        this.out = out;
+    }
+
+    static AuditExportWriter of(Format format, OutputStream out, ObjectWriter jsonWriter, boolean payloads)
+            throws IOException {
+        return format == Format.NDJSON ? new Ndjson(out, jsonWriter) : new Csv(out, payloads);
+    }
+
+    abstract void write(SoapAuditLog auditLog) throws IOException;
+
+    /**
+     * Export format
+     */
+    enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        String contentType() {
+            return contentType;
+        }
+
+        String extension() {
+            return extension;
+        }
+
+        static Format parse(String value) {
+            try {
+                return valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException("format must be ndjson or csv");
+            }
+        }
+    }
+
+    private static final class Ndjson extends AuditExportWriter {
+
+        private final ObjectWriter jsonWriter;
+
+        private Ndjson(OutputStream out, ObjectWriter jsonWriter) {
+            super(out);
+            this.jsonWriter = jsonWriter;
+        }
+
+        @Override
+        void write(SoapAuditLog auditLog) throws IOException {
+            out.write(jsonWriter.writeValueAsBytes(AuditLogDTO.from(auditLog)));
+            out.write('\n');
+        }
+    }
+
+    private static final class Csv extends AuditExportWriter {
+
+        private final boolean payloads;
+        private final StringBuilder line = new StringBuilder(256);
+        private int fields;
+
+        private Csv(OutputStream out, boolean payloads) throws IOException {
+            super(out);
+            this.payloads = payloads;
+            for (String column : CSV_COLUMNS) {
+                field(column);
+            }
+            if (payloads) {
+                for (String column : CSV_PAYLOAD_COLUMNS) {
+                    field(column);
+                }
+            }
+            endLine();
+        }
+
+        @Override
+        void write(SoapAuditLog auditLog) throws IOException {
+            field(auditLog.getId());
+            field(auditLog.getRequestDate());
+            field(auditLog.getIpOrigin());
+            field(auditLog.getSoapMethod());
+            field(auditLog.getStatus());
+            field(auditLog.getDurationMs());
+            field(auditLog.getErrorMessage());
+            field(auditLog.getEndpointClass());
+            PhaseTimings phaseTimings = auditLog.getPhaseTimings();
+            field(phaseTimings != null ? phaseTimings.parseUs() : null);
+            field(phaseTimings != null ? phaseTimings.cacheUs() : null);
+            field(phaseTimings != null ? phaseTimings.upstreamUs() : null);
+            field(phaseTimings != null ? phaseTimings.marshalUs() : null);
+            field(phaseTimings != null ? phaseTimings.auditUs() : null);
+            if (payloads) {
+                field(auditLog.getRequestPayload());
+                field(auditLog.getResponsePayload());
+            }
+            endLine();
+        }
+
+        private void field(Object value) {
+            if (fields++ > 0) {
+                line.append(',');
+            }
+            if (value == null) {
+                return;
+            }
+            String text = value.toString();
+            // Comillas solo cuando el valor contiene separadores, comillas o saltos de línea
+            if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+                line.append(text);
+                return;
+            }
+            line.append('"');
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (c == '"') {
+                    line.append('"');
+                }
+                line.append(c);
+            }
+            line.append('"');
+        }
+
+        private void endLine() throws IOException {
+            line.append("\r\n");
+            out.write(line.toString().getBytes(StandardCharsets.UTF_8));
+            line.setLength(0);
+            fields = 0;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.bankaya.pokemon.application.rest.controller;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.bankaya.pokemon.application.service.AuditRollupService;
+import com.bankaya.pokemon.domain.model.AuditRollupSummary;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Audit Rollup REST Controller
+ * Request volume and latency percentiles per SOAP method from the per-minute rollups
+ */
+@Tag(name = "Audit Rollup API", description = "SOAP request counts and latency percentiles from per-minute rollups")
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/audit")
+public class AuditRollupController {
+
+    private final AuditRollupService auditRollupService;
+
+    @Operation(
+            summary = "SOAP request rollups",
+            description = """
+                    Returns request counts per status and latency percentiles (ms) per SOAP method,
+                    for the time range (default: last hour) split into steps of step_minutes
+                    (0: a single step covering the whole range).
+                    Built from per-minute rollups, never from the raw audit table.
+                    """
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Rollups computed",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            array = @ArraySchema(schema = @Schema(implementation = AuditRollupSummary.class))
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Bad request - invalid range or step",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE)
+            )
+    })
+    @GetMapping("/rollups")
+    public List<AuditRollupSummary> getRollups(
+            @Parameter(description = "Inclusive start of the range (ISO date-time)", example = "2025-01-15T10:00:00")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Exclusive end of the range (ISO date-time)", example = "2025-01-15T11:00:00")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @Parameter(description = "SOAP operation", example = "GetPokemonAbilitiesRequest")
+            @RequestParam(name = "soap_method", required = false) String soapMethod,
+            @Parameter(description = "Step size in minutes, 0 for the whole range", example = "5")
+            @RequestParam(name = "step_minutes", defaultValue = "0") int stepMinutes) {
+        return auditRollupService.summarize(from, to, soapMethod, stepMinutes);
+    }
+}
@@ -0,0 +1,214 @@
+package com.bankaya.pokemon.application.rest.controller;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.bankaya.pokemon.application.rest.dto.AuditSearchResponses.AuditLogDTO;
+import com.bankaya.pokemon.application.rest.dto.AuditSearchResponses.AuditLogPage;
+import com.bankaya.pokemon.application.service.AuditSearchService;
+import com.bankaya.pokemon.domain.model.AuditCursor;
+import com.bankaya.pokemon.domain.model.AuditPage;
+import com.bankaya.pokemon.domain.model.AuditSearchCriteria;
+import com.bankaya.pokemon.domain.model.SoapAuditLog;
+import com.bankaya.pokemon.infrastructure.adapter.enums.RequestStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Audit Search REST Controller
+ * Read API over soap_audit_log for debugging clients without ad-hoc SQL, and bulk
+ * exports streamed row by row from a database cursor to the response
+ */
+@Log4j2
+@Tag(name = "Audit Search API", description = "Search SOAP audit logs with keyset (cursor) pagination")
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/audit")
+public class AuditSearchController {
+
+    private static final int EXPORT_BUFFER_SIZE = 64 * 1024;
+
+    private final AuditSearchService auditSearchService;
+    private final ObjectMapper objectMapper;
+
+    @Operation(
+            summary = "Search SOAP audit logs",
+            description = """
+                    Returns audit logs newest first, filtered by time range (default: last 24 hours),
+                    SOAP method, status, client IP and minimum duration.
+                    Pass the returned next_cursor as cursor to fetch the following page.
+                    Payloads are only returned with include_payloads=true.
+                    """
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Audit logs found",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = AuditLogPage.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Bad request - invalid range, limit or cursor",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE)
+            )
+    })
+    @GetMapping("/logs")
+    public AuditLogPage searchLogs(
+            @Parameter(description = "Inclusive start of the request date range (ISO date-time)", example = "2025-01-15T00:00:00")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Exclusive end of the request date range (ISO date-time)", example = "2025-01-16T00:00:00")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @Parameter(description = "SOAP operation", example = "GetPokemonAbilitiesRequest")
+            @RequestParam(name = "soap_method", required = false) String soapMethod,
+            @Parameter(description = "Request status")
+            @RequestParam(required = false) RequestStatus status,
+            @Parameter(description = "Client IP address", example = "10.0.0.1")
+            @RequestParam(name = "ip_origin", required = false) String ipOrigin,
+            @Parameter(description = "Minimum duration in milliseconds", example = "500")
+            @RequestParam(name = "min_duration_ms", required = false) Long minDurationMs,
+            @Parameter(description = "next_cursor of the previous page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (1-500)", example = "50")
+            @RequestParam(defaultValue = "50") int limit,
+            @Parameter(description = "Include the SOAP request/response envelopes")
+            @RequestParam(name = "include_payloads", defaultValue = "false") boolean includePayloads) {
+        AuditPage page = auditSearchService.search(AuditSearchCriteria.builder()
+                .from(from)
+                .to(to)
+                .soapMethod(soapMethod)
+                .status(status)
+                .ipOrigin(ipOrigin)
+                .minDurationMs(minDurationMs)
+                .after(cursor != null ? AuditCursor.decode(cursor) : null)
+                .limit(limit)
+                .includePayloads(includePayloads)
+                .build());
+        return new AuditLogPage(
+                page.items().stream().map(AuditLogDTO::from).toList(),
+                page.nextCursor() != null ? page.nextCursor().encode() : null);
+    }
+
+    @Operation(
+            summary = "Export SOAP audit logs",
+            description = """
+                    Streams every audit log of the time range (default: last 24 hours) oldest first,
+                    as NDJSON (one JSON object per line) or CSV with a header row, optionally gzip-compressed.
+                    Same filters as the search, without pagination. Rows are read from a database cursor
+                    and written as they arrive; closing the connection cancels the export.
+                    With archived=true the rows come from the archive of aged rows instead of the database.
+                    """
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Audit logs exported",
+                    content = {
+                            @Content(mediaType = "application/x-ndjson"),
+                            @Content(mediaType = "text/csv"),
+                            @Content(mediaType = "application/gzip")
+                    }
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Bad request - invalid range or format",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE)
+            )
+    })
+    @GetMapping("/logs/export")
+    public void exportLogs(
+            @Parameter(description = "Inclusive start of the request date range (ISO date-time)", example = "2025-01-15T00:00:00")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Exclusive end of the request date range (ISO date-time)", example = "2025-01-16T00:00:00")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @Parameter(description = "SOAP operation", example = "GetPokemonAbilitiesRequest")
+            @RequestParam(name = "soap_method", required = false) String soapMethod,
+            @Parameter(description = "Request status")
+            @RequestParam(required = false) RequestStatus status,
+            @Parameter(description = "Client IP address", example = "10.0.0.1")
+            @RequestParam(name = "ip_origin", required = false) String ipOrigin,
+            @Parameter(description = "Minimum duration in milliseconds", example = "500")
+            @RequestParam(name = "min_duration_ms", required = false) Long minDurationMs,
+            @Parameter(description = "Export format: ndjson or csv", example = "csv")
+            @RequestParam(defaultValue = "ndjson") String format,
+            @Parameter(description = "Compress the export with gzip")
+            @RequestParam(defaultValue = "false") boolean gzip,
+            @Parameter(description = "Include the SOAP request/response envelopes")
+            @RequestParam(name = "include_payloads", defaultValue = "false") boolean includePayloads,
+            @Parameter(description = "Read the archive of aged rows instead of the database")
+            @RequestParam(defaultValue = "false") boolean archived,
+            HttpServletResponse response) throws IOException {
+        // Validación antes de escribir cabeceras: un 400 aún es posible
+        AuditExportWriter.Format exportFormat = AuditExportWriter.Format.parse(format);
+        AuditSearchCriteria criteria = auditSearchService.withRange(AuditSearchCriteria.builder()
+                .from(from)
+                .to(to)
+                .soapMethod(soapMethod)
+                .status(status)
+                .ipOrigin(ipOrigin)
+                .minDurationMs(minDurationMs)
+                .includePayloads(includePayloads)
+                .build());
+
+        String filename = "soap-audit-log." + exportFormat.extension() + (gzip ? ".gz" : "");
+        response.setContentType(gzip ? "application/gzip" : exportFormat.contentType() + ";charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(filename).build().toString());
+
+        long[] rows = {0};
+        OutputStream body = gzip
+                ? new GZIPOutputStream(response.getOutputStream(), EXPORT_BUFFER_SIZE)
+                : response.getOutputStream();
+        try (OutputStream out = new BufferedOutputStream(body, EXPORT_BUFFER_SIZE)) {
+            ObjectWriter jsonWriter = objectMapper.writer();
+            AuditExportWriter writer = AuditExportWriter.of(exportFormat, out, jsonWriter, includePayloads);
+            Consumer<SoapAuditLog> sink = auditLog -> {
+                try {
+                    writer.write(auditLog);
+                    rows[0]++;
+                } catch (IOException e) {
+                    // Cliente desconectado: la excepción cierra el cursor y cancela la consulta
+                    throw new UncheckedIOException(e);
+                }
+            };
+            if (archived) {
+                auditSearchService.exportArchived(criteria, sink);
+            } else {
+                auditSearchService.export(criteria, sink);
+            }
+        } catch (UncheckedIOException e) {
+            log.info("Audit export aborted after {} rows: {}", rows[0], e.getCause().getMessage());
+            throw e.getCause();
+        }
+        log.info("Audit export finished: {} rows, format {}, gzip {}, archived {}", rows[0], exportFormat, gzip, archived);
+    }
+}
@@ -0,0 +1,89 @@
+package com.bankaya.pokemon.application.rest.dto;
+
+import com.bankaya.pokemon.domain.model.PhaseTimings;
+import com.bankaya.pokemon.domain.model.SoapAuditLog;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * DTOs for the audit search REST endpoint
+ */
+public class AuditSearchResponses {
+
+    private AuditSearchResponses() {
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @Schema(description = "SOAP audit log entry")
+    public static class AuditLogDTO {
+        @Schema(description = "Audit log id", example = "1051")
+        private Long id;
+
+        @Schema(description = "Request date", example = "2025-01-15T10:30:45.123")
+        private LocalDateTime requestDate;
+
+        @Schema(description = "Client IP address", example = "10.0.0.1")
+        private String ipOrigin;
+
+        @Schema(description = "SOAP operation", example = "GetPokemonAbilitiesRequest")
+        private String soapMethod;
+
+        @Schema(description = "Request status", example = "SUCCESS")
+        private String status;
+
+        @Schema(description = "Duration in milliseconds", example = "42")
+        private Long durationMs;
+
+        @Schema(description = "Error message (ERROR/FAULT only)")
+        private String errorMessage;
+
+        @Schema(description = "Endpoint class", example = "PokemonEndpoint")
+        private String endpointClass;
+
+        @Schema(description = "Time per request phase in microseconds (absent for untimed requests)")
+        private PhaseTimings phaseTimings;
+
+        @Schema(description = "SOAP request envelope (only with include_payloads=true)")
+        private String requestPayload;
+
+        @Schema(description = "SOAP response envelope (only with include_payloads=true)")
+        private String responsePayload;
+
+        public static AuditLogDTO from(SoapAuditLog auditLog) {
+            return new AuditLogDTO(
+                    auditLog.getId(),
+                    auditLog.getRequestDate(),
+                    auditLog.getIpOrigin(),
+                    auditLog.getSoapMethod(),
+                    auditLog.getStatus() != null ? auditLog.getStatus().name() : null,
+                    auditLog.getDurationMs(),
+                    auditLog.getErrorMessage(),
+                    auditLog.getEndpointClass(),
+                    auditLog.getPhaseTimings(),
+                    auditLog.getRequestPayload(),
+                    auditLog.getResponsePayload());
+        }
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(description = "Page of SOAP audit log entries, newest first")
+    public static class AuditLogPage {
+        @Schema(description = "Audit log entries")
+        private List<AuditLogDTO> items;
+
+        @Schema(description = "Cursor of the next page, absent on the last page", example = "MjAyNS0wMS0xNVQxMDozMDo0NS4xMjN8MTA1MQ")
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        private String nextCursor;
+    }
+}
@@ -0,0 +1,89 @@
+package com.bankaya.pokemon.application.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.HdrHistogram.Histogram;
+import org.springframework.stereotype.Service;
+
+import com.bankaya.pokemon.domain.exception.BadRequestException;
+import com.bankaya.pokemon.domain.model.AuditRollup;
+import com.bankaya.pokemon.domain.model.AuditRollupSummary;
+import com.bankaya.pokemon.domain.ports.AuditRollupRepositoryPort;
+import com.bankaya.pokemon.infrastructure.adapter.enums.RequestStatus;
+import com.bankaya.pokemon.infrastructure.utils.DateTimeUtils;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Audit Rollup Service
+ * Answers latency/volume questions ("p99 of GetPokemonAbilitiesRequest over the last hour")
+ * from the per-minute rollups instead of soap_audit_log: the histograms of every minute in a
+ * step are merged, so percentiles keep HDR precision at any step. Minutes are written about
+ * two minutes after they close (AuditRollupAggregator)
+ */
+@Service
+@RequiredArgsConstructor
+public class AuditRollupService {
+
+    private static final Duration DEFAULT_RANGE = Duration.ofHours(1);
+
+    private final AuditRollupRepositoryPort repository;
+    private final DateTimeUtils dateTimeUtils;
+
+    /**
+     * @param stepMinutes size of each result bucket, 0 for a single bucket covering the range
+     * @return one summary per step and SOAP method, ordered by step and method
+     */
+    public List<AuditRollupSummary> summarize(LocalDateTime from, LocalDateTime to, String soapMethod, int stepMinutes) {
+        // Mismo reloj que los buckets (SoapAuditLog.requestDate)
+        LocalDateTime end = to != null ? to : dateTimeUtils.now();
+        LocalDateTime start = from != null ? from : end.minus(DEFAULT_RANGE);
+        if (!start.isBefore(end)) {
+            throw new BadRequestException("from must be before to");
+        }
+        if (stepMinutes < 0) {
+            throw new BadRequestException("step_minutes must be 0 or positive");
+        }
+
+        Map<LocalDateTime, Map<String, Accumulator>> steps = new TreeMap<>();
+        for (AuditRollup rollup : repository.find(start, end, soapMethod)) {
+            LocalDateTime step = stepMinutes == 0
+                    ? start
+                    : start.plusMinutes(Duration.between(start, rollup.getBucketStart()).toMinutes() / stepMinutes * stepMinutes);
+            steps.computeIfAbsent(step, ignored -> new TreeMap<>())
+                    .computeIfAbsent(rollup.getSoapMethod(), ignored -> new Accumulator())
+                    .add(rollup);
+        }
+
+        List<AuditRollupSummary> summaries = new ArrayList<>();
+        steps.forEach((step, methods) -> methods.forEach((method, accumulator) ->
+                summaries.add(accumulator.summary(step, method))));
+        return summaries;
+    }
+
+    private static final class Accumulator {
+        private final Map<RequestStatus, Long> countByStatus = new EnumMap<>(RequestStatus.class);
+        private Histogram latency;
+
+        void add(AuditRollup rollup) {
+            countByStatus.merge(rollup.getStatus(), rollup.getLatency().getTotalCount(), Long::sum);
+            if (latency == null) {
+                latency = rollup.getLatency().copy();
+            } else {
+                latency.add(rollup.getLatency());
+            }
+        }
+
+        AuditRollupSummary summary(LocalDateTime step, String soapMethod) {
+            return new AuditRollupSummary(step, soapMethod, latency.getTotalCount(), countByStatus,
+                    latency.getMean(), latency.getValueAtPercentile(50), latency.getValueAtPercentile(90),
+                    latency.getValueAtPercentile(99), latency.getValueAtPercentile(99.9), latency.getMaxValue());
+        }
+    }
+}
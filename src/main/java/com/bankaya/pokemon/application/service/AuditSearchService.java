@@ -0,0 +1,80 @@
+package com.bankaya.pokemon.application.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.springframework.stereotype.Service;
+
+import com.bankaya.pokemon.domain.exception.BadRequestException;
+import com.bankaya.pokemon.domain.model.AuditCursor;
+import com.bankaya.pokemon.domain.model.AuditPage;
+import com.bankaya.pokemon.domain.model.AuditSearchCriteria;
+import com.bankaya.pokemon.domain.model.SoapAuditLog;
+import com.bankaya.pokemon.domain.ports.AuditArchivePort;
+import com.bankaya.pokemon.domain.ports.SoapAuditLogRepositoryPort;
+import com.bankaya.pokemon.infrastructure.utils.DateTimeUtils;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Audit Search Service
+ * Read side of the audit log: validates the search, bounds it to a time range (the last
+ * 24 hours by default) and pages it with a keyset cursor, so every page costs the same
+ * index range scan however deep the client pages. Exports stream the whole range oldest first,
+ * from the database or from the archive of aged rows
+ */
+@Service
+@RequiredArgsConstructor
+public class AuditSearchService {
+
+    static final int MAX_LIMIT = 500;
+    private static final Duration DEFAULT_RANGE = Duration.ofDays(1);
+
+    private final SoapAuditLogRepositoryPort repository;
+    private final AuditArchivePort archive;
+    private final DateTimeUtils dateTimeUtils;
+
+    public AuditPage search(AuditSearchCriteria criteria) {
+        int limit = criteria.getLimit();
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_LIMIT);
+        }
+
+        // Una fila de más indica si existe una página siguiente
+        List<SoapAuditLog> rows = repository.search(withRange(criteria).withLimit(limit + 1));
+        if (rows.size() <= limit) {
+            return new AuditPage(rows, null);
+        }
+        SoapAuditLog last = rows.get(limit - 1);
+        return new AuditPage(List.copyOf(rows.subList(0, limit)), new AuditCursor(last.getRequestDate(), last.getId()));
+    }
+
+    /**
+     * Streams every matching audit log, oldest first, to the consumer without holding them in memory
+     */
+    public void export(AuditSearchCriteria criteria, Consumer<SoapAuditLog> consumer) {
+        repository.export(withRange(criteria), consumer);
+    }
+
+    /**
+     * Streams every matching archived audit log (rows moved out of the database) to the consumer
+     */
+    public void exportArchived(AuditSearchCriteria criteria, Consumer<SoapAuditLog> consumer) {
+        archive.scan(withRange(criteria), consumer);
+    }
+
+    /**
+     * Validated time range: [from, to), the last 24 hours by default
+     * @throws BadRequestException when from is not before to
+     */
+    public AuditSearchCriteria withRange(AuditSearchCriteria criteria) {
+        LocalDateTime to = criteria.getTo() != null ? criteria.getTo() : dateTimeUtils.now();
+        LocalDateTime from = criteria.getFrom() != null ? criteria.getFrom() : to.minus(DEFAULT_RANGE);
+        if (!from.isBefore(to)) {
+            throw new BadRequestException("from must be before to");
+        }
+        return criteria.withFrom(from).withTo(to);
+    }
+}
@@ -1,20 +1,44 @@
 package com.bankaya.pokemon.application.service;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
+import com.bankaya.pokemon.domain.exception.BadRequestException;
+import com.bankaya.pokemon.domain.exception.PokemonNotFoundException;
 import com.bankaya.pokemon.domain.model.Pokemon;
 import com.bankaya.pokemon.domain.ports.GetPokemonUseCase;
 import com.bankaya.pokemon.domain.ports.PokemonApiPort;
+import com.bankaya.pokemon.infrastructure.filter.RequestTimings;
 import com.bankaya.pokemon.infrastructure.utils.SpringContextUtils;
 import com.bankaya.pokemon.soap.Ability;
 import com.bankaya.pokemon.soap.GetPokemonAbilitiesResponse;
 import com.bankaya.pokemon.soap.GetPokemonBaseExperienceResponse;
+import com.bankaya.pokemon.soap.GetPokemonBatchResponse;
+import com.bankaya.pokemon.soap.GetPokemonDetailsResponse;
 import com.bankaya.pokemon.soap.GetPokemonHeldItemsResponse;
 import com.bankaya.pokemon.soap.GetPokemonIdResponse;
 import com.bankaya.pokemon.soap.GetPokemonLocationAreaEncountersResponse;
 import com.bankaya.pokemon.soap.GetPokemonNameResponse;
 import com.bankaya.pokemon.soap.HeldItem;
+import com.bankaya.pokemon.soap.PokemonBatchEntry;
+import com.bankaya.pokemon.soap.PokemonDetails;
+import com.bankaya.pokemon.soap.PokemonError;
+import com.bankaya.pokemon.soap.PokemonErrorCode;
+import com.bankaya.pokemon.soap.PokemonField;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
@@ -26,25 +50,52 @@ import lombok.extern.log4j.Log4j2;
  * Caching Strategy:
  * - Cache by Pokemon name (pokemonByName)
  * - Cache by Pokemon ID (pokemonById)
+ * - Negative cache of not-found names (pokemonNotFound): repeated unknown names are
+ *   answered without calling PokeAPI
  * - TTL and eviction policies configured in CacheConfig
+ * Batch lookups:
+ * - Names are normalized and deduplicated before any lookup
+ * - Each unique name goes through the cached lookup on the bounded pokemonBatchExecutor
+ * Lookup times are added to the cache phase of the request's RequestTimings
  */
 @Log4j2
 @Service
 @RequiredArgsConstructor
 public class PokemonService implements GetPokemonUseCase {
 
+    private static final String NOT_FOUND_CACHE = "pokemonNotFound";
+
     private final PokemonApiPort pokemonApiPort;
+    private final Executor pokemonBatchExecutor;
+    private final CacheManager cacheManager;
+
+    @Value("${pokemon.batch.max-names:100}")
+    private int batchMaxNames;
 
     @Override
     @Cacheable(value = "pokemonByName", key = "#pokemonName.toLowerCase()", unless = "#result == null")
     public Pokemon getPokemonByName(String pokemonName) {
+        Cache notFoundCache = cacheManager.getCache(NOT_FOUND_CACHE);
+        String key = pokemonName.toLowerCase();
+        if (notFoundCache != null && notFoundCache.get(key) != null) {
+            log.debug("Pokemon not found (negative cache hit): {}", pokemonName);
+            throw new PokemonNotFoundException(pokemonName);
+        }
+
         log.info("Fetching Pokemon by name from API (cache miss): {}", pokemonName);
-        return pokemonApiPort.fetchPokemonByName(pokemonName);
+        try {
+            return pokemonApiPort.fetchPokemonByName(pokemonName);
+        } catch (PokemonNotFoundException e) {
+            if (notFoundCache != null) {
+                notFoundCache.put(key, Boolean.TRUE);
+            }
+            throw e;
+        }
     }
 
     @Override
     public GetPokemonAbilitiesResponse getPokemonAbilities(String pokemonName) {
-        Pokemon pokemon = SpringContextUtils.getBean(GetPokemonUseCase.class).getPokemonByName(pokemonName);
+        Pokemon pokemon = lookup(pokemonName);
 
         GetPokemonAbilitiesResponse response = new GetPokemonAbilitiesResponse();
 
@@ -62,7 +113,7 @@ public class PokemonService implements GetPokemonUseCase {
     }
 
     @Override public GetPokemonBaseExperienceResponse getPokemonBaseExperienceResponse(String pokemonName) {
-        Pokemon pokemon = SpringContextUtils.getBean(GetPokemonUseCase.class).getPokemonByName(pokemonName);
+        Pokemon pokemon = lookup(pokemonName);
 
         GetPokemonBaseExperienceResponse response = new GetPokemonBaseExperienceResponse();
         response.setBaseExperience(pokemon.baseExperience());
@@ -72,7 +123,7 @@ public class PokemonService implements GetPokemonUseCase {
     @Override public GetPokemonHeldItemsResponse getPokemonHeldItems(String pokemonName) {
         log.info("SOAP Request - Get Pokemon Held Items: {}", pokemonName);
 
-        Pokemon pokemon = SpringContextUtils.getBean(GetPokemonUseCase.class).getPokemonByName(pokemonName);
+        Pokemon pokemon = lookup(pokemonName);
 
         GetPokemonHeldItemsResponse response = new GetPokemonHeldItemsResponse();
 
@@ -92,7 +143,7 @@ public class PokemonService implements GetPokemonUseCase {
     public GetPokemonIdResponse getPokemonId(String pokemonName) {
         log.info("SOAP Request - Get Pokemon ID: {}", pokemonName);
 
-        Pokemon pokemon = SpringContextUtils.getBean(GetPokemonUseCase.class).getPokemonByName(pokemonName);
+        Pokemon pokemon = lookup(pokemonName);
 
         GetPokemonIdResponse response = new GetPokemonIdResponse();
         response.setId(pokemon.id());
@@ -104,7 +155,7 @@ public class PokemonService implements GetPokemonUseCase {
     public GetPokemonNameResponse getPokemonName(String pokemonName) {
         log.info("SOAP Request - Get Pokemon Name: {}", pokemonName);
 
-        Pokemon pokemon = SpringContextUtils.getBean(GetPokemonUseCase.class).getPokemonByName(pokemonName);
+        Pokemon pokemon = lookup(pokemonName);
 
         GetPokemonNameResponse response = new GetPokemonNameResponse();
         response.setName(pokemon.name());
@@ -116,7 +167,7 @@ public class PokemonService implements GetPokemonUseCase {
     public GetPokemonLocationAreaEncountersResponse getPokemonLocationAreaEncounters(String pokemonName) {
         log.info("SOAP Request - Get Pokemon Location Area Encounters: {}", pokemonName);
 
-        Pokemon pokemon = SpringContextUtils.getBean(GetPokemonUseCase.class).getPokemonByName(pokemonName);
+        Pokemon pokemon = lookup(pokemonName);
 
         GetPokemonLocationAreaEncountersResponse response = new GetPokemonLocationAreaEncountersResponse();
         response.setLocationAreaEncounters(pokemon.locationAreaEncounters());
@@ -124,4 +175,146 @@ public class PokemonService implements GetPokemonUseCase {
         return response;
     }
 
+    @Override
+    public GetPokemonDetailsResponse getPokemonDetails(String pokemonName, List<PokemonField> fields) {
+        Pokemon pokemon = lookup(pokemonName);
+
+        GetPokemonDetailsResponse response = new GetPokemonDetailsResponse();
+        fillPokemonDetails(response, pokemon, selectedFields(fields));
+        return response;
+    }
+
+    @Override
+    public GetPokemonBatchResponse getPokemonBatch(List<String> pokemonNames, List<PokemonField> fields) {
+        Set<String> uniqueNames = normalizeNames(pokemonNames);
+        if (uniqueNames.isEmpty()) {
+            throw new BadRequestException("At least one Pokemon name is required");
+        }
+        if (uniqueNames.size() > batchMaxNames) {
+            throw new BadRequestException(String.format(
+                    "A batch cannot contain more than %d distinct Pokemon names", batchMaxNames));
+        }
+
+        Set<PokemonField> selectedFields = selectedFields(fields);
+        GetPokemonUseCase useCase = SpringContextUtils.getBean(GetPokemonUseCase.class);
+
+        List<CompletableFuture<PokemonBatchEntry>> lookups = new ArrayList<>(uniqueNames.size());
+        for (String name : uniqueNames) {
+            lookups.add(CompletableFuture.supplyAsync(
+                    () -> toBatchEntry(name, lookup(useCase, name), selectedFields),
+                    pokemonBatchExecutor)
+                    .exceptionally(ex -> toBatchError(name, ex)));
+        }
+
+        GetPokemonBatchResponse response = new GetPokemonBatchResponse();
+        lookups.forEach(lookup -> response.getPokemon().add(lookup.join()));
+        return response;
+    }
+
+    /**
+     * Cached lookup through the Spring proxy, added to the cache phase of the current request
+     */
+    private Pokemon lookup(String pokemonName) {
+        return lookup(SpringContextUtils.getBean(GetPokemonUseCase.class), pokemonName);
+    }
+
+    private Pokemon lookup(GetPokemonUseCase useCase, String pokemonName) {
+        long start = System.nanoTime();
+        try {
+            return useCase.getPokemonByName(pokemonName);
+        } finally {
+            RequestTimings.record(RequestTimings.Phase.CACHE, start);
+        }
+    }
+
+    /**
+     * Fills the projection of a Pokemon with only the selected fields
+     */
+    private void fillPokemonDetails(PokemonDetails details, Pokemon pokemon, Set<PokemonField> fields) {
+        if (fields.contains(PokemonField.ID)) {
+            details.setId(pokemon.id());
+        }
+        if (fields.contains(PokemonField.NAME)) {
+            details.setName(pokemon.name());
+        }
+        if (fields.contains(PokemonField.BASE_EXPERIENCE)) {
+            details.setBaseExperience(pokemon.baseExperience());
+        }
+        if (fields.contains(PokemonField.ABILITIES) && pokemon.abilities() != null) {
+            pokemon.abilities().forEach(ability -> {
+                Ability soapAbility = new Ability();
+                soapAbility.setName(ability.name());
+                soapAbility.setUrl(ability.url());
+                soapAbility.setIsHidden(ability.isHidden());
+                soapAbility.setSlot(ability.slot());
+                details.getAbilities().add(soapAbility);
+            });
+        }
+        if (fields.contains(PokemonField.HELD_ITEMS) && pokemon.heldItems() != null) {
+            pokemon.heldItems().forEach(item -> {
+                HeldItem soapItem = new HeldItem();
+                soapItem.setName(item.name());
+                soapItem.setUrl(item.url());
+                details.getHeldItems().add(soapItem);
+            });
+        }
+        if (fields.contains(PokemonField.LOCATION_AREA_ENCOUNTERS)) {
+            details.setLocationAreaEncounters(pokemon.locationAreaEncounters());
+        }
+    }
+
+    /**
+     * An empty field mask selects every field
+     */
+    private Set<PokemonField> selectedFields(Collection<PokemonField> fields) {
+        if (fields == null || fields.isEmpty()) {
+            return EnumSet.allOf(PokemonField.class);
+        }
+        return EnumSet.copyOf(fields);
+    }
+
+    private Set<String> normalizeNames(Collection<String> pokemonNames) {
+        Set<String> uniqueNames = new LinkedHashSet<>();
+        if (pokemonNames != null) {
+            for (String name : pokemonNames) {
+                if (name != null && !name.isBlank()) {
+                    uniqueNames.add(name.trim().toLowerCase(Locale.ROOT));
+                }
+            }
+        }
+        return uniqueNames;
+    }
+
+    private PokemonBatchEntry toBatchEntry(String name, Pokemon pokemon, Set<PokemonField> fields) {
+        PokemonDetails details = new PokemonDetails();
+        fillPokemonDetails(details, pokemon, fields);
+
+        PokemonBatchEntry entry = new PokemonBatchEntry();
+        entry.setRequestedName(name);
+        entry.setDetails(details);
+        return entry;
+    }
+
+    private PokemonBatchEntry toBatchError(String name, Throwable throwable) {
+        Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null
+                ? throwable.getCause()
+                : throwable;
+
+        PokemonError error = new PokemonError();
+        if (cause instanceof PokemonNotFoundException) {
+            error.setCode(PokemonErrorCode.NOT_FOUND);
+        } else if (cause instanceof BadRequestException) {
+            error.setCode(PokemonErrorCode.BAD_REQUEST);
+        } else {
+            log.error("Error resolving Pokemon '{}' in batch: {}", name, cause.getMessage());
+            error.setCode(PokemonErrorCode.SERVICE_ERROR);
+        }
+        error.setMessage(cause.getMessage());
+
+        PokemonBatchEntry entry = new PokemonBatchEntry();
+        entry.setRequestedName(name);
+        entry.setError(error);
+        return entry;
+    }
+
 }
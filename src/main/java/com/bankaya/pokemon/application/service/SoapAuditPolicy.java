@@ -0,0 +1,120 @@
+package com.bankaya.pokemon.application.service;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.stereotype.Component;
+
+import com.bankaya.pokemon.domain.model.SoapAuditLog;
+import com.bankaya.pokemon.infrastructure.adapter.enums.RequestStatus;
+import com.bankaya.pokemon.infrastructure.config.SoapAuditPolicyProperties;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * SOAP Audit Payload Policy
+ * Decides which payloads of an audit record are stored:
+ * - Metadata (method, IP, status, duration, error) is always kept
+ * - FAULT and ERROR records always keep their payloads
+ * - SUCCESS records keep payloads with the sample rate of their SOAP method
+ * - Kept payloads are truncated to max-payload-bytes (UTF-8)
+ * Metrics: soap.audit.records{status} and soap.audit.payloads{decision=captured|sampled_out|truncated}
+ */
+@Component
+public class SoapAuditPolicy {
+
+    static final String TRUNCATED_MARKER = "<!-- truncated -->";
+
+    private final SoapAuditPolicyProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Counter capturedPayloads;
+    private final Counter sampledOutPayloads;
+    private final Counter truncatedPayloads;
+
+    public SoapAuditPolicy(SoapAuditPolicyProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.capturedPayloads = payloadCounter("captured");
+        this.sampledOutPayloads = payloadCounter("sampled_out");
+        this.truncatedPayloads = payloadCounter("truncated");
+    }
+
+    /**
+     * Applies the policy in place and returns the same audit record (no-op if already applied)
+     */
+    public SoapAuditLog apply(SoapAuditLog auditLog) {
+        if (auditLog.isPolicyApplied()) {
+            return auditLog;
+        }
+        auditLog.setPolicyApplied(true);
+        meterRegistry.counter("soap.audit.records", "status", statusTag(auditLog.getStatus())).increment();
+
+        if (!shouldCapturePayloads(auditLog)) {
+            auditLog.setRequestPayload(null);
+            auditLog.setResponsePayload(null);
+            sampledOutPayloads.increment();
+            return auditLog;
+        }
+
+        capturedPayloads.increment();
+        auditLog.setRequestPayload(truncate(auditLog.getRequestPayload()));
+        auditLog.setResponsePayload(truncate(auditLog.getResponsePayload()));
+        return auditLog;
+    }
+
+    private boolean shouldCapturePayloads(SoapAuditLog auditLog) {
+        if (auditLog.getStatus() != RequestStatus.SUCCESS) {
+            return true;
+        }
+        double rate = auditLog.getSoapMethod() == null
+                ? properties.getDefaultSampleRate()
+                : properties.getSampleRates().getOrDefault(auditLog.getSoapMethod(), properties.getDefaultSampleRate());
+        return rate >= 1.0 || (rate > 0.0 && ThreadLocalRandom.current().nextDouble() < rate);
+    }
+
+    /**
+     * Cuts the payload at the last whole character within the UTF-8 byte limit
+     */
+    private String truncate(String payload) {
+        int maxBytes = properties.getMaxPayloadBytes();
+        // Cada char ocupa como máximo 3 bytes en UTF-8 (los pares surrogate, 4 bytes por 2 chars)
+        if (payload == null || payload.length() * 3L <= maxBytes) {
+            return payload;
+        }
+
+        int bytes = 0;
+        for (int i = 0; i < payload.length(); i++) {
+            char c = payload.charAt(i);
+            int charBytes;
+            if (c < 0x80) {
+                charBytes = 1;
+            } else if (c < 0x800) {
+                charBytes = 2;
+            } else if (Character.isHighSurrogate(c)) {
+                charBytes = 4;
+            } else {
+                charBytes = 3;
+            }
+            if (bytes + charBytes > maxBytes) {
+                truncatedPayloads.increment();
+                return payload.substring(0, i) + TRUNCATED_MARKER;
+            }
+            bytes += charBytes;
+            if (charBytes == 4) {
+                i++;
+            }
+        }
+        return payload;
+    }
+
+    private Counter payloadCounter(String decision) {
+        return Counter.builder("soap.audit.payloads")
+                .description("SOAP audit records by payload capture decision")
+                .tag("decision", decision)
+                .register(meterRegistry);
+    }
+
+    private String statusTag(RequestStatus status) {
+        return status == null ? "UNKNOWN" : status.name();
+    }
+}
@@ -1,9 +1,20 @@
 package com.bankaya.pokemon.application.service;
 
-import org.springframework.scheduling.annotation.Async;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.CannotCreateTransactionException;
 
+import com.bankaya.pokemon.domain.model.PhaseTimings;
 import com.bankaya.pokemon.domain.model.SoapAuditLog;
 import com.bankaya.pokemon.domain.ports.SoapAuditLogRepositoryPort;
 import com.bankaya.pokemon.infrastructure.adapter.persistence.entity.SoapAuditLogEntity;
@@ -11,33 +22,125 @@ import com.bankaya.pokemon.infrastructure.adapter.persistence.entity.SoapAuditLo
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
 
+/**
+ * SOAP Audit Service
+ * Persists audit records; invoked from the single AuditPipeline consumer thread,
+ * never from request threads, in batches (saveAuditLogs)
+ */
 @Service
 @Log4j2
 @RequiredArgsConstructor
 public class SoapAuditService {
 
     private final SoapAuditLogRepositoryPort repository;
+    private final SoapAuditPolicy auditPolicy;
 
-    @Async
-    @Transactional
-    public void saveAuditLog(SoapAuditLog soapAuditLog) {
+    /**
+     * Persists a batch from the AuditPipeline consumer with one batched insert;
+     * if the batch fails, the records are retried one by one so a single bad row
+     * does not lose the whole batch.
+     * If the database is unavailable the exception is rethrown so the caller can
+     * spool the batch (AuditSpool) instead of losing it
+     */
+    public void saveAuditLogs(List<SoapAuditLog> soapAuditLogs) {
         try {
-            SoapAuditLogEntity soapAuditLogEntity = SoapAuditLogEntity
-                    .builder().build()
-                    .withIpOrigin(soapAuditLog.getIpOrigin())
-                    .withSoapMethod(soapAuditLog.getSoapMethod())
-                    .withDurationMs(soapAuditLog.getDurationMs())
-                    .withRequestPayload(formatXml(soapAuditLog.getRequestPayload()))
-                    .withResponsePayload(formatXml(soapAuditLog.getResponsePayload()))
-                    .withStatus(soapAuditLog.getStatus())
-                    .withEndpointClass(soapAuditLog.getEndpointClass())
-                    .withErrorMessage(soapAuditLog.getErrorMessage());
-
-            repository.save(soapAuditLogEntity);
+            repository.saveAll(toEntities(soapAuditLogs));
+        } catch (RuntimeException e) {
+            retryIndividually(soapAuditLogs, e);
+        }
+    }
 
-        } catch (Exception e) {
-            log.error("Error saving audit log to database", e);
+    /**
+     * Same as saveAuditLogs without waiting for the batched insert when the repository writes
+     * asynchronously (r2dbc); the returned future fails when the database is unavailable
+     */
+    public CompletableFuture<Void> saveAuditLogsAsync(List<SoapAuditLog> soapAuditLogs) {
+        CompletableFuture<Void> saved;
+        try {
+            saved = repository.saveAllAsync(toEntities(soapAuditLogs));
+        } catch (RuntimeException e) {
+            saved = CompletableFuture.failedFuture(e);
+        }
+        Function<Throwable, Void> retry = e -> {
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            retryIndividually(soapAuditLogs, cause instanceof RuntimeException runtime
+                    ? runtime : new CompletionException(cause));
+            return null;
+        };
+        // Un lote aún en vuelo se reintenta fuera del hilo de E/S del driver, que no admite esperas
+        return saved.isDone() ? saved.exceptionally(retry) : saved.exceptionallyAsync(retry);
+    }
+
+    private void retryIndividually(List<SoapAuditLog> soapAuditLogs, RuntimeException e) {
+        if (isDatabaseUnavailable(e)) {
+            throw e;
+        }
+        log.warn("Error saving batch of {} audit logs, retrying one by one", soapAuditLogs.size(), e);
+        saveIndividually(soapAuditLogs);
+    }
+
+    private List<SoapAuditLogEntity> toEntities(List<SoapAuditLog> soapAuditLogs) {
+        List<SoapAuditLogEntity> entities = new ArrayList<>(soapAuditLogs.size());
+        for (SoapAuditLog soapAuditLog : soapAuditLogs) {
+            entities.add(toEntity(soapAuditLog));
+        }
+        return entities;
+    }
+
+    private void saveIndividually(List<SoapAuditLog> soapAuditLogs) {
+        for (SoapAuditLog soapAuditLog : soapAuditLogs) {
+            try {
+                // La política de auditoría ya aplicada no se vuelve a aplicar
+                repository.save(toEntity(soapAuditLog));
+            } catch (Exception e) {
+                log.error("Error saving audit log to database", e);
+            }
+        }
+    }
+
+    /**
+     * Connection/transient failures (pool exhausted, database down or stalled), as opposed to
+     * errors caused by the data of some row
+     */
+    static boolean isDatabaseUnavailable(Throwable exception) {
+        for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TransientDataAccessException
+                    || cause instanceof RecoverableDataAccessException
+                    || cause instanceof DataAccessResourceFailureException
+                    || cause instanceof CannotCreateTransactionException
+                    || cause instanceof SQLTransientException
+                    || cause instanceof SQLRecoverableException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private SoapAuditLogEntity toEntity(SoapAuditLog soapAuditLog) {
+        // Metadatos siempre; payloads según muestreo por método y límite de bytes
+        auditPolicy.apply(soapAuditLog);
+
+        SoapAuditLogEntity soapAuditLogEntity = SoapAuditLogEntity
+                .builder().build()
+                .withIpOrigin(soapAuditLog.getIpOrigin())
+                .withSoapMethod(soapAuditLog.getSoapMethod())
+                .withDurationMs(soapAuditLog.getDurationMs())
+                .withRequestPayload(formatXml(soapAuditLog.getRequestPayload()))
+                .withResponsePayload(formatXml(soapAuditLog.getResponsePayload()))
+                .withStatus(soapAuditLog.getStatus())
+                .withEndpointClass(soapAuditLog.getEndpointClass())
+                .withErrorMessage(soapAuditLog.getErrorMessage());
+        // Fecha real de la petición (registros reproducidos desde el spool llegan más tarde)
+        soapAuditLogEntity.setRequestDate(soapAuditLog.getRequestDate());
+        PhaseTimings phaseTimings = soapAuditLog.getPhaseTimings();
+        if (phaseTimings != null) {
+            soapAuditLogEntity.setParseUs(phaseTimings.parseUs());
+            soapAuditLogEntity.setCacheUs(phaseTimings.cacheUs());
+            soapAuditLogEntity.setUpstreamUs(phaseTimings.upstreamUs());
+            soapAuditLogEntity.setMarshalUs(phaseTimings.marshalUs());
+            soapAuditLogEntity.setAuditUs(phaseTimings.auditUs());
         }
+        return soapAuditLogEntity;
     }
 
     private String formatXml(String xml) {
@@ -7,11 +7,11 @@ import org.springframework.ws.soap.server.endpoint.annotation.SoapFault;
 
 /**
  * Domain Exception - Bad Request
- * Thrown when the request parameters are invalid
+ * Thrown when the request parameters are invalid (stackless, see StacklessException)
  */
 @ResponseStatus(HttpStatus.BAD_REQUEST)
 @SoapFault(faultCode = FaultCode.CLIENT)
-public class BadRequestException extends RuntimeException {
+public class BadRequestException extends StacklessException {
     public BadRequestException(String message) {
         super(message);
     }
@@ -7,11 +7,11 @@ import org.springframework.ws.soap.server.endpoint.annotation.SoapFault;
 
 /**
  * Domain Exception - Pokemon Not Found
- * Thrown when a Pokemon is not found in the external API
+ * Thrown when a Pokemon is not found in the external API (stackless, see StacklessException)
  */
 @ResponseStatus(HttpStatus.NOT_FOUND)
 @SoapFault(faultCode = FaultCode.SERVER)
-public class PokemonNotFoundException extends RuntimeException {
+public class PokemonNotFoundException extends StacklessException {
     public PokemonNotFoundException(String pokemonName) {
         super(String.format("Pokemon with name '%s' not found", pokemonName));
     }
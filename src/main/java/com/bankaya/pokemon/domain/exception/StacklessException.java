@@ -0,0 +1,13 @@
+package com.bankaya.pokemon.domain.exception;
+
+/**
+ * Domain Exception - Stackless base
+ * Base for expected, high-volume failure outcomes (e.g. unknown Pokemon, invalid input):
+ * no stack trace is captured and suppression is disabled, so creating and throwing
+ * one costs little more than a regular allocation
+ */
+public abstract class StacklessException extends RuntimeException {
+    protected StacklessException(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -0,0 +1,34 @@
+package com.bankaya.pokemon.domain.model;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+import com.bankaya.pokemon.domain.exception.BadRequestException;
+
+/**
+ * Audit Cursor
+ * Keyset pagination position: the (request_date, id) of the last row of a page.
+ * Clients get it as an opaque URL-safe token
+ */
+public record AuditCursor(LocalDateTime requestDate, long id) {
+
+    private static final char SEPARATOR = '|';
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((requestDate.toString() + SEPARATOR + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static AuditCursor decode(String token) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = value.lastIndexOf(SEPARATOR);
+            return new AuditCursor(LocalDateTime.parse(value.substring(0, separator)),
+                    Long.parseLong(value.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new BadRequestException("Invalid audit search cursor");
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.bankaya.pokemon.domain.model;
+
+import java.util.List;
+
+/**
+ * Audit Page
+ * One page of an audit search; nextCursor is null on the last page
+ */
+public record AuditPage(List<SoapAuditLog> items, AuditCursor nextCursor) {
+}
@@ -0,0 +1,24 @@
+package com.bankaya.pokemon.domain.model;
+
+import java.time.LocalDateTime;
+
+import org.HdrHistogram.Histogram;
+
+import com.bankaya.pokemon.infrastructure.adapter.enums.RequestStatus;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Audit Rollup
+ * Requests of one soapMethod and status within one minute: count and latency
+ * histogram (milliseconds). Rollups of the same key add up (several flushes or instances)
+ */
+@Data
+@Builder
+public class AuditRollup {
+    private LocalDateTime bucketStart;
+    private String soapMethod;
+    private RequestStatus status;
+    private Histogram latency;
+}
@@ -0,0 +1,16 @@
+package com.bankaya.pokemon.domain.model;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import com.bankaya.pokemon.infrastructure.adapter.enums.RequestStatus;
+
+/**
+ * Audit Rollup Summary
+ * Requests of one soapMethod in one step of a rollup query: counts per status and
+ * latency percentiles (milliseconds, HDR precision) over all statuses
+ */
+public record AuditRollupSummary(LocalDateTime bucketStart, String soapMethod, long count,
+                                 Map<RequestStatus, Long> countByStatus, double meanMs, long p50Ms,
+                                 long p90Ms, long p99Ms, long p999Ms, long maxMs) {
+}
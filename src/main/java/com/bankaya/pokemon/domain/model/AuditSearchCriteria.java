@@ -0,0 +1,38 @@
+package com.bankaya.pokemon.domain.model;
+
+import java.time.LocalDateTime;
+
+import com.bankaya.pokemon.infrastructure.adapter.enums.RequestStatus;
+
+import lombok.Builder;
+import lombok.Data;
+import lombok.With;
+
+/**
+ * Audit Search Criteria
+ * Filters of an audit log search. Rows come newest first (request_date, id descending),
+ * starting right after the cursor of the previous page (keyset pagination)
+ */
+@Data
+@Builder
+@With
+public class AuditSearchCriteria {
+    /**
+     * Inclusive lower bound of request_date
+     */
+    private LocalDateTime from;
+    /**
+     * Exclusive upper bound of request_date
+     */
+    private LocalDateTime to;
+    private String soapMethod;
+    private RequestStatus status;
+    private String ipOrigin;
+    private Long minDurationMs;
+    /**
+     * Last row of the previous page, null for the first page
+     */
+    private AuditCursor after;
+    private int limit;
+    private boolean includePayloads;
+}
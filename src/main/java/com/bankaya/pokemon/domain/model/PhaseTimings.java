@@ -0,0 +1,25 @@
+package com.bankaya.pokemon.domain.model;
+
+/**
+ * Per-phase timings of a SOAP request, in microseconds (null: phase not measured)
+ * - parse: request read, SAAJ parsing, endpoint mapping and request unmarshalling
+ * - cache: Pokemon lookups, excluding the PokeAPI calls they made
+ * - upstream: PokeAPI calls
+ * - marshal: response marshalling
+ * - audit: audit interceptor work on the request thread
+ * Lookups of a batch run in parallel, their cache and upstream times are summed
+ */
+public record PhaseTimings(Integer parseUs, Integer cacheUs, Integer upstreamUs, Integer marshalUs,
+                           Integer auditUs) {
+
+    /**
+     * Timings of the given phases, or null when none was measured
+     */
+    public static PhaseTimings of(Integer parseUs, Integer cacheUs, Integer upstreamUs, Integer marshalUs,
+                                  Integer auditUs) {
+        if (parseUs == null && cacheUs == null && upstreamUs == null && marshalUs == null && auditUs == null) {
+            return null;
+        }
+        return new PhaseTimings(parseUs, cacheUs, upstreamUs, marshalUs, auditUs);
+    }
+}
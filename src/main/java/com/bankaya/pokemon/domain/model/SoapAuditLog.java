@@ -20,6 +20,9 @@ public class SoapAuditLog {
     private String ipOrigin;
     private LocalDateTime requestDate;
     private String soapMethod;
+    /**
+     * Monotonic start of the request (System.nanoTime), only comparable on the same JVM
+     */
     private Long startTime;
     private Long durationMs;
     private String requestPayload;
@@ -27,4 +30,12 @@ public class SoapAuditLog {
     private RequestStatus status;
     private String errorMessage;
     private String endpointClass;
+    /**
+     * Time per request phase (null when the request was not timed)
+     */
+    private PhaseTimings phaseTimings;
+    /**
+     * Set once SoapAuditPolicy has sampled/truncated the payloads (replays must not apply it twice)
+     */
+    private boolean policyApplied;
 }
@@ -0,0 +1,20 @@
+package com.bankaya.pokemon.domain.ports;
+
+import java.util.function.Consumer;
+
+import com.bankaya.pokemon.domain.model.AuditSearchCriteria;
+import com.bankaya.pokemon.domain.model.SoapAuditLog;
+
+/**
+ * Output Port - Audit Archive
+ * Defines the contract for reading aged request logs moved out of the database
+ */
+public interface AuditArchivePort {
+
+    /**
+     * Stream every archived request log matching the criteria (limit and cursor are ignored)
+     * @param criteria filters, from and to are required
+     * @param consumer receives each matching request log
+     */
+    void scan(AuditSearchCriteria criteria, Consumer<SoapAuditLog> consumer);
+}
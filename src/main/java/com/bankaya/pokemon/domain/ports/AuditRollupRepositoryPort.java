@@ -0,0 +1,34 @@
+package com.bankaya.pokemon.domain.ports;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.bankaya.pokemon.domain.model.AuditRollup;
+
+/**
+ * Output Port - Audit Rollup Repository Interface
+ * Defines the contract for storing and reading per-minute audit rollups
+ */
+public interface AuditRollupRepositoryPort {
+    /**
+     * Append rollups (rows are never updated, rollups of the same key are merged when read)
+     * @param rollups the rollups to save
+     */
+    void saveAll(List<AuditRollup> rollups);
+
+    /**
+     * Find the rollups of a time range
+     * @param from inclusive start of the bucket range
+     * @param to exclusive end of the bucket range
+     * @param soapMethod SOAP method, or null for all methods
+     * @return rollups ordered by bucket start
+     */
+    List<AuditRollup> find(LocalDateTime from, LocalDateTime to, String soapMethod);
+
+    /**
+     * Delete the rollups of the minutes before a cutoff
+     * @param cutoff exclusive end of the deleted bucket range
+     * @return the number of rows deleted
+     */
+    int deleteBefore(LocalDateTime cutoff);
+}
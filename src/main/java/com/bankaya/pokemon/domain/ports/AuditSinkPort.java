@@ -0,0 +1,40 @@
+package com.bankaya.pokemon.domain.ports;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import com.bankaya.pokemon.domain.model.SoapAuditLog;
+
+/**
+ * Output Port - Audit Sink
+ * Destination of the audit records drained by the AuditPipeline consumer, in batches
+ */
+public interface AuditSinkPort {
+    /**
+     * Write a batch of audit records
+     * @param auditLogs the audit records, in arrival order
+     * @throws RuntimeException when the destination cannot take the batch now (the caller spools it)
+     */
+    void write(List<SoapAuditLog> auditLogs);
+
+    /**
+     * Write a batch without waiting for it when the destination writes asynchronously
+     * @param auditLogs the audit records, in arrival order
+     * @return completes once the batch is written, or exceptionally when it could not be (the caller spools it)
+     */
+    default CompletableFuture<Void> writeAsync(List<SoapAuditLog> auditLogs) {
+        try {
+            write(auditLogs);
+            return CompletableFuture.completedFuture(null);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Sink name, used for its spool directory and in logs and metrics
+     */
+    default String name() {
+        return getClass().getSimpleName();
+    }
+}
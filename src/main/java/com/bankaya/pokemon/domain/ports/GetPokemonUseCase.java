@@ -1,12 +1,17 @@
 package com.bankaya.pokemon.domain.ports;
 
+import java.util.List;
+
 import com.bankaya.pokemon.domain.model.Pokemon;
 import com.bankaya.pokemon.soap.GetPokemonAbilitiesResponse;
 import com.bankaya.pokemon.soap.GetPokemonBaseExperienceResponse;
+import com.bankaya.pokemon.soap.GetPokemonBatchResponse;
+import com.bankaya.pokemon.soap.GetPokemonDetailsResponse;
 import com.bankaya.pokemon.soap.GetPokemonHeldItemsResponse;
 import com.bankaya.pokemon.soap.GetPokemonIdResponse;
 import com.bankaya.pokemon.soap.GetPokemonLocationAreaEncountersResponse;
 import com.bankaya.pokemon.soap.GetPokemonNameResponse;
+import com.bankaya.pokemon.soap.PokemonField;
 
 /**
  * Input Port - Use Case Interface
@@ -33,4 +38,20 @@ public interface GetPokemonUseCase {
     GetPokemonNameResponse getPokemonName(String pokemonName);
 
     GetPokemonLocationAreaEncountersResponse getPokemonLocationAreaEncounters(String pokemonName);
+
+    /**
+     * Get the selected fields of a Pokemon in one call
+     * @param pokemonName the name of the Pokemon
+     * @param fields the fields to include, empty means all of them
+     * @return the Pokemon projection
+     */
+    GetPokemonDetailsResponse getPokemonDetails(String pokemonName, List<PokemonField> fields);
+
+    /**
+     * Get several Pokemon in one call
+     * @param pokemonNames the requested names, duplicates are resolved once
+     * @param fields the fields to include for every Pokemon, empty means all of them
+     * @return one entry per distinct name, with its details or the lookup error
+     */
+    GetPokemonBatchResponse getPokemonBatch(List<String> pokemonNames, List<PokemonField> fields);
 }
@@ -1,5 +1,11 @@
 package com.bankaya.pokemon.domain.ports;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+import com.bankaya.pokemon.domain.model.AuditSearchCriteria;
+import com.bankaya.pokemon.domain.model.SoapAuditLog;
 import com.bankaya.pokemon.infrastructure.adapter.persistence.entity.SoapAuditLogEntity;
 
 /**
@@ -12,4 +18,39 @@ public interface SoapAuditLogRepositoryPort {
      * @param audit the request log to save
      */
     void save(SoapAuditLogEntity audit);
+
+    /**
+     * Save a batch of request logs in a single transaction (batched insert)
+     * @param audits the request logs to save
+     */
+    void saveAll(List<SoapAuditLogEntity> audits);
+
+    /**
+     * Save a batch like saveAll without waiting for it when the adapter writes asynchronously
+     * @param audits the request logs to save
+     * @return completes once the batch is committed, or exceptionally once it is known not to be
+     */
+    default CompletableFuture<Void> saveAllAsync(List<SoapAuditLogEntity> audits) {
+        try {
+            saveAll(audits);
+            return CompletableFuture.completedFuture(null);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Search request logs newest first, after the criteria cursor (keyset pagination)
+     * @param criteria filters, cursor and maximum number of rows
+     * @return up to criteria.limit request logs, with payloads only if requested
+     */
+    List<SoapAuditLog> search(AuditSearchCriteria criteria);
+
+    /**
+     * Stream every request log matching the criteria, oldest first, through a forward-only
+     * cursor (limit and cursor are ignored); an exception thrown by the consumer cancels the query
+     * @param criteria filters
+     * @param consumer receives each request log as it is read
+     */
+    void export(AuditSearchCriteria criteria, Consumer<SoapAuditLog> consumer);
 }
@@ -0,0 +1,176 @@
+package com.bankaya.pokemon.infrastructure.adapter.archive;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bankaya.pokemon.domain.model.AuditSearchCriteria;
+import com.bankaya.pokemon.domain.ports.SoapAuditLogRepositoryPort;
+import com.bankaya.pokemon.infrastructure.adapter.persistence.AuditPartitionManager;
+import com.bankaya.pokemon.infrastructure.adapter.persistence.AuditPayloadStore;
+import com.bankaya.pokemon.infrastructure.utils.DateTimeUtils;
+
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Audit Archiver
+ * Moves soap_audit_log rows older than older-than into the ColumnarAuditArchive, one request
+ * day at a time, oldest first:
+ * - The day is streamed from the database cursor (with payloads) into a new archive part,
+ *   one row group per batch-size rows, and the part is committed (forced and renamed)
+ * - Only then are the rows removed. When the day is a DAILY partition that holds exactly the
+ *   rows of the new part, the partition is detached and dropped; otherwise (MONTHLY or default
+ *   partition, rows inserted late) the rows are deleted one row group of ids per statement in
+ *   its own short transaction, so no long lock is held on the table
+ * - A run interrupted between both steps is resumed: rows of parts already committed for the
+ *   day are deleted before the remaining rows are archived into a new part
+ * - Once the days are archived, the payloads stored before the cutoff that no row references
+ *   anymore are deleted from soap_audit_payload, so the archive keeps their only copy (payloads
+ *   shared with rows still in the database stay there)
+ * Runs on cron with the application clock (DateTimeUtils), like AuditPartitionManager; older-than
+ * must stay below pokemon.audit.partitions.retention, otherwise the partitions are dropped before
+ * they are archived
+ */
+@Log4j2
+@Component
+@ConditionalOnProperty(name = "pokemon.audit.archive.enabled", havingValue = "true")
+public class AuditArchiver {
+
+    static final String OLDEST_SQL = "SELECT min(request_date) FROM soap_audit_log";
+    static final String OLDEST_AFTER_SQL = OLDEST_SQL + " WHERE request_date >= ?";
+    static final String DELETE_SQL = "DELETE FROM soap_audit_log "
+            + "WHERE request_date >= ? AND request_date < ? AND id = ANY(?)";
+    static final String ATTACHED_SQL = "SELECT EXISTS (SELECT 1 FROM pg_inherits "
+            + "WHERE inhrelid = to_regclass(?) AND inhparent = to_regclass('soap_audit_log'))";
+
+    private final ColumnarAuditArchive archive;
+    private final SoapAuditLogRepositoryPort repository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AuditPayloadStore payloadStore;
+    private final DateTimeUtils dateTimeUtils;
+    private final Duration olderThan;
+
+    public AuditArchiver(ColumnarAuditArchive archive, SoapAuditLogRepositoryPort repository,
+                         JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                         AuditPayloadStore payloadStore, DateTimeUtils dateTimeUtils,
+                         @Value("${pokemon.audit.archive.older-than:30d}") Duration olderThan) {
+        this.archive = archive;
+        this.repository = repository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.payloadStore = payloadStore;
+        this.dateTimeUtils = dateTimeUtils;
+        this.olderThan = olderThan;
+    }
+
+    @Scheduled(cron = "${pokemon.audit.archive.cron:0 45 0 * * *}")
+    public void archive() {
+        try {
+            // Mismo reloj que SoapAuditLog.requestDate (SoapAuditInterceptor) y AuditPartitionManager
+            LocalDate cutoff = dateTimeUtils.now().toLocalDate().minusDays(olderThan.toDays());
+            LocalDateTime oldest = jdbcTemplate.queryForObject(OLDEST_SQL, LocalDateTime.class);
+            while (oldest != null && oldest.toLocalDate().isBefore(cutoff)) {
+                LocalDate day = oldest.toLocalDate();
+                archiveDay(day);
+                oldest = jdbcTemplate.queryForObject(OLDEST_AFTER_SQL, LocalDateTime.class,
+                        day.plusDays(1).atStartOfDay());
+            }
+            int swept = payloadStore.sweep(cutoff.atStartOfDay());
+            if (swept > 0) {
+                log.info("{} archived audit payloads deleted from soap_audit_payload", swept);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.error("Audit archiving failed, it is resumed on the next run", e);
+        }
+    }
+
+    private void archiveDay(LocalDate day) throws IOException {
+        LocalDateTime from = day.atStartOfDay();
+        LocalDateTime to = from.plusDays(1);
+
+        long resumed = 0;
+        for (Path part : archive.parts(day)) {
+            resumed += deleteArchived(part, from, to);
+        }
+
+        Path part;
+        long rows;
+        try (ColumnarAuditArchive.Writer writer = archive.writer(day)) {
+            repository.export(AuditSearchCriteria.builder().from(from).to(to).includePayloads(true).build(),
+                    auditLog -> {
+                        try {
+                            writer.append(auditLog);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+            rows = writer.rows();
+            part = writer.commit();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        String partition = AuditPartitionManager.dailyPartitionName(day);
+        if (dropArchivedPartition(partition, rows)) {
+            log.info("Audit day {} archived: {} rows written to {}, partition {} dropped ({} rows deleted "
+                    + "from earlier parts)", day, rows, part != null ? part.getFileName() : "-", partition, resumed);
+            return;
+        }
+        long deleted = part != null ? deleteArchived(part, from, to) : 0;
+        log.info("Audit day {} archived: {} rows written to {}, {} rows deleted ({} from earlier parts)",
+                day, rows, part != null ? part.getFileName() : "-", deleted + resumed, resumed);
+    }
+
+    /**
+     * Detaches and drops the DAILY partition of the day when it holds exactly the archived rows
+     * (the rows of earlier parts are already deleted). Only the partition is locked while it is
+     * counted: a late insert of that day waits, so no row lands in it unarchived, while the rest of
+     * soap_audit_log stays writable. DETACH takes its lock on soap_audit_log once the count is done
+     *
+     * @return false if the day is not a DAILY partition or it holds rows that are not archived
+     */
+    private boolean dropArchivedPartition(String partition, long archivedRows) {
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject(ATTACHED_SQL, Boolean.class, partition))) {
+                return false;
+            }
+            jdbcTemplate.execute(lockPartitionSql(partition));
+            Long rows = jdbcTemplate.queryForObject("SELECT count(*) FROM " + partition, Long.class);
+            if (rows == null || rows != archivedRows) {
+                return false;
+            }
+            jdbcTemplate.execute("ALTER TABLE soap_audit_log DETACH PARTITION " + partition);
+            jdbcTemplate.execute("DROP TABLE " + partition);
+            return true;
+        }));
+    }
+
+    static String lockPartitionSql(String partition) {
+        return "LOCK TABLE " + partition + " IN SHARE MODE";
+    }
+
+    private long deleteArchived(Path part, LocalDateTime from, LocalDateTime to) throws IOException {
+        long[] deleted = {0};
+        archive.readIds(part, ids -> {
+            Long[] boxed = Arrays.stream(ids).boxed().toArray(Long[]::new);
+            // El rango de request_date limita el DELETE a la partición del día
+            deleted[0] += jdbcTemplate.update(DELETE_SQL, statement -> {
+                statement.setObject(1, from);
+                statement.setObject(2, to);
+                statement.setArray(3, statement.getConnection().createArrayOf("bigint", boxed));
+            });
+        });
+        return deleted[0];
+    }
+}
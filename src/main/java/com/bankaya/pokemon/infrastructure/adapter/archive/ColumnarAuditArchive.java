@@ -0,0 +1,582 @@
+package com.bankaya.pokemon.infrastructure.adapter.archive;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.bankaya.pokemon.domain.model.AuditSearchCriteria;
+import com.bankaya.pokemon.domain.model.PhaseTimings;
+import com.bankaya.pokemon.domain.model.SoapAuditLog;
+import com.bankaya.pokemon.domain.ports.AuditArchivePort;
+import com.bankaya.pokemon.infrastructure.adapter.enums.RequestStatus;
+
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Columnar Audit Archive
+ * Aged soap_audit_log rows as compressed column-chunked files on local disk, one or more
+ * parts per request day (audit-&lt;yyyyMMdd&gt;-&lt;part&gt;.sacol):
+ * - File: int magic, byte format version, then row groups of up to batch-size rows
+ * - Row group: int rows, long min/max request date (epoch micros), int compressed length of
+ *   each column, then the columns in order, each one deflate-compressed on its own
+ * - Payload columns hold each distinct payload once per row group: a repeated payload is a
+ *   reference to the first row that carried it
+ * Values of a column are alike (ids and dates as deltas, repeated methods, similar envelopes),
+ * so they compress far better than rows. A scan skips row groups outside the date range and
+ * only inflates the columns it needs: filter columns first, payload columns only for row groups
+ * with matches when payloads are requested.
+ * Parts are written to a temporary file, forced to disk and renamed, so a part is either
+ * complete or absent
+ */
+@Log4j2
+@Component
+public class ColumnarAuditArchive implements AuditArchivePort {
+
+    static final int ID = 0;
+    static final int REQUEST_DATE = 1;
+    static final int IP_ORIGIN = 2;
+    static final int SOAP_METHOD = 3;
+    static final int STATUS = 4;
+    static final int DURATION_MS = 5;
+    static final int ERROR_MESSAGE = 6;
+    static final int ENDPOINT_CLASS = 7;
+    static final int PARSE_US = 8;
+    static final int CACHE_US = 9;
+    static final int UPSTREAM_US = 10;
+    static final int MARSHAL_US = 11;
+    static final int AUDIT_US = 12;
+    static final int REQUEST_PAYLOAD = 13;
+    static final int RESPONSE_PAYLOAD = 14;
+    static final int COLUMNS = 15;
+
+    private static final String FILE_PREFIX = "audit-";
+    private static final String FILE_SUFFIX = ".sacol";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final int MAGIC = 0x5341434C;
+    private static final byte FORMAT_VERSION = 1;
+    private static final DateTimeFormatter DAY = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private final Path directory;
+    private final int rowGroupSize;
+
+    public ColumnarAuditArchive(
+            @Value("${pokemon.audit.archive.directory:${java.io.tmpdir}/pokemon-audit-archive}") String directory,
+            @Value("${pokemon.audit.archive.batch-size:5000}") int rowGroupSize) {
+        this.directory = Path.of(directory);
+        this.rowGroupSize = rowGroupSize;
+        try {
+            Files.createDirectories(this.directory);
+            // Partes a medio escribir de una ejecución interrumpida
+            try (Stream<Path> files = Files.list(this.directory)) {
+                for (Path temp : files.filter(file -> file.getFileName().toString().endsWith(TEMP_SUFFIX)).toList()) {
+                    Files.deleteIfExists(temp);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open audit archive " + directory, e);
+        }
+    }
+
+    /**
+     * @return the committed parts of a day, in part order
+     */
+    public List<Path> parts(LocalDate day) throws IOException {
+        return files().stream()
+                .filter(file -> file.day().equals(day))
+                .map(ArchiveFile::path)
+                .toList();
+    }
+
+    /**
+     * Opens the next part of a day; nothing is visible until commit
+     */
+    public Writer writer(LocalDate day) throws IOException {
+        return new Writer(directory.resolve(FILE_PREFIX + DAY.format(day) + "-" + parts(day).size() + FILE_SUFFIX));
+    }
+
+    /**
+     * Reads only the id column of a part, one array per row group
+     */
+    public void readIds(Path part, Consumer<long[]> consumer) throws IOException {
+        try (DataInputStream in = open(part)) {
+            RowGroup group;
+            while ((group = RowGroup.read(in)) != null) {
+                long[] ids = decodeDeltas(group.column(in, ID), group.rows());
+                group.skipTo(in, COLUMNS);
+                consumer.accept(ids);
+            }
+        }
+    }
+
+    @Override
+    public void scan(AuditSearchCriteria criteria, Consumer<SoapAuditLog> consumer) {
+        LocalDateTime from = Objects.requireNonNull(criteria.getFrom(), "from");
+        LocalDateTime to = Objects.requireNonNull(criteria.getTo(), "to");
+        try {
+            for (ArchiveFile file : files()) {
+                if (!file.day().isBefore(from.toLocalDate()) && file.day().atStartOfDay().isBefore(to)) {
+                    scan(file.path(), criteria, consumer);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read audit archive " + directory, e);
+        }
+    }
+
+    private void scan(Path part, AuditSearchCriteria criteria, Consumer<SoapAuditLog> consumer) throws IOException {
+        long fromMicros = toMicros(criteria.getFrom());
+        long toMicros = toMicros(criteria.getTo());
+        try (DataInputStream in = open(part)) {
+            RowGroup group;
+            while ((group = RowGroup.read(in)) != null) {
+                int rows = group.rows();
+                if (group.maxDate() < fromMicros || group.minDate() >= toMicros) {
+                    group.skipTo(in, COLUMNS);
+                    continue;
+                }
+                // Columnas de filtro primero: los payloads solo se leen si hay coincidencias
+                long[] ids = decodeDeltas(group.column(in, ID), rows);
+                long[] dates = decodeDeltas(group.column(in, REQUEST_DATE), rows);
+                String[] ipOrigins = decodeStrings(group.column(in, IP_ORIGIN), rows);
+                String[] soapMethods = decodeStrings(group.column(in, SOAP_METHOD), rows);
+                String[] statuses = decodeStrings(group.column(in, STATUS), rows);
+                Long[] durations = decodeNullableLongs(group.column(in, DURATION_MS), rows);
+
+                boolean[] matches = new boolean[rows];
+                boolean any = false;
+                for (int row = 0; row < rows; row++) {
+                    matches[row] = dates[row] >= fromMicros && dates[row] < toMicros
+                            && (criteria.getSoapMethod() == null || criteria.getSoapMethod().equals(soapMethods[row]))
+                            && (criteria.getStatus() == null || criteria.getStatus().name().equals(statuses[row]))
+                            && (criteria.getIpOrigin() == null || criteria.getIpOrigin().equals(ipOrigins[row]))
+                            && (criteria.getMinDurationMs() == null
+                                || durations[row] != null && durations[row] >= criteria.getMinDurationMs());
+                    any |= matches[row];
+                }
+                if (!any) {
+                    group.skipTo(in, COLUMNS);
+                    continue;
+                }
+
+                String[] errorMessages = decodeStrings(group.column(in, ERROR_MESSAGE), rows);
+                String[] endpointClasses = decodeStrings(group.column(in, ENDPOINT_CLASS), rows);
+                Integer[] parseUs = decodeNullableInts(group.column(in, PARSE_US), rows);
+                Integer[] cacheUs = decodeNullableInts(group.column(in, CACHE_US), rows);
+                Integer[] upstreamUs = decodeNullableInts(group.column(in, UPSTREAM_US), rows);
+                Integer[] marshalUs = decodeNullableInts(group.column(in, MARSHAL_US), rows);
+                Integer[] auditUs = decodeNullableInts(group.column(in, AUDIT_US), rows);
+                String[] requestPayloads = null;
+                String[] responsePayloads = null;
+                if (criteria.isIncludePayloads()) {
+                    requestPayloads = decodeStrings(group.column(in, REQUEST_PAYLOAD), rows);
+                    responsePayloads = decodeStrings(group.column(in, RESPONSE_PAYLOAD), rows);
+                }
+                group.skipTo(in, COLUMNS);
+
+                for (int row = 0; row < rows; row++) {
+                    if (matches[row]) {
+                        consumer.accept(SoapAuditLog.builder()
+                                .id(ids[row])
+                                .requestDate(fromMicros(dates[row]))
+                                .ipOrigin(ipOrigins[row])
+                                .soapMethod(soapMethods[row])
+                                .status(statuses[row] != null ? RequestStatus.valueOf(statuses[row]) : null)
+                                .durationMs(durations[row])
+                                .errorMessage(errorMessages[row])
+                                .endpointClass(endpointClasses[row])
+                                .phaseTimings(PhaseTimings.of(parseUs[row], cacheUs[row], upstreamUs[row],
+                                        marshalUs[row], auditUs[row]))
+                                .requestPayload(requestPayloads != null ? requestPayloads[row] : null)
+                                .responsePayload(responsePayloads != null ? responsePayloads[row] : null)
+                                .build());
+                    }
+                }
+            }
+        }
+    }
+
+    private List<ArchiveFile> files() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(ArchiveFile::parse)
+                    .filter(Objects::nonNull)
+                    .sorted(Comparator.comparing(ArchiveFile::day).thenComparingInt(ArchiveFile::part))
+                    .toList();
+        }
+    }
+
+    private static DataInputStream open(Path part) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(part), 64 * 1024));
+        int magic = in.readInt();
+        byte version = in.readByte();
+        if (magic != MAGIC || version != FORMAT_VERSION) {
+            in.close();
+            throw new IOException("Not an audit archive file: " + part);
+        }
+        return in;
+    }
+
+    static long toMicros(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + dateTime.getNano() / 1_000;
+    }
+
+    static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000),
+                (int) Math.floorMod(micros, 1_000_000) * 1_000, ZoneOffset.UTC);
+    }
+
+    private static byte[] compress(ColumnEncoder encoder) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try (DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(bytes, deflater, 8192))) {
+            encoder.encode(out);
+        } finally {
+            deflater.end();
+        }
+        return bytes.toByteArray();
+    }
+
+    private static DataInputStream inflate(byte[] column) {
+        return new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(column)));
+    }
+
+    private static void encodeDeltas(DataOutputStream out, long[] values) throws IOException {
+        long previous = 0;
+        for (long value : values) {
+            out.writeLong(value - previous);
+            previous = value;
+        }
+    }
+
+    private static long[] decodeDeltas(byte[] column, int rows) throws IOException {
+        long[] values = new long[rows];
+        try (DataInputStream in = inflate(column)) {
+            long previous = 0;
+            for (int row = 0; row < rows; row++) {
+                previous += in.readLong();
+                values[row] = previous;
+            }
+        }
+        return values;
+    }
+
+    private static void encodeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String[] decodeStrings(byte[] column, int rows) throws IOException {
+        String[] values = new String[rows];
+        try (DataInputStream in = inflate(column)) {
+            for (int row = 0; row < rows; row++) {
+                int length = in.readInt();
+                if (length >= 0) {
+                    values[row] = new String(in.readNBytes(length), StandardCharsets.UTF_8);
+                } else if (length < -1) {
+                    // Payload repetido: referencia a la primera fila del grupo que lo contiene
+                    values[row] = values[-2 - length];
+                }
+            }
+        }
+        return values;
+    }
+
+    private static Long[] decodeNullableLongs(byte[] column, int rows) throws IOException {
+        Long[] values = new Long[rows];
+        try (DataInputStream in = inflate(column)) {
+            for (int row = 0; row < rows; row++) {
+                values[row] = in.readBoolean() ? in.readLong() : null;
+            }
+        }
+        return values;
+    }
+
+    private static Integer[] decodeNullableInts(byte[] column, int rows) throws IOException {
+        Integer[] values = new Integer[rows];
+        try (DataInputStream in = inflate(column)) {
+            for (int row = 0; row < rows; row++) {
+                values[row] = in.readBoolean() ? in.readInt() : null;
+            }
+        }
+        return values;
+    }
+
+    @FunctionalInterface
+    private interface ColumnEncoder {
+        void encode(DataOutputStream out) throws IOException;
+    }
+
+    /**
+     * Row group header; columns are read in file order, skipped ones are never inflated
+     */
+    private static final class RowGroup {
+
+        private final int rows;
+        private final long minDate;
+        private final long maxDate;
+        private final int[] lengths;
+        private int next;
+
+        private RowGroup(int rows, long minDate, long maxDate, int[] lengths) {
+            this.rows = rows;
+            this.minDate = minDate;
+            this.maxDate = maxDate;
+            this.lengths = lengths;
+        }
+
+        /**
+         * @return the next row group header, or null at the end of the file
+         */
+        static RowGroup read(DataInputStream in) throws IOException {
+            int first = in.read();
+            if (first < 0) {
+                return null;
+            }
+            int rows = (first << 24) | (in.readUnsignedByte() << 16) | (in.readUnsignedByte() << 8) | in.readUnsignedByte();
+            long minDate = in.readLong();
+            long maxDate = in.readLong();
+            int[] lengths = new int[COLUMNS];
+            for (int column = 0; column < COLUMNS; column++) {
+                lengths[column] = in.readInt();
+            }
+            return new RowGroup(rows, minDate, maxDate, lengths);
+        }
+
+        int rows() {
+            return rows;
+        }
+
+        long minDate() {
+            return minDate;
+        }
+
+        long maxDate() {
+            return maxDate;
+        }
+
+        byte[] column(DataInputStream in, int column) throws IOException {
+            skipTo(in, column);
+            next++;
+            return in.readNBytes(lengths[column]);
+        }
+
+        void skipTo(DataInputStream in, int column) throws IOException {
+            for (; next < column; next++) {
+                in.skipNBytes(lengths[next]);
+            }
+        }
+    }
+
+    /**
+     * Committed part file of a day
+     */
+    record ArchiveFile(Path path, LocalDate day, int part) {
+
+        static ArchiveFile parse(Path path) {
+            String name = path.getFileName().toString();
+            if (!name.startsWith(FILE_PREFIX) || !name.endsWith(FILE_SUFFIX)) {
+                return null;
+            }
+            String[] fields = name.substring(FILE_PREFIX.length(), name.length() - FILE_SUFFIX.length()).split("-");
+            if (fields.length != 2) {
+                return null;
+            }
+            try {
+                return new ArchiveFile(path, LocalDate.parse(fields[0], DAY), Integer.parseInt(fields[1]));
+            } catch (DateTimeParseException | NumberFormatException e) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Writes one part: rows are buffered up to batch-size and written as a row group
+     */
+    public final class Writer implements Closeable {
+
+        private final Path target;
+        private final Path temp;
+        private final FileChannel channel;
+        private final DataOutputStream out;
+        private final List<SoapAuditLog> group = new ArrayList<>();
+        private long rows;
+        private boolean committed;
+
+        private Writer(Path target) throws IOException {
+            this.target = target;
+            this.temp = target.resolveSibling(target.getFileName() + TEMP_SUFFIX);
+            this.channel = FileChannel.open(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+            this.out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 64 * 1024));
+            out.writeInt(MAGIC);
+            out.writeByte(FORMAT_VERSION);
+        }
+
+        public void append(SoapAuditLog auditLog) throws IOException {
+            group.add(auditLog);
+            if (group.size() >= rowGroupSize) {
+                writeGroup();
+            }
+        }
+
+        public long rows() {
+            return rows;
+        }
+
+        /**
+         * Makes the part visible
+         *
+         * @return the part file, or null if no row was appended (nothing is kept)
+         */
+        public Path commit() throws IOException {
+            writeGroup();
+            out.flush();
+            channel.force(true);
+            out.close();
+            if (rows == 0) {
+                Files.deleteIfExists(temp);
+                committed = true;
+                return null;
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            committed = true;
+            log.debug("Audit archive part {} written: {} rows", target.getFileName(), rows);
+            return target;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!committed) {
+                out.close();
+                Files.deleteIfExists(temp);
+            }
+        }
+
+        private void writeGroup() throws IOException {
+            if (group.isEmpty()) {
+                return;
+            }
+            int size = group.size();
+            long[] ids = new long[size];
+            long[] dates = new long[size];
+            long minDate = Long.MAX_VALUE;
+            long maxDate = Long.MIN_VALUE;
+            for (int row = 0; row < size; row++) {
+                ids[row] = group.get(row).getId();
+                dates[row] = toMicros(group.get(row).getRequestDate());
+                minDate = Math.min(minDate, dates[row]);
+                maxDate = Math.max(maxDate, dates[row]);
+            }
+
+            byte[][] columns = new byte[COLUMNS][];
+            columns[ID] = compress(column -> encodeDeltas(column, ids));
+            columns[REQUEST_DATE] = compress(column -> encodeDeltas(column, dates));
+            columns[IP_ORIGIN] = compress(column -> strings(column, SoapAuditLog::getIpOrigin));
+            columns[SOAP_METHOD] = compress(column -> strings(column, SoapAuditLog::getSoapMethod));
+            columns[STATUS] = compress(column -> strings(column,
+                    auditLog -> auditLog.getStatus() != null ? auditLog.getStatus().name() : null));
+            columns[DURATION_MS] = compress(column -> {
+                for (SoapAuditLog auditLog : group) {
+                    column.writeBoolean(auditLog.getDurationMs() != null);
+                    if (auditLog.getDurationMs() != null) {
+                        column.writeLong(auditLog.getDurationMs());
+                    }
+                }
+            });
+            columns[ERROR_MESSAGE] = compress(column -> strings(column, SoapAuditLog::getErrorMessage));
+            columns[ENDPOINT_CLASS] = compress(column -> strings(column, SoapAuditLog::getEndpointClass));
+            columns[PARSE_US] = compress(column -> phases(column, PhaseTimings::parseUs));
+            columns[CACHE_US] = compress(column -> phases(column, PhaseTimings::cacheUs));
+            columns[UPSTREAM_US] = compress(column -> phases(column, PhaseTimings::upstreamUs));
+            columns[MARSHAL_US] = compress(column -> phases(column, PhaseTimings::marshalUs));
+            columns[AUDIT_US] = compress(column -> phases(column, PhaseTimings::auditUs));
+            columns[REQUEST_PAYLOAD] = compress(column -> payloads(column, SoapAuditLog::getRequestPayload));
+            columns[RESPONSE_PAYLOAD] = compress(column -> payloads(column, SoapAuditLog::getResponsePayload));
+
+            out.writeInt(size);
+            out.writeLong(minDate);
+            out.writeLong(maxDate);
+            for (byte[] column : columns) {
+                out.writeInt(column.length);
+            }
+            for (byte[] column : columns) {
+                out.write(column);
+            }
+            rows += size;
+            group.clear();
+        }
+
+        private void strings(DataOutputStream column, Function<SoapAuditLog, String> value)
+                throws IOException {
+            for (SoapAuditLog auditLog : group) {
+                encodeString(column, value.apply(auditLog));
+            }
+        }
+
+        /**
+         * Nullable int column of one phase; rows without timings are null
+         */
+        private void phases(DataOutputStream column, Function<PhaseTimings, Integer> phase) throws IOException {
+            for (SoapAuditLog auditLog : group) {
+                Integer value = auditLog.getPhaseTimings() != null ? phase.apply(auditLog.getPhaseTimings()) : null;
+                column.writeBoolean(value != null);
+                if (value != null) {
+                    column.writeInt(value);
+                }
+            }
+        }
+
+        /**
+         * Strings column that writes each distinct value once, repeats as -2 - first row
+         */
+        private void payloads(DataOutputStream column, Function<SoapAuditLog, String> value)
+                throws IOException {
+            Map<String, Integer> firstRows = new HashMap<>();
+            for (int row = 0; row < group.size(); row++) {
+                String payload = value.apply(group.get(row));
+                Integer firstRow = payload != null ? firstRows.putIfAbsent(payload, row) : null;
+                if (firstRow != null) {
+                    column.writeInt(-2 - firstRow);
+                } else {
+                    encodeString(column, payload);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package com.bankaya.pokemon.infrastructure.adapter.persistence;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Objects;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bankaya.pokemon.infrastructure.utils.DateTimeUtils;
+
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Audit Partition Manager
+ * soap_audit_log is range-partitioned on request_date (db/migration). This component keeps
+ * the partitions ahead of the writes and enforces retention without DELETEs:
+ * - Creates the partitions of the current period and the next premake periods (DAILY or MONTHLY)
+ * - Rows that landed in soap_audit_log_default (no partition yet, rows copied by the migration)
+ *   are moved into the partition created for their period
+ * - Drops whole partitions that ended before now - retention
+ * - Deletes the soap_audit_payload rows stored before now - retention that no row references
+ * Runs at startup and on maintenance-cron. Partition names carry their period start
+ * (soap_audit_log_p20250115 daily, soap_audit_log_p202501 monthly), so partitions created
+ * before a granularity change are still recognized and expired
+ */
+@Log4j2
+@Component
+@ConditionalOnProperty(name = "pokemon.audit.partitions.enabled", havingValue = "true")
+public class AuditPartitionManager implements SmartInitializingSingleton {
+
+    static final String TABLE = "soap_audit_log";
+    static final String DEFAULT_PARTITION = TABLE + "_default";
+    static final String PARTITION_PREFIX = TABLE + "_p";
+
+    private static final DateTimeFormatter DAILY_SUFFIX = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final DateTimeFormatter MONTHLY_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final String PARTITIONS_SQL = "SELECT child.relname FROM pg_inherits "
+            + "JOIN pg_class child ON child.oid = pg_inherits.inhrelid "
+            + "WHERE pg_inherits.inhparent = to_regclass('" + TABLE + "')";
+    private static final String OLDEST_DEFAULT_SQL = "SELECT min(request_date) FROM " + DEFAULT_PARTITION;
+    private static final String DELETE_EXPIRED_DEFAULT_SQL = "DELETE FROM " + DEFAULT_PARTITION + " WHERE request_date < ?";
+    private static final String MOVE_DEFAULT_SQL = "WITH moved AS (DELETE FROM " + DEFAULT_PARTITION
+            + " WHERE request_date >= ? AND request_date < ? RETURNING *) INSERT INTO %s SELECT * FROM moved";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AuditPayloadStore payloadStore;
+    private final DateTimeUtils dateTimeUtils;
+    private final Granularity granularity;
+    private final int premake;
+    private final Duration retention;
+
+    public AuditPartitionManager(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                 AuditPayloadStore payloadStore, DateTimeUtils dateTimeUtils,
+                                 @Value("${pokemon.audit.partitions.granularity:DAILY}") Granularity granularity,
+                                 @Value("${pokemon.audit.partitions.premake:7}") int premake,
+                                 @Value("${pokemon.audit.partitions.retention:90d}") Duration retention) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.payloadStore = payloadStore;
+        this.dateTimeUtils = dateTimeUtils;
+        this.granularity = granularity;
+        this.premake = premake;
+        this.retention = retention;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        // Particiones listas antes de recibir tráfico
+        maintain();
+    }
+
+    @Scheduled(cron = "${pokemon.audit.partitions.maintenance-cron:0 15 0 * * *}")
+    public void maintain() {
+        try {
+            LocalDate today = dateTimeUtils.now().toLocalDate();
+            LocalDate cutoff = today.minusDays(retention.toDays());
+            List<Partition> partitions = partitions();
+
+            LocalDate last = granularity.periodStart(today);
+            for (int i = 0; i < premake; i++) {
+                last = granularity.next(last);
+            }
+            for (LocalDate start = granularity.periodStart(firstPendingDate(today, cutoff)); !start.isAfter(last);
+                 start = granularity.next(start)) {
+                Partition partition = new Partition(PARTITION_PREFIX + granularity.suffix(start), start,
+                        granularity.next(start));
+                if (partitions.stream().noneMatch(partition::overlaps)) {
+                    create(partition);
+                }
+            }
+
+            for (Partition partition : partitions) {
+                if (!partition.to().isAfter(cutoff)) {
+                    jdbcTemplate.execute("DROP TABLE IF EXISTS " + partition.name());
+                    log.info("Audit partition {} dropped (retention {})", partition.name(), retention);
+                }
+            }
+
+            int swept = payloadStore.sweep(cutoff.atStartOfDay());
+            if (swept > 0) {
+                log.info("{} unreferenced audit payloads deleted (retention {})", swept, retention);
+            }
+        } catch (RuntimeException e) {
+            log.error("Audit partition maintenance failed, it is retried on the next run", e);
+        }
+    }
+
+    /**
+     * Oldest date that needs a partition: today, or the oldest row still in the default
+     * partition within retention (older rows there are deleted)
+     */
+    private LocalDate firstPendingDate(LocalDate today, LocalDate cutoff) {
+        int expired = jdbcTemplate.update(DELETE_EXPIRED_DEFAULT_SQL, cutoff.atStartOfDay());
+        if (expired > 0) {
+            log.info("{} audit rows past retention deleted from {}", expired, DEFAULT_PARTITION);
+        }
+        LocalDateTime oldest = jdbcTemplate.queryForObject(OLDEST_DEFAULT_SQL, LocalDateTime.class);
+        return oldest != null && oldest.toLocalDate().isBefore(today) ? oldest.toLocalDate() : today;
+    }
+
+    private List<Partition> partitions() {
+        return jdbcTemplate.queryForList(PARTITIONS_SQL, String.class).stream()
+                .map(AuditPartitionManager::parse)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    /**
+     * Creates the partition as a plain table, moves its rows out of the default partition and
+     * attaches it, in one transaction (CREATE ... PARTITION OF fails while the default partition
+     * holds rows of the new range)
+     */
+    private void create(Partition partition) {
+        Integer moved = transactionTemplate.execute(status -> {
+            jdbcTemplate.execute("CREATE TABLE " + partition.name() + " (LIKE " + TABLE
+                    + " INCLUDING DEFAULTS INCLUDING CONSTRAINTS)");
+            int rows = jdbcTemplate.update(String.format(MOVE_DEFAULT_SQL, partition.name()),
+                    partition.from().atStartOfDay(), partition.to().atStartOfDay());
+            jdbcTemplate.execute("ALTER TABLE " + TABLE + " ATTACH PARTITION " + partition.name()
+                    + " FOR VALUES FROM ('" + partition.from() + "') TO ('" + partition.to() + "')");
+            return rows;
+        });
+        log.info("Audit partition {} created for [{}, {}), {} rows moved from {}", partition.name(),
+                partition.from(), partition.to(), moved, DEFAULT_PARTITION);
+    }
+
+    /**
+     * @return the name of the DAILY partition of a day
+     */
+    public static String dailyPartitionName(LocalDate day) {
+        return PARTITION_PREFIX + Granularity.DAILY.suffix(day);
+    }
+
+    /**
+     * @return the partition range encoded in a managed partition name, or null for other tables
+     */
+    static Partition parse(String name) {
+        if (!name.startsWith(PARTITION_PREFIX)) {
+            return null;
+        }
+        String suffix = name.substring(PARTITION_PREFIX.length());
+        try {
+            return switch (suffix.length()) {
+                case 8 -> {
+                    LocalDate from = LocalDate.parse(suffix, DAILY_SUFFIX);
+                    yield new Partition(name, from, Granularity.DAILY.next(from));
+                }
+                case 6 -> {
+                    LocalDate from = LocalDate.parse(suffix + "01", DAILY_SUFFIX);
+                    yield new Partition(name, from, Granularity.MONTHLY.next(from));
+                }
+                default -> null;
+            };
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Partition period
+     */
+    public enum Granularity {
+        DAILY,
+        MONTHLY;
+
+        LocalDate periodStart(LocalDate date) {
+            return this == DAILY ? date : date.withDayOfMonth(1);
+        }
+
+        LocalDate next(LocalDate periodStart) {
+            return this == DAILY ? periodStart.plusDays(1) : periodStart.plusMonths(1);
+        }
+
+        String suffix(LocalDate periodStart) {
+            return (this == DAILY ? DAILY_SUFFIX : MONTHLY_SUFFIX).format(periodStart);
+        }
+    }
+
+    /**
+     * Managed partition covering [from, to)
+     */
+    record Partition(String name, LocalDate from, LocalDate to) {
+
+        boolean overlaps(Partition other) {
+            return from.isBefore(other.to) && other.from.isBefore(to);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.bankaya.pokemon.infrastructure.adapter.persistence;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.bankaya.pokemon.infrastructure.adapter.persistence.entity.SoapAuditLogEntity;
+import com.bankaya.pokemon.infrastructure.utils.DateTimeUtils;
+import com.bankaya.pokemon.infrastructure.utils.PayloadCompressionUtils;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Content-addressed audit payload store
+ * Replaces the payloads of a batch of audit rows by their SHA-256 hash and upserts each
+ * distinct payload once into soap_audit_payload; the upsert of a payload that already exists
+ * only refreshes its created_at.
+ * A bounded set of recently stored hashes, kept for recent-hashes-ttl, skips upserts of payloads
+ * already known to exist.
+ * Payloads are upserted in their own (auto-commit) statements before the audit rows, so a
+ * hash is never remembered for a payload that was rolled back.
+ * Payloads no audit row references anymore (rows dropped with their partition, archived or
+ * orphaned by a failed batch) are deleted by sweep. A payload in use was upserted within
+ * recent-hashes-ttl, so a sweep cutoff older than that never removes a payload a writer skips.
+ * Metrics:
+ * - soap.audit.payload.dedup{result=hit|miss}: hit rate of the recent-hash set and of the batch
+ * - soap.audit.payload.bytes{kind=logical|stored}: payload bytes referenced vs bytes written,
+ *   the storage saving is 1 - stored/logical
+ */
+@Component
+public class AuditPayloadStore {
+
+    static final String UPSERT_SQL = "INSERT INTO soap_audit_payload (hash, payload, size_bytes, stored_bytes, created_at) "
+            + "VALUES (?, ?, ?, ?, ?) ON CONFLICT (hash) DO UPDATE SET created_at = EXCLUDED.created_at";
+    static final String SWEEP_SQL = "DELETE FROM soap_audit_payload p WHERE p.created_at < ? "
+            + "AND NOT EXISTS (SELECT 1 FROM soap_audit_log l WHERE l.request_payload_hash = p.hash) "
+            + "AND NOT EXISTS (SELECT 1 FROM soap_audit_log l WHERE l.response_payload_hash = p.hash)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DateTimeUtils dateTimeUtils;
+    private final Cache<String, Boolean> recentHashes;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter logicalBytes;
+    private final Counter storedBytes;
+
+    public AuditPayloadStore(JdbcTemplate jdbcTemplate, DateTimeUtils dateTimeUtils, MeterRegistry meterRegistry,
+                             @Value("${pokemon.audit.dedup.recent-hashes:100000}") long recentHashes,
+                             @Value("${pokemon.audit.dedup.recent-hashes-ttl:1h}") Duration recentHashesTtl) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dateTimeUtils = dateTimeUtils;
+        this.recentHashes = Caffeine.newBuilder()
+                .maximumSize(recentHashes)
+                .expireAfterWrite(recentHashesTtl)
+                .build();
+        this.hits = meterRegistry.counter("soap.audit.payload.dedup", "result", "hit");
+        this.misses = meterRegistry.counter("soap.audit.payload.dedup", "result", "miss");
+        this.logicalBytes = meterRegistry.counter("soap.audit.payload.bytes", "kind", "logical");
+        this.storedBytes = meterRegistry.counter("soap.audit.payload.bytes", "kind", "stored");
+    }
+
+    /**
+     * Sets the payload hashes of the audit rows and stores the payloads not seen recently
+     */
+    public void store(List<SoapAuditLogEntity> audits) {
+        List<PendingPayload> pending = prepare(audits);
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        Timestamp now = Timestamp.valueOf(dateTimeUtils.now());
+        List<Object[]> rows = new ArrayList<>(pending.size());
+        for (PendingPayload payload : pending) {
+            rows.add(new Object[]{payload.hash(), payload.compressed(), payload.sizeBytes(), payload.compressed().length, now});
+        }
+        jdbcTemplate.batchUpdate(UPSERT_SQL, rows);
+        remember(pending);
+    }
+
+    /**
+     * Sets the payload hashes of the audit rows, for writers that upsert the payloads themselves
+     * (remember them once committed)
+     *
+     * @return the compressed payloads not seen recently, one per distinct hash
+     */
+    public List<PendingPayload> prepare(List<SoapAuditLogEntity> audits) {
+        Map<String, byte[]> pending = new LinkedHashMap<>();
+        for (SoapAuditLogEntity audit : audits) {
+            audit.setRequestPayloadHash(register(audit.getRequestPayload(), pending));
+            audit.setResponsePayloadHash(register(audit.getResponsePayload(), pending));
+        }
+        List<PendingPayload> payloads = new ArrayList<>(pending.size());
+        for (Map.Entry<String, byte[]> entry : pending.entrySet()) {
+            byte[] compressed = PayloadCompressionUtils.compress(new String(entry.getValue(), StandardCharsets.UTF_8));
+            storedBytes.increment(compressed.length);
+            payloads.add(new PendingPayload(entry.getKey(), compressed, entry.getValue().length));
+        }
+        return payloads;
+    }
+
+    /**
+     * Marks stored payloads as recently seen, their next occurrences skip the upsert
+     */
+    public void remember(List<PendingPayload> payloads) {
+        payloads.forEach(payload -> recentHashes.put(payload.hash(), Boolean.TRUE));
+    }
+
+    /**
+     * Deletes the payloads stored before the cutoff that no audit row references
+     *
+     * @param storedBefore cutoff, at least recent-hashes-ttl in the past
+     * @return deleted payloads
+     */
+    public int sweep(LocalDateTime storedBefore) {
+        // Un solo anti-join (una lectura de soap_audit_log); se ejecuta con el mantenimiento diario
+        return jdbcTemplate.update(SWEEP_SQL, storedBefore);
+    }
+
+    private String register(String payload, Map<String, byte[]> pending) {
+        if (payload == null) {
+            return null;
+        }
+        byte[] bytes = payload.getBytes(StandardCharsets.UTF_8);
+        String hash = sha256(bytes);
+        logicalBytes.increment(bytes.length);
+        // Repetido en el mismo lote o almacenado recientemente: no se vuelve a escribir
+        if (pending.containsKey(hash) || recentHashes.getIfPresent(hash) != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+            pending.put(hash, bytes);
+        }
+        return hash;
+    }
+
+    /**
+     * Content address of a payload: hex SHA-256 of its UTF-8 bytes
+     */
+    public static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Payload to upsert: SHA-256 hash, compressed bytes, original size in bytes
+     */
+    public record PendingPayload(String hash, byte[] compressed, int sizeBytes) {
+    }
+}
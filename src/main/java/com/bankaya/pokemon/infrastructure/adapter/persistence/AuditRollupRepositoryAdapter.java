@@ -0,0 +1,91 @@
+package com.bankaya.pokemon.infrastructure.adapter.persistence;
+
+import java.nio.ByteBuffer;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+
+import org.HdrHistogram.Histogram;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.bankaya.pokemon.domain.model.AuditRollup;
+import com.bankaya.pokemon.domain.ports.AuditRollupRepositoryPort;
+import com.bankaya.pokemon.infrastructure.adapter.enums.RequestStatus;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Adapter for Audit Rollup Repository
+ * Stores rollups in soap_audit_rollup with the latency histogram in the HdrHistogram
+ * compressed encoding (a few hundred bytes per row)
+ */
+@Component
+@RequiredArgsConstructor
+public class AuditRollupRepositoryAdapter implements AuditRollupRepositoryPort {
+
+    static final String INSERT_SQL = "INSERT INTO soap_audit_rollup "
+            + "(bucket_start, soap_method, status, request_count, max_ms, histogram) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String SELECT_SQL = "SELECT bucket_start, soap_method, status, histogram FROM soap_audit_rollup "
+            + "WHERE bucket_start >= ? AND bucket_start < ?";
+    private static final String DELETE_BEFORE_SQL = "DELETE FROM soap_audit_rollup WHERE bucket_start < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void saveAll(List<AuditRollup> rollups) {
+        List<Object[]> rows = rollups.stream()
+                .map(rollup -> new Object[]{
+                        Timestamp.valueOf(rollup.getBucketStart()),
+                        rollup.getSoapMethod(),
+                        rollup.getStatus().name(),
+                        rollup.getLatency().getTotalCount(),
+                        rollup.getLatency().getMaxValue(),
+                        encode(rollup.getLatency())})
+                .toList();
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+    }
+
+    @Override
+    public List<AuditRollup> find(LocalDateTime from, LocalDateTime to, String soapMethod) {
+        if (soapMethod == null) {
+            return jdbcTemplate.query(SELECT_SQL + " ORDER BY bucket_start", this::toRollup,
+                    Timestamp.valueOf(from), Timestamp.valueOf(to));
+        }
+        return jdbcTemplate.query(SELECT_SQL + " AND soap_method = ? ORDER BY bucket_start", this::toRollup,
+                Timestamp.valueOf(from), Timestamp.valueOf(to), soapMethod);
+    }
+
+    @Override
+    public int deleteBefore(LocalDateTime cutoff) {
+        return jdbcTemplate.update(DELETE_BEFORE_SQL, Timestamp.valueOf(cutoff));
+    }
+
+    private AuditRollup toRollup(ResultSet resultSet, int rowNum) throws SQLException {
+        return AuditRollup.builder()
+                .bucketStart(resultSet.getTimestamp("bucket_start").toLocalDateTime())
+                .soapMethod(resultSet.getString("soap_method"))
+                .status(RequestStatus.valueOf(resultSet.getString("status")))
+                .latency(decode(resultSet.getBytes("histogram")))
+                .build();
+    }
+
+    static byte[] encode(Histogram histogram) {
+        ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+        int length = histogram.encodeIntoCompressedByteBuffer(buffer, Deflater.BEST_SPEED);
+        return Arrays.copyOf(buffer.array(), length);
+    }
+
+    static Histogram decode(byte[] encoded) {
+        try {
+            return Histogram.decodeFromCompressedByteBuffer(ByteBuffer.wrap(encoded), 0);
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupted audit rollup histogram", e);
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.bankaya.pokemon.infrastructure.adapter.persistence;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.function.Consumer;
+
+import javax.sql.DataSource;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import com.bankaya.pokemon.domain.model.AuditSearchCriteria;
+import com.bankaya.pokemon.domain.model.SoapAuditLog;
+import com.bankaya.pokemon.domain.ports.SoapAuditLogRepositoryPort;
+import com.bankaya.pokemon.infrastructure.adapter.persistence.entity.SoapAuditLogEntity;
+import com.bankaya.pokemon.infrastructure.utils.DateTimeUtils;
+
+import lombok.extern.log4j.Log4j2;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * COPY Adapter for SOAP Audit Log Repository
+ * Streams audit batches into soap_audit_log with COPY ... FROM STDIN (binary format)
+ * through the PgJDBC CopyManager instead of INSERT statements. Payloads go through the
+ * same AuditPayloadStore as the JPA path; the rows only carry their hashes.
+ * Ids are taken from soap_audit_log_seq in blocks compatible with Hibernate's pooled
+ * optimizer (SequenceIdBlocks), so both write paths can coexist.
+ * On any COPY error the COPY is cancelled, so no row of the batch is committed, and the
+ * batch falls back to the JPA adapter (batched inserts)
+ * Enabled with pokemon.audit.persistence=copy
+ */
+@Log4j2
+@Primary
+@Component
+@ConditionalOnProperty(name = "pokemon.audit.persistence", havingValue = "copy")
+public class CopySoapAuditLogRepositoryAdapter implements SoapAuditLogRepositoryPort {
+
+    static final String COPY_SQL = "COPY soap_audit_log (id, request_date, ip_origin, soap_method, duration_ms, "
+            + "request_payload_hash, response_payload_hash, status, error_message, endpoint_class, "
+            + "parse_us, cache_us, upstream_us, marshal_us, audit_us) FROM STDIN (FORMAT binary)";
+    private static final int FIELD_COUNT = 15;
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    private final DataSource dataSource;
+    private final SoapAuditLogRepositoryAdapter fallback;
+    private final AuditPayloadStore payloadStore;
+    private final DateTimeUtils dateTimeUtils;
+    private final Counter copiedRows;
+    private final Counter fallbackBatches;
+
+    public CopySoapAuditLogRepositoryAdapter(DataSource dataSource, SoapAuditLogRepositoryAdapter fallback,
+                                             AuditPayloadStore payloadStore, DateTimeUtils dateTimeUtils,
+                                             MeterRegistry meterRegistry) {
+        this.dataSource = dataSource;
+        this.fallback = fallback;
+        this.payloadStore = payloadStore;
+        this.dateTimeUtils = dateTimeUtils;
+        this.copiedRows = meterRegistry.counter("soap.audit.copy.rows");
+        this.fallbackBatches = meterRegistry.counter("soap.audit.copy.fallbacks");
+    }
+
+    @Override
+    public void save(SoapAuditLogEntity audit) {
+        saveAll(List.of(audit));
+    }
+
+    @Override
+    public void saveAll(List<SoapAuditLogEntity> audits) {
+        if (audits.isEmpty()) {
+            return;
+        }
+        payloadStore.store(audits);
+        try (Connection connection = dataSource.getConnection()) {
+            copy(connection, audits);
+            copiedRows.increment(audits.size());
+        } catch (SQLException | IOException | RuntimeException e) {
+            // copy() ya canceló el COPY: ninguna fila del lote quedó confirmada
+            log.warn("COPY of {} audit logs failed, falling back to batched inserts", audits.size(), e);
+            fallbackBatches.increment();
+            fallback.saveRows(audits);
+        }
+    }
+
+    @Override
+    public List<SoapAuditLog> search(AuditSearchCriteria criteria) {
+        return fallback.search(criteria);
+    }
+
+    @Override
+    public void export(AuditSearchCriteria criteria, Consumer<SoapAuditLog> consumer) {
+        fallback.export(criteria, consumer);
+    }
+
+    private void copy(Connection connection, List<SoapAuditLogEntity> audits) throws SQLException, IOException {
+        SequenceIdBlocks ids = reserveIds(connection, audits.size());
+        PGConnection pgConnection = connection.unwrap(PGConnection.class);
+        PGCopyOutputStream copyStream = new PGCopyOutputStream(pgConnection, COPY_SQL, COPY_BUFFER_SIZE);
+        try {
+            PgCopyBinaryWriter writer = new PgCopyBinaryWriter(copyStream);
+            for (SoapAuditLogEntity audit : audits) {
+                writer.startRow(FIELD_COUNT);
+                writer.writeLong(ids.next());
+                writer.writeTimestamp(audit.getRequestDate() != null
+                        ? audit.getRequestDate()
+                        : dateTimeUtils.now());
+                writer.writeText(audit.getIpOrigin());
+                writer.writeText(audit.getSoapMethod());
+                writer.writeLong(audit.getDurationMs());
+                writer.writeText(audit.getRequestPayloadHash());
+                writer.writeText(audit.getResponsePayloadHash());
+                writer.writeText(audit.getStatus() != null ? audit.getStatus().name() : null);
+                writer.writeText(audit.getErrorMessage());
+                writer.writeText(audit.getEndpointClass());
+                writer.writeInt(audit.getParseUs());
+                writer.writeInt(audit.getCacheUs());
+                writer.writeInt(audit.getUpstreamUs());
+                writer.writeInt(audit.getMarshalUs());
+                writer.writeInt(audit.getAuditUs());
+            }
+            writer.finish();
+            // Autocommit (Hikari): el COPY completo es atómico y solo se confirma aquí
+            copyStream.endCopy();
+        } catch (SQLException | IOException | RuntimeException e) {
+            // Cerrar el stream terminaría el COPY y confirmaría las filas ya enviadas: se cancela
+            cancel(copyStream, e);
+            throw e;
+        }
+    }
+
+    private static void cancel(PGCopyOutputStream copyStream, Exception failure) {
+        try {
+            if (copyStream.isActive()) {
+                copyStream.cancelCopy();
+            }
+        } catch (SQLException e) {
+            failure.addSuppressed(e);
+        }
+    }
+
+    /**
+     * Reserves all the id blocks before the COPY starts (the connection cannot run queries during it)
+     */
+    private static SequenceIdBlocks reserveIds(Connection connection, int count) throws SQLException {
+        int blocks = SequenceIdBlocks.blocksFor(count);
+        long[] blockEnds = new long[blocks];
+        try (PreparedStatement statement = connection.prepareStatement(SequenceIdBlocks.NEXT_IDS_SQL)) {
+            int reserved = 0;
+            while (reserved < blocks) {
+                statement.setInt(1, blocks - reserved);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        long value = resultSet.getLong(1);
+                        if (SequenceIdBlocks.isBlockEnd(value)) {
+                            blockEnds[reserved++] = value;
+                        }
+                    }
+                }
+            }
+        }
+        return new SequenceIdBlocks(blockEnds);
+    }
+}
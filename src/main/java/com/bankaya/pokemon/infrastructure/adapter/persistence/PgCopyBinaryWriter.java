@@ -0,0 +1,89 @@
+package com.bankaya.pokemon.infrastructure.adapter.persistence;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * PostgreSQL COPY binary format writer
+ * Encodes rows for COPY ... FROM STDIN (FORMAT binary): signature header, then per row
+ * a field count and length-prefixed values, then the -1 trailer. Values travel as raw
+ * bytes, so payload text needs no escaping (quotes, tabs, newlines, backslashes are sent
+ * verbatim); only NUL characters, which PostgreSQL text cannot store, are removed.
+ * The trailer is only written by finish()
+ */
+public class PgCopyBinaryWriter {
+
+    private static final byte[] SIGNATURE = {'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xFF, '\r', '\n', 0};
+    private static final LocalDateTime POSTGRES_EPOCH = LocalDateTime.of(2000, 1, 1, 0, 0);
+
+    private final DataOutputStream out;
+
+    public PgCopyBinaryWriter(OutputStream out) throws IOException {
+        this.out = new DataOutputStream(out);
+        this.out.write(SIGNATURE);
+        // Flags y longitud de la extensión de cabecera
+        this.out.writeInt(0);
+        this.out.writeInt(0);
+    }
+
+    public void startRow(int fieldCount) throws IOException {
+        out.writeShort(fieldCount);
+    }
+
+    public void writeLong(Long value) throws IOException {
+        if (value == null) {
+            writeNull();
+            return;
+        }
+        out.writeInt(Long.BYTES);
+        out.writeLong(value);
+    }
+
+    public void writeInt(Integer value) throws IOException {
+        if (value == null) {
+            writeNull();
+            return;
+        }
+        out.writeInt(Integer.BYTES);
+        out.writeInt(value);
+    }
+
+    public void writeText(String value) throws IOException {
+        if (value == null) {
+            writeNull();
+            return;
+        }
+        byte[] bytes = (value.indexOf('\0') >= 0 ? value.replace("\0", "") : value).getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * timestamp (without time zone): microseconds since 2000-01-01 00:00
+     */
+    public void writeTimestamp(LocalDateTime value) throws IOException {
+        if (value == null) {
+            writeNull();
+            return;
+        }
+        out.writeInt(Long.BYTES);
+        out.writeLong(ChronoUnit.MICROS.between(POSTGRES_EPOCH, value));
+    }
+
+    public void writeNull() throws IOException {
+        out.writeInt(-1);
+    }
+
+    /**
+     * Writes the trailer and flushes the rows. The underlying stream is left open: the caller
+     * ends the COPY, or cancels it on failure so a partial batch is never committed
+     */
+    public void finish() throws IOException {
+        out.writeShort(-1);
+        out.flush();
+    }
+}
@@ -0,0 +1,302 @@
+package com.bankaya.pokemon.infrastructure.adapter.persistence;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.stereotype.Component;
+
+import com.bankaya.pokemon.domain.model.AuditSearchCriteria;
+import com.bankaya.pokemon.domain.model.SoapAuditLog;
+import com.bankaya.pokemon.domain.ports.SoapAuditLogRepositoryPort;
+import com.bankaya.pokemon.infrastructure.adapter.persistence.entity.SoapAuditLogEntity;
+import com.bankaya.pokemon.infrastructure.utils.DateTimeUtils;
+
+import lombok.extern.log4j.Log4j2;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import io.r2dbc.spi.R2dbcNonTransientResourceException;
+import io.r2dbc.spi.R2dbcTransientException;
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Statement;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * R2DBC Adapter for SOAP Audit Log Repository
+ * Writes audit batches through a small R2DBC Postgres connection pool instead of Hikari:
+ * each batch is one transaction on one connection, and the payload upserts and row inserts
+ * are sent as pipelined bindings of a single statement (no round trip per row).
+ * Payloads go through the same AuditPayloadStore as the other write paths and ids come from
+ * soap_audit_log_seq in SequenceIdBlocks, so every adapter can coexist.
+ * The audit pipeline writes asynchronously (saveAllAsync): up to pool-size batches are in flight,
+ * one per connection, and the consumer only waits for a free slot, so a slow database fills the
+ * audit queue and its overflow policy applies. The timeout covers the statements before COMMIT
+ * and the failure is reported once the transaction is rolled back, so a batch reported as failed
+ * was not written. Connection failures and timeouts are reported as
+ * DataAccessResourceFailureException so the batch is spooled and replayed.
+ * Search and export stay on the JPA adapter.
+ * Enabled with pokemon.audit.persistence=r2dbc
+ * Metrics: soap.audit.r2dbc.rows (rows written), soap.audit.r2dbc.failures (failed batches)
+ */
+@Log4j2
+@Primary
+@Component
+@ConditionalOnProperty(name = "pokemon.audit.persistence", havingValue = "r2dbc")
+public class R2dbcSoapAuditLogRepositoryAdapter implements SoapAuditLogRepositoryPort {
+
+    static final String NEXT_IDS_SQL = "SELECT nextval('soap_audit_log_seq') FROM generate_series(1, $1)";
+    static final String UPSERT_PAYLOAD_SQL = "INSERT INTO soap_audit_payload (hash, payload, size_bytes, stored_bytes, created_at) "
+            + "VALUES ($1, $2, $3, $4, $5) ON CONFLICT (hash) DO UPDATE SET created_at = EXCLUDED.created_at";
+    static final String INSERT_SQL = "INSERT INTO soap_audit_log (id, request_date, ip_origin, soap_method, duration_ms, "
+            + "request_payload_hash, response_payload_hash, status, error_message, endpoint_class, "
+            + "parse_us, cache_us, upstream_us, marshal_us, audit_us) "
+            + "VALUES ($1, $2, $3, $4, $5, $6, $7, $8, $9, $10, $11, $12, $13, $14, $15)";
+
+    private final SoapAuditLogRepositoryAdapter fallback;
+    private final AuditPayloadStore payloadStore;
+    private final DateTimeUtils dateTimeUtils;
+    private final ConnectionPool pool;
+    private final Semaphore inFlight;
+    private final Duration timeout;
+    private final Counter writtenRows;
+    private final Counter failedBatches;
+
+    @Autowired
+    public R2dbcSoapAuditLogRepositoryAdapter(SoapAuditLogRepositoryAdapter fallback, AuditPayloadStore payloadStore,
+                                              DateTimeUtils dateTimeUtils, MeterRegistry meterRegistry,
+                                              @Value("${pokemon.audit.r2dbc.url}") String url,
+                                              @Value("${spring.datasource.username}") String username,
+                                              @Value("${spring.datasource.password}") String password,
+                                              @Value("${pokemon.audit.r2dbc.pool-size:2}") int poolSize,
+                                              @Value("${pokemon.audit.r2dbc.timeout:30s}") Duration timeout) {
+        this(fallback, payloadStore, dateTimeUtils, meterRegistry,
+                connectionPool(url, username, password, poolSize, timeout), poolSize, timeout);
+    }
+
+    R2dbcSoapAuditLogRepositoryAdapter(SoapAuditLogRepositoryAdapter fallback, AuditPayloadStore payloadStore,
+                                       DateTimeUtils dateTimeUtils, MeterRegistry meterRegistry,
+                                       ConnectionPool pool, int poolSize, Duration timeout) {
+        this.fallback = fallback;
+        this.payloadStore = payloadStore;
+        this.dateTimeUtils = dateTimeUtils;
+        this.pool = pool;
+        this.timeout = timeout;
+        this.inFlight = new Semaphore(poolSize);
+        this.writtenRows = meterRegistry.counter("soap.audit.r2dbc.rows");
+        this.failedBatches = meterRegistry.counter("soap.audit.r2dbc.failures");
+    }
+
+    private static ConnectionPool connectionPool(String url, String username, String password, int poolSize,
+                                                 Duration timeout) {
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build();
+        return new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                .name("PokemonAuditR2dbcPool")
+                .initialSize(poolSize)
+                .maxSize(poolSize)
+                .maxAcquireTime(timeout)
+                .build());
+    }
+
+    @Override
+    public void save(SoapAuditLogEntity audit) {
+        saveAll(List.of(audit));
+    }
+
+    @Override
+    public void saveAll(List<SoapAuditLogEntity> audits) {
+        try {
+            saveAllAsync(audits).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    /**
+     * Starts the batch transaction and returns without waiting for it; waits up to timeout
+     * for one of the pool-size in-flight slots
+     */
+    @Override
+    public CompletableFuture<Void> saveAllAsync(List<SoapAuditLogEntity> audits) {
+        if (audits.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        try {
+            if (!inFlight.tryAcquire(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                failedBatches.increment();
+                return CompletableFuture.failedFuture(translate(audits.size(), new TimeoutException(
+                        "No R2DBC audit write slot within " + timeout)));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.failedFuture(new DataAccessResourceFailureException(
+                    "Interrupted waiting for an R2DBC audit write slot", e));
+        }
+        List<AuditPayloadStore.PendingPayload> payloads = payloadStore.prepare(audits);
+        LocalDateTime now = dateTimeUtils.now();
+        // asyncError (rollback y cierre) termina antes de propagar el error: un lote fallido no quedó escrito
+        return Mono.usingWhen(pool.create(),
+                        connection -> write(connection, audits, payloads, now),
+                        Connection::close,
+                        (connection, error) -> release(connection),
+                        this::release)
+                .doOnSuccess(ignored -> {
+                    // Solo tras el commit: un payload no confirmado no puede saltarse en el siguiente lote
+                    payloadStore.remember(payloads);
+                    writtenRows.increment(audits.size());
+                })
+                .doOnError(e -> failedBatches.increment())
+                .onErrorMap(e -> translate(audits.size(), e))
+                .doFinally(signal -> inFlight.release())
+                .toFuture();
+    }
+
+    @Override
+    public List<SoapAuditLog> search(AuditSearchCriteria criteria) {
+        return fallback.search(criteria);
+    }
+
+    @Override
+    public void export(AuditSearchCriteria criteria, Consumer<SoapAuditLog> consumer) {
+        fallback.export(criteria, consumer);
+    }
+
+    @PreDestroy
+    public void close() {
+        pool.dispose();
+    }
+
+    private Mono<Void> write(Connection connection, List<SoapAuditLogEntity> audits,
+                             List<AuditPayloadStore.PendingPayload> payloads, LocalDateTime now) {
+        // El timeout no cubre el COMMIT: vencido antes, el rollback deja el lote sin escribir
+        return Mono.from(connection.beginTransaction())
+                .then(reserveIds(connection, new long[SequenceIdBlocks.blocksFor(audits.size())], 0))
+                .flatMap(ids -> upsertPayloads(connection, payloads, now)
+                        .then(insertRows(connection, audits, ids, now)))
+                .timeout(timeout)
+                .then(Mono.from(connection.commitTransaction()));
+    }
+
+    private Mono<SequenceIdBlocks> reserveIds(Connection connection, long[] blockEnds, int reserved) {
+        if (reserved == blockEnds.length) {
+            return Mono.just(new SequenceIdBlocks(blockEnds));
+        }
+        return Flux.from(connection.createStatement(NEXT_IDS_SQL).bind(0, blockEnds.length - reserved).execute())
+                .flatMap(result -> result.map((row, metadata) -> row.get(0, Long.class)))
+                .filter(SequenceIdBlocks::isBlockEnd)
+                .collectList()
+                .flatMap(values -> {
+                    for (int i = 0; i < values.size(); i++) {
+                        blockEnds[reserved + i] = values.get(i);
+                    }
+                    return reserveIds(connection, blockEnds, reserved + values.size());
+                });
+    }
+
+    private Mono<Void> upsertPayloads(Connection connection, List<AuditPayloadStore.PendingPayload> payloads,
+                                      LocalDateTime now) {
+        if (payloads.isEmpty()) {
+            return Mono.empty();
+        }
+        // Lotes en vuelo a la vez: mismo orden de bloqueo de los hashes compartidos, sin deadlocks
+        List<AuditPayloadStore.PendingPayload> ordered = payloads.stream()
+                .sorted(Comparator.comparing(AuditPayloadStore.PendingPayload::hash))
+                .toList();
+        Statement statement = connection.createStatement(UPSERT_PAYLOAD_SQL);
+        for (int i = 0; i < ordered.size(); i++) {
+            AuditPayloadStore.PendingPayload payload = ordered.get(i);
+            if (i > 0) {
+                statement.add();
+            }
+            statement.bind(0, payload.hash())
+                    .bind(1, payload.compressed())
+                    .bind(2, payload.sizeBytes())
+                    .bind(3, payload.compressed().length)
+                    .bind(4, now);
+        }
+        return Flux.from(statement.execute()).flatMap(Result::getRowsUpdated).then();
+    }
+
+    private Mono<Void> insertRows(Connection connection, List<SoapAuditLogEntity> audits, SequenceIdBlocks ids,
+                                  LocalDateTime now) {
+        Statement statement = connection.createStatement(INSERT_SQL);
+        for (int i = 0; i < audits.size(); i++) {
+            SoapAuditLogEntity audit = audits.get(i);
+            if (i > 0) {
+                statement.add();
+            }
+            statement.bind(0, ids.next());
+            statement.bind(1, audit.getRequestDate() != null ? audit.getRequestDate() : now);
+            bind(statement, 2, audit.getIpOrigin(), String.class);
+            bind(statement, 3, audit.getSoapMethod(), String.class);
+            bind(statement, 4, audit.getDurationMs(), Long.class);
+            bind(statement, 5, audit.getRequestPayloadHash(), String.class);
+            bind(statement, 6, audit.getResponsePayloadHash(), String.class);
+            bind(statement, 7, audit.getStatus() != null ? audit.getStatus().name() : null, String.class);
+            bind(statement, 8, audit.getErrorMessage(), String.class);
+            bind(statement, 9, audit.getEndpointClass(), String.class);
+            bind(statement, 10, audit.getParseUs(), Integer.class);
+            bind(statement, 11, audit.getCacheUs(), Integer.class);
+            bind(statement, 12, audit.getUpstreamUs(), Integer.class);
+            bind(statement, 13, audit.getMarshalUs(), Integer.class);
+            bind(statement, 14, audit.getAuditUs(), Integer.class);
+        }
+        // Un único statement con varios bindings: el driver los envía en pipeline
+        return Flux.from(statement.execute()).flatMap(Result::getRowsUpdated).then();
+    }
+
+    private static void bind(Statement statement, int index, Object value, Class<?> type) {
+        if (value != null) {
+            statement.bind(index, value);
+        } else {
+            statement.bindNull(index, type);
+        }
+    }
+
+    private Mono<Void> release(Connection connection) {
+        return Mono.from(connection.rollbackTransaction())
+                .onErrorResume(e -> {
+                    log.debug("Rollback of the audit batch transaction failed", e);
+                    return Mono.empty();
+                })
+                .then(Mono.from(connection.close()));
+    }
+
+    /**
+     * Connection failures, pool exhaustion and timeouts mean the database is unavailable
+     * (the batch is spooled); any other error is rethrown as is
+     */
+    static RuntimeException translate(int size, Throwable exception) {
+        Throwable cause = Exceptions.unwrap(exception);
+        if (cause instanceof R2dbcTransientException
+                || cause instanceof R2dbcNonTransientResourceException
+                || cause instanceof TimeoutException) {
+            return new DataAccessResourceFailureException("R2DBC write of " + size + " audit logs failed", cause);
+        }
+        return Exceptions.propagate(cause);
+    }
+}
@@ -0,0 +1,41 @@
+package com.bankaya.pokemon.infrastructure.adapter.persistence;
+
+/**
+ * Ids from soap_audit_log_seq for writers that bypass Hibernate: each nextval value v reserves
+ * (v - 49 .. v], the same range Hibernate's pooled optimizer (allocationSize 50) derives from it,
+ * so every write path can coexist. The initial value (1) is skipped.
+ * Callers reserve the blocks with NEXT_IDS_SQL until blocksFor(count) values are accepted
+ */
+final class SequenceIdBlocks {
+
+    static final int SEQUENCE_INCREMENT = 50;
+    static final String NEXT_IDS_SQL = "SELECT nextval('soap_audit_log_seq') FROM generate_series(1, ?)";
+
+    private final long[] blockEnds;
+    private int block;
+    private long next;
+
+    SequenceIdBlocks(long[] blockEnds) {
+        this.blockEnds = blockEnds;
+        this.next = blockEnds[0] - SEQUENCE_INCREMENT + 1;
+    }
+
+    static int blocksFor(int count) {
+        return (count + SEQUENCE_INCREMENT - 1) / SEQUENCE_INCREMENT;
+    }
+
+    /**
+     * Whether a nextval value closes a full block (the initial value of the sequence does not)
+     */
+    static boolean isBlockEnd(long value) {
+        return value >= SEQUENCE_INCREMENT;
+    }
+
+    long next() {
+        if (next > blockEnds[block]) {
+            block++;
+            next = blockEnds[block] - SEQUENCE_INCREMENT + 1;
+        }
+        return next++;
+    }
+}
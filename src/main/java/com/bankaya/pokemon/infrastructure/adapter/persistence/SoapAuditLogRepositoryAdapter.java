@@ -1,25 +1,176 @@
 package com.bankaya.pokemon.infrastructure.adapter.persistence;
 
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.bankaya.pokemon.domain.model.AuditSearchCriteria;
+import com.bankaya.pokemon.domain.model.PhaseTimings;
+import com.bankaya.pokemon.domain.model.SoapAuditLog;
 import com.bankaya.pokemon.domain.ports.SoapAuditLogRepositoryPort;
+import com.bankaya.pokemon.infrastructure.adapter.enums.RequestStatus;
 import com.bankaya.pokemon.infrastructure.adapter.persistence.entity.SoapAuditLogEntity;
 import com.bankaya.pokemon.infrastructure.adapter.persistence.repository.JpaAuditLogRepository;
-
-import lombok.RequiredArgsConstructor;
+import com.bankaya.pokemon.infrastructure.utils.PayloadCompressionUtils;
 
 /**
  * Adapter for SOAP Audit Log Repository
  * Implements the port interface and delegates to Spring Data JPA repository
+ * Searches run as plain SQL with keyset pagination: the cursor becomes a
+ * (request_date, id) &lt; (?, ?) seek on the (filter, request_date, id) indexes instead of
+ * an OFFSET, and soap_audit_payload is only joined when payloads are requested.
+ * Exports use the same filters without a limit, read through a forward-only cursor
+ * (fetch-size rows per round trip) so memory stays flat whatever the row count
  */
 @Component
-@RequiredArgsConstructor
 public class SoapAuditLogRepositoryAdapter implements SoapAuditLogRepositoryPort {
 
+    private static final String SEARCH_COLUMNS = "SELECT l.id, l.ip_origin, l.request_date, l.soap_method, "
+            + "l.duration_ms, l.status, l.error_message, l.endpoint_class, "
+            + "l.parse_us, l.cache_us, l.upstream_us, l.marshal_us, l.audit_us";
+    private static final String PAYLOAD_COLUMNS = ", request.payload AS request_payload, response.payload AS response_payload";
+    private static final String PAYLOAD_JOINS = " LEFT JOIN soap_audit_payload request ON request.hash = l.request_payload_hash"
+            + " LEFT JOIN soap_audit_payload response ON response.hash = l.response_payload_hash";
+
     private final JpaAuditLogRepository jpaRepository;
+    private final AuditPayloadStore payloadStore;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final NamedParameterJdbcTemplate exportJdbcTemplate;
+    private final TransactionTemplate exportTransaction;
+
+    public SoapAuditLogRepositoryAdapter(JpaAuditLogRepository jpaRepository, AuditPayloadStore payloadStore,
+                                         NamedParameterJdbcTemplate namedJdbcTemplate, DataSource dataSource,
+                                         PlatformTransactionManager transactionManager,
+                                         @Value("${pokemon.audit.export.fetch-size:1000}") int exportFetchSize) {
+        this.jpaRepository = jpaRepository;
+        this.payloadStore = payloadStore;
+        this.namedJdbcTemplate = namedJdbcTemplate;
+        JdbcTemplate cursorTemplate = new JdbcTemplate(dataSource);
+        cursorTemplate.setFetchSize(exportFetchSize);
+        this.exportJdbcTemplate = new NamedParameterJdbcTemplate(cursorTemplate);
+        this.exportTransaction = new TransactionTemplate(transactionManager);
+        this.exportTransaction.setReadOnly(true);
+    }
 
     @Override
     public void save(SoapAuditLogEntity audit) {
+        payloadStore.store(List.of(audit));
         jpaRepository.save(audit);
     }
-}
\ No newline at end of file
+
+    /**
+     * Payloads are stored first (deduplicated, auto-commit), then the rows in one transaction
+     */
+    @Override
+    public void saveAll(List<SoapAuditLogEntity> audits) {
+        payloadStore.store(audits);
+        saveRows(audits);
+    }
+
+    /**
+     * Rows whose payload hashes are already set (COPY fallback)
+     */
+    void saveRows(List<SoapAuditLogEntity> audits) {
+        jpaRepository.saveAll(audits);
+    }
+
+    @Override
+    public List<SoapAuditLog> search(AuditSearchCriteria criteria) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        StringBuilder sql = filteredSelect(criteria, params);
+        if (criteria.getAfter() != null) {
+            sql.append(" AND (l.request_date, l.id) < (:afterDate, :afterId)");
+            params.addValue("afterDate", criteria.getAfter().requestDate());
+            params.addValue("afterId", criteria.getAfter().id());
+        }
+        sql.append(" ORDER BY l.request_date DESC, l.id DESC LIMIT :limit");
+        params.addValue("limit", criteria.getLimit());
+        boolean payloads = criteria.isIncludePayloads();
+        return namedJdbcTemplate.query(sql.toString(), params, (resultSet, rowNum) -> toAuditLog(resultSet, payloads));
+    }
+
+    /**
+     * The consumer runs while the cursor is open; when it throws (client gone) the statement
+     * is closed and the transaction rolled back, which ends the query on the server
+     */
+    @Override
+    public void export(AuditSearchCriteria criteria, Consumer<SoapAuditLog> consumer) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        String sql = filteredSelect(criteria, params).append(" ORDER BY l.request_date, l.id").toString();
+        boolean payloads = criteria.isIncludePayloads();
+        // PostgreSQL solo respeta el fetch size (cursor) con autocommit desactivado: se abre una transacción
+        exportTransaction.executeWithoutResult(status -> exportJdbcTemplate.query(sql, params,
+                (RowCallbackHandler) resultSet -> consumer.accept(toAuditLog(resultSet, payloads))));
+    }
+
+    private static StringBuilder filteredSelect(AuditSearchCriteria criteria, MapSqlParameterSource params) {
+        boolean payloads = criteria.isIncludePayloads();
+        StringBuilder sql = new StringBuilder(SEARCH_COLUMNS);
+        if (payloads) {
+            sql.append(PAYLOAD_COLUMNS);
+        }
+        sql.append(" FROM soap_audit_log l");
+        if (payloads) {
+            sql.append(PAYLOAD_JOINS);
+        }
+        // El rango de request_date acota las particiones que se recorren
+        sql.append(" WHERE l.request_date >= :from AND l.request_date < :to");
+        params.addValue("from", criteria.getFrom());
+        params.addValue("to", criteria.getTo());
+        if (criteria.getSoapMethod() != null) {
+            sql.append(" AND l.soap_method = :soapMethod");
+            params.addValue("soapMethod", criteria.getSoapMethod());
+        }
+        if (criteria.getStatus() != null) {
+            sql.append(" AND l.status = :status");
+            params.addValue("status", criteria.getStatus().name());
+        }
+        if (criteria.getIpOrigin() != null) {
+            sql.append(" AND l.ip_origin = :ipOrigin");
+            params.addValue("ipOrigin", criteria.getIpOrigin());
+        }
+        if (criteria.getMinDurationMs() != null) {
+            sql.append(" AND l.duration_ms >= :minDurationMs");
+            params.addValue("minDurationMs", criteria.getMinDurationMs());
+        }
+        return sql;
+    }
+
+    private static SoapAuditLog toAuditLog(ResultSet resultSet, boolean payloads) throws SQLException {
+        String status = resultSet.getString("status");
+        return SoapAuditLog.builder()
+                .id(resultSet.getLong("id"))
+                .ipOrigin(resultSet.getString("ip_origin"))
+                .requestDate(resultSet.getObject("request_date", LocalDateTime.class))
+                .soapMethod(resultSet.getString("soap_method"))
+                .durationMs(resultSet.getObject("duration_ms", Long.class))
+                .status(status != null ? RequestStatus.valueOf(status) : null)
+                .errorMessage(resultSet.getString("error_message"))
+                .endpointClass(resultSet.getString("endpoint_class"))
+                .phaseTimings(PhaseTimings.of(resultSet.getObject("parse_us", Integer.class),
+                        resultSet.getObject("cache_us", Integer.class),
+                        resultSet.getObject("upstream_us", Integer.class),
+                        resultSet.getObject("marshal_us", Integer.class),
+                        resultSet.getObject("audit_us", Integer.class)))
+                .requestPayload(payloads ? payload(resultSet.getBytes("request_payload")) : null)
+                .responsePayload(payloads ? payload(resultSet.getBytes("response_payload")) : null)
+                .build();
+    }
+
+    private static String payload(byte[] stored) {
+        return stored != null ? PayloadCompressionUtils.decompress(stored) : null;
+    }
+}
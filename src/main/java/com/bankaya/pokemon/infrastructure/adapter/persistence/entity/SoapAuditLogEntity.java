@@ -16,11 +16,17 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 
 /**
  * JPA Entity for Request Log
  * Represents the database table for storing request logs
+ * Ids come from a pooled sequence (allocationSize 50): unlike IDENTITY, it lets Hibernate
+ * batch the inserts of a whole audit batch
+ * Payloads are not stored in the row: AuditPayloadStore saves each distinct payload once
+ * (compressed) in soap_audit_payload and the row keeps its SHA-256 hash
  */
 @Entity
 @Table(name = "soap_audit_log")
@@ -33,7 +39,8 @@ import jakarta.persistence.Table;
 public class SoapAuditLogEntity extends AuditEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "soap_audit_log_seq")
+    @SequenceGenerator(name = "soap_audit_log_seq", sequenceName = "soap_audit_log_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "ip_origin", nullable = false)
@@ -45,12 +52,18 @@ public class SoapAuditLogEntity extends AuditEntity {
     @Column(name = "duration_ms")
     private Long durationMs;
 
-    @Column(name = "request_payload", columnDefinition = "TEXT")
+    @Transient
     private String requestPayload;
 
-    @Column(name = "response_payload", columnDefinition = "TEXT")
+    @Transient
     private String responsePayload;
 
+    @Column(name = "request_payload_hash", length = 64)
+    private String requestPayloadHash;
+
+    @Column(name = "response_payload_hash", length = 64)
+    private String responsePayloadHash;
+
     @Column(name = "status", length = 20)
     @Enumerated(EnumType.STRING)
     private RequestStatus status;
@@ -60,4 +73,19 @@ public class SoapAuditLogEntity extends AuditEntity {
 
     @Column(name = "endpoint_class", length = 100)
     private String endpointClass;
+
+    @Column(name = "parse_us")
+    private Integer parseUs;
+
+    @Column(name = "cache_us")
+    private Integer cacheUs;
+
+    @Column(name = "upstream_us")
+    private Integer upstreamUs;
+
+    @Column(name = "marshal_us")
+    private Integer marshalUs;
+
+    @Column(name = "audit_us")
+    private Integer auditUs;
 }
@@ -0,0 +1,56 @@
+package com.bankaya.pokemon.infrastructure.adapter.persistence.entity;
+
+import java.time.LocalDateTime;
+
+import com.bankaya.pokemon.infrastructure.adapter.enums.RequestStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * JPA Entity for audit rollups
+ * One row per flush of a (minute, soap method, status) bucket: request count, max latency
+ * and the compressed HdrHistogram of latencies (ms). Written and read by AuditRollupRepositoryAdapter
+ */
+@Entity
+@Table(name = "soap_audit_rollup")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SoapAuditRollupEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Column(name = "soap_method", nullable = false)
+    private String soapMethod;
+
+    @Column(name = "status", length = 20, nullable = false)
+    @Enumerated(EnumType.STRING)
+    private RequestStatus status;
+
+    @Column(name = "request_count", nullable = false)
+    private Long requestCount;
+
+    @Column(name = "max_ms", nullable = false)
+    private Long maxMs;
+
+    @Column(name = "histogram", nullable = false, columnDefinition = "bytea")
+    private byte[] histogram;
+}
@@ -12,6 +12,7 @@ import com.bankaya.pokemon.domain.model.Pokemon;
 import com.bankaya.pokemon.domain.ports.PokemonApiPort;
 import com.bankaya.pokemon.infrastructure.adapter.rest.dto.PokemonApiResponse;
 import com.bankaya.pokemon.infrastructure.adapter.rest.mapper.PokemonMapper;
+import com.bankaya.pokemon.infrastructure.filter.RequestTimings;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
@@ -22,6 +23,7 @@ import reactor.core.publisher.Mono;
  * PokeAPI Client Adapter (Output Adapter)
  * Implements the PokemonApiPort using WebClient to consume PokeAPI
  * This is part of the Infrastructure layer in Hexagonal Architecture
+ * Each call is added to the upstream RequestTimings phase of the current request
  */
 @Log4j2
 @Component
@@ -41,6 +43,7 @@ public class PokeApiClient implements PokemonApiPort {
 
         log.info("Fetching Pokemon from PokeAPI: {}", pokemonName);
 
+        long start = System.nanoTime();
         try {
             PokemonApiResponse response = webClient
                     .get()
@@ -60,11 +63,14 @@ public class PokeApiClient implements PokemonApiPort {
             return PokemonMapper.INSTANCE.toDomain(response);
 
         } catch (PokemonNotFoundException e) {
-            log.error("Pokemon not found: {}", pokemonName);
+            // Expected outcome: logged without stack trace and below ERROR to keep 404 storms cheap
+            log.debug("Pokemon not found: {}", pokemonName);
             throw e;
         } catch (Exception e) {
             log.error("Error fetching Pokemon from PokeAPI: {}", e.getMessage(), e);
             throw new PokemonServiceException("Error fetching Pokemon from PokeAPI", e);
+        } finally {
+            RequestTimings.record(RequestTimings.Phase.UPSTREAM, start);
         }
     }
 }
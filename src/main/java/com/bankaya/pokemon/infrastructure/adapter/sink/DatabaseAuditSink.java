@@ -0,0 +1,43 @@
+package com.bankaya.pokemon.infrastructure.adapter.sink;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import com.bankaya.pokemon.application.service.SoapAuditService;
+import com.bankaya.pokemon.domain.model.SoapAuditLog;
+import com.bankaya.pokemon.domain.ports.AuditSinkPort;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Database Audit Sink
+ * soap_audit_log through SoapAuditService (batched insert, row-by-row retry, rethrow when the
+ * database is unavailable so the batch is spooled); asynchronous with the r2dbc persistence
+ */
+@Component
+@Order(1)
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "pokemon.audit.sinks.database.enabled", havingValue = "true", matchIfMissing = true)
+public class DatabaseAuditSink implements AuditSinkPort {
+
+    private final SoapAuditService soapAuditService;
+
+    @Override
+    public void write(List<SoapAuditLog> auditLogs) {
+        soapAuditService.saveAuditLogs(auditLogs);
+    }
+
+    @Override
+    public CompletableFuture<Void> writeAsync(List<SoapAuditLog> auditLogs) {
+        return soapAuditService.saveAuditLogsAsync(auditLogs);
+    }
+
+    @Override
+    public String name() {
+        return "database";
+    }
+}
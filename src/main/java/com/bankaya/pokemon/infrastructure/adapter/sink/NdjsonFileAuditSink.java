@@ -0,0 +1,226 @@
+package com.bankaya.pokemon.infrastructure.adapter.sink;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import com.bankaya.pokemon.application.service.SoapAuditPolicy;
+import com.bankaya.pokemon.domain.model.PhaseTimings;
+import com.bankaya.pokemon.domain.model.SoapAuditLog;
+import com.bankaya.pokemon.domain.ports.AuditSinkPort;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonFactoryBuilder;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import lombok.extern.log4j.Log4j2;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * NDJSON File Audit Sink
+ * Appends audit records as one JSON object per line (same snake_case fields as the export,
+ * payload policy applied) to local files (audit-&lt;yyyyMMdd'T'HHmmss&gt;-&lt;n&gt;.ndjson):
+ * - Each batch is serialized into a reused buffer and appended with a single channel write
+ * - Files are rolled when the next batch would exceed max-file-size or after roll-interval
+ * - Group fsync: the file is forced at most every fsync-interval-ms, covering all the batches
+ *   written since the last one; an idle file is forced by the scheduled sync
+ * Lets the service keep audit data without writing it to the database.
+ * Metrics: soap.audit.ndjson.records (records written), soap.audit.ndjson.fsyncs
+ */
+@Log4j2
+@Component
+@Order(2)
+@ConditionalOnProperty(name = "pokemon.audit.sinks.ndjson.enabled", havingValue = "true")
+public class NdjsonFileAuditSink implements AuditSinkPort {
+
+    private static final String FILE_PREFIX = "audit-";
+    private static final String FILE_SUFFIX = ".ndjson";
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+    private static final JsonFactory JSON = new JsonFactoryBuilder().rootValueSeparator("\n").build();
+
+    private final Path directory;
+    private final long maxFileBytes;
+    private final long rollIntervalNanos;
+    private final long fsyncIntervalNanos;
+    private final SoapAuditPolicy auditPolicy;
+    private final BatchBuffer buffer = new BatchBuffer();
+    private final Counter records;
+    private final Counter fsyncs;
+
+    private FileChannel channel;
+    private Path file;
+    private long fileBytes;
+    private long openedNanos;
+    private long lastFsyncNanos;
+    private boolean dirty;
+    private int sequence;
+
+    public NdjsonFileAuditSink(@Value("${pokemon.audit.sinks.ndjson.directory}") String directory,
+                               @Value("${pokemon.audit.sinks.ndjson.max-file-size:256MB}") DataSize maxFileSize,
+                               @Value("${pokemon.audit.sinks.ndjson.roll-interval:1h}") Duration rollInterval,
+                               @Value("${pokemon.audit.sinks.ndjson.fsync-interval-ms:1000}") long fsyncIntervalMs,
+                               SoapAuditPolicy auditPolicy, MeterRegistry meterRegistry) {
+        this.directory = Path.of(directory);
+        this.maxFileBytes = maxFileSize.toBytes();
+        this.rollIntervalNanos = rollInterval.toNanos();
+        this.fsyncIntervalNanos = Duration.ofMillis(fsyncIntervalMs).toNanos();
+        this.auditPolicy = auditPolicy;
+        this.records = meterRegistry.counter("soap.audit.ndjson.records");
+        this.fsyncs = meterRegistry.counter("soap.audit.ndjson.fsyncs");
+        try {
+            Files.createDirectories(this.directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create audit directory " + directory, e);
+        }
+    }
+
+    @Override
+    public synchronized void write(List<SoapAuditLog> auditLogs) {
+        if (auditLogs.isEmpty()) {
+            return;
+        }
+        try {
+            buffer.reset();
+            try (JsonGenerator json = JSON.createGenerator(buffer)) {
+                for (SoapAuditLog auditLog : auditLogs) {
+                    // Misma política de payloads que la base de datos (se aplica una sola vez por registro)
+                    auditPolicy.apply(auditLog);
+                    writeRecord(json, auditLog);
+                }
+            }
+            buffer.write('\n');
+
+            rollIfNeeded(buffer.size());
+            ByteBuffer bytes = buffer.view();
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            fileBytes += buffer.size();
+            dirty = true;
+            records.increment(auditLogs.size());
+            if (System.nanoTime() - lastFsyncNanos >= fsyncIntervalNanos) {
+                force();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write " + auditLogs.size() + " audit records to " + file, e);
+        }
+    }
+
+    @Override
+    public String name() {
+        return "ndjson";
+    }
+
+    /**
+     * Forces batches written since the last fsync when no new batch arrives to do it
+     */
+    @Scheduled(fixedDelayString = "${pokemon.audit.sinks.ndjson.fsync-interval-ms:1000}")
+    public synchronized void sync() {
+        try {
+            force();
+        } catch (IOException e) {
+            log.error("Could not force audit file {}", file, e);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        if (channel != null) {
+            force();
+            channel.close();
+            channel = null;
+        }
+    }
+
+    private void rollIfNeeded(int batchBytes) throws IOException {
+        long now = System.nanoTime();
+        if (channel != null && (fileBytes == 0 || fileBytes + batchBytes <= maxFileBytes)
+                && now - openedNanos < rollIntervalNanos) {
+            return;
+        }
+        close();
+        file = directory.resolve(FILE_PREFIX + FILE_TIMESTAMP.format(LocalDateTime.now()) + "-" + sequence++ + FILE_SUFFIX);
+        channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        fileBytes = 0;
+        openedNanos = now;
+        log.info("Audit file {} opened", file);
+    }
+
+    private void force() throws IOException {
+        if (dirty && channel != null) {
+            channel.force(false);
+            dirty = false;
+            fsyncs.increment();
+        }
+        lastFsyncNanos = System.nanoTime();
+    }
+
+    private static void writeRecord(JsonGenerator json, SoapAuditLog auditLog) throws IOException {
+        json.writeStartObject();
+        writeField(json, "request_date", auditLog.getRequestDate() != null ? auditLog.getRequestDate().toString() : null);
+        writeField(json, "ip_origin", auditLog.getIpOrigin());
+        writeField(json, "soap_method", auditLog.getSoapMethod());
+        writeField(json, "status", auditLog.getStatus() != null ? auditLog.getStatus().name() : null);
+        if (auditLog.getDurationMs() != null) {
+            json.writeNumberField("duration_ms", auditLog.getDurationMs());
+        }
+        writeField(json, "error_message", auditLog.getErrorMessage());
+        writeField(json, "endpoint_class", auditLog.getEndpointClass());
+        PhaseTimings phaseTimings = auditLog.getPhaseTimings();
+        if (phaseTimings != null) {
+            writeField(json, "parse_us", phaseTimings.parseUs());
+            writeField(json, "cache_us", phaseTimings.cacheUs());
+            writeField(json, "upstream_us", phaseTimings.upstreamUs());
+            writeField(json, "marshal_us", phaseTimings.marshalUs());
+            writeField(json, "audit_us", phaseTimings.auditUs());
+        }
+        writeField(json, "request_payload", auditLog.getRequestPayload());
+        writeField(json, "response_payload", auditLog.getResponsePayload());
+        json.writeEndObject();
+    }
+
+    private static void writeField(JsonGenerator json, String name, String value) throws IOException {
+        if (value != null) {
+            json.writeStringField(name, value);
+        }
+    }
+
+    private static void writeField(JsonGenerator json, String name, Integer value) throws IOException {
+        if (value != null) {
+            json.writeNumberField(name, value);
+        }
+    }
+
+    /**
+     * Reused batch buffer, written to the channel without copying
+     */
+    private static final class BatchBuffer extends ByteArrayOutputStream {
+
+        BatchBuffer() {
+            super(64 * 1024);
+        }
+
+        ByteBuffer view() {
+            return ByteBuffer.wrap(buf, 0, count);
+        }
+    }
+}
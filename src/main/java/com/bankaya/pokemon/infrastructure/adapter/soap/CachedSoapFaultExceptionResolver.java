@@ -0,0 +1,135 @@
+package com.bankaya.pokemon.infrastructure.adapter.soap;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.xml.namespace.QName;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.util.HtmlUtils;
+import org.springframework.ws.context.MessageContext;
+import org.springframework.ws.server.EndpointExceptionResolver;
+import org.springframework.ws.soap.SoapBody;
+import org.springframework.ws.soap.SoapMessage;
+import org.springframework.ws.soap.saaj.SaajSoapMessageFactory;
+import org.springframework.ws.soap.server.endpoint.annotation.FaultCode;
+import org.springframework.ws.soap.server.endpoint.annotation.SoapFault;
+
+import com.bankaya.pokemon.domain.exception.StacklessException;
+
+import lombok.extern.log4j.Log4j2;
+
+import jakarta.xml.soap.MessageFactory;
+import jakarta.xml.soap.SOAPException;
+
+/**
+ * Cached SOAP Fault Exception Resolver
+ * Resolves the expected domain failures (StacklessException with @SoapFault) before
+ * Spring WS's SoapFaultAnnotationExceptionResolver. The fault envelope of each exception
+ * type is built once through SAAJ as a template; later faults substitute the escaped
+ * faultstring into its bytes, which are written as they are (see SerializedSoapFault).
+ * Unexpected failures (e.g. PokemonServiceException) keep the default resolution
+ */
+@Log4j2
+@Component
+public class CachedSoapFaultExceptionResolver implements EndpointExceptionResolver, Ordered {
+
+    private static final String REASON_PLACEHOLDER = "__FAULT_REASON__";
+
+    private final Map<Class<?>, FaultTemplate> templates = new ConcurrentHashMap<>();
+    private final SaajSoapMessageFactory templateFactory;
+
+    public CachedSoapFaultExceptionResolver() {
+        try {
+            // Plantillas siempre en XML texto, sea cual sea la codificación negociada con el cliente
+            this.templateFactory = new SaajSoapMessageFactory(MessageFactory.newInstance());
+        } catch (SOAPException e) {
+            throw new IllegalStateException("Unable to create SAAJ message factory for SOAP fault templates", e);
+        }
+    }
+
+    @Override
+    public boolean resolveException(MessageContext messageContext, Object endpoint, Exception ex) {
+        if (!(ex instanceof StacklessException)) {
+            return false;
+        }
+        SoapFault soapFault = AnnotationUtils.findAnnotation(ex.getClass(), SoapFault.class);
+        if (soapFault == null || !isSupported(soapFault.faultCode())) {
+            return false;
+        }
+
+        try {
+            FaultTemplate template = templates.get(ex.getClass());
+            if (template == null) {
+                template = buildTemplate(soapFault);
+                templates.put(ex.getClass(), template);
+            }
+            String reason = StringUtils.hasLength(soapFault.faultStringOrReason())
+                    ? soapFault.faultStringOrReason()
+                    : ex.getMessage();
+            messageContext.clearResponse();
+            messageContext.readResponse(template.render(reason));
+            return true;
+        } catch (IOException e) {
+            log.warn("Unable to build cached SOAP fault for {}: {}", ex.getClass().getSimpleName(), e.getMessage());
+            messageContext.clearResponse();
+            return false;
+        }
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    /**
+     * Serializes a fault with a placeholder reason and splits the envelope around it
+     */
+    private FaultTemplate buildTemplate(SoapFault soapFault) throws IOException {
+        SoapMessage message = templateFactory.createWebServiceMessage();
+        SoapBody body = message.getSoapBody();
+        Locale locale = StringUtils.parseLocaleString(soapFault.locale());
+
+        QName faultCode = soapFault.faultCode() == FaultCode.CLIENT || soapFault.faultCode() == FaultCode.SENDER
+                ? body.addClientOrSenderFault(REASON_PLACEHOLDER, locale).getFaultCode()
+                : body.addServerOrReceiverFault(REASON_PLACEHOLDER, locale).getFaultCode();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(512);
+        message.writeTo(out);
+        String envelope = out.toString(StandardCharsets.UTF_8);
+        int placeholder = envelope.indexOf(REASON_PLACEHOLDER);
+        if (placeholder < 0) {
+            throw new IOException("Fault reason placeholder not found in the serialized fault");
+        }
+        return new FaultTemplate(
+                envelope.substring(0, placeholder).getBytes(StandardCharsets.UTF_8),
+                envelope.substring(placeholder + REASON_PLACEHOLDER.length()).getBytes(StandardCharsets.UTF_8),
+                faultCode);
+    }
+
+    private boolean isSupported(FaultCode faultCode) {
+        return faultCode != FaultCode.CUSTOM;
+    }
+
+    private record FaultTemplate(byte[] prefix, byte[] suffix, QName faultCode) {
+
+        SerializedSoapFault render(String reason) {
+            // Con codificación UTF-8 solo se escapan & < > " ', válidos también en XML
+            byte[] text = reason != null
+                    ? HtmlUtils.htmlEscape(reason, StandardCharsets.UTF_8.name()).getBytes(StandardCharsets.UTF_8)
+                    : new byte[0];
+            byte[] envelope = new byte[prefix.length + text.length + suffix.length];
+            System.arraycopy(prefix, 0, envelope, 0, prefix.length);
+            System.arraycopy(text, 0, envelope, prefix.length, text.length);
+            System.arraycopy(suffix, 0, envelope, prefix.length + text.length, suffix.length);
+            return new SerializedSoapFault(envelope, faultCode, reason);
+        }
+    }
+}
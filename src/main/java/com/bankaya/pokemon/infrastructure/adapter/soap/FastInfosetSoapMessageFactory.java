@@ -0,0 +1,66 @@
+package com.bankaya.pokemon.infrastructure.adapter.soap;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.ws.soap.SoapMessageCreationException;
+import org.springframework.ws.soap.saaj.SaajSoapMessage;
+import org.springframework.ws.soap.saaj.SaajSoapMessageFactory;
+
+import com.bankaya.pokemon.infrastructure.utils.FastInfosetUtils;
+import com.sun.xml.messaging.saaj.soap.MessageFactoryImpl;
+
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.xml.soap.SOAPException;
+import jakarta.xml.soap.SOAPMessage;
+
+/**
+ * Fast Infoset SOAP Message Factory
+ * Negotiates binary XML (application/fastinfoset) with the SAAJ reference implementation itself:
+ * - Requests sent as application/fastinfoset are parsed by SAAJ straight from the binary stream
+ * - Responses are created as Fast Infoset messages when the Accept header of the current
+ * request includes application/fastinfoset, so SAAJ serializes them in a single pass
+ * Text XML clients get the default SAAJ messages. Faults cached by CachedSoapFaultExceptionResolver
+ * are written as their serialized text envelope, without being parsed into SAAJ
+ */
+public class FastInfosetSoapMessageFactory extends SaajSoapMessageFactory {
+
+    @Override
+    public SaajSoapMessage createWebServiceMessage() {
+        ServletRequestAttributes attributes = currentAttributes();
+        HttpServletResponse response = attributes != null ? attributes.getResponse() : null;
+        // Una respuesta con fault se crea de nuevo: Vary se añade una sola vez
+        if (response != null && !response.getHeaders(HttpHeaders.VARY).contains(HttpHeaders.ACCEPT)) {
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        }
+        if (attributes == null || !FastInfosetUtils.isFastInfoset(attributes.getRequest().getHeader(HttpHeaders.ACCEPT))
+                || !(getMessageFactory() instanceof MessageFactoryImpl saajFactory)) {
+            return super.createWebServiceMessage();
+        }
+        try {
+            SOAPMessage message = saajFactory.createMessage(true, true);
+            // SAAJ añade Accept a los mensajes Fast Infoset; en una respuesta no aplica
+            message.getMimeHeaders().removeHeader(HttpHeaders.ACCEPT);
+            postProcess(message);
+            return new SaajSoapMessage(message, true, saajFactory);
+        } catch (SOAPException e) {
+            throw new SoapMessageCreationException("Could not create empty Fast Infoset message: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public SaajSoapMessage createWebServiceMessage(InputStream inputStream) throws IOException {
+        if (inputStream instanceof SerializedSoapFault fault) {
+            return fault.toMessage(getMessageFactory());
+        }
+        return super.createWebServiceMessage(inputStream);
+    }
+
+    private static ServletRequestAttributes currentAttributes() {
+        return RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes servletAttributes
+                ? servletAttributes : null;
+    }
+}
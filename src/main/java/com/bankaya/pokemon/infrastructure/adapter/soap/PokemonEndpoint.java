@@ -8,6 +8,10 @@ import org.springframework.ws.server.endpoint.annotation.ResponsePayload;
 import com.bankaya.pokemon.application.service.PokemonService;
 import com.bankaya.pokemon.soap.GetPokemonAbilitiesResponse;
 import com.bankaya.pokemon.soap.GetPokemonBaseExperienceResponse;
+import com.bankaya.pokemon.soap.GetPokemonBatchRequest;
+import com.bankaya.pokemon.soap.GetPokemonBatchResponse;
+import com.bankaya.pokemon.soap.GetPokemonDetailsRequest;
+import com.bankaya.pokemon.soap.GetPokemonDetailsResponse;
 import com.bankaya.pokemon.soap.GetPokemonHeldItemsResponse;
 import com.bankaya.pokemon.soap.GetPokemonIdResponse;
 import com.bankaya.pokemon.soap.GetPokemonLocationAreaEncountersResponse;
@@ -79,4 +83,21 @@ public class PokemonEndpoint {
 
         return pokemonService.getPokemonLocationAreaEncounters(request.getName());
     }
+
+    @PayloadRoot(namespace = NAMESPACE_URI, localPart = "GetPokemonDetailsRequest")
+    @ResponsePayload
+    public GetPokemonDetailsResponse getPokemonDetails(@RequestPayload GetPokemonDetailsRequest request) {
+        log.info("SOAP Request - Get Pokemon Details: {}, fields {}", request.getName(), request.getFields());
+
+        return pokemonService.getPokemonDetails(request.getName(), request.getFields());
+    }
+
+    @PayloadRoot(namespace = NAMESPACE_URI, localPart = "GetPokemonBatchRequest")
+    @ResponsePayload
+    public GetPokemonBatchResponse getPokemonBatch(@RequestPayload GetPokemonBatchRequest request) {
+        log.info("SOAP Request - Get Pokemon Batch: {} names, fields {}",
+                request.getNames().size(), request.getFields());
+
+        return pokemonService.getPokemonBatch(request.getNames(), request.getFields());
+    }
 }
\ No newline at end of file
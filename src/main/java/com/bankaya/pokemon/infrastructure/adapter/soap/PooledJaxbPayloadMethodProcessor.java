@@ -0,0 +1,128 @@
+package com.bankaya.pokemon.infrastructure.adapter.soap;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import javax.xml.transform.Result;
+import javax.xml.transform.Source;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.ws.context.MessageContext;
+import org.springframework.ws.server.endpoint.adapter.method.MethodArgumentResolver;
+import org.springframework.ws.server.endpoint.adapter.method.MethodReturnValueHandler;
+import org.springframework.ws.server.endpoint.annotation.RequestPayload;
+import org.springframework.ws.server.endpoint.annotation.ResponsePayload;
+
+import com.bankaya.pokemon.infrastructure.filter.RequestTimings;
+
+import lombok.extern.log4j.Log4j2;
+
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.JAXBException;
+import jakarta.xml.bind.Marshaller;
+import jakarta.xml.bind.Unmarshaller;
+import jakarta.xml.bind.annotation.XmlRootElement;
+import jakarta.xml.bind.annotation.XmlType;
+
+/**
+ * JAXB Payload Method Processor with pooled marshallers
+ * Replaces Spring WS's default JAXB processors for the generated SOAP classes:
+ * the JAXBContext is built once at startup and marshaller/unmarshaller instances
+ * are pre-created and reused instead of being created on every invocation.
+ * Unmarshalling and marshalling times are added to the parse and marshal RequestTimings phases
+ */
+@Log4j2
+public class PooledJaxbPayloadMethodProcessor implements MethodArgumentResolver, MethodReturnValueHandler {
+
+    private final JAXBContext jaxbContext;
+    private final String jaxbPackage;
+    private final BlockingQueue<Marshaller> marshallers;
+    private final BlockingQueue<Unmarshaller> unmarshallers;
+
+    public PooledJaxbPayloadMethodProcessor(JAXBContext jaxbContext, String jaxbPackage, int poolSize)
+            throws JAXBException {
+        this.jaxbContext = jaxbContext;
+        this.jaxbPackage = jaxbPackage;
+        this.marshallers = new ArrayBlockingQueue<>(poolSize);
+        this.unmarshallers = new ArrayBlockingQueue<>(poolSize);
+
+        for (int i = 0; i < poolSize; i++) {
+            marshallers.offer(newMarshaller());
+            unmarshallers.offer(jaxbContext.createUnmarshaller());
+        }
+        log.info("JAXB marshaller pool initialized for package {} with {} instances", jaxbPackage, poolSize);
+    }
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return parameter.hasParameterAnnotation(RequestPayload.class)
+                && isJaxbType(parameter.getParameterType());
+    }
+
+    @Override
+    public Object resolveArgument(MessageContext messageContext, MethodParameter parameter) throws JAXBException {
+        long start = System.nanoTime();
+        Source payload = messageContext.getRequest().getPayloadSource();
+        if (payload == null) {
+            return null;
+        }
+
+        Unmarshaller unmarshaller = borrowUnmarshaller();
+        try {
+            return unmarshaller.unmarshal(payload, parameter.getParameterType()).getValue();
+        } finally {
+            unmarshallers.offer(unmarshaller);
+            RequestTimings.record(RequestTimings.Phase.PARSE, start);
+        }
+    }
+
+    @Override
+    public boolean supportsReturnType(MethodParameter returnType) {
+        Class<?> type = returnType.getParameterType();
+        return returnType.hasMethodAnnotation(ResponsePayload.class)
+                && type.isAnnotationPresent(XmlRootElement.class)
+                && jaxbPackage.equals(type.getPackageName());
+    }
+
+    @Override
+    public void handleReturnValue(MessageContext messageContext, MethodParameter returnType, Object returnValue)
+            throws JAXBException {
+        if (returnValue == null) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        Result payload = messageContext.getResponse().getPayloadResult();
+        Marshaller marshaller = borrowMarshaller();
+        try {
+            marshaller.marshal(returnValue, payload);
+        } finally {
+            marshallers.offer(marshaller);
+            RequestTimings.record(RequestTimings.Phase.MARSHAL, start);
+        }
+    }
+
+    private boolean isJaxbType(Class<?> type) {
+        return jaxbPackage.equals(type.getPackageName())
+                && (type.isAnnotationPresent(XmlRootElement.class) || type.isAnnotationPresent(XmlType.class));
+    }
+
+    /**
+     * Takes a pooled marshaller, creating a new one only when every instance is in use
+     */
+    private Marshaller borrowMarshaller() throws JAXBException {
+        Marshaller marshaller = marshallers.poll();
+        return marshaller != null ? marshaller : newMarshaller();
+    }
+
+    private Unmarshaller borrowUnmarshaller() throws JAXBException {
+        Unmarshaller unmarshaller = unmarshallers.poll();
+        return unmarshaller != null ? unmarshaller : jaxbContext.createUnmarshaller();
+    }
+
+    private Marshaller newMarshaller() throws JAXBException {
+        Marshaller marshaller = jaxbContext.createMarshaller();
+        marshaller.setProperty(Marshaller.JAXB_FRAGMENT, Boolean.TRUE);
+        return marshaller;
+    }
+}
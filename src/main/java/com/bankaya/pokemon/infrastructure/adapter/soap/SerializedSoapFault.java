@@ -0,0 +1,83 @@
+package com.bankaya.pokemon.infrastructure.adapter.soap;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import javax.xml.namespace.QName;
+
+import org.springframework.ws.soap.saaj.SaajSoapMessage;
+import org.springframework.ws.transport.TransportConstants;
+import org.springframework.ws.transport.TransportOutputStream;
+
+import jakarta.xml.soap.MessageFactory;
+import jakarta.xml.soap.MimeHeaders;
+import jakarta.xml.soap.SOAPException;
+import jakarta.xml.soap.SOAPMessage;
+
+/**
+ * Serialized SOAP Fault
+ * Fault envelope rendered by CachedSoapFaultExceptionResolver and handed to MessageContext.readResponse.
+ * FastInfosetSoapMessageFactory turns it into a SaajSoapMessage that writes these bytes unchanged and
+ * answers the message-level fault queries made while dispatching (hasFault, getFaultCode, getFaultReason)
+ * from the fields below, so the envelope is not parsed into SAAJ. Anything else read from the message
+ * (envelope, body) is SAAJ's, which parses the envelope on first access. Other factories read it as a
+ * plain text envelope
+ */
+final class SerializedSoapFault extends ByteArrayInputStream {
+
+    static final String CONTENT_TYPE = "text/xml; charset=utf-8";
+
+    private final byte[] envelope;
+    private final QName faultCode;
+    private final String faultReason;
+
+    SerializedSoapFault(byte[] envelope, QName faultCode, String faultReason) {
+        super(envelope);
+        this.envelope = envelope;
+        this.faultCode = faultCode;
+        this.faultReason = faultReason;
+    }
+
+    SaajSoapMessage toMessage(MessageFactory saajFactory) throws IOException {
+        MimeHeaders headers = new MimeHeaders();
+        headers.addHeader(TransportConstants.HEADER_CONTENT_TYPE, CONTENT_TYPE);
+        try {
+            // SAAJ conserva el flujo y no analiza el sobre hasta que alguien lo lee
+            SOAPMessage saajMessage = saajFactory.createMessage(headers, new ByteArrayInputStream(envelope));
+            return new Message(saajMessage, saajFactory);
+        } catch (SOAPException e) {
+            throw new IOException("Could not create SOAP fault message: " + e.getMessage(), e);
+        }
+    }
+
+    private final class Message extends SaajSoapMessage {
+
+        private Message(SOAPMessage saajMessage, MessageFactory saajFactory) {
+            super(saajMessage, true, saajFactory);
+        }
+
+        @Override
+        public boolean hasFault() {
+            return true;
+        }
+
+        @Override
+        public QName getFaultCode() {
+            return faultCode;
+        }
+
+        @Override
+        public String getFaultReason() {
+            return faultReason;
+        }
+
+        @Override
+        public void writeTo(OutputStream outputStream) throws IOException {
+            if (outputStream instanceof TransportOutputStream transportOutputStream) {
+                transportOutputStream.addHeader(TransportConstants.HEADER_CONTENT_TYPE, CONTENT_TYPE);
+            }
+            outputStream.write(envelope);
+        }
+    }
+}
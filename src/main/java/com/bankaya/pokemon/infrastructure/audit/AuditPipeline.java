@@ -0,0 +1,340 @@
+package com.bankaya.pokemon.infrastructure.audit;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.LockSupport;
+
+import org.springframework.context.SmartLifecycle;
+
+import com.bankaya.pokemon.domain.model.SoapAuditLog;
+
+import lombok.extern.log4j.Log4j2;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Audit Pipeline
+ * Hands audit records from request threads to a single consumer thread through a
+ * preallocated lock-free ring buffer (AuditRingBuffer). Publishing never throws and
+ * never takes a lock; when the buffer is full the OverflowPolicy decides what happens.
+ * The consumer hands records to every sink channel in batches of up to batch-size records, flushed
+ * when full or when the oldest record has waited max-batch-delay (one multi-row insert per batch).
+ * Each AuditSinkChannel has its own durable AuditSpool: overflowing records (SPILL) go to the spool
+ * of every channel, and a batch a sink fails to persist goes to the spool of that sink only. After
+ * a failure, that sink's batches are spooled directly for a back-off period instead of waiting on
+ * it again, while the other sinks keep receiving them (AuditSpoolReplayer writes the spooled
+ * records once the sink recovers). Sinks that write asynchronously (AuditSinkPort.writeAsync)
+ * keep several batches in flight; a batch is spooled when its write completes with an error.
+ * Only the consumer thread calls the sinks: records published while the pipeline is not
+ * running go to the spools, and a sink Error is logged and the consumer loop resumes.
+ * Metrics: soap.audit.queue.depth, soap.audit.queue.published, soap.audit.queue.dropped{reason}
+ * and soap.audit.queue.batch.size
+ * Shutdown: stops after the web server (lower lifecycle phase), drains every queued record and
+ * waits for the writes in flight; the channel spools are closed when the bean is destroyed
+ */
+@Log4j2
+public class AuditPipeline implements SmartLifecycle, AutoCloseable {
+
+    private static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+    private static final long SHUTDOWN_TIMEOUT_MS = 30_000;
+    private static final long FAILURE_BACKOFF_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    private final AuditRingBuffer<SoapAuditLog> ringBuffer;
+    private final List<AuditSinkChannel> channels;
+    private final Set<CompletableFuture<Void>> inFlight = ConcurrentHashMap.newKeySet();
+    private final int batchSize;
+    private final long maxBatchDelayNanos;
+    private final WaitStrategy waitStrategy;
+    private final OverflowPolicy overflowPolicy;
+    private final long blockTimeoutNanos;
+
+    private final Counter published;
+    private final Counter droppedOldest;
+    private final Counter droppedTimeout;
+    private final Counter droppedSpillFull;
+    private final DistributionSummary batchSizes;
+
+    private volatile boolean running;
+    private Thread consumer;
+
+    public AuditPipeline(List<AuditSinkChannel> channels, int capacity, int batchSize, long maxBatchDelayMs,
+                         WaitStrategy waitStrategy, OverflowPolicy overflowPolicy, long blockTimeoutMs,
+                         MeterRegistry meterRegistry) {
+        if (channels.isEmpty()) {
+            throw new IllegalStateException("No audit sink enabled (pokemon.audit.sinks.*.enabled)");
+        }
+        this.ringBuffer = new AuditRingBuffer<>(capacity);
+        this.channels = List.copyOf(channels);
+        this.batchSize = Math.max(1, batchSize);
+        this.maxBatchDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxBatchDelayMs);
+        this.waitStrategy = waitStrategy;
+        this.overflowPolicy = overflowPolicy;
+        this.blockTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(blockTimeoutMs);
+
+        Gauge.builder("soap.audit.queue.depth", ringBuffer, AuditRingBuffer::size)
+                .description("Audit records waiting in the ring buffer")
+                .register(meterRegistry);
+        this.published = meterRegistry.counter("soap.audit.queue.published");
+        this.droppedOldest = meterRegistry.counter("soap.audit.queue.dropped", "reason", "drop_oldest");
+        this.droppedTimeout = meterRegistry.counter("soap.audit.queue.dropped", "reason", "block_timeout");
+        this.droppedSpillFull = meterRegistry.counter("soap.audit.queue.dropped", "reason", "spill_full");
+        this.batchSizes = DistributionSummary.builder("soap.audit.queue.batch.size")
+                .description("Audit records handed to the writer per batch")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queues an audit record for the consumer thread
+     *
+     * @return false if the record was dropped
+     */
+    public boolean publish(SoapAuditLog auditLog) {
+        if (!running) {
+            // Arranque o apagado: sin consumidor, el registro va a los spools y lo reproduce AuditSpoolReplayer
+            return spill(auditLog);
+        }
+
+        if (ringBuffer.offer(auditLog)) {
+            published.increment();
+            return true;
+        }
+        return switch (overflowPolicy) {
+            case BLOCK -> publishBlocking(auditLog);
+            case DROP_OLDEST -> publishDroppingOldest(auditLog);
+            case SPILL -> spill(auditLog);
+        };
+    }
+
+    public int depth() {
+        return ringBuffer.size();
+    }
+
+    public List<AuditSinkChannel> channels() {
+        return channels;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        consumer = new Thread(this::consume, "SoapAudit-consumer");
+        consumer.setDaemon(true);
+        consumer.start();
+        log.info("Audit pipeline started: capacity {}, batch size {}, wait strategy {}, overflow policy {}",
+                ringBuffer.capacity(), batchSize, waitStrategy, overflowPolicy);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        LockSupport.unpark(consumer);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(SHUTDOWN_TIMEOUT_MS);
+        try {
+            consumer.join(SHUTDOWN_TIMEOUT_MS);
+            awaitInFlight(deadline);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (consumer.isAlive()) {
+            log.warn("Audit consumer still writing after {} ms, it drains the remaining records itself",
+                    SHUTDOWN_TIMEOUT_MS);
+            return;
+        }
+        // Registros publicados durante la carrera con el apagado, tras el drenado del consumidor
+        SoapAuditLog auditLog;
+        while ((auditLog = next()) != null) {
+            spill(auditLog);
+        }
+        log.info("Audit pipeline stopped, all queued audit records processed");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    @Override
+    public void close() {
+        channels.forEach(AuditSinkChannel::close);
+    }
+
+    /**
+     * Waits until the asynchronous writes complete (or are spooled) before the spools are closed
+     */
+    private void awaitInFlight(long deadline) throws InterruptedException {
+        try {
+            CompletableFuture.allOf(inFlight.toArray(CompletableFuture[]::new))
+                    .get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            // Los lotes fallidos ya quedaron en su spool
+        } catch (TimeoutException e) {
+            log.warn("{} audit batches still in flight after {} ms", inFlight.size(), SHUTDOWN_TIMEOUT_MS);
+        }
+    }
+
+    private void consume() {
+        while (running) {
+            try {
+                consumeBatches();
+            } catch (Throwable e) {
+                // Un Error de un sink no puede dejar el pipeline sin consumidor: se registra y se reanuda
+                log.error("Audit consumer failed, resuming it", e);
+            }
+        }
+        drain();
+    }
+
+    private void consumeBatches() {
+        List<SoapAuditLog> batch = new ArrayList<>(batchSize);
+        long batchStart = 0;
+        int idleAttempts = 0;
+        while (running) {
+            SoapAuditLog auditLog = next();
+            if (auditLog != null) {
+                if (batch.isEmpty()) {
+                    batchStart = System.nanoTime();
+                }
+                batch.add(auditLog);
+                idleAttempts = 0;
+                if (batch.size() >= batchSize) {
+                    batch = flush(batch);
+                }
+            } else {
+                // Lote parcial: se escribe cuando el registro más antiguo alcanza max-batch-delay
+                if (!batch.isEmpty() && System.nanoTime() - batchStart >= maxBatchDelayNanos) {
+                    batch = flush(batch);
+                }
+                idleAttempts = waitStrategy.idle(idleAttempts);
+            }
+        }
+        if (!batch.isEmpty()) {
+            flush(batch);
+        }
+    }
+
+    private void drain() {
+        List<SoapAuditLog> batch = new ArrayList<>(batchSize);
+        SoapAuditLog auditLog;
+        while ((auditLog = next()) != null) {
+            batch.add(auditLog);
+            if (batch.size() >= batchSize) {
+                batch = flush(batch);
+            }
+        }
+        if (!batch.isEmpty()) {
+            flush(batch);
+        }
+    }
+
+    /**
+     * Hands the batch to every sink and returns a new empty batch (a sink may keep the list)
+     */
+    private List<SoapAuditLog> flush(List<SoapAuditLog> batch) {
+        batchSizes.record(batch.size());
+        for (int i = 0; i < channels.size(); i++) {
+            try {
+                handle(channels.get(i), batch);
+            } catch (Error e) {
+                // El lote queda en el spool de este sink y de los siguientes antes de que el consumidor se reanude
+                channels.subList(i, channels.size()).forEach(channel -> spoolAll(channel, batch));
+                throw e;
+            }
+        }
+        return new ArrayList<>(batchSize);
+    }
+
+    private SoapAuditLog next() {
+        return ringBuffer.poll();
+    }
+
+    private void handle(AuditSinkChannel channel, List<SoapAuditLog> auditLogs) {
+        if (channel.backingOff(System.nanoTime())) {
+            spoolAll(channel, auditLogs);
+            return;
+        }
+        CompletableFuture<Void> write = channel.sink().writeAsync(auditLogs).whenComplete((ignored, e) -> {
+            if (e == null) {
+                channel.recovered();
+                return;
+            }
+            log.error("Error writing batch of {} audit records to the {} sink, spooling it", auditLogs.size(),
+                    channel.name(), e);
+            channel.failed(System.nanoTime() + FAILURE_BACKOFF_NANOS);
+            spoolAll(channel, auditLogs);
+        });
+        // Escritura asíncrona en vuelo: stop() la espera antes de cerrar los spools
+        if (!write.isDone()) {
+            inFlight.add(write);
+            write.whenComplete((ignored, e) -> inFlight.remove(write));
+        }
+    }
+
+    private void spoolAll(AuditSinkChannel channel, List<SoapAuditLog> auditLogs) {
+        for (SoapAuditLog auditLog : auditLogs) {
+            if (!channel.spool().append(auditLog)) {
+                droppedSpillFull.increment();
+                log.error("Audit spool of the {} sink full, audit record for {} lost", channel.name(),
+                        auditLog.getSoapMethod());
+            }
+        }
+    }
+
+    private boolean publishBlocking(SoapAuditLog auditLog) {
+        long deadline = System.nanoTime() + blockTimeoutNanos;
+        int attempts = 0;
+        while (System.nanoTime() < deadline) {
+            attempts = waitStrategy.idle(attempts);
+            if (ringBuffer.offer(auditLog)) {
+                published.increment();
+                return true;
+            }
+        }
+        droppedTimeout.increment();
+        return false;
+    }
+
+    private boolean publishDroppingOldest(SoapAuditLog auditLog) {
+        while (!ringBuffer.offer(auditLog)) {
+            if (ringBuffer.poll() != null) {
+                droppedOldest.increment();
+            }
+        }
+        published.increment();
+        return true;
+    }
+
+    /**
+     * Appends the record to the spool of every sink
+     *
+     * @return false if a spool was full (the record is lost for that sink)
+     */
+    private boolean spill(SoapAuditLog auditLog) {
+        boolean spooled = false;
+        boolean lost = false;
+        for (AuditSinkChannel channel : channels) {
+            if (channel.spool().append(auditLog)) {
+                spooled = true;
+            } else {
+                droppedSpillFull.increment();
+                lost = true;
+            }
+        }
+        if (spooled) {
+            published.increment();
+        }
+        return !lost;
+    }
+}
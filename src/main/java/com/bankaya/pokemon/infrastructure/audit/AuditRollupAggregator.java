@@ -0,0 +1,148 @@
+package com.bankaya.pokemon.infrastructure.audit;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.bankaya.pokemon.domain.model.AuditRollup;
+import com.bankaya.pokemon.domain.ports.AuditRollupRepositoryPort;
+import com.bankaya.pokemon.infrastructure.adapter.enums.RequestStatus;
+import com.bankaya.pokemon.infrastructure.utils.DateTimeUtils;
+
+import lombok.extern.log4j.Log4j2;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Audit Rollup Aggregator
+ * Per-minute, per-soapMethod, per-status request counts and latency histograms, fed by
+ * SoapAuditInterceptor.afterCompletion on the request thread. Recording never locks: buckets
+ * live in a ConcurrentHashMap and each records into an HdrHistogram Recorder (wait-free writers).
+ * Closed minutes (plus one minute of grace for in-flight requests) are removed and flushed to
+ * soap_audit_rollup as one compact row per bucket. A removed bucket is drained once more on the
+ * next flush, so a request that raced with the removal is written as an extra row instead of lost
+ * (rows of the same key add up when read). Rollups older than retention are deleted on the
+ * partition maintenance cron.
+ * Metrics: soap.audit.rollup.buckets (open buckets), soap.audit.rollup.flushed (rows written)
+ */
+@Log4j2
+@Component
+public class AuditRollupAggregator {
+
+    static final long HIGHEST_TRACKABLE_MS = TimeUnit.HOURS.toMillis(1);
+    static final int SIGNIFICANT_DIGITS = 2;
+    private static final String UNKNOWN_METHOD = "unknown";
+
+    private final Map<BucketKey, Recorder> buckets = new ConcurrentHashMap<>();
+    private final AuditRollupRepositoryPort repository;
+    private final DateTimeUtils dateTimeUtils;
+    private final Counter flushed;
+    private final Duration retention;
+    private List<Map.Entry<BucketKey, Recorder>> retired = List.of();
+
+    public AuditRollupAggregator(AuditRollupRepositoryPort repository, DateTimeUtils dateTimeUtils,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${pokemon.audit.rollup.retention:90d}") Duration retention) {
+        this.repository = repository;
+        this.dateTimeUtils = dateTimeUtils;
+        this.retention = retention;
+        Gauge.builder("soap.audit.rollup.buckets", buckets, Map::size)
+                .description("Open per-minute audit rollup buckets")
+                .register(meterRegistry);
+        this.flushed = meterRegistry.counter("soap.audit.rollup.flushed");
+    }
+
+    /**
+     * Records one completed SOAP request in the bucket of its request minute
+     */
+    public void record(String soapMethod, RequestStatus status, long durationMs, LocalDateTime requestDate) {
+        BucketKey key = new BucketKey(requestDate.truncatedTo(ChronoUnit.MINUTES),
+                soapMethod != null ? soapMethod : UNKNOWN_METHOD,
+                status != null ? status : RequestStatus.SUCCESS);
+        buckets.computeIfAbsent(key, ignored -> new Recorder(HIGHEST_TRACKABLE_MS, SIGNIFICANT_DIGITS))
+                .recordValue(Math.clamp(durationMs, 0, HIGHEST_TRACKABLE_MS));
+    }
+
+    @Scheduled(fixedDelayString = "${pokemon.audit.rollup.flush-interval-ms:15000}")
+    public void flush() {
+        // Mismo reloj que SoapAuditLog.requestDate (SoapAuditInterceptor)
+        flushBefore(dateTimeUtils.now().truncatedTo(ChronoUnit.MINUTES).minusMinutes(1));
+    }
+
+    @Scheduled(cron = "${pokemon.audit.partitions.maintenance-cron:0 15 0 * * *}")
+    public void purgeExpired() {
+        try {
+            int deleted = repository.deleteBefore(dateTimeUtils.now().truncatedTo(ChronoUnit.DAYS).minus(retention));
+            if (deleted > 0) {
+                log.info("{} audit rollups deleted (retention {})", deleted, retention);
+            }
+        } catch (RuntimeException e) {
+            log.error("Audit rollup purge failed, it is retried on the next run", e);
+        }
+    }
+
+    @PreDestroy
+    public void flushAll() {
+        flushBefore(LocalDateTime.MAX);
+        // Rezagados de los buckets recién retirados
+        flushBefore(LocalDateTime.MAX);
+    }
+
+    /**
+     * Writes the buckets of the minutes before the given one
+     */
+    synchronized void flushBefore(LocalDateTime minute) {
+        List<AuditRollup> rollups = new ArrayList<>();
+        for (Map.Entry<BucketKey, Recorder> entry : retired) {
+            addIfNotEmpty(rollups, entry.getKey(), entry.getValue().getIntervalHistogram());
+        }
+
+        List<Map.Entry<BucketKey, Recorder>> closed = new ArrayList<>();
+        for (Map.Entry<BucketKey, Recorder> entry : buckets.entrySet()) {
+            if (entry.getKey().minute().isBefore(minute) && buckets.remove(entry.getKey(), entry.getValue())) {
+                closed.add(Map.entry(entry.getKey(), entry.getValue()));
+                addIfNotEmpty(rollups, entry.getKey(), entry.getValue().getIntervalHistogram());
+            }
+        }
+        retired = closed;
+
+        if (rollups.isEmpty()) {
+            return;
+        }
+        try {
+            repository.saveAll(rollups);
+            flushed.increment(rollups.size());
+        } catch (RuntimeException e) {
+            log.error("Error writing {} audit rollups, they are lost", rollups.size(), e);
+        }
+    }
+
+    private static void addIfNotEmpty(List<AuditRollup> rollups, BucketKey key, Histogram latency) {
+        if (latency.getTotalCount() > 0) {
+            rollups.add(AuditRollup.builder()
+                    .bucketStart(key.minute())
+                    .soapMethod(key.soapMethod())
+                    .status(key.status())
+                    .latency(latency)
+                    .build());
+        }
+    }
+
+    private record BucketKey(LocalDateTime minute, String soapMethod, RequestStatus status) {
+    }
+}
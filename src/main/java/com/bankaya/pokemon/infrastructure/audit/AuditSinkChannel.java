@@ -0,0 +1,60 @@
+package com.bankaya.pokemon.infrastructure.audit;
+
+import com.bankaya.pokemon.domain.ports.AuditSinkPort;
+
+/**
+ * Audit Sink Channel
+ * Delivery state of one audit sink: the sink, its own AuditSpool and its failure back-off.
+ * A batch a sink cannot take is spooled and replayed for that sink only, so a failing sink
+ * neither holds back the others nor makes them receive the batch twice.
+ * The back-off is read by the AuditPipeline consumer thread and set by the thread that
+ * completes a write (the consumer itself for synchronous sinks)
+ */
+public class AuditSinkChannel implements AutoCloseable {
+
+    private final String name;
+    private final AuditSinkPort sink;
+    private final AuditSpool spool;
+
+    private volatile long spoolUntilNanos;
+    private volatile boolean backingOff;
+
+    public AuditSinkChannel(String name, AuditSinkPort sink, AuditSpool spool) {
+        this.name = name;
+        this.sink = sink;
+        this.spool = spool;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public AuditSinkPort sink() {
+        return sink;
+    }
+
+    public AuditSpool spool() {
+        return spool;
+    }
+
+    /**
+     * @return true while batches for this sink go straight to its spool after a failure
+     */
+    boolean backingOff(long nowNanos) {
+        return backingOff && nowNanos < spoolUntilNanos;
+    }
+
+    void failed(long spoolUntilNanos) {
+        this.spoolUntilNanos = spoolUntilNanos;
+        this.backingOff = true;
+    }
+
+    void recovered() {
+        backingOff = false;
+    }
+
+    @Override
+    public void close() {
+        spool.close();
+    }
+}
@@ -0,0 +1,508 @@
+package com.bankaya.pokemon.infrastructure.audit;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import com.bankaya.pokemon.domain.model.PhaseTimings;
+import com.bankaya.pokemon.domain.model.SoapAuditLog;
+import com.bankaya.pokemon.infrastructure.adapter.enums.RequestStatus;
+
+import lombok.extern.log4j.Log4j2;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+
+/**
+ * Audit Spool
+ * Durable local write-ahead spool for audit records the database cannot take right now
+ * (ring buffer overflow, database slow or down). Append-only, memory-mapped segment files
+ * (segment-&lt;id&gt;.spool) in a local directory:
+ * - Record: int length, int CRC32 (segment id + body), body. The segment id in the CRC makes
+ *   stale records of a recycled file invalid, so a scan stops at the real end of the data
+ * - Body: format version, then the fields of the audit record, phase timings last
+ * - Checkpoint: the replay position (segment id, offset), replaced atomically on every commit
+ * - Recycling: fully replayed segments are kept as spare files (up to MAX_SPARE_SEGMENTS)
+ *   and reused for new segments instead of allocating new files
+ * Appends survive a process crash (the page cache holds them); segments are forced to disk
+ * when they are rolled and on commit. AuditSpoolReplayer drains the spool back into its audit sink.
+ * Appends only take the append lock (writer position); read and commit take the replay lock
+ * (replay position, checkpoint) and the append lock just to snapshot the writer position, so
+ * neither the fsync of a rolled segment nor the checkpoint write blocks other appends
+ * Metrics: soap.audit.spool.depth, soap.audit.spool.segments, soap.audit.spool.appended,
+ * soap.audit.spool.replayed and soap.audit.spool.rejected
+ */
+@Log4j2
+public class AuditSpool implements AutoCloseable {
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".spool";
+    private static final String SPARE_PREFIX = "spare-";
+    private static final String CHECKPOINT = "checkpoint";
+    private static final int RECORD_HEADER_BYTES = 8;
+    private static final int MAX_SPARE_SEGMENTS = 2;
+    private static final byte FORMAT_VERSION = 1;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final int maxSegments;
+    private final ConcurrentNavigableMap<Long, MappedByteBuffer> segments = new ConcurrentSkipListMap<>();
+    private final Deque<Path> spareFiles = new ConcurrentLinkedDeque<>();
+    private final AtomicLong depth = new AtomicLong();
+    private final Object appendLock = new Object();
+    private final Object replayLock = new Object();
+
+    private final Counter appended;
+    private final Counter replayed;
+    private final Counter rejected;
+
+    // Protegidos por appendLock
+    private long writeSegment;
+    private int writePosition;
+    // Protegidos por replayLock
+    private long readSegment;
+    private int readPosition;
+
+    public AuditSpool(Path directory, int segmentSize, int maxSegments, MeterRegistry meterRegistry) {
+        this(directory, segmentSize, maxSegments, meterRegistry, Tags.empty());
+    }
+
+    /**
+     * @param tags added to the spool metrics (one spool per audit sink: sink=&lt;name&gt;)
+     */
+    public AuditSpool(Path directory, int segmentSize, int maxSegments, MeterRegistry meterRegistry, Tags tags) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.maxSegments = maxSegments;
+        try {
+            Files.createDirectories(directory);
+            recover();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open audit spool " + directory, e);
+        }
+
+        Gauge.builder("soap.audit.spool.depth", depth, AtomicLong::get)
+                .description("Audit records waiting in the local spool")
+                .tags(tags)
+                .register(meterRegistry);
+        Gauge.builder("soap.audit.spool.segments", this, AuditSpool::segmentCount)
+                .description("Spool segment files in use")
+                .tags(tags)
+                .register(meterRegistry);
+        this.appended = meterRegistry.counter("soap.audit.spool.appended", tags);
+        this.replayed = meterRegistry.counter("soap.audit.spool.replayed", tags);
+        this.rejected = meterRegistry.counter("soap.audit.spool.rejected", tags);
+    }
+
+    /**
+     * Appends an audit record
+     *
+     * @return false if the record does not fit (spool full or record larger than a segment)
+     */
+    public boolean append(SoapAuditLog auditLog) {
+        byte[] body = encode(auditLog);
+        int recordSize = RECORD_HEADER_BYTES + body.length;
+        if (recordSize > segmentSize) {
+            rejected.increment();
+            return false;
+        }
+        MappedByteBuffer rolled = null;
+        try {
+            synchronized (appendLock) {
+                if (writePosition + recordSize > segmentSize) {
+                    if (segments.size() >= maxSegments) {
+                        rejected.increment();
+                        return false;
+                    }
+                    rolled = segments.get(writeSegment);
+                    openSegment(writeSegment + 1);
+                    writeSegment++;
+                    writePosition = 0;
+                }
+                MappedByteBuffer segment = segments.get(writeSegment);
+                segment.putInt(writePosition + 4, crc(writeSegment, body, body.length));
+                segment.put(writePosition + RECORD_HEADER_BYTES, body);
+                // La longitud se escribe al final: un registro a medias nunca es válido
+                segment.putInt(writePosition, body.length);
+                writePosition += recordSize;
+                depth.incrementAndGet();
+            }
+        } catch (IOException e) {
+            log.error("Could not write audit record to spool", e);
+            rejected.increment();
+            return false;
+        }
+        appended.increment();
+        if (rolled != null) {
+            // Fuera del cerrojo: el fsync del segmento cerrado no bloquea a otros escritores
+            rolled.force();
+        }
+        return true;
+    }
+
+    /**
+     * Reads up to maxRecords records from the replay position without consuming them
+     */
+    public Batch read(int maxRecords) {
+        synchronized (replayLock) {
+            long lastSegment;
+            int lastPosition;
+            // Los registros anteriores a esta posición están completos (escritos antes de liberar el cerrojo)
+            synchronized (appendLock) {
+                lastSegment = writeSegment;
+                lastPosition = writePosition;
+            }
+            List<SoapAuditLog> records = new ArrayList<>(Math.min(maxRecords, 1024));
+            long segmentId = readSegment;
+            int position = readPosition;
+            while (records.size() < maxRecords && (segmentId < lastSegment || position < lastPosition)) {
+                byte[] body = readRecord(segmentId, position);
+                if (body == null) {
+                    if (segmentId >= lastSegment) {
+                        log.error("Corrupted audit spool record at segment {} offset {}, skipping the rest of it",
+                                segmentId, position);
+                        position = lastPosition;
+                        break;
+                    }
+                    // Fin de datos del segmento: el escritor continuó en el siguiente
+                    segmentId++;
+                    position = 0;
+                    continue;
+                }
+                records.add(decode(body));
+                position += RECORD_HEADER_BYTES + body.length;
+            }
+            return new Batch(records, segmentId, position);
+        }
+    }
+
+    /**
+     * Consumes a batch returned by read: moves the checkpoint and recycles finished segments
+     */
+    public void commit(Batch batch) {
+        synchronized (replayLock) {
+            if (batch.segmentId() == readSegment && batch.position() == readPosition) {
+                return;
+            }
+            try {
+                writeCheckpoint(batch.segmentId(), batch.position());
+                readSegment = batch.segmentId();
+                readPosition = batch.position();
+                while (!segments.isEmpty() && segments.firstKey() < readSegment) {
+                    recycle(segments.firstKey());
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not write audit spool checkpoint", e);
+            }
+            synchronized (appendLock) {
+                if (readSegment == writeSegment && readPosition >= writePosition) {
+                    // Al día con el escritor (también tras saltar un registro corrupto)
+                    depth.set(0);
+                } else {
+                    depth.addAndGet(-batch.records().size());
+                }
+            }
+            replayed.increment(batch.records().size());
+        }
+    }
+
+    public long depth() {
+        return depth.get();
+    }
+
+    @Override
+    public void close() {
+        synchronized (replayLock) {
+            synchronized (appendLock) {
+                segments.values().forEach(MappedByteBuffer::force);
+            }
+        }
+    }
+
+    private int segmentCount() {
+        return segments.size();
+    }
+
+    private void recover() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                String name = file.getFileName().toString();
+                if (name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX)) {
+                    long id = Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+                    segments.put(id, map(file));
+                } else if (name.startsWith(SPARE_PREFIX)) {
+                    spareFiles.add(file);
+                }
+            }
+        }
+
+        long[] checkpoint = readCheckpoint();
+        if (segments.isEmpty()) {
+            readSegment = checkpoint[0];
+            readPosition = 0;
+            openSegment(readSegment);
+            writeSegment = readSegment;
+            writePosition = 0;
+            return;
+        }
+        // Segmentos anteriores al checkpoint ya se reprodujeron (commit interrumpido antes de reciclarlos)
+        while (!segments.isEmpty() && segments.firstKey() < checkpoint[0]) {
+            recycle(segments.firstKey());
+        }
+        if (segments.isEmpty()) {
+            openSegment(checkpoint[0]);
+        }
+        readSegment = Math.max(checkpoint[0], segments.firstKey());
+        readPosition = readSegment == checkpoint[0] ? (int) checkpoint[1] : 0;
+
+        writeSegment = segments.lastKey();
+        writePosition = 0;
+        byte[] body;
+        while ((body = readRecord(writeSegment, writePosition)) != null) {
+            writePosition += RECORD_HEADER_BYTES + body.length;
+        }
+        depth.set(count());
+        log.info("Audit spool {} recovered: {} pending records in {} segments", directory, depth.get(), segments.size());
+    }
+
+    private long count() {
+        long records = 0;
+        long segmentId = readSegment;
+        int position = readPosition;
+        while (segmentId < writeSegment || position < writePosition) {
+            byte[] body = readRecord(segmentId, position);
+            if (body == null) {
+                if (segmentId >= writeSegment) {
+                    break;
+                }
+                segmentId++;
+                position = 0;
+            } else {
+                records++;
+                position += RECORD_HEADER_BYTES + body.length;
+            }
+        }
+        return records;
+    }
+
+    private byte[] readRecord(long segmentId, int position) {
+        MappedByteBuffer segment = segments.get(segmentId);
+        if (segment == null || position + RECORD_HEADER_BYTES > segmentSize) {
+            return null;
+        }
+        int length = segment.getInt(position);
+        if (length <= 0 || position + RECORD_HEADER_BYTES + length > segmentSize) {
+            return null;
+        }
+        byte[] body = new byte[length];
+        segment.get(position + RECORD_HEADER_BYTES, body);
+        return segment.getInt(position + 4) == crc(segmentId, body, length) ? body : null;
+    }
+
+    private void openSegment(long id) throws IOException {
+        Path file = segmentFile(id);
+        Path spare = spareFiles.poll();
+        if (spare != null) {
+            Files.move(spare, file, StandardCopyOption.ATOMIC_MOVE);
+        }
+        MappedByteBuffer segment = map(file);
+        // Un archivo reciclado conserva datos viejos: se invalida el primer registro
+        segment.putInt(0, 0);
+        segments.put(id, segment);
+    }
+
+    private void recycle(long id) throws IOException {
+        segments.remove(id);
+        Path file = segmentFile(id);
+        if (spareFiles.size() < MAX_SPARE_SEGMENTS) {
+            Path spare = directory.resolve(SPARE_PREFIX + id);
+            Files.move(file, spare, StandardCopyOption.ATOMIC_MOVE);
+            spareFiles.add(spare);
+        } else {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private MappedByteBuffer map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        }
+    }
+
+    private Path segmentFile(long id) {
+        return directory.resolve(SEGMENT_PREFIX + String.format("%019d", id) + SEGMENT_SUFFIX);
+    }
+
+    private long[] readCheckpoint() throws IOException {
+        Path file = directory.resolve(CHECKPOINT);
+        if (!Files.exists(file)) {
+            return new long[]{0, 0};
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+        return new long[]{buffer.getLong(), buffer.getInt()};
+    }
+
+    private void writeCheckpoint(long segmentId, int position) throws IOException {
+        MappedByteBuffer segment;
+        synchronized (appendLock) {
+            segment = segments.get(writeSegment);
+        }
+        segment.force();
+        Path temporary = directory.resolve(CHECKPOINT + ".tmp");
+        Files.write(temporary, ByteBuffer.allocate(12).putLong(segmentId).putInt(position).array(),
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE,
+                StandardOpenOption.SYNC);
+        Files.move(temporary, directory.resolve(CHECKPOINT), StandardCopyOption.ATOMIC_MOVE,
+                StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static int crc(long segmentId, byte[] body, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(ByteBuffer.allocate(Long.BYTES).putLong(0, segmentId));
+        crc.update(body, 0, length);
+        return (int) crc.getValue();
+    }
+
+    static byte[] encode(SoapAuditLog auditLog) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(FORMAT_VERSION);
+            out.writeBoolean(auditLog.isPolicyApplied());
+            writeString(out, auditLog.getIpOrigin());
+            writeString(out, auditLog.getRequestDate() != null ? auditLog.getRequestDate().toString() : null);
+            writeString(out, auditLog.getSoapMethod());
+            writeLong(out, auditLog.getStartTime());
+            writeLong(out, auditLog.getDurationMs());
+            writeString(out, auditLog.getRequestPayload());
+            writeString(out, auditLog.getResponsePayload());
+            writeString(out, auditLog.getStatus() != null ? auditLog.getStatus().name() : null);
+            writeString(out, auditLog.getErrorMessage());
+            writeString(out, auditLog.getEndpointClass());
+            PhaseTimings phaseTimings = auditLog.getPhaseTimings();
+            out.writeBoolean(phaseTimings != null);
+            if (phaseTimings != null) {
+                writeInt(out, phaseTimings.parseUs());
+                writeInt(out, phaseTimings.cacheUs());
+                writeInt(out, phaseTimings.upstreamUs());
+                writeInt(out, phaseTimings.marshalUs());
+                writeInt(out, phaseTimings.auditUs());
+            }
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static SoapAuditLog decode(byte[] body) {
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(body));
+            byte version = in.readByte();
+            if (version != FORMAT_VERSION) {
+                throw new IOException("Unsupported audit spool record version");
+            }
+            boolean policyApplied = in.readBoolean();
+            String ipOrigin = readString(in);
+            String requestDate = readString(in);
+            String soapMethod = readString(in);
+            Long startTime = readLong(in);
+            Long durationMs = readLong(in);
+            String requestPayload = readString(in);
+            String responsePayload = readString(in);
+            String status = readString(in);
+            String errorMessage = readString(in);
+            String endpointClass = readString(in);
+            PhaseTimings phaseTimings = null;
+            if (in.readBoolean()) {
+                phaseTimings = PhaseTimings.of(readInt(in), readInt(in), readInt(in), readInt(in), readInt(in));
+            }
+            return SoapAuditLog.builder()
+                    .policyApplied(policyApplied)
+                    .ipOrigin(ipOrigin)
+                    .requestDate(requestDate != null ? LocalDateTime.parse(requestDate) : null)
+                    .soapMethod(soapMethod)
+                    .startTime(startTime)
+                    .durationMs(durationMs)
+                    .requestPayload(requestPayload)
+                    .responsePayload(responsePayload)
+                    .status(status != null ? RequestStatus.valueOf(status) : null)
+                    .errorMessage(errorMessage)
+                    .endpointClass(endpointClass)
+                    .phaseTimings(phaseTimings)
+                    .build();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        return length < 0 ? null : new String(in.readNBytes(length), StandardCharsets.UTF_8);
+    }
+
+    private static void writeLong(DataOutputStream out, Long value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value);
+        }
+    }
+
+    private static Long readLong(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readLong() : null;
+    }
+
+    private static void writeInt(DataOutputStream out, Integer value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeInt(value);
+        }
+    }
+
+    private static Integer readInt(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readInt() : null;
+    }
+
+    /**
+     * Records read from the spool and the replay position right after them
+     */
+    public record Batch(List<SoapAuditLog> records, long segmentId, int position) {
+
+        public boolean isEmpty() {
+            return records.isEmpty();
+        }
+    }
+}
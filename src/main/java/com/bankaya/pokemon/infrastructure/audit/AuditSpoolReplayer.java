@@ -0,0 +1,51 @@
+package com.bankaya.pokemon.infrastructure.audit;
+
+import java.util.List;
+
+import org.springframework.scheduling.annotation.Scheduled;
+
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Audit Spool Replayer
+ * Drains the spool of every AuditSinkChannel back into that sink only, in batches. A batch is
+ * committed (checkpoint moved, finished segments recycled) only after the sink persisted it;
+ * while a sink is still unavailable its batch stays in the spool and is retried on the next
+ * run, without holding back the replay of the other sinks
+ */
+@Log4j2
+public class AuditSpoolReplayer {
+
+    private final List<AuditSinkChannel> channels;
+    private final int batchSize;
+
+    public AuditSpoolReplayer(List<AuditSinkChannel> channels, int batchSize) {
+        this.channels = List.copyOf(channels);
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${pokemon.audit.spool.replay-interval-ms:1000}")
+    public void replay() {
+        channels.forEach(this::replay);
+    }
+
+    private void replay(AuditSinkChannel channel) {
+        AuditSpool spool = channel.spool();
+        long replayed = 0;
+        AuditSpool.Batch batch;
+        while (!(batch = spool.read(batchSize)).isEmpty()) {
+            try {
+                channel.sink().write(batch.records());
+            } catch (RuntimeException e) {
+                log.warn("Audit sink {} still unavailable, {} audit records remain spooled: {}", channel.name(),
+                        spool.depth(), e.getMessage());
+                return;
+            }
+            spool.commit(batch);
+            replayed += batch.records().size();
+        }
+        if (replayed > 0) {
+            log.info("Replayed {} spooled audit records into the {} sink", replayed, channel.name());
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.bankaya.pokemon.infrastructure.audit;
+
+/**
+ * What the audit pipeline does when the ring buffer is full
+ * BLOCK: the request thread waits (WaitStrategy) up to the block timeout, then drops the record
+ * DROP_OLDEST: the oldest queued record is discarded to make room
+ * SPILL: the record is appended to the durable AuditSpool and replayed into the database later
+ */
+public enum OverflowPolicy {
+    BLOCK,
+    DROP_OLDEST,
+    SPILL
+}
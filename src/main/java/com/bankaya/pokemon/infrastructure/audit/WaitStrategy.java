@@ -0,0 +1,62 @@
+package com.bankaya.pokemon.infrastructure.audit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Wait strategies used by the audit consumer when the ring buffer is empty,
+ * and by producers blocked on a full buffer (OverflowPolicy.BLOCK)
+ * BUSY_SPIN: lowest latency, burns one core
+ * YIELDING: spins briefly then yields the CPU
+ * PARKING: spins, yields, then parks with an increasing back-off (default, idle-friendly)
+ */
+public enum WaitStrategy {
+
+    BUSY_SPIN {
+        @Override
+        public int idle(int attempt) {
+            Thread.onSpinWait();
+            return attempt + 1;
+        }
+    },
+
+    YIELDING {
+        @Override
+        public int idle(int attempt) {
+            if (attempt < SPIN_ATTEMPTS) {
+                Thread.onSpinWait();
+            } else {
+                Thread.yield();
+            }
+            return attempt + 1;
+        }
+    },
+
+    PARKING {
+        @Override
+        public int idle(int attempt) {
+            if (attempt < SPIN_ATTEMPTS) {
+                Thread.onSpinWait();
+            } else if (attempt < SPIN_ATTEMPTS + YIELD_ATTEMPTS) {
+                Thread.yield();
+            } else {
+                int shift = Math.min(attempt - SPIN_ATTEMPTS - YIELD_ATTEMPTS, MAX_PARK_SHIFT);
+                LockSupport.parkNanos(MIN_PARK_NANOS << shift);
+            }
+            return attempt + 1;
+        }
+    };
+
+    private static final int SPIN_ATTEMPTS = 100;
+    private static final int YIELD_ATTEMPTS = 100;
+    private static final long MIN_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    private static final int MAX_PARK_SHIFT = 5;
+
+    /**
+     * Waits once
+     *
+     * @param attempt consecutive unsuccessful attempts so far (0 after progress)
+     * @return the next attempt number
+     */
+    public abstract int idle(int attempt);
+}
@@ -0,0 +1,59 @@
+package com.bankaya.pokemon.infrastructure.config;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.bankaya.pokemon.domain.ports.AuditSinkPort;
+import com.bankaya.pokemon.infrastructure.audit.AuditPipeline;
+import com.bankaya.pokemon.infrastructure.audit.AuditSinkChannel;
+import com.bankaya.pokemon.infrastructure.audit.AuditSpool;
+import com.bankaya.pokemon.infrastructure.audit.AuditSpoolReplayer;
+import com.bankaya.pokemon.infrastructure.audit.OverflowPolicy;
+import com.bankaya.pokemon.infrastructure.audit.WaitStrategy;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+
+/**
+ * Audit Pipeline Configuration
+ * Replaces the former @Async audit executor (2-10 threads, 500-slot queue, rejections
+ * silently lost) with a ring buffer drained by a single consumer thread that writes
+ * batches of up to batch-size records (or whatever arrived within max-batch-delay-ms).
+ * Batches go to every enabled AuditSinkPort (pokemon.audit.sinks.*.enabled: database, ndjson),
+ * each through its own channel: records a sink cannot take (overflow, sink slow or down) go to
+ * that sink's memory-mapped spool (a subdirectory of pokemon.audit.spool.directory named after
+ * the sink) and are replayed into it in the background
+ */
+@Configuration
+public class AuditPipelineConfig {
+
+    @Bean
+    public AuditPipeline auditPipeline(List<AuditSinkPort> auditSinks, MeterRegistry meterRegistry,
+                                       @Value("${pokemon.audit.pipeline.capacity:8192}") int capacity,
+                                       @Value("${pokemon.audit.pipeline.batch-size:50}") int batchSize,
+                                       @Value("${pokemon.audit.pipeline.max-batch-delay-ms:200}") long maxBatchDelayMs,
+                                       @Value("${pokemon.audit.pipeline.wait-strategy:PARKING}") WaitStrategy waitStrategy,
+                                       @Value("${pokemon.audit.pipeline.overflow-policy:SPILL}") OverflowPolicy overflowPolicy,
+                                       @Value("${pokemon.audit.pipeline.block-timeout-ms:50}") long blockTimeoutMs,
+                                       @Value("${pokemon.audit.spool.directory}") String spoolDirectory,
+                                       @Value("${pokemon.audit.spool.segment-size:67108864}") int segmentSize,
+                                       @Value("${pokemon.audit.spool.max-segments:16}") int maxSegments) {
+        List<AuditSinkChannel> channels = auditSinks.stream()
+                .map(sink -> new AuditSinkChannel(sink.name(), sink, new AuditSpool(
+                        Path.of(spoolDirectory, sink.name()), segmentSize, maxSegments, meterRegistry,
+                        Tags.of("sink", sink.name()))))
+                .toList();
+        return new AuditPipeline(channels, capacity, batchSize, maxBatchDelayMs, waitStrategy, overflowPolicy,
+                blockTimeoutMs, meterRegistry);
+    }
+
+    @Bean
+    public AuditSpoolReplayer auditSpoolReplayer(AuditPipeline auditPipeline,
+                                                 @Value("${pokemon.audit.pipeline.batch-size:50}") int batchSize) {
+        return new AuditSpoolReplayer(auditPipeline.channels(), batchSize);
+    }
+}
@@ -21,8 +21,9 @@ import jakarta.annotation.Nonnull;
  * Cache Strategy:
  * - pokemonByName: Cache Pokemon data by name (case-insensitive)
  * - pokemonById: Cache Pokemon data by ID
+ * - pokemonNotFound: Negative cache of names PokeAPI answered 404 for
  * Configuration:
- * - TTL: 10 minutes
+ * - TTL: 10 minutes (pokemonNotFound: 1 minute, so new Pokemon show up quickly)
  * - Max size: 1000 entries per cache
  * - Scheduled cache clear: Every hour
  */
@@ -33,20 +34,24 @@ public class CacheConfig {
 
     private static final int CACHE_MAX_SIZE = 1000;
     private static final int CACHE_TTL_MINUTES = 10;
+    private static final int NOT_FOUND_CACHE_TTL_MINUTES = 1;
+
+    private static final String POKEMON_NOT_FOUND_CACHE = "pokemonNotFound";
 
     /**
      * Caffeine cache manager
      */
     @Bean
     public CacheManager cacheManager() {
-        return new ConcurrentMapCacheManager("pokemonByName", "pokemonById") {
+        return new ConcurrentMapCacheManager("pokemonByName", "pokemonById", POKEMON_NOT_FOUND_CACHE) {
             @Override
             protected org.springframework.cache.Cache createConcurrentMapCache(@Nonnull String name) {
+                int ttlMinutes = POKEMON_NOT_FOUND_CACHE.equals(name) ? NOT_FOUND_CACHE_TTL_MINUTES : CACHE_TTL_MINUTES;
                 return new org.springframework.cache.caffeine.CaffeineCache(
                         name,
                         Caffeine.newBuilder()
                                 .maximumSize(CACHE_MAX_SIZE)
-                                .expireAfterWrite(Duration.ofMinutes(CACHE_TTL_MINUTES))
+                                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
                                 .recordStats()
                                 .build()
                 );
@@ -59,7 +64,7 @@ public class CacheConfig {
      * Runs every hour
      */
     @Scheduled(cron = "0 0 * * * *")
-    @CacheEvict(value = {"pokemonByName", "pokemonById"}, allEntries = true)
+    @CacheEvict(value = {"pokemonByName", "pokemonById", POKEMON_NOT_FOUND_CACHE}, allEntries = true)
     public void clearCacheScheduled() {
         log.info("Scheduled cache eviction executed - all caches cleared");
     }
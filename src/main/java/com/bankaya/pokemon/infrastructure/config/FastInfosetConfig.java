@@ -0,0 +1,24 @@
+package com.bankaya.pokemon.infrastructure.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.ws.transport.http.MessageDispatcherServlet;
+
+import com.bankaya.pokemon.infrastructure.adapter.soap.FastInfosetSoapMessageFactory;
+
+/**
+ * Fast Infoset Configuration
+ * Replaces the MessageDispatcherServlet message factory with one that negotiates
+ * binary XML through SAAJ's native Fast Infoset support; the gzip filter still
+ * compresses Fast Infoset responses
+ */
+@Configuration
+@ConditionalOnProperty(name = "pokemon.soap.fastinfoset.enabled", havingValue = "true", matchIfMissing = true)
+public class FastInfosetConfig {
+
+    @Bean(name = MessageDispatcherServlet.DEFAULT_MESSAGE_FACTORY_BEAN_NAME)
+    public FastInfosetSoapMessageFactory messageFactory() {
+        return new FastInfosetSoapMessageFactory();
+    }
+}
@@ -0,0 +1,36 @@
+package com.bankaya.pokemon.infrastructure.config;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import com.bankaya.pokemon.infrastructure.interceptor.RequestContextTaskDecorator;
+
+/**
+ * Batch Lookup Configuration
+ * Bounded executor used to resolve the names of a batch request in parallel.
+ * The pool size caps the fan-out towards the cache/PokeAPI; when the queue is full
+ * the calling thread resolves the lookup itself instead of rejecting it.
+ * Lookups run with the request context of the SOAP call that submitted them.
+ */
+@Configuration
+public class PokemonBatchConfig {
+
+    @Bean
+    public Executor pokemonBatchExecutor(@Value("${pokemon.batch.parallelism:8}") int parallelism,
+                                         @Value("${pokemon.batch.queue-capacity:1000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(parallelism);
+        executor.setMaxPoolSize(parallelism);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("PokemonBatch-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setTaskDecorator(new RequestContextTaskDecorator());
+        executor.initialize();
+        return executor;
+    }
+}
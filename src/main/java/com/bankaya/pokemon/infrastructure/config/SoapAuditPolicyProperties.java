@@ -0,0 +1,25 @@
+package com.bankaya.pokemon.infrastructure.config;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Data;
+
+/**
+ * SOAP Audit Policy Properties
+ * pokemon.audit.policy.default-sample-rate: share of successful requests whose payloads are stored (0.0 - 1.0)
+ * pokemon.audit.policy.sample-rates.<SoapMethod>: per-method override, e.g. sample-rates.GetPokemonIdRequest=0.01
+ * pokemon.audit.policy.max-payload-bytes: UTF-8 size limit of each stored payload
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "pokemon.audit.policy")
+public class SoapAuditPolicyProperties {
+
+    private double defaultSampleRate = 1.0;
+    private Map<String, Double> sampleRates = new HashMap<>();
+    private int maxPayloadBytes = 64 * 1024;
+}
@@ -0,0 +1,46 @@
+package com.bankaya.pokemon.infrastructure.config;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import com.bankaya.pokemon.infrastructure.filter.SoapCompressionFilter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * SOAP Compression Configuration
+ * Registers the gzip filter for /pokemon/ws/* right after the static WSDL filter.
+ * The compressed-body cache is bounded by weight (uncompressed + compressed bytes)
+ * and expires with the same TTL as the Pokemon caches the envelopes are built from
+ */
+@Configuration
+@ConditionalOnProperty(name = "pokemon.soap.compression.enabled", havingValue = "true", matchIfMissing = true)
+public class SoapCompressionConfig {
+
+    private static final int CACHE_TTL_MINUTES = 10;
+
+    @Bean
+    public FilterRegistrationBean<SoapCompressionFilter> soapCompressionFilter(
+            @Value("${pokemon.soap.compression.min-size:1024}") int minSize,
+            @Value("${pokemon.soap.compression.max-inflated-bytes:2097152}") int maxInflatedBytes,
+            @Value("${pokemon.soap.compression.cache-max-bytes:16777216}") long cacheMaxBytes) {
+        Cache<ByteBuffer, byte[]> compressedBodies = Caffeine.newBuilder()
+                .maximumWeight(cacheMaxBytes)
+                .weigher((ByteBuffer body, byte[] compressed) -> body.capacity() + compressed.length)
+                .expireAfterWrite(Duration.ofMinutes(CACHE_TTL_MINUTES))
+                .build();
+
+        FilterRegistrationBean<SoapCompressionFilter> registration =
+                new FilterRegistrationBean<>(new SoapCompressionFilter(minSize, maxInflatedBytes, compressedBodies));
+        registration.addUrlPatterns("/pokemon/ws/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
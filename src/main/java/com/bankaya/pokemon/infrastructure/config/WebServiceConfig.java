@@ -1,37 +1,59 @@
 package com.bankaya.pokemon.infrastructure.config;
 
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.boot.web.servlet.ServletRegistrationBean;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
 import org.springframework.core.io.ClassPathResource;
-import org.springframework.core.task.AsyncTaskExecutor;
-import org.springframework.scheduling.annotation.EnableAsync;
-import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.core.io.Resource;
+import org.springframework.oxm.jaxb.Jaxb2Marshaller;
 import org.springframework.ws.config.annotation.EnableWs;
 import org.springframework.ws.config.annotation.WsConfigurer;
 import org.springframework.ws.server.EndpointInterceptor;
+import org.springframework.ws.server.endpoint.adapter.DefaultMethodEndpointAdapter;
+import org.springframework.ws.server.endpoint.adapter.method.MethodArgumentResolver;
+import org.springframework.ws.server.endpoint.adapter.method.MethodReturnValueHandler;
 import org.springframework.ws.transport.http.MessageDispatcherServlet;
-import org.springframework.ws.wsdl.wsdl11.DefaultWsdl11Definition;
+import org.springframework.ws.wsdl.wsdl11.SimpleWsdl11Definition;
 import org.springframework.xml.xsd.SimpleXsdSchema;
 import org.springframework.xml.xsd.XsdSchema;
 
+import com.bankaya.pokemon.infrastructure.adapter.soap.PooledJaxbPayloadMethodProcessor;
+import com.bankaya.pokemon.infrastructure.filter.SoapPayloadCaptureFilter;
+import com.bankaya.pokemon.infrastructure.filter.StaticWsdlFilter;
 import com.bankaya.pokemon.infrastructure.interceptor.SoapAuditInterceptor;
 
 import lombok.RequiredArgsConstructor;
 
+import jakarta.annotation.Nonnull;
+import jakarta.xml.bind.JAXBException;
+
 /**
  * Spring Web Services Configuration
- * Configures SOAP endpoints and WSDL generation
+ * Configures SOAP endpoints and the WSDL
+ * WSDL: generated at build time from pokemon.xsd (Gradle task generateWsdl) and
+ * served from memory by StaticWsdlFilter with ETag and gzip, soap:address set to the request host
+ * JAXB: the context for the generated SOAP package is built at startup and the
+ * endpoint adapter uses pooled marshallers before Spring WS's default processors
+ * Audit: SoapPayloadCaptureFilter tees the raw SOAP bytes for SoapAuditInterceptor;
+ * it runs last among the /pokemon/ws/* filters so it sees the uncompressed bodies
  */
 @EnableWs
-@EnableAsync
 @RequiredArgsConstructor
 @Configuration
 public class WebServiceConfig implements WsConfigurer {
 
+    private static final String SOAP_JAXB_PACKAGE = "com.bankaya.pokemon.soap";
+
     private final SoapAuditInterceptor soapAuditInterceptor;
 
     @Bean
@@ -39,18 +61,34 @@ public class WebServiceConfig implements WsConfigurer {
             ApplicationContext applicationContext) {
         MessageDispatcherServlet servlet = new MessageDispatcherServlet();
         servlet.setApplicationContext(applicationContext);
-        servlet.setTransformWsdlLocations(true);
         return new ServletRegistrationBean<>(servlet, "/pokemon/ws/*");
     }
 
     @Bean(name = "pokemon")
-    public DefaultWsdl11Definition defaultWsdl11Definition(XsdSchema pokemonSchema) {
-        DefaultWsdl11Definition wsdl11Definition = new DefaultWsdl11Definition();
-        wsdl11Definition.setPortTypeName("PokemonPort");
-        wsdl11Definition.setLocationUri("/pokemon/ws");
-        wsdl11Definition.setTargetNamespace("http://bankaya.com/pokemon/soap");
-        wsdl11Definition.setSchema(pokemonSchema);
-        return wsdl11Definition;
+    public SimpleWsdl11Definition pokemonWsdl11Definition(
+            @Value("${spring.webservices.servlet.init.wsdl-location}") Resource wsdlLocation) {
+        return new SimpleWsdl11Definition(wsdlLocation);
+    }
+
+    @Bean
+    public FilterRegistrationBean<StaticWsdlFilter> staticWsdlFilter(
+            @Value("${spring.webservices.servlet.init.wsdl-location}") Resource wsdlLocation) throws IOException {
+        FilterRegistrationBean<StaticWsdlFilter> registration =
+                new FilterRegistrationBean<>(new StaticWsdlFilter(wsdlLocation.getContentAsByteArray()));
+        registration.addUrlPatterns("/pokemon/ws/pokemon.wsdl");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    @Bean
+    public FilterRegistrationBean<SoapPayloadCaptureFilter> soapPayloadCaptureFilter(
+            @Value("${pokemon.soap.audit.capture-pool-size:64}") int poolSize,
+            @Value("${pokemon.soap.audit.capture-max-bytes:1048576}") int maxPayloadBytes) {
+        FilterRegistrationBean<SoapPayloadCaptureFilter> registration =
+                new FilterRegistrationBean<>(new SoapPayloadCaptureFilter(poolSize, maxPayloadBytes));
+        registration.addUrlPatterns("/pokemon/ws/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 30);
+        return registration;
     }
 
     @Bean
@@ -58,19 +96,50 @@ public class WebServiceConfig implements WsConfigurer {
         return new SimpleXsdSchema(new ClassPathResource("xsd/pokemon.xsd"));
     }
 
-    @Override
-    public void addInterceptors(List<EndpointInterceptor> interceptors) {
-        interceptors.add(soapAuditInterceptor);
+    @Bean
+    public Jaxb2Marshaller pokemonMarshaller() {
+        Jaxb2Marshaller marshaller = new Jaxb2Marshaller();
+        marshaller.setContextPath(SOAP_JAXB_PACKAGE);
+        return marshaller;
+    }
+
+    @Bean
+    public PooledJaxbPayloadMethodProcessor pooledJaxbPayloadMethodProcessor(
+            Jaxb2Marshaller pokemonMarshaller,
+            @Value("${pokemon.soap.jaxb.pool-size:32}") int poolSize) throws JAXBException {
+        return new PooledJaxbPayloadMethodProcessor(pokemonMarshaller.getJaxbContext(), SOAP_JAXB_PACKAGE, poolSize);
     }
 
+    /**
+     * Spring WS appends custom resolvers after its own JAXB processors, which would
+     * still win for the generated classes; put the pooled processor first instead
+     */
     @Bean
-    public AsyncTaskExecutor taskExecutor() {
-        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(2);
-        executor.setMaxPoolSize(10);
-        executor.setQueueCapacity(500);
-        executor.setThreadNamePrefix("SoapAudit-");
-        executor.initialize();
-        return executor;
+    public static BeanPostProcessor pooledJaxbProcessorRegistrar(
+            ObjectProvider<PooledJaxbPayloadMethodProcessor> pooledProcessor) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(@Nonnull Object bean, @Nonnull String beanName) {
+                if (bean instanceof DefaultMethodEndpointAdapter adapter) {
+                    PooledJaxbPayloadMethodProcessor processor = pooledProcessor.getObject();
+
+                    List<MethodArgumentResolver> resolvers = new ArrayList<>();
+                    resolvers.add(processor);
+                    resolvers.addAll(adapter.getMethodArgumentResolvers());
+                    adapter.setMethodArgumentResolvers(resolvers);
+
+                    List<MethodReturnValueHandler> handlers = new ArrayList<>();
+                    handlers.add(processor);
+                    handlers.addAll(adapter.getMethodReturnValueHandlers());
+                    adapter.setMethodReturnValueHandlers(handlers);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Override
+    public void addInterceptors(List<EndpointInterceptor> interceptors) {
+        interceptors.add(soapAuditInterceptor);
     }
 }
@@ -0,0 +1,71 @@
+package com.bankaya.pokemon.infrastructure.filter;
+
+import java.io.IOException;
+
+import jakarta.annotation.Nonnull;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+
+/**
+ * Servlet input stream over a request body already held in memory
+ * The whole body is available up front, so a non-blocking reader registering a ReadListener
+ * is notified of the data and of its end right away
+ */
+final class BufferedServletInputStream extends ServletInputStream {
+
+    private final byte[] body;
+    private int position;
+
+    BufferedServletInputStream(byte[] body) {
+        this.body = body;
+    }
+
+    @Override
+    public int read() {
+        return position < body.length ? body[position++] & 0xFF : -1;
+    }
+
+    @Override
+    public int read(@Nonnull byte[] buffer, int offset, int length) {
+        if (length == 0) {
+            return 0;
+        }
+        if (position >= body.length) {
+            return -1;
+        }
+        int count = Math.min(length, body.length - position);
+        System.arraycopy(body, position, buffer, offset, count);
+        position += count;
+        return count;
+    }
+
+    @Override
+    public int available() {
+        return body.length - position;
+    }
+
+    @Override
+    public boolean isFinished() {
+        return position >= body.length;
+    }
+
+    @Override
+    public boolean isReady() {
+        return true;
+    }
+
+    @Override
+    public void setReadListener(ReadListener readListener) {
+        try {
+            // Sin E/S pendiente: todo el cuerpo ya está en memoria
+            if (!isFinished()) {
+                readListener.onDataAvailable();
+            }
+            if (isFinished()) {
+                readListener.onAllDataRead();
+            }
+        } catch (IOException e) {
+            readListener.onError(e);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.bankaya.pokemon.infrastructure.filter;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import com.bankaya.pokemon.domain.model.PhaseTimings;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Request Timings
+ * Monotonic (System.nanoTime) time spent per phase of one SOAP request, bound to the HTTP
+ * request as an attribute. SoapPayloadCaptureFilter creates it when the request enters the
+ * SOAP filter chain; the audit interceptor, the JAXB processor, PokemonService and
+ * PokeApiClient add their phases through the current request context (propagated to the
+ * batch executor by RequestContextTaskDecorator). Phases are summed, so concurrent lookups
+ * of a batch add up; outside a request recording is a no-op.
+ * Rendered as a Server-Timing header and as the PhaseTimings of the audit record
+ */
+public final class RequestTimings {
+
+    public static final String ATTRIBUTE = RequestTimings.class.getName();
+    public static final String SERVER_TIMING_HEADER = "Server-Timing";
+
+    /**
+     * Measured phases, named as in the Server-Timing header
+     */
+    public enum Phase {
+        PARSE("parse"),
+        CACHE("cache"),
+        UPSTREAM("upstream"),
+        MARSHAL("marshal"),
+        AUDIT("audit");
+
+        private final String metric;
+
+        Phase(String metric) {
+            this.metric = metric;
+        }
+    }
+
+    private static final Phase[] PHASES = Phase.values();
+
+    private final long startNanos;
+    private final AtomicLongArray nanos = new AtomicLongArray(PHASES.length);
+
+    public RequestTimings(long startNanos) {
+        this.startNanos = startNanos;
+    }
+
+    /**
+     * Timings bound to the request, or null
+     */
+    public static RequestTimings from(HttpServletRequest request) {
+        return request.getAttribute(ATTRIBUTE) instanceof RequestTimings timings ? timings : null;
+    }
+
+    /**
+     * Timings of the request bound to the current thread, or null
+     */
+    public static RequestTimings current() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes != null
+                && attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof RequestTimings timings
+                ? timings : null;
+    }
+
+    /**
+     * Adds the time elapsed since startNanos to a phase of the current request
+     */
+    public static void record(Phase phase, long startNanos) {
+        RequestTimings timings = current();
+        if (timings != null) {
+            timings.add(phase, System.nanoTime() - startNanos);
+        }
+    }
+
+    public void add(Phase phase, long elapsedNanos) {
+        nanos.addAndGet(phase.ordinal(), elapsedNanos);
+    }
+
+    public long startNanos() {
+        return startNanos;
+    }
+
+    /**
+     * Phases in microseconds; cache excludes the PokeAPI calls made by the lookups
+     */
+    public PhaseTimings phaseTimings() {
+        return PhaseTimings.of(micros(Phase.PARSE), micros(Phase.CACHE), micros(Phase.UPSTREAM),
+                micros(Phase.MARSHAL), micros(Phase.AUDIT));
+    }
+
+    /**
+     * Server-Timing header value: measured phases plus total, durations in milliseconds
+     */
+    public String serverTiming(long endNanos) {
+        StringBuilder header = new StringBuilder(128);
+        for (Phase phase : PHASES) {
+            long elapsed = exclusiveNanos(phase);
+            if (elapsed > 0) {
+                appendMetric(header, phase.metric, elapsed);
+            }
+        }
+        appendMetric(header, "total", endNanos - startNanos);
+        return header.toString();
+    }
+
+    private long exclusiveNanos(Phase phase) {
+        long elapsed = nanos.get(phase.ordinal());
+        // El tiempo de la caché incluye las llamadas a PokeAPI hechas en los fallos
+        if (phase == Phase.CACHE && elapsed > 0) {
+            return Math.max(0, elapsed - nanos.get(Phase.UPSTREAM.ordinal()));
+        }
+        return elapsed;
+    }
+
+    private Integer micros(Phase phase) {
+        if (nanos.get(phase.ordinal()) == 0) {
+            return null;
+        }
+        return (int) Math.min(Integer.MAX_VALUE, TimeUnit.NANOSECONDS.toMicros(exclusiveNanos(phase)));
+    }
+
+    private static void appendMetric(StringBuilder header, String metric, long elapsedNanos) {
+        if (!header.isEmpty()) {
+            header.append(", ");
+        }
+        header.append(metric).append(";dur=").append(Math.round(elapsedNanos / 1_000.0) / 1_000.0);
+    }
+}
@@ -0,0 +1,169 @@
+package com.bankaya.pokemon.infrastructure.filter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipException;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import com.bankaya.pokemon.infrastructure.utils.CompressionUtils;
+import com.github.benmanes.caffeine.cache.Cache;
+
+import lombok.extern.log4j.Log4j2;
+
+import jakarta.annotation.Nonnull;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * SOAP Compression Filter
+ * Decodes gzip request bodies (Content-Encoding: gzip) and gzips responses for clients
+ * sending Accept-Encoding: gzip when the envelope reaches the minimum size.
+ * Request bodies are inflated up front into at most maxInflatedBytes: a larger body
+ * (e.g. a decompression bomb) is rejected with 413 before it reaches the servlet.
+ * Compressed bodies are kept in a cache keyed by the uncompressed bytes, so identical
+ * envelopes (e.g. responses built from cached Pokemon) are compressed only once
+ */
+@Log4j2
+public class SoapCompressionFilter extends OncePerRequestFilter {
+
+    private final int minSize;
+    private final int maxInflatedBytes;
+    private final Cache<ByteBuffer, byte[]> compressedBodies;
+
+    public SoapCompressionFilter(int minSize, int maxInflatedBytes, Cache<ByteBuffer, byte[]> compressedBodies) {
+        this.minSize = minSize;
+        this.maxInflatedBytes = maxInflatedBytes;
+        this.compressedBodies = compressedBodies;
+    }
+
+    @Override
+    protected void doFilterInternal(@Nonnull HttpServletRequest request, @Nonnull HttpServletResponse response,
+                                    @Nonnull FilterChain filterChain) throws ServletException, IOException {
+        HttpServletRequest effectiveRequest = request;
+        if (isGzipEncoded(request)) {
+            byte[] body;
+            try {
+                body = inflate(request.getInputStream());
+            } catch (ZipException | EOFException e) {
+                log.debug("Rejecting request with invalid gzip body: {}", e.getMessage());
+                response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Invalid gzip request body");
+                return;
+            }
+            if (body == null) {
+                log.warn("Rejecting gzip request body inflating to more than {} bytes", maxInflatedBytes);
+                response.sendError(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE, "Gzip request body too large");
+                return;
+            }
+            effectiveRequest = new GzipRequestWrapper(request, body);
+        }
+
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (!CompressionUtils.acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING))) {
+            filterChain.doFilter(effectiveRequest, response);
+            return;
+        }
+
+        ContentCachingResponseWrapper bufferedResponse = new ContentCachingResponseWrapper(response);
+        filterChain.doFilter(effectiveRequest, bufferedResponse);
+
+        if (bufferedResponse.getContentSize() < minSize || response.containsHeader(HttpHeaders.CONTENT_ENCODING)) {
+            bufferedResponse.copyBodyToResponse();
+            return;
+        }
+
+        byte[] body = bufferedResponse.getContentAsByteArray();
+        byte[] compressed = compressedBodies.get(ByteBuffer.wrap(body), key -> CompressionUtils.gzip(body));
+
+        response.setHeader(HttpHeaders.CONTENT_ENCODING, CompressionUtils.GZIP);
+        response.setContentLength(compressed.length);
+        response.getOutputStream().write(compressed);
+    }
+
+    /**
+     * Inflated body, or null when it exceeds maxInflatedBytes (reading stops right there)
+     */
+    private byte[] inflate(InputStream compressed) throws IOException {
+        ByteArrayOutputStream inflated = new ByteArrayOutputStream(8 * 1024);
+        byte[] buffer = new byte[8 * 1024];
+        try (GZIPInputStream gzip = new GZIPInputStream(compressed)) {
+            int count;
+            while ((count = gzip.read(buffer)) >= 0) {
+                if (inflated.size() + count > maxInflatedBytes) {
+                    return null;
+                }
+                inflated.write(buffer, 0, count);
+            }
+        }
+        return inflated.toByteArray();
+    }
+
+    private boolean isGzipEncoded(HttpServletRequest request) {
+        return CompressionUtils.GZIP.equalsIgnoreCase(request.getHeader(HttpHeaders.CONTENT_ENCODING));
+    }
+
+    /**
+     * Exposes the inflated body and hides the encoding headers that no longer apply to it
+     */
+    private static final class GzipRequestWrapper extends HttpServletRequestWrapper {
+
+        private final ServletInputStream inputStream;
+        private final int contentLength;
+
+        private GzipRequestWrapper(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.inputStream = new BufferedServletInputStream(body);
+            this.contentLength = body.length;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            return inputStream;
+        }
+
+        @Override
+        public int getContentLength() {
+            return contentLength;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return contentLength;
+        }
+
+        @Override
+        public String getHeader(String name) {
+            return isEncodingHeader(name) ? null : super.getHeader(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            return isEncodingHeader(name) ? Collections.emptyEnumeration() : super.getHeaders(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaderNames() {
+            List<String> names = Collections.list(super.getHeaderNames());
+            names.removeIf(GzipRequestWrapper::isEncodingHeader);
+            return Collections.enumeration(names);
+        }
+
+        private static boolean isEncodingHeader(String name) {
+            return HttpHeaders.CONTENT_ENCODING.equalsIgnoreCase(name)
+                    || HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name);
+        }
+    }
+}
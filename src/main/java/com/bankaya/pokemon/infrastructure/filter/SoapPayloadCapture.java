@@ -0,0 +1,130 @@
+package com.bankaya.pokemon.infrastructure.filter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+import com.bankaya.pokemon.infrastructure.utils.FastInfosetUtils;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * SOAP Payload Capture
+ * Raw request/response bytes of one SOAP exchange, teed by SoapPayloadCaptureFilter as
+ * they stream through the servlet. Components that need the payloads (the audit
+ * interceptor) register a completion callback: it runs once the response has been
+ * fully written, right before the pooled buffers are released.
+ * Fast Infoset bodies are kept binary on the wire and only decoded to text XML when read here.
+ */
+public class SoapPayloadCapture {
+
+    public static final String ATTRIBUTE = SoapPayloadCapture.class.getName();
+
+    private final CaptureBuffer requestBuffer;
+    private final CaptureBuffer responseBuffer;
+    private final int maxBytes;
+    private Consumer<SoapPayloadCapture> completionCallback;
+    private boolean requestFastInfoset;
+    private boolean responseFastInfoset;
+
+    SoapPayloadCapture(CaptureBuffer requestBuffer, CaptureBuffer responseBuffer, int maxBytes) {
+        this.requestBuffer = requestBuffer;
+        this.responseBuffer = responseBuffer;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Capture bound to the current HTTP request, or null when the request was not captured
+     */
+    public static SoapPayloadCapture from(HttpServletRequest request) {
+        return request.getAttribute(ATTRIBUTE) instanceof SoapPayloadCapture capture ? capture : null;
+    }
+
+    public void whenComplete(Consumer<SoapPayloadCapture> callback) {
+        this.completionCallback = callback;
+    }
+
+    public String requestPayload() {
+        return payload(requestBuffer, requestFastInfoset);
+    }
+
+    public String responsePayload() {
+        return payload(responseBuffer, responseFastInfoset);
+    }
+
+    void contentTypes(String requestContentType, String responseContentType) {
+        this.requestFastInfoset = FastInfosetUtils.isFastInfoset(requestContentType);
+        this.responseFastInfoset = FastInfosetUtils.isFastInfoset(responseContentType);
+    }
+
+    void captureRequest(byte[] bytes, int offset, int length) {
+        capture(requestBuffer, bytes, offset, length);
+    }
+
+    void captureRequest(int value) {
+        if (requestBuffer.size() < maxBytes) {
+            requestBuffer.write(value);
+        }
+    }
+
+    void captureResponse(byte[] bytes, int offset, int length) {
+        capture(responseBuffer, bytes, offset, length);
+    }
+
+    void captureResponse(int value) {
+        if (responseBuffer.size() < maxBytes) {
+            responseBuffer.write(value);
+        }
+    }
+
+    void complete() {
+        if (completionCallback != null) {
+            completionCallback.accept(this);
+        }
+    }
+
+    CaptureBuffer requestBuffer() {
+        return requestBuffer;
+    }
+
+    CaptureBuffer responseBuffer() {
+        return responseBuffer;
+    }
+
+    private String payload(CaptureBuffer buffer, boolean fastInfoset) {
+        if (!fastInfoset || buffer.size() == 0) {
+            return buffer.toString(StandardCharsets.UTF_8);
+        }
+        try {
+            return new String(FastInfosetUtils.toXml(buffer.toByteArray()), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            // Payload recortado por capture-max-bytes o binario inválido
+            return "Error decoding Fast Infoset payload: " + e.getMessage();
+        }
+    }
+
+    /**
+     * Payloads beyond the limit are cut: auditing must not buffer unbounded bodies
+     */
+    private void capture(CaptureBuffer buffer, byte[] bytes, int offset, int length) {
+        int remaining = maxBytes - buffer.size();
+        if (remaining > 0) {
+            buffer.write(bytes, offset, Math.min(remaining, length));
+        }
+    }
+
+    /**
+     * Reusable byte buffer exposing its current capacity to the pool
+     */
+    static final class CaptureBuffer extends ByteArrayOutputStream {
+
+        CaptureBuffer(int initialSize) {
+            super(initialSize);
+        }
+
+        int capacity() {
+            return buf.length;
+        }
+    }
+}
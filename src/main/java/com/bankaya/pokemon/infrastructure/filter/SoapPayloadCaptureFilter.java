@@ -0,0 +1,233 @@
+package com.bankaya.pokemon.infrastructure.filter;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.bankaya.pokemon.infrastructure.filter.SoapPayloadCapture.CaptureBuffer;
+
+import lombok.extern.log4j.Log4j2;
+
+import jakarta.annotation.Nonnull;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * SOAP Payload Capture Filter
+ * Tees the raw request and response bytes of /pokemon/ws/* into pooled buffers while the
+ * MessageDispatcherServlet reads and writes them, and exposes them as a SoapPayloadCapture
+ * request attribute. Auditing reuses these bytes instead of serializing the SOAP envelopes again.
+ * Registered inside the gzip filter, so the captured payloads are uncompressed; Fast Infoset
+ * bodies are decoded to text XML only when the audit reads them.
+ * Also binds the RequestTimings of the request, started when it enters this filter
+ */
+@Log4j2
+public class SoapPayloadCaptureFilter extends OncePerRequestFilter {
+
+    private static final int INITIAL_BUFFER_SIZE = 4 * 1024;
+
+    private final BlockingQueue<CaptureBuffer> bufferPool;
+    private final int maxPayloadBytes;
+    private final int maxPooledBufferBytes;
+
+    public SoapPayloadCaptureFilter(int poolSize, int maxPayloadBytes) {
+        this.bufferPool = new ArrayBlockingQueue<>(poolSize);
+        this.maxPayloadBytes = maxPayloadBytes;
+        // Buffers that grew well beyond a typical envelope are dropped instead of pinned in the pool
+        this.maxPooledBufferBytes = Math.max(INITIAL_BUFFER_SIZE, maxPayloadBytes / 4);
+        for (int i = 0; i < poolSize; i++) {
+            bufferPool.offer(new CaptureBuffer(INITIAL_BUFFER_SIZE));
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(@Nonnull HttpServletRequest request, @Nonnull HttpServletResponse response,
+                                    @Nonnull FilterChain filterChain) throws ServletException, IOException {
+        // Llegada de la petición SOAP: inicio de la fase parse del Server-Timing
+        request.setAttribute(RequestTimings.ATTRIBUTE, new RequestTimings(System.nanoTime()));
+        SoapPayloadCapture capture = new SoapPayloadCapture(borrowBuffer(), borrowBuffer(), maxPayloadBytes);
+        request.setAttribute(SoapPayloadCapture.ATTRIBUTE, capture);
+        try {
+            filterChain.doFilter(new TeeRequestWrapper(request, capture), new TeeResponseWrapper(response, capture));
+        } finally {
+            try {
+                capture.contentTypes(request.getContentType(), response.getContentType());
+                capture.complete();
+            } catch (RuntimeException e) {
+                log.error("Error processing captured SOAP payloads", e);
+            }
+            request.removeAttribute(SoapPayloadCapture.ATTRIBUTE);
+            request.removeAttribute(RequestTimings.ATTRIBUTE);
+            releaseBuffer(capture.requestBuffer());
+            releaseBuffer(capture.responseBuffer());
+        }
+    }
+
+    private CaptureBuffer borrowBuffer() {
+        CaptureBuffer buffer = bufferPool.poll();
+        return buffer != null ? buffer : new CaptureBuffer(INITIAL_BUFFER_SIZE);
+    }
+
+    private void releaseBuffer(CaptureBuffer buffer) {
+        if (buffer.capacity() <= maxPooledBufferBytes) {
+            buffer.reset();
+            bufferPool.offer(buffer);
+        }
+    }
+
+    private static final class TeeRequestWrapper extends HttpServletRequestWrapper {
+
+        private final SoapPayloadCapture capture;
+        private ServletInputStream inputStream;
+
+        private TeeRequestWrapper(HttpServletRequest request, SoapPayloadCapture capture) {
+            super(request);
+            this.capture = capture;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() throws IOException {
+            if (inputStream == null) {
+                inputStream = new TeeInputStream(super.getInputStream(), capture);
+            }
+            return inputStream;
+        }
+    }
+
+    private static final class TeeResponseWrapper extends HttpServletResponseWrapper {
+
+        private final SoapPayloadCapture capture;
+        private ServletOutputStream outputStream;
+        private PrintWriter writer;
+
+        private TeeResponseWrapper(HttpServletResponse response, SoapPayloadCapture capture) {
+            super(response);
+            this.capture = capture;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                outputStream = new TeeOutputStream(super.getOutputStream(), capture);
+            }
+            return outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                writer = new PrintWriter(new OutputStreamWriter(getOutputStream(),
+                        Charset.forName(getCharacterEncoding())));
+            }
+            return writer;
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            super.flushBuffer();
+        }
+    }
+
+    private static final class TeeInputStream extends ServletInputStream {
+
+        private final ServletInputStream delegate;
+        private final SoapPayloadCapture capture;
+
+        private TeeInputStream(ServletInputStream delegate, SoapPayloadCapture capture) {
+            this.delegate = delegate;
+            this.capture = capture;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int value = delegate.read();
+            if (value >= 0) {
+                capture.captureRequest(value);
+            }
+            return value;
+        }
+
+        @Override
+        public int read(@Nonnull byte[] buffer, int offset, int length) throws IOException {
+            int count = delegate.read(buffer, offset, length);
+            if (count > 0) {
+                capture.captureRequest(buffer, offset, count);
+            }
+            return count;
+        }
+
+        @Override
+        public boolean isFinished() {
+            return delegate.isFinished();
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            delegate.setReadListener(readListener);
+        }
+    }
+
+    private static final class TeeOutputStream extends ServletOutputStream {
+
+        private final ServletOutputStream delegate;
+        private final SoapPayloadCapture capture;
+
+        private TeeOutputStream(ServletOutputStream delegate, SoapPayloadCapture capture) {
+            this.delegate = delegate;
+            this.capture = capture;
+        }
+
+        @Override
+        public void write(int value) throws IOException {
+            delegate.write(value);
+            capture.captureResponse(value);
+        }
+
+        @Override
+        public void write(@Nonnull byte[] buffer, int offset, int length) throws IOException {
+            delegate.write(buffer, offset, length);
+            capture.captureResponse(buffer, offset, length);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            delegate.setWriteListener(writeListener);
+        }
+    }
+}
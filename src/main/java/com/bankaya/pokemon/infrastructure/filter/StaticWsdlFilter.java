@@ -0,0 +1,138 @@
+package com.bankaya.pokemon.infrastructure.filter;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.bankaya.pokemon.infrastructure.utils.CompressionUtils;
+
+import lombok.extern.log4j.Log4j2;
+
+import jakarta.annotation.Nonnull;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Static WSDL Filter
+ * Serves the build-time generated WSDL from memory, with a strong ETag (304 on revalidation)
+ * and a pre-compressed gzip variant, so the request never reaches the MessageDispatcherServlet.
+ * The gzip variant has its own ETag (-gzip suffix): a strong validator differs per content coding.
+ * The soap:address location is rewritten to the scheme, host and port of the request (the
+ * build-time path is kept), as MessageDispatcherServlet's location transformation did: each
+ * host gets its own bytes, gzip variant and ETag, cached for up to MAX_CACHED_HOSTS hosts
+ * (beyond that the variant is built per request, so arbitrary Host headers cannot grow the cache)
+ */
+@Log4j2
+public class StaticWsdlFilter extends OncePerRequestFilter {
+
+    private static final String CONTENT_TYPE = "text/xml;charset=UTF-8";
+    private static final String CACHE_CONTROL = "public, max-age=300";
+    private static final Pattern ADDRESS_LOCATION = Pattern.compile("(:address\\s+location=\")([^\"]*)(\")");
+    static final int MAX_CACHED_HOSTS = 32;
+
+    private final String wsdl;
+    private final String locationPath;
+    private final Map<String, Variant> variants = new ConcurrentHashMap<>();
+
+    public StaticWsdlFilter(byte[] wsdl) {
+        this.wsdl = new String(wsdl, StandardCharsets.UTF_8);
+        Matcher address = ADDRESS_LOCATION.matcher(this.wsdl);
+        if (!address.find()) {
+            throw new IllegalArgumentException("The WSDL has no soap:address location");
+        }
+        this.locationPath = URI.create(address.group(2)).getRawPath();
+        log.info("Static WSDL loaded: {} bytes, soap:address path {}", wsdl.length, locationPath);
+    }
+
+    @Override
+    protected void doFilterInternal(@Nonnull HttpServletRequest request, @Nonnull HttpServletResponse response,
+                                    @Nonnull FilterChain filterChain) throws ServletException, IOException {
+        String method = request.getMethod();
+        if (!HttpMethod.GET.matches(method) && !HttpMethod.HEAD.matches(method)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        Variant variant = variant(location(request));
+        boolean gzip = CompressionUtils.acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        String etag = gzip ? variant.gzippedEtag() : variant.etag();
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING + ", " + HttpHeaders.HOST);
+
+        if (matchesEtag(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        byte[] body = variant.wsdl();
+        if (gzip) {
+            body = variant.gzippedWsdl();
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, CompressionUtils.GZIP);
+        }
+
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(CONTENT_TYPE);
+        response.setContentLength(body.length);
+        if (HttpMethod.GET.matches(method)) {
+            response.getOutputStream().write(body);
+        }
+    }
+
+    /**
+     * soap:address of the request: its scheme, host and port with the build-time path
+     */
+    private String location(HttpServletRequest request) {
+        StringBuilder location = new StringBuilder(64)
+                .append(request.getScheme()).append("://").append(request.getServerName());
+        int port = request.getServerPort();
+        boolean defaultPort = ("http".equals(request.getScheme()) && port == 80)
+                || ("https".equals(request.getScheme()) && port == 443);
+        if (port > 0 && !defaultPort) {
+            location.append(':').append(port);
+        }
+        return location.append(locationPath).toString();
+    }
+
+    private Variant variant(String location) {
+        Variant variant = variants.get(location);
+        if (variant != null) {
+            return variant;
+        }
+        String replacement = "$1" + Matcher.quoteReplacement(location) + "$3";
+        variant = Variant.of(ADDRESS_LOCATION.matcher(wsdl).replaceAll(replacement));
+        // Caché acotada: con más hosts distintos la variante se genera en cada petición
+        if (variants.size() < MAX_CACHED_HOSTS) {
+            Variant cached = variants.putIfAbsent(location, variant);
+            return cached != null ? cached : variant;
+        }
+        return variant;
+    }
+
+    private static boolean matchesEtag(String ifNoneMatch, String etag) {
+        return ifNoneMatch != null && ("*".equals(ifNoneMatch.trim()) || ifNoneMatch.contains(etag));
+    }
+
+    /**
+     * WSDL bytes for one soap:address, with their gzip variant and the ETag of each
+     */
+    private record Variant(byte[] wsdl, byte[] gzippedWsdl, String etag, String gzippedEtag) {
+
+        static Variant of(String wsdl) {
+            byte[] bytes = wsdl.getBytes(StandardCharsets.UTF_8);
+            String digest = DigestUtils.md5DigestAsHex(bytes);
+            return new Variant(bytes, CompressionUtils.gzip(bytes), "\"" + digest + "\"", "\"" + digest + "-gzip\"");
+        }
+    }
+}
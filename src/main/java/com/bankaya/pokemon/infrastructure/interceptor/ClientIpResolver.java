@@ -0,0 +1,54 @@
+package com.bankaya.pokemon.infrastructure.interceptor;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Client IP Resolver
+ * First address of the first proxy header set to a known value, or the remote address.
+ * Parses the header in place (no split, no regex): when the value is a single address
+ * without surrounding spaces it is returned as is, otherwise only the first token is copied
+ */
+final class ClientIpResolver {
+
+    private static final String[] PROXY_HEADERS = {
+            "X-Forwarded-For",
+            "X-Real-IP",
+            "Proxy-Client-IP",
+            "WL-Proxy-Client-IP",
+            "HTTP_CLIENT_IP",
+            "HTTP_X_FORWARDED_FOR"
+    };
+    private static final String UNKNOWN = "unknown";
+
+    private ClientIpResolver() {
+    }
+
+    static String resolve(HttpServletRequest request) {
+        for (String header : PROXY_HEADERS) {
+            String value = request.getHeader(header);
+            if (value != null && !value.isEmpty() && !UNKNOWN.equalsIgnoreCase(value)) {
+                // Si hay múltiples IPs, tomar la primera
+                return firstAddress(value);
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
+    /**
+     * First comma-separated token, trimmed
+     */
+    static String firstAddress(String value) {
+        int end = value.indexOf(',');
+        if (end < 0) {
+            end = value.length();
+        }
+        int start = 0;
+        while (start < end && value.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && value.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        return start == 0 && end == value.length() ? value : value.substring(start, end);
+    }
+}
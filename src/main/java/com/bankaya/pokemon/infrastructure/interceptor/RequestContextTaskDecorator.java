@@ -0,0 +1,37 @@
+package com.bankaya.pokemon.infrastructure.interceptor;
+
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Request Context Task Decorator
+ * Runs tasks submitted during a request with the submitting request's RequestAttributes
+ * bound, so request-scoped state (request attributes, the current HTTP request) is visible
+ * on executor threads. The worker's previous binding is restored afterwards, which also
+ * covers tasks run on the caller thread (CallerRunsPolicy).
+ * Tasks must finish before the request completes (the attributes are not usable afterwards)
+ */
+public class RequestContextTaskDecorator implements TaskDecorator {
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return runnable;
+        }
+        return () -> {
+            RequestAttributes previous = RequestContextHolder.getRequestAttributes();
+            RequestContextHolder.setRequestAttributes(attributes);
+            try {
+                runnable.run();
+            } finally {
+                if (previous != null) {
+                    RequestContextHolder.setRequestAttributes(previous);
+                } else {
+                    RequestContextHolder.resetRequestAttributes();
+                }
+            }
+        };
+    }
+}
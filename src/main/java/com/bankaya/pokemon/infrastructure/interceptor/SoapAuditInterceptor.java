@@ -3,53 +3,128 @@ package com.bankaya.pokemon.infrastructure.interceptor;
 import java.io.ByteArrayOutputStream;
 import java.lang.reflect.Method;
 import java.nio.charset.StandardCharsets;
-import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 import javax.xml.transform.Source;
 import javax.xml.transform.dom.DOMSource;
 
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.ws.FaultAwareWebServiceMessage;
 import org.springframework.ws.WebServiceMessage;
 import org.springframework.ws.context.MessageContext;
 import org.springframework.ws.server.EndpointInterceptor;
 import org.springframework.ws.server.endpoint.MethodEndpoint;
+import org.springframework.ws.server.endpoint.annotation.Endpoint;
+import org.springframework.ws.server.endpoint.annotation.PayloadRoot;
 import org.springframework.ws.soap.SoapMessage;
 import org.w3c.dom.Node;
 
-import com.bankaya.pokemon.application.service.SoapAuditService;
 import com.bankaya.pokemon.domain.model.SoapAuditLog;
 import com.bankaya.pokemon.infrastructure.adapter.enums.RequestStatus;
+import com.bankaya.pokemon.infrastructure.audit.AuditPipeline;
+import com.bankaya.pokemon.infrastructure.audit.AuditRollupAggregator;
+import com.bankaya.pokemon.infrastructure.filter.RequestTimings;
+import com.bankaya.pokemon.infrastructure.filter.SoapPayloadCapture;
+import com.bankaya.pokemon.infrastructure.utils.DateTimeUtils;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
 
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 
+
+/**
+ * SOAP Audit Interceptor
+ * Builds a SoapAuditLog per SOAP exchange, kept as a MessageContext property (not a ThreadLocal)
+ * so every callback finds it whichever thread runs it. When SoapPayloadCaptureFilter captured the raw
+ * HTTP bytes, the payloads are taken from them once the response has been written;
+ * otherwise (e.g. MockWebServiceClient without servlet filters) the envelopes are serialized.
+ * Records are handed to the AuditPipeline; persistence happens on its consumer thread.
+ * Every completed request is also counted in the per-minute AuditRollupAggregator.
+ * Hot path: endpoint class and SOAP method are cached per handler method (filled at startup
+ * from the @Endpoint beans), the client IP is parsed without splitting headers, the duration
+ * comes from System.nanoTime and the record is built once.
+ * Phase timings: the time before handleRequest counts as parse, the interceptor's own callbacks
+ * as audit; afterCompletion copies the RequestTimings into the record and, since the response
+ * has not been written yet, sets the Server-Timing header
+ */
 @Component
 @Log4j2
 @RequiredArgsConstructor
 public class SoapAuditInterceptor implements EndpointInterceptor {
 
-    private final SoapAuditService auditService;
-    private static final ThreadLocal<SoapAuditLog> soapAuditLog = new ThreadLocal<>();
+    private final AuditPipeline auditPipeline;
+    private final AuditRollupAggregator rollupAggregator;
+    private final DateTimeUtils dateTimeUtils;
+    static final String AUDIT_LOG_PROPERTY = SoapAuditInterceptor.class.getName() + ".auditLog";
+    static final String CAPTURE_PROPERTY = SoapAuditInterceptor.class.getName() + ".capture";
+    static final String TIMINGS_PROPERTY = SoapAuditInterceptor.class.getName() + ".timings";
+    static final String RESPONSE_PROPERTY = SoapAuditInterceptor.class.getName() + ".response";
+    private final Map<Method, EndpointAuditMetadata> endpointMetadata = new ConcurrentHashMap<>();
+
+    /**
+     * Caches the metadata of every @PayloadRoot method so the first requests do not pay for it
+     */
+    @EventListener
+    public void cacheEndpointMetadata(ContextRefreshedEvent event) {
+        for (Object endpoint : event.getApplicationContext().getBeansWithAnnotation(Endpoint.class).values()) {
+            ReflectionUtils.doWithMethods(ClassUtils.getUserClass(endpoint),
+                    method -> endpointMetadata.computeIfAbsent(method, EndpointAuditMetadata::of),
+                    method -> method.getAnnotationsByType(PayloadRoot.class).length > 0);
+        }
+    }
 
     @Override
     public boolean handleRequest(MessageContext messageContext, Object endpoint) {
+        long begin = System.nanoTime();
         try {
-            // Iniciar contexto de auditoría
-            SoapAuditLog auditLog = SoapAuditLog.builder().build()
-                    .withIpOrigin(extractClientIp())
-                    .withRequestDate(LocalDateTime.now())
-                    .withStartTime(System.currentTimeMillis())
-                    .withRequestPayload(extractPayload(messageContext.getRequest()));
+            // La petición HTTP solo se consulta aquí, en el hilo del servlet
+            ServletRequestAttributes attributes =
+                    (ServletRequestAttributes) RequestContextHolder.currentRequestAttributes();
+            HttpServletRequest request = attributes.getRequest();
+
+            // Fases: lo transcurrido desde la entrada al filtro es parseo; sin filtro se empieza aquí
+            RequestTimings timings = RequestTimings.from(request);
+            if (timings != null) {
+                timings.add(RequestTimings.Phase.PARSE, begin - timings.startNanos());
+            } else {
+                timings = new RequestTimings(begin);
+                request.setAttribute(RequestTimings.ATTRIBUTE, timings);
+            }
+            messageContext.setProperty(TIMINGS_PROPERTY, timings);
+            if (attributes.getResponse() != null) {
+                messageContext.setProperty(RESPONSE_PROPERTY, attributes.getResponse());
+            }
+
+            // Iniciar contexto de auditoría (un único registro por petición, startTime monotónico)
+            SoapAuditLog auditLog = SoapAuditLog.builder()
+                    .ipOrigin(ClientIpResolver.resolve(request))
+                    .requestDate(dateTimeUtils.now())
+                    .startTime(System.nanoTime())
+                    .build();
+
+            // Sin captura HTTP se serializa el envelope; con captura se usan los bytes crudos al finalizar
+            SoapPayloadCapture capture = SoapPayloadCapture.from(request);
+            if (capture != null) {
+                messageContext.setProperty(CAPTURE_PROPERTY, capture);
+            } else {
+                auditLog.setRequestPayload(extractPayload(messageContext.getRequest()));
+            }
 
             // Extraer información del SOAP
             extractSoapInfo(messageContext, auditLog, endpoint);
 
-            // Guardar en ThreadLocal
-            soapAuditLog.set(auditLog);
+            // El estado viaja con el intercambio SOAP, no con el hilo que lo atiende
+            messageContext.setProperty(AUDIT_LOG_PROPERTY, auditLog);
 
             log.debug("Starting SOAP request - Method: {}, IP: {}",
                     auditLog.getSoapMethod(), auditLog.getIpOrigin());
@@ -58,37 +133,47 @@ public class SoapAuditInterceptor implements EndpointInterceptor {
         } catch (Exception e) {
             log.error("Error in handleRequest interceptor", e);
             return true;
+        } finally {
+            recordAudit(messageContext, begin);
         }
     }
 
     @Override
     public boolean handleResponse(MessageContext messageContext, Object endpoint) {
+        long begin = System.nanoTime();
         try {
-            SoapAuditLog auditLog = soapAuditLog.get();
+            SoapAuditLog auditLog = auditLog(messageContext);
             if (auditLog != null) {
                 // Capturar response payload
-                auditLog.setResponsePayload(extractPayload(messageContext.getResponse()));
+                if (capture(messageContext) == null) {
+                    auditLog.setResponsePayload(extractPayload(messageContext.getResponse()));
+                }
                 auditLog.setStatus(RequestStatus.SUCCESS);
             }
             return true;
         } catch (Exception e) {
             log.error("Error in handleResponse interceptor", e);
             return true;
+        } finally {
+            recordAudit(messageContext, begin);
         }
     }
 
     @Override
     public boolean handleFault(MessageContext messageContext, Object endpoint) {
+        long begin = System.nanoTime();
         try {
-            SoapAuditLog auditLog = soapAuditLog.get();
+            SoapAuditLog auditLog = auditLog(messageContext);
             if (auditLog != null) {
                 auditLog.setStatus(RequestStatus.FAULT);
-                auditLog.setResponsePayload(extractPayload(messageContext.getResponse()));
+                if (capture(messageContext) == null) {
+                    auditLog.setResponsePayload(extractPayload(messageContext.getResponse()));
+                }
 
                 // Extraer mensaje de error del SOAP Fault
-                if (messageContext.getResponse() instanceof SoapMessage soapResponse &&
-                        soapResponse.getSoapBody() != null && soapResponse.getSoapBody().getFault() != null) {
-                    auditLog.setErrorMessage(soapResponse.getSoapBody().getFault().getFaultStringOrReason());
+                if (messageContext.getResponse() instanceof FaultAwareWebServiceMessage faultResponse
+                        && faultResponse.hasFault()) {
+                    auditLog.setErrorMessage(faultResponse.getFaultReason());
                 }
 
             }
@@ -96,16 +181,19 @@ public class SoapAuditInterceptor implements EndpointInterceptor {
         } catch (Exception e) {
             log.error("Error in handleFault interceptor", e);
             return true;
+        } finally {
+            recordAudit(messageContext, begin);
         }
     }
 
     @Override
     public void afterCompletion(MessageContext messageContext, Object endpoint, Exception ex) {
+        long begin = System.nanoTime();
         try {
-            SoapAuditLog auditLog = soapAuditLog.get();
+            SoapAuditLog auditLog = auditLog(messageContext);
             if (auditLog != null) {
                 // Calcular duración
-                auditLog.setDurationMs(System.currentTimeMillis() - auditLog.getStartTime());
+                auditLog.setDurationMs(TimeUnit.NANOSECONDS.toMillis(begin - auditLog.getStartTime()));
 
                 // Si hay excepción, marcar como error
                 if (ex != null) {
@@ -113,8 +201,34 @@ public class SoapAuditInterceptor implements EndpointInterceptor {
                     auditLog.setErrorMessage(ex.getMessage());
                 }
 
-                // Guardar en base de datos de forma asíncrona
-                auditService.saveAuditLog(auditLog);
+                // Rollup por minuto/método/estado (sin bloqueos, en el hilo de la petición)
+                rollupAggregator.record(auditLog.getSoapMethod(), auditLog.getStatus(), auditLog.getDurationMs(),
+                        auditLog.getRequestDate());
+
+                // Desglose por fases: el response aún no se ha escrito, la cabecera llega al cliente
+                RequestTimings timings = timings(messageContext);
+                if (timings != null) {
+                    long end = System.nanoTime();
+                    timings.add(RequestTimings.Phase.AUDIT, end - begin);
+                    auditLog.setPhaseTimings(timings.phaseTimings());
+                    if (messageContext.getProperty(RESPONSE_PROPERTY) instanceof HttpServletResponse response
+                            && !response.isCommitted()) {
+                        response.setHeader(RequestTimings.SERVER_TIMING_HEADER, timings.serverTiming(end));
+                    }
+                }
+
+                // Publicar en el pipeline de auditoría (el hilo consumidor persiste en base de datos)
+                // Con captura HTTP, el response aún no se ha escrito: se guarda cuando el filtro termina
+                SoapPayloadCapture capture = capture(messageContext);
+                if (capture != null) {
+                    capture.whenComplete(completed -> {
+                        auditLog.setRequestPayload(completed.requestPayload());
+                        auditLog.setResponsePayload(completed.responsePayload());
+                        auditPipeline.publish(auditLog);
+                    });
+                } else {
+                    auditPipeline.publish(auditLog);
+                }
 
                 log.info("SOAP Request completed - Method: {}, IP: {}, Duration: {}ms, Status: {}",
                         auditLog.getSoapMethod(),
@@ -125,53 +239,51 @@ public class SoapAuditInterceptor implements EndpointInterceptor {
         } catch (Exception e) {
             log.error("Error saving audit log", e);
         } finally {
-            // Limpiar ThreadLocal
-            soapAuditLog.remove();
+            // Un afterCompletion repetido no vuelve a publicar el registro
+            messageContext.removeProperty(AUDIT_LOG_PROPERTY);
+            messageContext.removeProperty(CAPTURE_PROPERTY);
+            messageContext.removeProperty(TIMINGS_PROPERTY);
+            messageContext.removeProperty(RESPONSE_PROPERTY);
         }
     }
 
-    private String extractClientIp() {
-        HttpServletRequest request = ((ServletRequestAttributes)
-                RequestContextHolder.currentRequestAttributes()).getRequest();
-
-        // Verificar headers de proxy
-        String[] headers = {
-                "X-Forwarded-For",
-                "X-Real-IP",
-                "Proxy-Client-IP",
-                "WL-Proxy-Client-IP",
-                "HTTP_CLIENT_IP",
-                "HTTP_X_FORWARDED_FOR"
-        };
-
-        for (String header : headers) {
-            String ip = request.getHeader(header);
-            if (ip != null && !ip.isEmpty() && !"unknown".equalsIgnoreCase(ip)) {
-                // Si hay múltiples IPs, tomar la primera
-                return ip.split(",")[0].trim();
-            }
+    private static void recordAudit(MessageContext messageContext, long begin) {
+        RequestTimings timings = timings(messageContext);
+        if (timings != null) {
+            timings.add(RequestTimings.Phase.AUDIT, System.nanoTime() - begin);
         }
+    }
 
-        return request.getRemoteAddr();
+    private static SoapAuditLog auditLog(MessageContext messageContext) {
+        return messageContext.getProperty(AUDIT_LOG_PROPERTY) instanceof SoapAuditLog auditLog ? auditLog : null;
     }
 
-    private void extractSoapInfo(MessageContext messageContext, SoapAuditLog soapAuditLog, Object endpoint) {
-        if (messageContext.getRequest() instanceof SoapMessage soapRequest && soapRequest.getSoapBody() != null) {
-                Source bodySource = soapRequest.getSoapBody().getPayloadSource();
-                if (bodySource instanceof DOMSource domSource) {
-                    Node rootNode = domSource.getNode();
-                    if (rootNode != null) {
-                        soapAuditLog.setSoapMethod(rootNode.getLocalName());
-                    }
-                }
-            }
+    private static SoapPayloadCapture capture(MessageContext messageContext) {
+        return messageContext.getProperty(CAPTURE_PROPERTY) instanceof SoapPayloadCapture capture ? capture : null;
+    }
 
+    private static RequestTimings timings(MessageContext messageContext) {
+        return messageContext.getProperty(TIMINGS_PROPERTY) instanceof RequestTimings timings ? timings : null;
+    }
 
-        // Información del endpoint
-        if (endpoint != null) {
-            Method method = findHandlerMethod(endpoint);
-            if (method != null) {
-                soapAuditLog.setEndpointClass(method.getDeclaringClass().getSimpleName());
+    private void extractSoapInfo(MessageContext messageContext, SoapAuditLog soapAuditLog, Object endpoint) {
+        // Información del endpoint (cacheada por método)
+        Method method = findHandlerMethod(endpoint);
+        if (method != null) {
+            EndpointAuditMetadata metadata = endpointMetadata.computeIfAbsent(method, EndpointAuditMetadata::of);
+            soapAuditLog.setEndpointClass(metadata.endpointClass());
+            soapAuditLog.setSoapMethod(metadata.soapMethod());
+        }
+
+        // Sin @PayloadRoot único, el método SOAP se toma del elemento raíz del body
+        if (soapAuditLog.getSoapMethod() == null
+                && messageContext.getRequest() instanceof SoapMessage soapRequest && soapRequest.getSoapBody() != null) {
+            Source bodySource = soapRequest.getSoapBody().getPayloadSource();
+            if (bodySource instanceof DOMSource domSource) {
+                Node rootNode = domSource.getNode();
+                if (rootNode != null) {
+                    soapAuditLog.setSoapMethod(rootNode.getLocalName());
+                }
             }
         }
     }
@@ -193,4 +305,17 @@ public class SoapAuditInterceptor implements EndpointInterceptor {
         }
         return null;
     }
-}
\ No newline at end of file
+
+    /**
+     * Audit data derived from the handler method: declaring class and the local part of its
+     * single @PayloadRoot (null when it maps several roots)
+     */
+    private record EndpointAuditMetadata(String endpointClass, String soapMethod) {
+
+        static EndpointAuditMetadata of(Method method) {
+            PayloadRoot[] payloadRoots = method.getAnnotationsByType(PayloadRoot.class);
+            return new EndpointAuditMetadata(method.getDeclaringClass().getSimpleName(),
+                    payloadRoots.length == 1 ? payloadRoots[0].localPart() : null);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.bankaya.pokemon.infrastructure.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Utilidad para compresión gzip de respuestas HTTP
+ * Centraliza la compresión y la negociación de Accept-Encoding usadas por los filtros
+ */
+public final class CompressionUtils {
+
+    public static final String GZIP = "gzip";
+
+    private CompressionUtils() {
+    }
+
+    /**
+     * Comprime un arreglo de bytes en formato gzip
+     *
+     * @param data Bytes a comprimir
+     * @return Bytes comprimidos
+     */
+    public static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, data.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Verifica si el cliente acepta gzip según el header Accept-Encoding
+     * Un valor q=0 se interpreta como rechazo explícito
+     *
+     * @param acceptEncoding Valor del header Accept-Encoding (puede ser null)
+     * @return true si la respuesta puede enviarse comprimida
+     */
+    public static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isEmpty()) {
+            return false;
+        }
+        for (String token : acceptEncoding.split(",")) {
+            String[] parts = token.trim().split(";");
+            String coding = parts[0].trim();
+            if (GZIP.equalsIgnoreCase(coding) || "*".equals(coding)) {
+                return parts.length < 2 || !isZeroQuality(parts[1]);
+            }
+        }
+        return false;
+    }
+
+    private static boolean isZeroQuality(String parameter) {
+        String value = parameter.trim();
+        if (!value.startsWith("q=")) {
+            return false;
+        }
+        try {
+            return Double.parseDouble(value.substring(2)) == 0.0;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
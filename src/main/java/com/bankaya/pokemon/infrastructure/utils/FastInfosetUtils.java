@@ -0,0 +1,67 @@
+package com.bankaya.pokemon.infrastructure.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Locale;
+
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerConfigurationException;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.stream.StreamResult;
+
+import org.jvnet.fastinfoset.FastInfosetSource;
+
+/**
+ * Utilidad para decodificar Fast Infoset (application/fastinfoset) a XML texto
+ * El Transformer no es thread-safe, por lo que se reutiliza una instancia por hilo
+ */
+public final class FastInfosetUtils {
+
+    public static final String CONTENT_TYPE = "application/fastinfoset";
+
+    private static final ThreadLocal<Transformer> IDENTITY_TRANSFORMER =
+            ThreadLocal.withInitial(FastInfosetUtils::newIdentityTransformer);
+
+    private FastInfosetUtils() {
+    }
+
+    /**
+     * Decodifica un documento Fast Infoset a XML texto UTF-8
+     *
+     * @param fastInfoset Documento codificado en Fast Infoset
+     * @return Documento XML texto
+     * @throws IOException si el documento Fast Infoset no es válido
+     */
+    public static byte[] toXml(byte[] fastInfoset) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(fastInfoset.length * 2);
+        Transformer transformer = IDENTITY_TRANSFORMER.get();
+        try {
+            transformer.transform(new FastInfosetSource(new ByteArrayInputStream(fastInfoset)), new StreamResult(out));
+        } catch (TransformerException e) {
+            throw new IOException("Invalid Fast Infoset document: " + e.getMessage(), e);
+        } finally {
+            transformer.reset();
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Verifica si un Content-Type o Accept incluye Fast Infoset
+     *
+     * @param headerValue Valor del header (puede ser null)
+     * @return true si se menciona application/fastinfoset
+     */
+    public static boolean isFastInfoset(String headerValue) {
+        return headerValue != null && headerValue.toLowerCase(Locale.ROOT).contains(CONTENT_TYPE);
+    }
+
+    private static Transformer newIdentityTransformer() {
+        try {
+            return TransformerFactory.newInstance().newTransformer();
+        } catch (TransformerConfigurationException e) {
+            throw new IllegalStateException("Unable to create transformer for Fast Infoset decoding", e);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.bankaya.pokemon.infrastructure.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.Adler32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Utilidad para compresión de payloads de auditoría (deflate/zlib con diccionario compartido)
+ * El diccionario (classpath:audit/payload-dictionary.xml) contiene los fragmentos que se repiten
+ * en todos los envelopes SOAP, por lo que incluso payloads cortos se comprimen bien.
+ * El stream zlib registra el id (Adler-32) del diccionario usado: la descompresión lo detecta y
+ * también lee datos comprimidos sin diccionario o con uno distinto al actual si es conocido
+ */
+@Log4j2
+public final class PayloadCompressionUtils {
+
+    static final String DICTIONARY_RESOURCE = "audit/payload-dictionary.xml";
+
+    private static final byte[] DICTIONARY = loadDictionary();
+    private static final int DICTIONARY_ID = adler32(DICTIONARY);
+
+    // Deflater/Inflater reservan memoria nativa: se reutilizan por hilo
+    private static final ThreadLocal<Deflater> DEFLATER = ThreadLocal.withInitial(() -> new Deflater(Deflater.BEST_COMPRESSION));
+    private static final ThreadLocal<Inflater> INFLATER = ThreadLocal.withInitial(Inflater::new);
+
+    private PayloadCompressionUtils() {
+    }
+
+    /**
+     * Comprime un payload de texto en formato zlib usando el diccionario compartido
+     *
+     * @param payload Payload XML (puede ser null)
+     * @return Bytes comprimidos, o null si el payload es null
+     */
+    public static byte[] compress(String payload) {
+        if (payload == null) {
+            return null;
+        }
+        byte[] data = payload.getBytes(StandardCharsets.UTF_8);
+        Deflater deflater = DEFLATER.get();
+        try {
+            if (DICTIONARY.length > 0) {
+                deflater.setDictionary(DICTIONARY);
+            }
+            deflater.setInput(data);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, data.length / 4));
+            byte[] buffer = new byte[4096];
+            while (!deflater.finished()) {
+                int count = deflater.deflate(buffer);
+                out.write(buffer, 0, count);
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.reset();
+        }
+    }
+
+    /**
+     * Descomprime un payload generado por compress
+     * Datos que no son zlib (p. ej. texto almacenado sin comprimir) se devuelven como UTF-8
+     *
+     * @param data Bytes almacenados (puede ser null)
+     * @return Payload de texto, o null si data es null
+     */
+    public static String decompress(byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        if (!isZlib(data)) {
+            return new String(data, StandardCharsets.UTF_8);
+        }
+        Inflater inflater = INFLATER.get();
+        try {
+            inflater.setInput(data);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.length * 4);
+            byte[] buffer = new byte[4096];
+            while (!inflater.finished()) {
+                int count = inflater.inflate(buffer);
+                if (count == 0) {
+                    if (inflater.needsDictionary()) {
+                        if (inflater.getAdler() != DICTIONARY_ID) {
+                            throw new IllegalStateException("Unknown payload dictionary " + inflater.getAdler());
+                        }
+                        inflater.setDictionary(DICTIONARY);
+                    } else if (inflater.needsInput()) {
+                        throw new IllegalStateException("Truncated compressed payload");
+                    }
+                }
+                out.write(buffer, 0, count);
+            }
+            return out.toString(StandardCharsets.UTF_8);
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Invalid compressed payload", e);
+        } finally {
+            inflater.reset();
+        }
+    }
+
+    /**
+     * Cabecera zlib: método deflate (CM=8) y checksum FCHECK válido
+     */
+    static boolean isZlib(byte[] data) {
+        return data.length >= 2
+                && (data[0] & 0x0F) == 8
+                && (((data[0] & 0xFF) << 8) | (data[1] & 0xFF)) % 31 == 0;
+    }
+
+    private static byte[] loadDictionary() {
+        try (InputStream in = PayloadCompressionUtils.class.getClassLoader().getResourceAsStream(DICTIONARY_RESOURCE)) {
+            if (in == null) {
+                log.warn("Audit payload dictionary {} not found, compressing without dictionary", DICTIONARY_RESOURCE);
+                return new byte[0];
+            }
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static int adler32(byte[] data) {
+        Adler32 adler32 = new Adler32();
+        adler32.update(data);
+        return (int) adler32.getValue();
+    }
+}
@@ -0,0 +1,122 @@
+package db.migration;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import com.bankaya.pokemon.infrastructure.adapter.persistence.AuditPayloadStore;
+import com.bankaya.pokemon.infrastructure.utils.PayloadCompressionUtils;
+
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Moves inline audit payloads to soap_audit_payload
+ * Databases created before the content-addressed store keep the payloads inline in soap_audit_log
+ * (request_payload/response_payload TEXT columns). Before V1 partitions the table, every payload
+ * is hashed and stored once in soap_audit_payload, in the format AuditPayloadStore writes, the rows
+ * get the hashes and the inline columns are dropped. Rows are read in keyset batches by id within the Flyway
+ * transaction; a new or already migrated schema is left untouched
+ */
+@Log4j2
+public class V0_9__Move_inline_audit_payloads extends BaseJavaMigration {
+
+    private static final String TABLE = "soap_audit_log";
+    private static final int BATCH_SIZE = 500;
+    private static final String CREATE_PAYLOAD_TABLE_SQL = "CREATE TABLE IF NOT EXISTS soap_audit_payload ("
+            + "hash varchar(64) NOT NULL PRIMARY KEY, payload bytea NOT NULL, size_bytes integer NOT NULL, "
+            + "stored_bytes integer NOT NULL, created_at timestamp NOT NULL)";
+    private static final String INSERT_PAYLOAD_SQL = "INSERT INTO soap_audit_payload "
+            + "(hash, payload, size_bytes, stored_bytes, created_at) VALUES (?, ?, ?, ?, LOCALTIMESTAMP) "
+            + "ON CONFLICT DO NOTHING";
+    private static final String REQUEST_COLUMN = "request_payload";
+    private static final String RESPONSE_COLUMN = "response_payload";
+    private static final String SELECT_SQL = "SELECT id, " + REQUEST_COLUMN + ", " + RESPONSE_COLUMN + " FROM " + TABLE
+            + " WHERE id > ? AND (" + REQUEST_COLUMN + " IS NOT NULL OR " + RESPONSE_COLUMN + " IS NOT NULL)"
+            + " ORDER BY id LIMIT " + BATCH_SIZE;
+    private static final String UPDATE_SQL = "UPDATE " + TABLE
+            + " SET request_payload_hash = ?, response_payload_hash = ? WHERE id = ?";
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection connection = context.getConnection();
+        if (!hasColumn(connection, REQUEST_COLUMN) || !hasColumn(connection, RESPONSE_COLUMN)) {
+            return;
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(CREATE_PAYLOAD_TABLE_SQL);
+            statement.execute("ALTER TABLE " + TABLE + " ADD COLUMN IF NOT EXISTS request_payload_hash varchar(64)");
+            statement.execute("ALTER TABLE " + TABLE + " ADD COLUMN IF NOT EXISTS response_payload_hash varchar(64)");
+        }
+
+        long lastId = 0;
+        long moved = 0;
+        try (PreparedStatement select = connection.prepareStatement(SELECT_SQL);
+             PreparedStatement insertPayload = connection.prepareStatement(INSERT_PAYLOAD_SQL);
+             PreparedStatement update = connection.prepareStatement(UPDATE_SQL)) {
+            int rows;
+            do {
+                select.setLong(1, lastId);
+                Map<String, String> payloads = new LinkedHashMap<>();
+                rows = 0;
+                try (ResultSet resultSet = select.executeQuery()) {
+                    while (resultSet.next()) {
+                        lastId = resultSet.getLong(1);
+                        update.setString(1, register(resultSet.getString(2), payloads));
+                        update.setString(2, register(resultSet.getString(3), payloads));
+                        update.setLong(3, lastId);
+                        update.addBatch();
+                        rows++;
+                    }
+                }
+                // Un payload repetido en el lote se inserta una sola vez; entre lotes decide ON CONFLICT
+                for (Map.Entry<String, String> payload : payloads.entrySet()) {
+                    byte[] compressed = PayloadCompressionUtils.compress(payload.getValue());
+                    insertPayload.setString(1, payload.getKey());
+                    insertPayload.setBytes(2, compressed);
+                    insertPayload.setInt(3, payload.getValue().getBytes(StandardCharsets.UTF_8).length);
+                    insertPayload.setInt(4, compressed.length);
+                    insertPayload.addBatch();
+                }
+                insertPayload.executeBatch();
+                update.executeBatch();
+                moved += rows;
+            } while (rows == BATCH_SIZE);
+        }
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ALTER TABLE " + TABLE + " DROP COLUMN " + REQUEST_COLUMN);
+            statement.execute("ALTER TABLE " + TABLE + " DROP COLUMN " + RESPONSE_COLUMN);
+        }
+        log.info("{} audit rows moved their inline payloads to soap_audit_payload", moved);
+    }
+
+    private static boolean hasColumn(Connection connection, String column) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        try (ResultSet columns = metaData.getColumns(connection.getCatalog(), connection.getSchema(), TABLE, column)) {
+            while (columns.next()) {
+                if (column.equals(columns.getString("COLUMN_NAME"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static String register(String payload, Map<String, String> payloads) {
+        if (payload == null) {
+            return null;
+        }
+        String hash = AuditPayloadStore.sha256(payload.getBytes(StandardCharsets.UTF_8));
+        payloads.putIfAbsent(hash, payload);
+        return hash;
+    }
+}
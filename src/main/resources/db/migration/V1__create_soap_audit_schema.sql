@@ -0,0 +1,62 @@
+-- Esquema de auditoría SOAP
+-- soap_audit_log se particiona por rango de request_date; AuditPartitionManager crea las
+-- particiones (diarias o mensuales) por adelantado y elimina las que superan la retención.
+-- La partición por defecto solo recibe filas sin partición todavía (se mueven al crearla).
+
+CREATE SEQUENCE IF NOT EXISTS soap_audit_log_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS soap_audit_payload (
+    hash         varchar(64) NOT NULL PRIMARY KEY,
+    payload      bytea       NOT NULL,
+    size_bytes   integer     NOT NULL,
+    stored_bytes integer     NOT NULL,
+    created_at   timestamp   NOT NULL
+);
+
+-- Bases existentes (esquema generado por Hibernate): V0_9 ya movió los payloads en línea a
+-- soap_audit_payload; la tabla sin particionar se renombra y sus filas se copian a la tabla
+-- particionada más abajo
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM pg_class
+               WHERE oid = to_regclass('soap_audit_log') AND relkind = 'r') THEN
+        ALTER TABLE soap_audit_log RENAME TO soap_audit_log_unpartitioned;
+        ALTER INDEX IF EXISTS soap_audit_log_pkey RENAME TO soap_audit_log_unpartitioned_pkey;
+    END IF;
+END $$;
+
+CREATE TABLE soap_audit_log (
+    id                    bigint       NOT NULL,
+    ip_origin             varchar(255) NOT NULL,
+    request_date          timestamp    NOT NULL,
+    soap_method           varchar(255) NOT NULL,
+    duration_ms           bigint,
+    request_payload_hash  varchar(64),
+    response_payload_hash varchar(64),
+    status                varchar(20),
+    error_message         text,
+    endpoint_class        varchar(100),
+    PRIMARY KEY (id, request_date)
+) PARTITION BY RANGE (request_date);
+
+CREATE TABLE soap_audit_log_default PARTITION OF soap_audit_log DEFAULT;
+
+-- Índices particionados: cada partición nueva recibe los suyos
+CREATE INDEX soap_audit_log_request_date_idx ON soap_audit_log (request_date);
+CREATE INDEX soap_audit_log_soap_method_idx ON soap_audit_log (soap_method, request_date);
+
+DO $$
+BEGIN
+    IF to_regclass('soap_audit_log_unpartitioned') IS NOT NULL THEN
+        INSERT INTO soap_audit_log (id, ip_origin, request_date, soap_method, duration_ms, request_payload_hash,
+                                    response_payload_hash, status, error_message, endpoint_class)
+        SELECT id, ip_origin, request_date, soap_method, duration_ms, request_payload_hash,
+               response_payload_hash, status, error_message, endpoint_class
+        FROM soap_audit_log_unpartitioned;
+        -- Ids anteriores al uso de la secuencia (IDENTITY) no se reutilizan
+        PERFORM setval('soap_audit_log_seq',
+                       GREATEST((SELECT COALESCE(max(id), 1) FROM soap_audit_log_unpartitioned),
+                                (SELECT last_value FROM soap_audit_log_seq)));
+        DROP TABLE soap_audit_log_unpartitioned;
+    END IF;
+END $$;
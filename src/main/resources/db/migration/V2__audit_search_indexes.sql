@@ -0,0 +1,10 @@
+-- Índices de la búsqueda de auditoría: paginación keyset sobre (request_date, id), más reciente primero.
+-- Cada filtro de igualdad tiene su índice (filtro, request_date, id); duration_ms se evalúa sobre
+-- las filas del rango. Sustituyen a los índices de V1, que no incluían id.
+DROP INDEX IF EXISTS soap_audit_log_request_date_idx;
+DROP INDEX IF EXISTS soap_audit_log_soap_method_idx;
+
+CREATE INDEX soap_audit_log_request_date_idx ON soap_audit_log (request_date, id);
+CREATE INDEX soap_audit_log_soap_method_idx ON soap_audit_log (soap_method, request_date, id);
+CREATE INDEX soap_audit_log_status_idx ON soap_audit_log (status, request_date, id);
+CREATE INDEX soap_audit_log_ip_origin_idx ON soap_audit_log (ip_origin, request_date, id);
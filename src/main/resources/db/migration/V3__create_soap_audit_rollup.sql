@@ -0,0 +1,14 @@
+-- Rollups por minuto de la auditoría (AuditRollupAggregator): una fila por volcado de cada
+-- (minuto, método SOAP, estado), con el histograma HDR de latencias comprimido.
+-- Las filas solo se insertan; las consultas combinan las de la misma clave.
+CREATE TABLE soap_audit_rollup (
+    id            bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    bucket_start  timestamp    NOT NULL,
+    soap_method   varchar(255) NOT NULL,
+    status        varchar(20)  NOT NULL,
+    request_count bigint       NOT NULL,
+    max_ms        bigint       NOT NULL,
+    histogram     bytea        NOT NULL
+);
+
+CREATE INDEX soap_audit_rollup_bucket_idx ON soap_audit_rollup (bucket_start, soap_method);
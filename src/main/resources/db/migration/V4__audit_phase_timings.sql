@@ -0,0 +1,8 @@
+-- Desglose por fases de cada petición SOAP (RequestTimings), en microsegundos.
+-- Columnas nulas: las filas anteriores y las fases no medidas no tienen valor.
+ALTER TABLE soap_audit_log
+    ADD COLUMN parse_us    integer,
+    ADD COLUMN cache_us    integer,
+    ADD COLUMN upstream_us integer,
+    ADD COLUMN marshal_us  integer,
+    ADD COLUMN audit_us    integer;
@@ -0,0 +1,85 @@
+package com.bankaya.pokemon.application.rest.controller;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+
+import com.bankaya.pokemon.application.rest.controller.AuditExportWriter.Format;
+import com.bankaya.pokemon.domain.exception.BadRequestException;
+import com.bankaya.pokemon.domain.model.PhaseTimings;
+import com.bankaya.pokemon.domain.model.SoapAuditLog;
+import com.bankaya.pokemon.infrastructure.adapter.enums.RequestStatus;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+
+class AuditExportWriterTest {
+
+    private static final ObjectWriter JSON = JsonMapper.builder()
+            .findAndAddModules()
+            .propertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE)
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build()
+            .writer();
+
+    @Test
+    void csv_shouldWriteHeaderAndQuoteSpecialCharacters() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        AuditExportWriter writer = AuditExportWriter.of(Format.CSV, out, JSON, false);
+        writer.write(auditLog("Timeout, \"pokeapi\"\nretry")
+                .withPhaseTimings(new PhaseTimings(120, null, 35_000, 80, 15)));
+        writer.write(auditLog(null));
+
+        assertEquals("""
+                id,request_date,ip_origin,soap_method,status,duration_ms,error_message,endpoint_class,\
+                parse_us,cache_us,upstream_us,marshal_us,audit_us\r
+                7,2025-01-15T10:30:45,10.0.0.1,GetPokemonIdRequest,ERROR,42,"Timeout, ""pokeapi""
+                retry",PokemonEndpoint,120,,35000,80,15\r
+                7,2025-01-15T10:30:45,10.0.0.1,GetPokemonIdRequest,ERROR,42,,PokemonEndpoint,,,,,\r
+                """, out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void ndjson_shouldWriteOneObjectPerLine() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        AuditExportWriter writer = AuditExportWriter.of(Format.NDJSON, out, JSON, false);
+        writer.write(auditLog(null));
+        writer.write(auditLog("boom").withPhaseTimings(new PhaseTimings(120, 40, null, 80, 15)));
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("{\"id\":7,\"request_date\":\"2025-01-15T10:30:45\""));
+        assertFalse(lines[0].contains("error_message"));
+        assertTrue(lines[1].contains("\"error_message\":\"boom\""));
+        assertFalse(lines[0].contains("phase_timings"));
+        assertTrue(lines[1].contains("\"phase_timings\":{\"parse_us\":120,\"cache_us\":40,"));
+    }
+
+    @Test
+    void format_shouldParseCaseInsensitiveAndRejectUnknown() {
+        assertEquals(Format.CSV, Format.parse("csv"));
+        assertEquals(Format.NDJSON, Format.parse("NDJSON"));
+        assertThrows(BadRequestException.class, () -> Format.parse("xlsx"));
+    }
+
+    private SoapAuditLog auditLog(String errorMessage) {
+        return SoapAuditLog.builder()
+                .id(7L)
+                .requestDate(LocalDateTime.of(2025, 1, 15, 10, 30, 45))
+                .ipOrigin("10.0.0.1")
+                .soapMethod("GetPokemonIdRequest")
+                .status(RequestStatus.ERROR)
+                .durationMs(42L)
+                .errorMessage(errorMessage)
+                .endpointClass("PokemonEndpoint")
+                .build();
+    }
+}
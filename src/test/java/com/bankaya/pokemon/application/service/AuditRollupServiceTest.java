@@ -0,0 +1,99 @@
+package com.bankaya.pokemon.application.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.bankaya.pokemon.domain.exception.BadRequestException;
+import com.bankaya.pokemon.domain.model.AuditRollup;
+import com.bankaya.pokemon.domain.model.AuditRollupSummary;
+import com.bankaya.pokemon.domain.ports.AuditRollupRepositoryPort;
+import com.bankaya.pokemon.infrastructure.adapter.enums.RequestStatus;
+import com.bankaya.pokemon.infrastructure.utils.DateTimeUtils;
+
+@ExtendWith(MockitoExtension.class)
+class AuditRollupServiceTest {
+
+    private static final LocalDateTime FROM = LocalDateTime.of(2025, 1, 15, 10, 0);
+    private static final LocalDateTime TO = FROM.plusHours(1);
+    private static final String METHOD = "GetPokemonAbilitiesRequest";
+
+    @Mock
+    private AuditRollupRepositoryPort repository;
+
+    @Mock
+    private DateTimeUtils dateTimeUtils;
+
+    @InjectMocks
+    private AuditRollupService auditRollupService;
+
+    @Test
+    void summarize_shouldMergeMinutesIntoSingleStep() {
+        when(repository.find(FROM, TO, METHOD)).thenReturn(List.of(
+                rollup(FROM.plusMinutes(1), RequestStatus.SUCCESS, 1, 90),
+                rollup(FROM.plusMinutes(2), RequestStatus.SUCCESS, 91, 99),
+                rollup(FROM.plusMinutes(2), RequestStatus.FAULT, 100, 100)));
+
+        List<AuditRollupSummary> summaries = auditRollupService.summarize(FROM, TO, METHOD, 0);
+
+        assertEquals(1, summaries.size());
+        AuditRollupSummary summary = summaries.get(0);
+        assertEquals(FROM, summary.bucketStart());
+        assertEquals(100, summary.count());
+        assertEquals(99L, summary.countByStatus().get(RequestStatus.SUCCESS));
+        assertEquals(1L, summary.countByStatus().get(RequestStatus.FAULT));
+        assertEquals(50, summary.p50Ms());
+        assertEquals(99, summary.p99Ms());
+        assertEquals(100, summary.maxMs());
+    }
+
+    @Test
+    void summarize_shouldSplitRangeIntoSteps() {
+        when(repository.find(FROM, TO, null)).thenReturn(List.of(
+                rollup(FROM.plusMinutes(1), RequestStatus.SUCCESS, 1, 10),
+                rollup(FROM.plusMinutes(7), RequestStatus.SUCCESS, 1, 10),
+                rollup(FROM.plusMinutes(9), RequestStatus.ERROR, 1, 10)));
+
+        List<AuditRollupSummary> summaries = auditRollupService.summarize(FROM, TO, null, 5);
+
+        assertEquals(2, summaries.size());
+        assertEquals(FROM, summaries.get(0).bucketStart());
+        assertEquals(10, summaries.get(0).count());
+        assertEquals(FROM.plusMinutes(5), summaries.get(1).bucketStart());
+        assertEquals(20, summaries.get(1).count());
+    }
+
+    @Test
+    void summarize_shouldDefaultToTheLastHourOfTheApplicationClock() {
+        when(dateTimeUtils.now()).thenReturn(TO);
+        when(repository.find(FROM, TO, null)).thenReturn(List.of());
+
+        assertTrue(auditRollupService.summarize(null, null, null, 0).isEmpty());
+
+        verify(repository).find(FROM, TO, null);
+    }
+
+    @Test
+    void summarize_shouldRejectInvalidRangeAndStep() {
+        assertThrows(BadRequestException.class, () -> auditRollupService.summarize(TO, FROM, null, 0));
+        assertThrows(BadRequestException.class, () -> auditRollupService.summarize(FROM, TO, null, -1));
+        verifyNoInteractions(repository);
+    }
+
+    private AuditRollup rollup(LocalDateTime minute, RequestStatus status, long fromMs, long toMs) {
+        Histogram latency = new Histogram(3_600_000, 2);
+        for (long value = fromMs; value <= toMs; value++) {
+            latency.recordValue(value);
+        }
+        return AuditRollup.builder().bucketStart(minute).soapMethod(METHOD).status(status).latency(latency).build();
+    }
+}
@@ -0,0 +1,142 @@
+package com.bankaya.pokemon.application.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.bankaya.pokemon.domain.exception.BadRequestException;
+import com.bankaya.pokemon.domain.model.AuditCursor;
+import com.bankaya.pokemon.domain.model.AuditPage;
+import com.bankaya.pokemon.domain.model.AuditSearchCriteria;
+import com.bankaya.pokemon.domain.model.SoapAuditLog;
+import com.bankaya.pokemon.domain.ports.AuditArchivePort;
+import com.bankaya.pokemon.domain.ports.SoapAuditLogRepositoryPort;
+import com.bankaya.pokemon.infrastructure.utils.DateTimeUtils;
+
+@ExtendWith(MockitoExtension.class)
+class AuditSearchServiceTest {
+
+    private static final LocalDateTime FROM = LocalDateTime.of(2025, 1, 15, 0, 0);
+    private static final LocalDateTime TO = LocalDateTime.of(2025, 1, 16, 0, 0);
+
+    @Mock
+    private SoapAuditLogRepositoryPort repository;
+
+    @Mock
+    private AuditArchivePort archive;
+
+    @Spy
+    private DateTimeUtils dateTimeUtils = new DateTimeUtils("America/Mexico_City");
+
+    @InjectMocks
+    private AuditSearchService auditSearchService;
+
+    @Test
+    void search_shouldRequestOneExtraRowAndReturnCursorOfLastRow() {
+        when(repository.search(any(AuditSearchCriteria.class))).thenReturn(rows(4));
+
+        AuditPage page = auditSearchService.search(criteria(3));
+
+        ArgumentCaptor<AuditSearchCriteria> captor = ArgumentCaptor.forClass(AuditSearchCriteria.class);
+        verify(repository).search(captor.capture());
+        assertEquals(4, captor.getValue().getLimit());
+        assertEquals(3, page.items().size());
+        assertEquals(new AuditCursor(TO.minusMinutes(3), 3), page.nextCursor());
+    }
+
+    @Test
+    void search_shouldReturnNoCursorOnLastPage() {
+        when(repository.search(any(AuditSearchCriteria.class))).thenReturn(rows(2));
+
+        AuditPage page = auditSearchService.search(criteria(3));
+
+        assertEquals(2, page.items().size());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void search_shouldDefaultToLastDay() {
+        when(repository.search(any(AuditSearchCriteria.class))).thenReturn(List.of());
+
+        auditSearchService.search(AuditSearchCriteria.builder().to(TO).limit(10).build());
+
+        ArgumentCaptor<AuditSearchCriteria> captor = ArgumentCaptor.forClass(AuditSearchCriteria.class);
+        verify(repository).search(captor.capture());
+        assertEquals(TO.minusDays(1), captor.getValue().getFrom());
+    }
+
+    @Test
+    void search_shouldRejectInvalidLimitAndRange() {
+        AuditSearchCriteria tooLarge = criteria(AuditSearchService.MAX_LIMIT + 1);
+        AuditSearchCriteria reversed = criteria(10).withFrom(TO).withTo(FROM);
+
+        assertThrows(BadRequestException.class, () -> auditSearchService.search(tooLarge));
+        assertThrows(BadRequestException.class, () -> auditSearchService.search(reversed));
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void export_shouldStreamDefaultRangeToConsumer() {
+        List<SoapAuditLog> exported = new ArrayList<>();
+        doAnswer(invocation -> {
+            Consumer<SoapAuditLog> consumer = invocation.getArgument(1);
+            rows(3).forEach(consumer);
+            return null;
+        }).when(repository).export(any(AuditSearchCriteria.class), any());
+
+        auditSearchService.export(AuditSearchCriteria.builder().to(TO).build(), exported::add);
+
+        ArgumentCaptor<AuditSearchCriteria> captor = ArgumentCaptor.forClass(AuditSearchCriteria.class);
+        verify(repository).export(captor.capture(), any());
+        assertEquals(TO.minusDays(1), captor.getValue().getFrom());
+        assertEquals(3, exported.size());
+    }
+
+    @Test
+    void export_shouldRejectReversedRange() {
+        AuditSearchCriteria reversed = AuditSearchCriteria.builder().from(TO).to(FROM).build();
+
+        assertThrows(BadRequestException.class, () -> auditSearchService.export(reversed, auditLog -> { }));
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void exportArchived_shouldScanArchiveInsteadOfDatabase() {
+        auditSearchService.exportArchived(criteria(10), auditLog -> { });
+
+        verify(archive).scan(any(AuditSearchCriteria.class), any());
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void cursor_shouldRoundTripAndRejectGarbage() {
+        AuditCursor cursor = new AuditCursor(LocalDateTime.of(2025, 1, 15, 10, 30, 45, 123_000_000), 1051);
+
+        assertEquals(cursor, AuditCursor.decode(cursor.encode()));
+        assertThrows(BadRequestException.class, () -> AuditCursor.decode("not-a-cursor"));
+    }
+
+    private AuditSearchCriteria criteria(int limit) {
+        return AuditSearchCriteria.builder().from(FROM).to(TO).limit(limit).build();
+    }
+
+    private List<SoapAuditLog> rows(int count) {
+        return LongStream.rangeClosed(1, count)
+                .mapToObj(id -> SoapAuditLog.builder().id(id).requestDate(TO.minusMinutes(id)).build())
+                .toList();
+    }
+}
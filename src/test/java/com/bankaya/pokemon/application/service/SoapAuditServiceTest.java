@@ -2,9 +2,15 @@ package com.bankaya.pokemon.application.service;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -12,12 +18,17 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
 
 import com.bankaya.pokemon.domain.model.SoapAuditLog;
 import com.bankaya.pokemon.domain.ports.SoapAuditLogRepositoryPort;
 import com.bankaya.pokemon.infrastructure.adapter.enums.RequestStatus;
 import com.bankaya.pokemon.infrastructure.adapter.persistence.entity.SoapAuditLogEntity;
+import com.bankaya.pokemon.infrastructure.config.SoapAuditPolicyProperties;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 @ExtendWith(MockitoExtension.class)
 class SoapAuditServiceTest {
@@ -25,6 +36,13 @@ class SoapAuditServiceTest {
     @Mock
     private SoapAuditLogRepositoryPort repository;
 
+    private final SoapAuditPolicyProperties policyProperties = new SoapAuditPolicyProperties();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private SoapAuditPolicy auditPolicy = new SoapAuditPolicy(policyProperties, meterRegistry);
+
     @InjectMocks
     private SoapAuditService soapAuditService;
 
@@ -46,17 +64,10 @@ class SoapAuditServiceTest {
     }
 
     @Test
-    void saveAuditLog_shouldSaveEntityWithFormattedXml() {
-        doNothing().when(repository).save(any(SoapAuditLogEntity.class));
-
-        soapAuditService.saveAuditLog(testAuditLog);
-
-        verify(repository, timeout(2000)).save(any(SoapAuditLogEntity.class));
+    void saveAuditLogs_shouldSaveEntityWithFormattedXml() {
+        soapAuditService.saveAuditLogs(List.of(testAuditLog));
 
-        ArgumentCaptor<SoapAuditLogEntity> captor = ArgumentCaptor.forClass(SoapAuditLogEntity.class);
-        verify(repository).save(captor.capture());
-
-        SoapAuditLogEntity savedEntity = captor.getValue();
+        SoapAuditLogEntity savedEntity = savedEntity();
         assertNotNull(savedEntity);
         assertEquals("192.168.1.100", savedEntity.getIpOrigin());
         assertEquals("getPokemonName", savedEntity.getSoapMethod());
@@ -71,7 +82,7 @@ class SoapAuditServiceTest {
     }
 
     @Test
-    void saveAuditLog_shouldHandleNullPayloads() {
+    void saveAuditLogs_shouldHandleNullPayloads() {
         SoapAuditLog auditLogWithNulls = SoapAuditLog.builder()
                 .ipOrigin("127.0.0.1")
                 .soapMethod("testMethod")
@@ -81,129 +92,86 @@ class SoapAuditServiceTest {
                 .status(RequestStatus.SUCCESS)
                 .build();
 
-        doNothing().when(repository).save(any(SoapAuditLogEntity.class));
-
-        soapAuditService.saveAuditLog(auditLogWithNulls);
-
-        verify(repository, timeout(2000)).save(any(SoapAuditLogEntity.class));
-
-        ArgumentCaptor<SoapAuditLogEntity> captor = ArgumentCaptor.forClass(SoapAuditLogEntity.class);
-        verify(repository).save(captor.capture());
+        soapAuditService.saveAuditLogs(List.of(auditLogWithNulls));
 
-        SoapAuditLogEntity savedEntity = captor.getValue();
+        SoapAuditLogEntity savedEntity = savedEntity();
         assertNull(savedEntity.getRequestPayload());
         assertNull(savedEntity.getResponsePayload());
     }
 
     @Test
-    void saveAuditLog_shouldSaveErrorStatus() {
+    void saveAuditLogs_shouldSaveErrorStatus() {
         SoapAuditLog errorLog = testAuditLog
                 .withStatus(RequestStatus.ERROR)
                 .withErrorMessage("Connection timeout");
 
-        doNothing().when(repository).save(any(SoapAuditLogEntity.class));
+        soapAuditService.saveAuditLogs(List.of(errorLog));
 
-        soapAuditService.saveAuditLog(errorLog);
-
-        verify(repository, timeout(2000)).save(any(SoapAuditLogEntity.class));
-
-        ArgumentCaptor<SoapAuditLogEntity> captor = ArgumentCaptor.forClass(SoapAuditLogEntity.class);
-        verify(repository).save(captor.capture());
-
-        SoapAuditLogEntity savedEntity = captor.getValue();
+        SoapAuditLogEntity savedEntity = savedEntity();
         assertEquals(RequestStatus.ERROR, savedEntity.getStatus());
         assertEquals("Connection timeout", savedEntity.getErrorMessage());
     }
 
     @Test
-    void saveAuditLog_shouldSaveFaultStatus() {
+    void saveAuditLogs_shouldSaveFaultStatus() {
         SoapAuditLog faultLog = testAuditLog
                 .withStatus(RequestStatus.FAULT)
                 .withErrorMessage("SOAP Fault: Pokemon not found");
 
-        doNothing().when(repository).save(any(SoapAuditLogEntity.class));
-
-        soapAuditService.saveAuditLog(faultLog);
-
-        verify(repository, timeout(2000)).save(any(SoapAuditLogEntity.class));
+        soapAuditService.saveAuditLogs(List.of(faultLog));
 
-        ArgumentCaptor<SoapAuditLogEntity> captor = ArgumentCaptor.forClass(SoapAuditLogEntity.class);
-        verify(repository).save(captor.capture());
-
-        SoapAuditLogEntity savedEntity = captor.getValue();
+        SoapAuditLogEntity savedEntity = savedEntity();
         assertEquals(RequestStatus.FAULT, savedEntity.getStatus());
         assertEquals("SOAP Fault: Pokemon not found", savedEntity.getErrorMessage());
     }
 
     @Test
-    void saveAuditLog_shouldHandleRepositoryException() {
+    void saveAuditLogs_shouldHandleRepositoryException() {
+        doThrow(new RuntimeException("Database connection error")).when(repository).saveAll(anyList());
         doThrow(new RuntimeException("Database connection error"))
                 .when(repository).save(any(SoapAuditLogEntity.class));
 
-        assertDoesNotThrow(() -> soapAuditService.saveAuditLog(testAuditLog));
-
-        verify(repository, timeout(2000)).save(any(SoapAuditLogEntity.class));
+        assertDoesNotThrow(() -> soapAuditService.saveAuditLogs(List.of(testAuditLog)));
 
         verify(repository).save(any(SoapAuditLogEntity.class));
     }
 
     @Test
-    void saveAuditLog_shouldFormatXmlByRemovingWhitespace() {
+    void saveAuditLogs_shouldFormatXmlByRemovingWhitespace() {
         String xmlWithSpaces = "<root>  <child>  <grandchild>value</grandchild>  </child>  </root>";
         SoapAuditLog logWithSpaces = testAuditLog
                 .withRequestPayload(xmlWithSpaces)
                 .withResponsePayload(xmlWithSpaces);
 
-        doNothing().when(repository).save(any(SoapAuditLogEntity.class));
-
-        soapAuditService.saveAuditLog(logWithSpaces);
-
-        verify(repository, timeout(2000)).save(any(SoapAuditLogEntity.class));
+        soapAuditService.saveAuditLogs(List.of(logWithSpaces));
 
-        ArgumentCaptor<SoapAuditLogEntity> captor = ArgumentCaptor.forClass(SoapAuditLogEntity.class);
-        verify(repository).save(captor.capture());
-
-        SoapAuditLogEntity savedEntity = captor.getValue();
+        SoapAuditLogEntity savedEntity = savedEntity();
         String expectedFormatted = "<root><child><grandchild>value</grandchild></child></root>";
         assertEquals(expectedFormatted, savedEntity.getRequestPayload());
         assertEquals(expectedFormatted, savedEntity.getResponsePayload());
     }
 
     @Test
-    void saveAuditLog_shouldTrimWhitespaceInPayload() {
+    void saveAuditLogs_shouldTrimWhitespaceInPayload() {
         String xmlWithLeadingTrailing = "   <root><child>value</child></root>   ";
         SoapAuditLog logWithWhitespace = testAuditLog
                 .withRequestPayload(xmlWithLeadingTrailing);
 
-        doNothing().when(repository).save(any(SoapAuditLogEntity.class));
-
-        soapAuditService.saveAuditLog(logWithWhitespace);
-
-        verify(repository, timeout(2000)).save(any(SoapAuditLogEntity.class));
-
-        ArgumentCaptor<SoapAuditLogEntity> captor = ArgumentCaptor.forClass(SoapAuditLogEntity.class);
-        verify(repository).save(captor.capture());
+        soapAuditService.saveAuditLogs(List.of(logWithWhitespace));
 
-        SoapAuditLogEntity savedEntity = captor.getValue();
+        SoapAuditLogEntity savedEntity = savedEntity();
         assertEquals("<root><child>value</child></root>", savedEntity.getRequestPayload());
         assertFalse(savedEntity.getRequestPayload().startsWith(" "));
         assertFalse(savedEntity.getRequestPayload().endsWith(" "));
     }
 
     @Test
-    void saveAuditLog_shouldHandleComplexXmlStructure() {
+    void saveAuditLogs_shouldHandleComplexXmlStructure() {
         SoapAuditLog logWithComplexXml = getSoapAuditLog();
 
-        doNothing().when(repository).save(any(SoapAuditLogEntity.class));
+        soapAuditService.saveAuditLogs(List.of(logWithComplexXml));
 
-        soapAuditService.saveAuditLog(logWithComplexXml);
-
-        verify(repository, timeout(2000)).save(any(SoapAuditLogEntity.class));
-
-        ArgumentCaptor<SoapAuditLogEntity> captor = ArgumentCaptor.forClass(SoapAuditLogEntity.class);
-        verify(repository).save(captor.capture());
-
-        SoapAuditLogEntity savedEntity = captor.getValue();
+        SoapAuditLogEntity savedEntity = savedEntity();
         assertNotNull(savedEntity.getResponsePayload());
         assertFalse(savedEntity.getResponsePayload().contains("> <"));
     }
@@ -228,58 +196,37 @@ class SoapAuditServiceTest {
     }
 
     @Test
-    void saveAuditLog_shouldPreserveXmlContent() {
+    void saveAuditLogs_shouldPreserveXmlContent() {
         String xmlContent = "<data>Important content with spaces inside</data>";
         SoapAuditLog log = testAuditLog
                 .withRequestPayload(xmlContent);
 
-        doNothing().when(repository).save(any(SoapAuditLogEntity.class));
-
-        soapAuditService.saveAuditLog(log);
-
-        verify(repository, timeout(2000)).save(any(SoapAuditLogEntity.class));
+        soapAuditService.saveAuditLogs(List.of(log));
 
-        ArgumentCaptor<SoapAuditLogEntity> captor = ArgumentCaptor.forClass(SoapAuditLogEntity.class);
-        verify(repository).save(captor.capture());
-
-        SoapAuditLogEntity savedEntity = captor.getValue();
+        SoapAuditLogEntity savedEntity = savedEntity();
         assertTrue(savedEntity.getRequestPayload().contains("Important content with spaces inside"));
     }
 
     @Test
-    void saveAuditLog_shouldHandleEmptyStrings() {
+    void saveAuditLogs_shouldHandleEmptyStrings() {
         SoapAuditLog logWithEmptyStrings = testAuditLog
                 .withRequestPayload("")
                 .withResponsePayload("")
                 .withErrorMessage("");
 
-        doNothing().when(repository).save(any(SoapAuditLogEntity.class));
-
-        soapAuditService.saveAuditLog(logWithEmptyStrings);
-
-        verify(repository, timeout(2000)).save(any(SoapAuditLogEntity.class));
-
-        ArgumentCaptor<SoapAuditLogEntity> captor = ArgumentCaptor.forClass(SoapAuditLogEntity.class);
-        verify(repository).save(captor.capture());
+        soapAuditService.saveAuditLogs(List.of(logWithEmptyStrings));
 
-        SoapAuditLogEntity savedEntity = captor.getValue();
+        SoapAuditLogEntity savedEntity = savedEntity();
         assertEquals("", savedEntity.getRequestPayload());
         assertEquals("", savedEntity.getResponsePayload());
         assertEquals("", savedEntity.getErrorMessage());
     }
 
     @Test
-    void saveAuditLog_shouldMapAllFieldsCorrectly() {
-        doNothing().when(repository).save(any(SoapAuditLogEntity.class));
+    void saveAuditLogs_shouldMapAllFieldsCorrectly() {
+        soapAuditService.saveAuditLogs(List.of(testAuditLog));
 
-        soapAuditService.saveAuditLog(testAuditLog);
-
-        verify(repository, timeout(2000)).save(any(SoapAuditLogEntity.class));
-
-        ArgumentCaptor<SoapAuditLogEntity> captor = ArgumentCaptor.forClass(SoapAuditLogEntity.class);
-        verify(repository).save(captor.capture());
-
-        SoapAuditLogEntity savedEntity = captor.getValue();
+        SoapAuditLogEntity savedEntity = savedEntity();
 
         assertEquals(testAuditLog.getIpOrigin(), savedEntity.getIpOrigin());
         assertEquals(testAuditLog.getSoapMethod(), savedEntity.getSoapMethod());
@@ -290,4 +237,109 @@ class SoapAuditServiceTest {
         assertNotNull(savedEntity.getResponsePayload());
     }
 
+
+    @Test
+    void saveAuditLogs_shouldDropSuccessPayloadsSampledOutButKeepMetadata() {
+        policyProperties.setSampleRates(Map.of("getPokemonName", 0.0));
+        soapAuditService.saveAuditLogs(List.of(testAuditLog));
+
+        SoapAuditLogEntity savedEntity = savedEntity();
+        assertEquals("getPokemonName", savedEntity.getSoapMethod());
+        assertEquals(150L, savedEntity.getDurationMs());
+        assertNull(savedEntity.getRequestPayload());
+        assertNull(savedEntity.getResponsePayload());
+        assertEquals(1.0, meterRegistry.counter("soap.audit.payloads", "decision", "sampled_out").count());
+    }
+
+    @Test
+    void saveAuditLogs_shouldAlwaysKeepFaultPayloads() {
+        policyProperties.setDefaultSampleRate(0.0);
+        soapAuditService.saveAuditLogs(List.of(testAuditLog.withStatus(RequestStatus.FAULT)));
+
+        SoapAuditLogEntity savedEntity = savedEntity();
+        assertNotNull(savedEntity.getRequestPayload());
+        assertNotNull(savedEntity.getResponsePayload());
+        assertEquals(1.0, meterRegistry.counter("soap.audit.payloads", "decision", "captured").count());
+    }
+
+    @Test
+    void saveAuditLogs_shouldTruncatePayloadsOverByteLimit() {
+        policyProperties.setMaxPayloadBytes(20);
+        soapAuditService.saveAuditLogs(List.of(testAuditLog.withRequestPayload("<name>" + "\u00e9".repeat(50) + "</name>")));
+
+        String payload = savedEntity().getRequestPayload();
+        assertTrue(payload.endsWith(SoapAuditPolicy.TRUNCATED_MARKER));
+        String content = payload.substring(0, payload.length() - SoapAuditPolicy.TRUNCATED_MARKER.length());
+        assertTrue(content.getBytes(StandardCharsets.UTF_8).length <= 20);
+        assertEquals(2.0, meterRegistry.counter("soap.audit.payloads", "decision", "truncated").count());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void saveAuditLogs_shouldSaveBatchWithSingleSaveAll() {
+        SoapAuditLog faultLog = testAuditLog.withStatus(RequestStatus.FAULT);
+
+        soapAuditService.saveAuditLogs(List.of(testAuditLog, faultLog));
+
+        ArgumentCaptor<List<SoapAuditLogEntity>> captor = ArgumentCaptor.forClass(List.class);
+        verify(repository).saveAll(captor.capture());
+        verify(repository, never()).save(any(SoapAuditLogEntity.class));
+
+        assertEquals(2, captor.getValue().size());
+        assertEquals(RequestStatus.SUCCESS, captor.getValue().get(0).getStatus());
+        assertEquals(RequestStatus.FAULT, captor.getValue().get(1).getStatus());
+    }
+
+    @Test
+    void saveAuditLogs_shouldRetryOneByOneWhenBatchFails() {
+        doThrow(new RuntimeException("Batch insert failed")).when(repository).saveAll(anyList());
+        doThrow(new RuntimeException("Bad row")).doNothing().when(repository).save(any(SoapAuditLogEntity.class));
+
+        assertDoesNotThrow(() -> soapAuditService.saveAuditLogs(List.of(testAuditLog, testAuditLog.withSoapMethod("other"))));
+
+        ArgumentCaptor<SoapAuditLogEntity> captor = ArgumentCaptor.forClass(SoapAuditLogEntity.class);
+        verify(repository, times(2)).save(captor.capture());
+        assertEquals("other", captor.getAllValues().get(1).getSoapMethod());
+        // La política se aplica una sola vez por registro
+        assertEquals(2.0, meterRegistry.counter("soap.audit.records", "status", "SUCCESS").count());
+    }
+
+    @Test
+    void saveAuditLogs_shouldRethrowWhenDatabaseIsUnavailable() {
+        doThrow(new DataAccessResourceFailureException("Connection refused")).when(repository).saveAll(anyList());
+
+        List<SoapAuditLog> batch = List.of(testAuditLog);
+        assertThrows(DataAccessResourceFailureException.class, () -> soapAuditService.saveAuditLogs(batch));
+
+        verify(repository, never()).save(any(SoapAuditLogEntity.class));
+    }
+
+    @Test
+    void saveAuditLogsAsync_shouldRetryOneByOneWhenBatchFails() {
+        when(repository.saveAllAsync(anyList()))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("Batch insert failed")));
+
+        soapAuditService.saveAuditLogsAsync(List.of(testAuditLog, testAuditLog.withSoapMethod("other"))).join();
+
+        verify(repository, times(2)).save(any(SoapAuditLogEntity.class));
+    }
+
+    @Test
+    void saveAuditLogsAsync_shouldFailWhenDatabaseIsUnavailable() {
+        when(repository.saveAllAsync(anyList()))
+                .thenReturn(CompletableFuture.failedFuture(new DataAccessResourceFailureException("Connection refused")));
+
+        CompletableFuture<Void> saved = soapAuditService.saveAuditLogsAsync(List.of(testAuditLog));
+
+        CompletionException e = assertThrows(CompletionException.class, saved::join);
+        assertInstanceOf(DataAccessResourceFailureException.class, e.getCause());
+        verify(repository, never()).save(any(SoapAuditLogEntity.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    private SoapAuditLogEntity savedEntity() {
+        ArgumentCaptor<List<SoapAuditLogEntity>> captor = ArgumentCaptor.forClass(List.class);
+        verify(repository).saveAll(captor.capture());
+        return captor.getValue().get(0);
+    }
 }
@@ -0,0 +1,198 @@
+package com.bankaya.pokemon.infrastructure.adapter.archive;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bankaya.pokemon.domain.model.AuditSearchCriteria;
+import com.bankaya.pokemon.domain.model.SoapAuditLog;
+import com.bankaya.pokemon.domain.ports.SoapAuditLogRepositoryPort;
+import com.bankaya.pokemon.infrastructure.adapter.enums.RequestStatus;
+import com.bankaya.pokemon.infrastructure.adapter.persistence.AuditPayloadStore;
+import com.bankaya.pokemon.infrastructure.utils.DateTimeUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AuditArchiverTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 1, 15);
+    private static final String PARTITION = "soap_audit_log_p20250115";
+    private static final String DETACH_SQL = "ALTER TABLE soap_audit_log DETACH PARTITION " + PARTITION;
+
+    @TempDir
+    private Path directory;
+
+    @Mock
+    private SoapAuditLogRepositoryPort repository;
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    @Mock
+    private AuditPayloadStore payloadStore;
+    @Mock
+    private DateTimeUtils dateTimeUtils;
+
+    private final List<List<Long>> deletedIds = new ArrayList<>();
+
+    private ColumnarAuditArchive archive;
+    private AuditArchiver archiver;
+
+    @BeforeEach
+    void setUp() {
+        archive = new ColumnarAuditArchive(directory.toString(), 2);
+        archiver = new AuditArchiver(archive, repository, jdbcTemplate, transactionTemplate, payloadStore,
+                dateTimeUtils, Duration.ofDays(30));
+        when(dateTimeUtils.now()).thenReturn(LocalDateTime.of(2025, 3, 1, 12, 0));
+        when(jdbcTemplate.queryForObject(AuditArchiver.OLDEST_SQL, LocalDateTime.class)).thenReturn(DAY.atTime(0, 10));
+        when(jdbcTemplate.queryForObject(AuditArchiver.OLDEST_AFTER_SQL, LocalDateTime.class,
+                DAY.plusDays(1).atStartOfDay())).thenReturn(null);
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    void shouldDropTheDailyPartitionOnceItsRowsAreArchived() {
+        export(auditLog(1), auditLog(2), auditLog(3));
+        partition(true, 3L);
+
+        archiver.archive();
+
+        // Only the day partition is locked, never soap_audit_log
+        verify(jdbcTemplate).execute(AuditArchiver.lockPartitionSql(PARTITION));
+        verify(jdbcTemplate, never()).execute(startsWith("LOCK TABLE ONLY soap_audit_log"));
+        verify(jdbcTemplate).execute(DETACH_SQL);
+        verify(jdbcTemplate).execute("DROP TABLE " + PARTITION);
+        verify(jdbcTemplate, never()).update(anyString(), any(PreparedStatementSetter.class));
+        assertEquals(3, archived().size());
+        // Same clock as AuditPartitionManager: cutoff at now - older-than
+        verify(payloadStore).sweep(LocalDate.of(2025, 1, 30).atStartOfDay());
+    }
+
+    @Test
+    void shouldDeleteRowGroupsWhenTheDayIsNotADailyPartition() throws SQLException {
+        export(auditLog(1), auditLog(2), auditLog(3));
+        partition(false, null);
+        stubDeletes();
+
+        archiver.archive();
+
+        assertEquals(List.of(List.of(1L, 2L), List.of(3L)), deletedIds);
+        verify(jdbcTemplate, never()).execute(DETACH_SQL);
+        verify(jdbcTemplate, never()).execute(AuditArchiver.lockPartitionSql(PARTITION));
+    }
+
+    @Test
+    void shouldDeleteRowGroupsWhenThePartitionHoldsRowsNotArchived() throws SQLException {
+        export(auditLog(1), auditLog(2), auditLog(3));
+        // A row inserted late (spool replay) is not in the part
+        partition(true, 4L);
+        stubDeletes();
+
+        archiver.archive();
+
+        assertEquals(List.of(List.of(1L, 2L), List.of(3L)), deletedIds);
+        verify(jdbcTemplate, never()).execute(DETACH_SQL);
+    }
+
+    @Test
+    void shouldResumeDeletingRowsOfPartsCommittedByAnInterruptedRun() throws IOException, SQLException {
+        // Part committed by a run interrupted before deleting its rows
+        try (ColumnarAuditArchive.Writer writer = archive.writer(DAY)) {
+            writer.append(auditLog(1));
+            writer.append(auditLog(2));
+            writer.commit();
+        }
+        export(auditLog(3));
+        partition(true, 1L);
+        stubDeletes();
+
+        archiver.archive();
+
+        assertEquals(List.of(List.of(1L, 2L)), deletedIds);
+        verify(jdbcTemplate).execute(DETACH_SQL);
+        assertEquals(2, archive.parts(DAY).size());
+        assertEquals(3, archived().size());
+    }
+
+    private void export(SoapAuditLog... auditLogs) {
+        doAnswer(invocation -> {
+            Arrays.stream(auditLogs).forEach(invocation.<Consumer<SoapAuditLog>>getArgument(1));
+            return null;
+        }).when(repository).export(any(), any());
+    }
+
+    private void partition(boolean attached, Long rows) {
+        when(jdbcTemplate.queryForObject(AuditArchiver.ATTACHED_SQL, Boolean.class, PARTITION)).thenReturn(attached);
+        if (rows != null) {
+            when(jdbcTemplate.queryForObject("SELECT count(*) FROM " + PARTITION, Long.class)).thenReturn(rows);
+        }
+    }
+
+    /**
+     * Runs the DELETE statement setter and records the ids of each row group
+     */
+    private void stubDeletes() throws SQLException {
+        PreparedStatement statement = mock(PreparedStatement.class);
+        Connection connection = mock(Connection.class);
+        when(statement.getConnection()).thenReturn(connection);
+        when(connection.createArrayOf(eq("bigint"), any())).thenAnswer(invocation -> {
+            deletedIds.add(List.of(invocation.<Long[]>getArgument(1)));
+            return null;
+        });
+        when(jdbcTemplate.update(eq(AuditArchiver.DELETE_SQL), any(PreparedStatementSetter.class)))
+                .thenAnswer(invocation -> {
+                    invocation.<PreparedStatementSetter>getArgument(1).setValues(statement);
+                    return deletedIds.getLast().size();
+                });
+    }
+
+    private List<SoapAuditLog> archived() {
+        List<SoapAuditLog> found = new ArrayList<>();
+        archive.scan(AuditSearchCriteria.builder().from(DAY.atStartOfDay()).to(DAY.plusDays(1).atStartOfDay()).build(),
+                found::add);
+        return found;
+    }
+
+    private static SoapAuditLog auditLog(long id) {
+        return SoapAuditLog.builder()
+                .id(id)
+                .requestDate(DAY.atTime(0, (int) id * 10))
+                .ipOrigin("10.0.0." + id)
+                .soapMethod("GetPokemonIdRequest")
+                .status(RequestStatus.SUCCESS)
+                .durationMs(40L)
+                .endpointClass("PokemonEndpoint")
+                .build();
+    }
+}
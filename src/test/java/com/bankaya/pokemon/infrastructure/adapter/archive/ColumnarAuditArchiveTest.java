@@ -0,0 +1,150 @@
+package com.bankaya.pokemon.infrastructure.adapter.archive;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.bankaya.pokemon.domain.model.AuditSearchCriteria;
+import com.bankaya.pokemon.domain.model.PhaseTimings;
+import com.bankaya.pokemon.domain.model.SoapAuditLog;
+import com.bankaya.pokemon.infrastructure.adapter.enums.RequestStatus;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ColumnarAuditArchiveTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 1, 15);
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void shouldRoundTripRowsAcrossRowGroups() throws IOException {
+        ColumnarAuditArchive archive = new ColumnarAuditArchive(directory.toString(), 2);
+        Path part = write(archive, auditLog(1, 10, RequestStatus.SUCCESS, 40L),
+                auditLog(2, 20, RequestStatus.FAULT, null), auditLog(3, 30, RequestStatus.ERROR, 900L));
+
+        assertEquals(List.of(part), archive.parts(DAY));
+        List<long[]> ids = new ArrayList<>();
+        archive.readIds(part, ids::add);
+        assertEquals(2, ids.size());
+        assertArrayEquals(new long[]{1, 2}, ids.get(0));
+        assertArrayEquals(new long[]{3}, ids.get(1));
+
+        List<SoapAuditLog> all = scan(archive, criteria().includePayloads(true).build());
+        assertEquals(3, all.size());
+        assertEquals(auditLog(2, 20, RequestStatus.FAULT, null), all.get(1));
+        // Phase timings survive, unmeasured phases stay null
+        assertEquals(auditLog(3, 30, RequestStatus.ERROR, 900L), all.get(2));
+        assertNull(all.get(2).getPhaseTimings().cacheUs());
+    }
+
+    @Test
+    void shouldFilterLikeTheDatabaseSearch() throws IOException {
+        ColumnarAuditArchive archive = new ColumnarAuditArchive(directory.toString(), 2);
+        write(archive, auditLog(1, 10, RequestStatus.SUCCESS, 40L),
+                auditLog(2, 20, RequestStatus.FAULT, null), auditLog(3, 30, RequestStatus.ERROR, 900L));
+
+        List<SoapAuditLog> slow = scan(archive, criteria().minDurationMs(100L).build());
+        assertEquals(1, slow.size());
+        assertEquals(3, slow.get(0).getId());
+        assertNull(slow.get(0).getRequestPayload());
+
+        assertEquals(1, scan(archive, criteria().status(RequestStatus.FAULT).build()).size());
+        assertEquals(2, scan(archive, criteria().from(DAY.atTime(0, 15)).build()).size());
+        assertTrue(scan(archive, criteria().from(DAY.plusDays(1).atStartOfDay())
+                .to(DAY.plusDays(2).atStartOfDay()).build()).isEmpty());
+    }
+
+    @Test
+    void shouldKeepNothingForEmptyOrAbandonedParts() throws IOException {
+        ColumnarAuditArchive archive = new ColumnarAuditArchive(directory.toString(), 2);
+        try (ColumnarAuditArchive.Writer writer = archive.writer(DAY)) {
+            assertNull(writer.commit());
+        }
+        try (ColumnarAuditArchive.Writer writer = archive.writer(DAY)) {
+            writer.append(auditLog(1, 10, RequestStatus.SUCCESS, 40L));
+        }
+
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void shouldAddPartsForTheSameDay() throws IOException {
+        ColumnarAuditArchive archive = new ColumnarAuditArchive(directory.toString(), 2);
+        Path first = write(archive, auditLog(1, 10, RequestStatus.SUCCESS, 40L));
+        Path second = write(archive, auditLog(2, 20, RequestStatus.SUCCESS, 40L));
+
+        assertEquals(List.of(first, second), archive.parts(DAY));
+        assertEquals(2, scan(archive, criteria().build()).size());
+    }
+
+    @Test
+    void shouldRestoreRepeatedPayloadsStoredOncePerRowGroup() throws IOException {
+        ColumnarAuditArchive archive = new ColumnarAuditArchive(directory.toString(), 4);
+        SoapAuditLog first = auditLog(1, 10, RequestStatus.SUCCESS, 40L);
+        SoapAuditLog repeated = auditLog(2, 20, RequestStatus.SUCCESS, 40L);
+        repeated.setRequestPayload(first.getRequestPayload());
+        SoapAuditLog fault = auditLog(3, 30, RequestStatus.FAULT, 40L);
+        write(archive, first, repeated, fault, auditLog(4, 40, RequestStatus.SUCCESS, 40L));
+
+        List<SoapAuditLog> all = scan(archive, criteria().includePayloads(true).build());
+
+        assertEquals(List.of(first, repeated, fault, auditLog(4, 40, RequestStatus.SUCCESS, 40L)), all);
+    }
+
+    @Test
+    void shouldKeepMicrosecondPrecision() {
+        LocalDateTime dateTime = LocalDateTime.of(1969, 12, 31, 23, 59, 59, 123_456_000);
+
+        assertEquals(dateTime, ColumnarAuditArchive.fromMicros(ColumnarAuditArchive.toMicros(dateTime)));
+    }
+
+    private Path write(ColumnarAuditArchive archive, SoapAuditLog... auditLogs) throws IOException {
+        try (ColumnarAuditArchive.Writer writer = archive.writer(DAY)) {
+            for (SoapAuditLog auditLog : auditLogs) {
+                writer.append(auditLog);
+            }
+            return writer.commit();
+        }
+    }
+
+    private List<SoapAuditLog> scan(ColumnarAuditArchive archive, AuditSearchCriteria criteria) {
+        List<SoapAuditLog> found = new ArrayList<>();
+        archive.scan(criteria, found::add);
+        return found;
+    }
+
+    private AuditSearchCriteria.AuditSearchCriteriaBuilder criteria() {
+        return AuditSearchCriteria.builder().from(DAY.atStartOfDay()).to(DAY.plusDays(1).atStartOfDay());
+    }
+
+    private SoapAuditLog auditLog(long id, int minute, RequestStatus status, Long durationMs) {
+        return SoapAuditLog.builder()
+                .id(id)
+                .requestDate(DAY.atTime(0, minute, 5, 250_000_000))
+                .ipOrigin("10.0.0." + id)
+                .soapMethod("GetPokemonIdRequest")
+                .status(status)
+                .durationMs(durationMs)
+                .errorMessage(status == RequestStatus.SUCCESS ? null : "failed, \"upstream\"")
+                .endpointClass("PokemonEndpoint")
+                .phaseTimings(durationMs != null ? new PhaseTimings(120, null, (int) (durationMs * 900), 80, 15) : null)
+                .requestPayload("<request id=\"" + id + "\"/>")
+                .responsePayload(status == RequestStatus.SUCCESS ? "<response/>" : null)
+                .build();
+    }
+}
@@ -0,0 +1,53 @@
+package com.bankaya.pokemon.infrastructure.adapter.persistence;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+
+import com.bankaya.pokemon.infrastructure.adapter.persistence.AuditPartitionManager.Granularity;
+import com.bankaya.pokemon.infrastructure.adapter.persistence.AuditPartitionManager.Partition;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AuditPartitionManagerTest {
+
+    @Test
+    void shouldParseDailyAndMonthlyPartitionNames() {
+        assertEquals(new Partition("soap_audit_log_p20250131", LocalDate.of(2025, 1, 31), LocalDate.of(2025, 2, 1)),
+                AuditPartitionManager.parse("soap_audit_log_p20250131"));
+        assertEquals(new Partition("soap_audit_log_p202512", LocalDate.of(2025, 12, 1), LocalDate.of(2026, 1, 1)),
+                AuditPartitionManager.parse("soap_audit_log_p202512"));
+    }
+
+    @Test
+    void shouldIgnoreUnmanagedTables() {
+        assertNull(AuditPartitionManager.parse("soap_audit_log_default"));
+        assertNull(AuditPartitionManager.parse("soap_audit_log_p2025"));
+        assertNull(AuditPartitionManager.parse("soap_audit_log_p20251340"));
+    }
+
+    @Test
+    void shouldComputePeriods() {
+        LocalDate date = LocalDate.of(2025, 1, 15);
+
+        assertEquals(date, Granularity.DAILY.periodStart(date));
+        assertEquals(LocalDate.of(2025, 1, 16), Granularity.DAILY.next(date));
+        assertEquals("20250115", Granularity.DAILY.suffix(date));
+        assertEquals(LocalDate.of(2025, 1, 1), Granularity.MONTHLY.periodStart(date));
+        assertEquals(LocalDate.of(2025, 2, 1), Granularity.MONTHLY.next(LocalDate.of(2025, 1, 1)));
+        assertEquals("202501", Granularity.MONTHLY.suffix(LocalDate.of(2025, 1, 1)));
+    }
+
+    @Test
+    void shouldDetectOverlapAfterGranularityChange() {
+        Partition month = AuditPartitionManager.parse("soap_audit_log_p202501");
+        Partition dayInMonth = AuditPartitionManager.parse("soap_audit_log_p20250131");
+        Partition nextDay = AuditPartitionManager.parse("soap_audit_log_p20250201");
+
+        assertTrue(month.overlaps(dayInMonth));
+        assertFalse(month.overlaps(nextDay));
+    }
+}
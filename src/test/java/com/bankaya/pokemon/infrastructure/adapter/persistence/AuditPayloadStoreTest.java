@@ -0,0 +1,114 @@
+package com.bankaya.pokemon.infrastructure.adapter.persistence;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.bankaya.pokemon.infrastructure.adapter.persistence.entity.SoapAuditLogEntity;
+import com.bankaya.pokemon.infrastructure.utils.DateTimeUtils;
+import com.bankaya.pokemon.infrastructure.utils.PayloadCompressionUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AuditPayloadStoreTest {
+
+    private static final String REQUEST = "<GetPokemonIdRequest><name>pikachu</name></GetPokemonIdRequest>";
+    private static final String RESPONSE = "<GetPokemonIdResponse><id>25</id></GetPokemonIdResponse>";
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private AuditPayloadStore payloadStore;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        payloadStore = new AuditPayloadStore(jdbcTemplate, new DateTimeUtils("America/Mexico_City"), meterRegistry, 100, Duration.ofHours(1));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldReplacePayloadsByHashAndUpsertEachDistinctPayloadOnce() {
+        List<SoapAuditLogEntity> audits = List.of(audit(REQUEST, RESPONSE), audit(REQUEST, RESPONSE), audit(REQUEST, null));
+
+        payloadStore.store(audits);
+
+        ArgumentCaptor<List<Object[]>> captor = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(eq(AuditPayloadStore.UPSERT_SQL), captor.capture());
+        List<Object[]> rows = captor.getValue();
+        assertEquals(2, rows.size());
+        assertEquals(hash(REQUEST), rows.get(0)[0]);
+        assertEquals(REQUEST, PayloadCompressionUtils.decompress((byte[]) rows.get(0)[1]));
+        assertEquals(REQUEST.length(), rows.get(0)[2]);
+
+        assertEquals(hash(REQUEST), audits.get(1).getRequestPayloadHash());
+        assertEquals(hash(RESPONSE), audits.get(1).getResponsePayloadHash());
+        assertNull(audits.get(2).getResponsePayloadHash());
+        assertEquals(3.0, meterRegistry.counter("soap.audit.payload.dedup", "result", "hit").count());
+        assertEquals(2.0, meterRegistry.counter("soap.audit.payload.dedup", "result", "miss").count());
+    }
+
+    @Test
+    void shouldSkipUpsertForRecentlyStoredPayloads() {
+        payloadStore.store(List.of(audit(REQUEST, RESPONSE)));
+        payloadStore.store(List.of(audit(REQUEST, RESPONSE)));
+
+        verify(jdbcTemplate, times(1)).batchUpdate(eq(AuditPayloadStore.UPSERT_SQL), anyList());
+        double logical = meterRegistry.counter("soap.audit.payload.bytes", "kind", "logical").count();
+        double stored = meterRegistry.counter("soap.audit.payload.bytes", "kind", "stored").count();
+        assertEquals(2.0 * (REQUEST.length() + RESPONSE.length()), logical);
+        assertTrue(stored < logical);
+    }
+
+    @Test
+    void shouldNotTouchDatabaseWithoutPayloads() {
+        payloadStore.store(List.of(audit(null, null)));
+
+        verify(jdbcTemplate, never()).batchUpdate(eq(AuditPayloadStore.UPSERT_SQL), anyList());
+    }
+
+    @Test
+    void shouldSweepOnlyUnreferencedPayloadsStoredBeforeTheCutoff() {
+        LocalDateTime cutoff = LocalDateTime.of(2025, 1, 15, 0, 0);
+        when(jdbcTemplate.update(AuditPayloadStore.SWEEP_SQL, cutoff)).thenReturn(3);
+
+        assertEquals(3, payloadStore.sweep(cutoff));
+        assertTrue(AuditPayloadStore.SWEEP_SQL.contains("l.request_payload_hash = p.hash"));
+        assertTrue(AuditPayloadStore.SWEEP_SQL.contains("l.response_payload_hash = p.hash"));
+    }
+
+    @Test
+    void shouldUseHexSha256AsContentAddress() {
+        assertEquals("e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855",
+                AuditPayloadStore.sha256(new byte[0]));
+    }
+
+    private SoapAuditLogEntity audit(String request, String response) {
+        return SoapAuditLogEntity.builder().requestPayload(request).responsePayload(response).build();
+    }
+
+    private String hash(String payload) {
+        return AuditPayloadStore.sha256(payload.getBytes(StandardCharsets.UTF_8));
+    }
+}
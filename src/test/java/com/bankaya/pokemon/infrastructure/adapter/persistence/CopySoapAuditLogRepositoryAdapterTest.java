@@ -0,0 +1,124 @@
+package com.bankaya.pokemon.infrastructure.adapter.persistence;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+
+import com.bankaya.pokemon.infrastructure.adapter.enums.RequestStatus;
+import com.bankaya.pokemon.infrastructure.adapter.persistence.entity.SoapAuditLogEntity;
+import com.bankaya.pokemon.infrastructure.utils.DateTimeUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CopySoapAuditLogRepositoryAdapterTest {
+
+    @Mock
+    private DataSource dataSource;
+    @Mock
+    private Connection connection;
+    @Mock
+    private PGConnection pgConnection;
+    @Mock
+    private CopyManager copyManager;
+    @Mock
+    private CopyIn copyIn;
+    @Mock
+    private PreparedStatement nextIds;
+    @Mock
+    private ResultSet nextIdsResult;
+    @Mock
+    private SoapAuditLogRepositoryAdapter fallback;
+    @Mock
+    private AuditPayloadStore payloadStore;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private CopySoapAuditLogRepositoryAdapter adapter;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(SequenceIdBlocks.NEXT_IDS_SQL)).thenReturn(nextIds);
+        when(nextIds.executeQuery()).thenReturn(nextIdsResult);
+        when(nextIdsResult.next()).thenReturn(true, false);
+        when(nextIdsResult.getLong(1)).thenReturn(50L);
+        when(connection.unwrap(PGConnection.class)).thenReturn(pgConnection);
+        when(pgConnection.getCopyAPI()).thenReturn(copyManager);
+        when(copyManager.copyIn(CopySoapAuditLogRepositoryAdapter.COPY_SQL)).thenReturn(copyIn);
+        adapter = new CopySoapAuditLogRepositoryAdapter(dataSource, fallback, payloadStore,
+                new DateTimeUtils("America/Mexico_City"), meterRegistry);
+    }
+
+    @Test
+    void shouldEndTheCopyOnceEveryRowIsSent() throws SQLException {
+        List<SoapAuditLogEntity> audits = List.of(audit());
+
+        adapter.saveAll(audits);
+
+        verify(copyIn).endCopy();
+        verify(copyIn, never()).cancelCopy();
+        verifyNoInteractions(fallback);
+        assertEquals(1.0, meterRegistry.counter("soap.audit.copy.rows").count());
+    }
+
+    @Test
+    void shouldCancelTheCopyAndFallBackToInsertsWhenItFails() throws SQLException {
+        doThrow(new SQLException("connection reset")).when(copyIn).writeToCopy(any(byte[].class), anyInt(), anyInt());
+        when(copyIn.isActive()).thenReturn(true);
+        List<SoapAuditLogEntity> audits = List.of(audit());
+
+        adapter.saveAll(audits);
+
+        // Ending the COPY would commit the rows already sent; the fallback would insert them again
+        verify(copyIn).cancelCopy();
+        verify(copyIn, never()).endCopy();
+        verify(fallback).saveRows(audits);
+        assertEquals(1.0, meterRegistry.counter("soap.audit.copy.fallbacks").count());
+        assertEquals(0.0, meterRegistry.counter("soap.audit.copy.rows").count());
+    }
+
+    @Test
+    void shouldFallBackToInsertsWhenTheCopyPathThrowsARuntimeException() throws SQLException {
+        doThrow(new IllegalStateException("driver bug")).when(copyIn).writeToCopy(any(byte[].class), anyInt(), anyInt());
+        when(copyIn.isActive()).thenReturn(true);
+        List<SoapAuditLogEntity> audits = List.of(audit());
+
+        adapter.saveAll(audits);
+
+        verify(copyIn).cancelCopy();
+        verify(fallback).saveRows(audits);
+        assertEquals(1.0, meterRegistry.counter("soap.audit.copy.fallbacks").count());
+    }
+
+    private static SoapAuditLogEntity audit() {
+        return SoapAuditLogEntity.builder()
+                .ipOrigin("192.168.1.100")
+                .soapMethod("getPokemonName")
+                .durationMs(150L)
+                .status(RequestStatus.SUCCESS)
+                .build();
+    }
+}
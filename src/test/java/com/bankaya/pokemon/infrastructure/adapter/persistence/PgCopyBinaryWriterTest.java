@@ -0,0 +1,77 @@
+package com.bankaya.pokemon.infrastructure.adapter.persistence;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PgCopyBinaryWriterTest {
+
+    private static final byte[] SIGNATURE = "PGCOPY\n\u00ff\r\n\0".getBytes(StandardCharsets.ISO_8859_1);
+
+    @Test
+    void shouldWriteHeaderRowsAndTrailer() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        PgCopyBinaryWriter writer = new PgCopyBinaryWriter(bytes);
+        writer.startRow(4);
+        writer.writeLong(42L);
+        writer.writeNull();
+        writer.writeTimestamp(LocalDateTime.of(2000, 1, 1, 0, 0, 1));
+        writer.writeInt(1_500);
+        writer.finish();
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        assertArrayEquals(SIGNATURE, in.readNBytes(SIGNATURE.length));
+        assertEquals(0, in.readInt());
+        assertEquals(0, in.readInt());
+        assertEquals(4, in.readShort());
+        assertEquals(8, in.readInt());
+        assertEquals(42L, in.readLong());
+        assertEquals(-1, in.readInt());
+        assertEquals(8, in.readInt());
+        assertEquals(1_000_000L, in.readLong());
+        assertEquals(4, in.readInt());
+        assertEquals(1_500, in.readInt());
+        assertEquals(-1, in.readShort());
+        assertEquals(0, in.available());
+    }
+
+    @Test
+    void shouldWritePayloadTextVerbatimWithoutEscaping() throws IOException {
+        String payload = "<a b=\"1\">tab\there\nline\\back 'quote' \u00e9</a>";
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        PgCopyBinaryWriter writer = new PgCopyBinaryWriter(bytes);
+        writer.startRow(1);
+        writer.writeText(payload);
+        writer.finish();
+
+        assertEquals(payload, readSingleText(bytes.toByteArray()));
+    }
+
+    @Test
+    void shouldRemoveNulCharacters() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        PgCopyBinaryWriter writer = new PgCopyBinaryWriter(bytes);
+        writer.startRow(1);
+        writer.writeText("pika\0chu");
+        writer.finish();
+
+        assertEquals("pikachu", readSingleText(bytes.toByteArray()));
+    }
+
+    private String readSingleText(byte[] copy) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(copy));
+        in.skipNBytes(SIGNATURE.length + 8);
+        assertEquals(1, in.readShort());
+        byte[] value = in.readNBytes(in.readInt());
+        assertEquals(-1, in.readShort());
+        return new String(value, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,241 @@
+package com.bankaya.pokemon.infrastructure.adapter.persistence;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiFunction;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import com.bankaya.pokemon.infrastructure.adapter.enums.RequestStatus;
+import com.bankaya.pokemon.infrastructure.adapter.persistence.entity.SoapAuditLogEntity;
+import com.bankaya.pokemon.infrastructure.utils.DateTimeUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.R2dbcBadGrammarException;
+import io.r2dbc.spi.R2dbcNonTransientResourceException;
+import io.r2dbc.spi.R2dbcTransientResourceException;
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Statement;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class R2dbcSoapAuditLogRepositoryAdapterTest {
+
+    private static final List<AuditPayloadStore.PendingPayload> PAYLOADS =
+            List.of(new AuditPayloadStore.PendingPayload("hash", new byte[]{1, 2, 3}, 10));
+
+    @Mock
+    private ConnectionPool pool;
+    @Mock
+    private Connection connection;
+    @Mock
+    private Statement nextIds;
+    @Mock
+    private Statement upsertPayloads;
+    @Mock
+    private Statement insertRows;
+    @Mock
+    private Result idsResult;
+    @Mock
+    private Result rowsResult;
+    @Mock
+    private SoapAuditLogRepositoryAdapter fallback;
+    @Mock
+    private AuditPayloadStore payloadStore;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void shouldWaitForAFreeSlotAndFailTheBatchWhenNoneIsReleasedInTime() {
+        Sinks.Empty<Void> commit = Sinks.empty();
+        givenConnection();
+        givenStatements(Mono.just(rowsResult));
+        givenIds(Flux.just(50L));
+        doReturn(commit.asMono(), Mono.empty()).when(connection).commitTransaction();
+        R2dbcSoapAuditLogRepositoryAdapter adapter = adapter(1, Duration.ofMillis(200));
+
+        CompletableFuture<Void> first = adapter.saveAllAsync(List.of(audit()));
+        CompletableFuture<Void> second = adapter.saveAllAsync(List.of(audit()));
+
+        // The only slot is held until the first batch commits: the second one never reaches the pool
+        CompletionException failure = assertThrows(CompletionException.class, second::join);
+        assertInstanceOf(DataAccessResourceFailureException.class, failure.getCause());
+        assertInstanceOf(TimeoutException.class, failure.getCause().getCause());
+        verify(pool, times(1)).create();
+        assertFalse(first.isDone());
+        assertEquals(1.0, meterRegistry.counter("soap.audit.r2dbc.failures").count());
+
+        commit.tryEmitEmpty();
+        first.join();
+        adapter.saveAllAsync(List.of(audit())).join();
+
+        verify(pool, times(2)).create();
+        assertEquals(2.0, meterRegistry.counter("soap.audit.r2dbc.rows").count());
+    }
+
+    @Test
+    void shouldRollBackBeforeReportingATimedOutBatch() {
+        AtomicBoolean rolledBack = new AtomicBoolean();
+        AtomicBoolean rolledBackWhenReported = new AtomicBoolean();
+        givenConnection();
+        givenStatements(Mono.never());
+        givenIds(Flux.just(50L));
+        doReturn(Mono.fromRunnable(() -> rolledBack.set(true)).delaySubscription(Duration.ofMillis(50)))
+                .when(connection).rollbackTransaction();
+        R2dbcSoapAuditLogRepositoryAdapter adapter = adapter(2, Duration.ofMillis(100));
+
+        CompletableFuture<Void> future = adapter.saveAllAsync(List.of(audit()))
+                .whenComplete((ignored, error) -> rolledBackWhenReported.set(rolledBack.get()));
+
+        CompletionException failure = assertThrows(CompletionException.class, future::join);
+        assertInstanceOf(DataAccessResourceFailureException.class, failure.getCause());
+        assertInstanceOf(TimeoutException.class, failure.getCause().getCause());
+        // A batch reported as failed was not written: the spool replays it without duplicates
+        assertTrue(rolledBackWhenReported.get());
+        InOrder order = inOrder(connection);
+        order.verify(connection).rollbackTransaction();
+        order.verify(connection).close();
+        verify(connection, never()).commitTransaction();
+        verify(payloadStore, never()).remember(any());
+    }
+
+    @Test
+    void shouldReserveIdBlocksUntilTheBatchIsCovered() {
+        givenConnection();
+        givenStatements(Mono.just(rowsResult));
+        // The initial value of the sequence does not close a block: a second query reserves the rest
+        givenIds(Flux.just(1L, 50L), Flux.just(100L, 150L));
+        doReturn(Mono.empty()).when(connection).commitTransaction();
+        List<SoapAuditLogEntity> audits = IntStream.range(0, 120).mapToObj(i -> audit()).toList();
+        ArgumentCaptor<Object> ids = ArgumentCaptor.forClass(Object.class);
+
+        adapter(2, Duration.ofSeconds(5)).saveAll(audits);
+
+        verify(nextIds).bind(0, 3);
+        verify(nextIds).bind(0, 2);
+        verify(insertRows, times(120)).bind(eq(0), ids.capture());
+        assertEquals(LongStream.rangeClosed(1, 120).boxed().toList(), ids.getAllValues());
+    }
+
+    @Test
+    void shouldRememberThePayloadsOnlyOnceCommitted() {
+        Sinks.Empty<Void> commit = Sinks.empty();
+        givenConnection();
+        givenStatements(Mono.just(rowsResult));
+        givenIds(Flux.just(50L));
+        doReturn(commit.asMono()).when(connection).commitTransaction();
+
+        CompletableFuture<Void> future = adapter(2, Duration.ofSeconds(5)).saveAllAsync(List.of(audit()));
+
+        verify(upsertPayloads).execute();
+        verify(payloadStore, never()).remember(any());
+
+        commit.tryEmitEmpty();
+        future.join();
+
+        verify(payloadStore).remember(PAYLOADS);
+    }
+
+    @Test
+    void shouldNotRememberThePayloadsWhenTheCommitFails() {
+        givenConnection();
+        givenStatements(Mono.just(rowsResult));
+        givenIds(Flux.just(50L));
+        doReturn(Mono.error(new R2dbcTransientResourceException("connection reset")))
+                .when(connection).commitTransaction();
+        doReturn(Mono.empty()).when(connection).rollbackTransaction();
+
+        CompletableFuture<Void> future = adapter(2, Duration.ofSeconds(5)).saveAllAsync(List.of(audit()));
+
+        CompletionException failure = assertThrows(CompletionException.class, future::join);
+        assertInstanceOf(DataAccessResourceFailureException.class, failure.getCause());
+        verify(payloadStore, never()).remember(any());
+        assertEquals(0.0, meterRegistry.counter("soap.audit.r2dbc.rows").count());
+    }
+
+    @Test
+    void shouldReportUnavailableDatabaseSoTheBatchIsSpooled() {
+        assertInstanceOf(DataAccessResourceFailureException.class, R2dbcSoapAuditLogRepositoryAdapter
+                .translate(10, new R2dbcNonTransientResourceException("connection refused")));
+        assertInstanceOf(DataAccessResourceFailureException.class, R2dbcSoapAuditLogRepositoryAdapter
+                .translate(10, Exceptions.propagate(new TimeoutException())));
+    }
+
+    @Test
+    void shouldRethrowOtherErrorsAsIs() {
+        R2dbcBadGrammarException badGrammar = new R2dbcBadGrammarException("syntax error");
+
+        assertSame(badGrammar, R2dbcSoapAuditLogRepositoryAdapter.translate(10, badGrammar));
+    }
+
+    private R2dbcSoapAuditLogRepositoryAdapter adapter(int poolSize, Duration timeout) {
+        return new R2dbcSoapAuditLogRepositoryAdapter(fallback, payloadStore, new DateTimeUtils("America/Mexico_City"),
+                meterRegistry, pool, poolSize, timeout);
+    }
+
+    private void givenConnection() {
+        when(pool.create()).thenReturn(Mono.just(connection));
+        when(payloadStore.prepare(any())).thenReturn(PAYLOADS);
+        doReturn(Mono.empty()).when(connection).beginTransaction();
+        doReturn(Mono.empty()).when(connection).close();
+    }
+
+    private void givenStatements(Mono<Result> inserted) {
+        when(connection.createStatement(R2dbcSoapAuditLogRepositoryAdapter.NEXT_IDS_SQL)).thenReturn(nextIds);
+        when(connection.createStatement(R2dbcSoapAuditLogRepositoryAdapter.UPSERT_PAYLOAD_SQL)).thenReturn(upsertPayloads);
+        when(connection.createStatement(R2dbcSoapAuditLogRepositoryAdapter.INSERT_SQL)).thenReturn(insertRows);
+        when(nextIds.bind(anyInt(), any())).thenReturn(nextIds);
+        when(upsertPayloads.bind(anyInt(), any())).thenReturn(upsertPayloads);
+        doReturn(Mono.just(rowsResult)).when(upsertPayloads).execute();
+        doReturn(inserted).when(insertRows).execute();
+        when(rowsResult.getRowsUpdated()).thenReturn(Mono.just(1L));
+    }
+
+    @SafeVarargs
+    private void givenIds(Flux<Long> first, Flux<Long>... next) {
+        doReturn(Mono.just(idsResult)).when(nextIds).execute();
+        doReturn(first, (Object[]) next).when(idsResult).map(any(BiFunction.class));
+    }
+
+    private static SoapAuditLogEntity audit() {
+        return SoapAuditLogEntity.builder()
+                .ipOrigin("192.168.1.100")
+                .soapMethod("getPokemonName")
+                .durationMs(150L)
+                .status(RequestStatus.SUCCESS)
+                .build();
+    }
+}
@@ -0,0 +1,34 @@
+package com.bankaya.pokemon.infrastructure.adapter.persistence;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SequenceIdBlocksTest {
+
+    @Test
+    void shouldReserveOneBlockPerFiftyIds() {
+        assertEquals(1, SequenceIdBlocks.blocksFor(1));
+        assertEquals(1, SequenceIdBlocks.blocksFor(50));
+        assertEquals(2, SequenceIdBlocks.blocksFor(51));
+    }
+
+    @Test
+    void shouldHandOutIdsLikeThePooledOptimizer() {
+        SequenceIdBlocks ids = new SequenceIdBlocks(new long[]{100, 200});
+
+        assertEquals(51, ids.next());
+        for (int i = 52; i <= 100; i++) {
+            assertEquals(i, ids.next());
+        }
+        assertEquals(151, ids.next());
+    }
+
+    @Test
+    void shouldSkipTheInitialSequenceValue() {
+        assertFalse(SequenceIdBlocks.isBlockEnd(1));
+        assertTrue(SequenceIdBlocks.isBlockEnd(50));
+    }
+}
@@ -0,0 +1,124 @@
+package com.bankaya.pokemon.infrastructure.adapter.sink;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import com.bankaya.pokemon.application.service.SoapAuditPolicy;
+import com.bankaya.pokemon.domain.model.SoapAuditLog;
+import com.bankaya.pokemon.infrastructure.adapter.enums.RequestStatus;
+import com.bankaya.pokemon.infrastructure.config.SoapAuditPolicyProperties;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NdjsonFileAuditSinkTest {
+
+    @TempDir
+    private Path directory;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SoapAuditPolicyProperties policyProperties = new SoapAuditPolicyProperties();
+    private NdjsonFileAuditSink sink;
+
+    @BeforeEach
+    void setUp() {
+        sink = sink(DataSize.ofMegabytes(1));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        sink.close();
+    }
+
+    @Test
+    void shouldWriteOneJsonObjectPerLine() throws IOException {
+        sink.write(List.of(auditLog("first"), auditLog("second").withErrorMessage("line\nbreak")));
+        sink.write(List.of(auditLog("third")));
+        sink.close();
+
+        List<Path> files = files();
+        assertEquals(1, files.size());
+        List<String> lines = Files.readAllLines(files.get(0));
+        assertEquals(3, lines.size());
+        JsonNode second = objectMapper.readTree(lines.get(1));
+        assertEquals("second", second.get("soap_method").asText());
+        assertEquals("line\nbreak", second.get("error_message").asText());
+        assertEquals(42, second.get("duration_ms").asLong());
+        assertEquals("2025-01-15T10:30:45", second.get("request_date").asText());
+        assertFalse(objectMapper.readTree(lines.get(0)).has("error_message"));
+        assertEquals(3.0, meterRegistry.counter("soap.audit.ndjson.records").count());
+    }
+
+    @Test
+    void shouldRollWhenTheNextBatchExceedsTheFileSize() throws IOException {
+        sink.close();
+        sink = sink(DataSize.ofBytes(300));
+
+        for (int i = 0; i < 3; i++) {
+            sink.write(List.of(auditLog("method" + i)));
+        }
+        sink.close();
+
+        List<Path> files = files();
+        assertTrue(files.size() > 1);
+        long lines = 0;
+        for (Path file : files) {
+            assertTrue(Files.size(file) <= 300);
+            lines += Files.readAllLines(file).size();
+        }
+        assertEquals(3, lines);
+    }
+
+    @Test
+    void shouldApplyThePayloadPolicy() throws IOException {
+        policyProperties.setDefaultSampleRate(0.0);
+
+        sink.write(List.of(auditLog("sampled")));
+        sink.close();
+
+        JsonNode written = objectMapper.readTree(Files.readAllLines(files().get(0)).get(0));
+        assertFalse(written.has("request_payload"));
+        assertEquals("sampled", written.get("soap_method").asText());
+    }
+
+    private NdjsonFileAuditSink sink(DataSize maxFileSize) {
+        return new NdjsonFileAuditSink(directory.toString(), maxFileSize, Duration.ofHours(1), 1000,
+                new SoapAuditPolicy(policyProperties, meterRegistry), meterRegistry);
+    }
+
+    private List<Path> files() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().toList();
+        }
+    }
+
+    private SoapAuditLog auditLog(String soapMethod) {
+        return SoapAuditLog.builder()
+                .ipOrigin("10.0.0.1")
+                .requestDate(LocalDateTime.of(2025, 1, 15, 10, 30, 45))
+                .soapMethod(soapMethod)
+                .durationMs(42L)
+                .status(RequestStatus.SUCCESS)
+                .endpointClass("PokemonEndpoint")
+                .requestPayload("<request/>")
+                .responsePayload("<response/>")
+                .build();
+    }
+}
@@ -0,0 +1,117 @@
+package com.bankaya.pokemon.infrastructure.adapter.soap;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ws.FaultAwareWebServiceMessage;
+import org.springframework.ws.context.DefaultMessageContext;
+import org.springframework.ws.context.MessageContext;
+import org.springframework.ws.soap.SoapFault;
+import org.springframework.ws.soap.SoapMessage;
+import org.springframework.ws.soap.saaj.SaajSoapMessageFactory;
+
+import com.bankaya.pokemon.domain.exception.BadRequestException;
+import com.bankaya.pokemon.domain.exception.PokemonNotFoundException;
+import com.bankaya.pokemon.domain.exception.PokemonServiceException;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CachedSoapFaultExceptionResolverTest {
+
+    private static final byte[] REQUEST = """
+            <soapenv:Envelope xmlns:soapenv="http://schemas.xmlsoap.org/soap/envelope/">
+                <soapenv:Body>
+                    <GetPokemonIdRequest xmlns="http://bankaya.com/pokemon/soap"><name>missingno</name></GetPokemonIdRequest>
+                </soapenv:Body>
+            </soapenv:Envelope>""".getBytes(StandardCharsets.UTF_8);
+
+    private SaajSoapMessageFactory messageFactory;
+    private CachedSoapFaultExceptionResolver resolver;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        messageFactory = new SaajSoapMessageFactory();
+        messageFactory.afterPropertiesSet();
+        resolver = new CachedSoapFaultExceptionResolver();
+    }
+
+    @Test
+    void resolveException_shouldReuseSerializedFaultForRepeatedNotFound() throws Exception {
+        MessageContext first = messageContext();
+        MessageContext second = messageContext();
+
+        assertTrue(resolver.resolveException(first, null, new PokemonNotFoundException("missingno")));
+        assertTrue(resolver.resolveException(second, null, new PokemonNotFoundException("missingno")));
+
+        SoapFault fault = ((SoapMessage) second.getResponse()).getSoapBody().getFault();
+        assertEquals("Pokemon with name 'missingno' not found", fault.getFaultStringOrReason());
+        assertEquals("Server", fault.getFaultCode().getLocalPart());
+        assertArrayEquals(serialize(first), serialize(second));
+    }
+
+    @Test
+    void resolveException_shouldWriteTemplateBytesWithEscapedReasonPerName() throws Exception {
+        FastInfosetSoapMessageFactory serializingFactory = new FastInfosetSoapMessageFactory();
+        serializingFactory.afterPropertiesSet();
+        MessageContext first = new DefaultMessageContext(
+                serializingFactory.createWebServiceMessage(new ByteArrayInputStream(REQUEST)), serializingFactory);
+        MessageContext second = new DefaultMessageContext(
+                serializingFactory.createWebServiceMessage(new ByteArrayInputStream(REQUEST)), serializingFactory);
+
+        assertTrue(resolver.resolveException(first, null, new PokemonNotFoundException("missingno")));
+        assertTrue(resolver.resolveException(second, null, new PokemonNotFoundException("<mr. mime & co>")));
+
+        FaultAwareWebServiceMessage response = (FaultAwareWebServiceMessage) second.getResponse();
+        assertTrue(response.hasFault());
+        assertEquals("Server", response.getFaultCode().getLocalPart());
+        assertEquals("Pokemon with name '<mr. mime & co>' not found", response.getFaultReason());
+
+        // The written bytes are a valid envelope carrying the same reason
+        SoapFault written = ((SoapMessage) messageFactory.createWebServiceMessage(
+                new ByteArrayInputStream(serialize(second)))).getSoapBody().getFault();
+        assertEquals("Pokemon with name '<mr. mime & co>' not found", written.getFaultStringOrReason());
+        assertEquals("Pokemon with name 'missingno' not found",
+                ((FaultAwareWebServiceMessage) first.getResponse()).getFaultReason());
+    }
+
+    @Test
+    void resolveException_shouldMapBadRequestToClientFault() throws Exception {
+        MessageContext context = messageContext();
+
+        assertTrue(resolver.resolveException(context, null, new BadRequestException("Pokemon name cannot be empty")));
+
+        SoapFault fault = ((SoapMessage) context.getResponse()).getSoapBody().getFault();
+        assertEquals("Client", fault.getFaultCode().getLocalPart());
+    }
+
+    @Test
+    void resolveException_shouldLeaveUnexpectedFailuresToDefaultResolvers() throws Exception {
+        MessageContext context = messageContext();
+
+        assertFalse(resolver.resolveException(context, null, new PokemonServiceException("PokeAPI unavailable")));
+        assertFalse(context.hasResponse());
+    }
+
+    @Test
+    void expectedFailures_shouldNotCaptureStackTraces() {
+        assertEquals(0, new PokemonNotFoundException("missingno").getStackTrace().length);
+        assertEquals(0, new BadRequestException("invalid").getStackTrace().length);
+    }
+
+    private MessageContext messageContext() throws Exception {
+        return new DefaultMessageContext(
+                messageFactory.createWebServiceMessage(new ByteArrayInputStream(REQUEST)), messageFactory);
+    }
+
+    private byte[] serialize(MessageContext context) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        context.getResponse().writeTo(out);
+        return out.toByteArray();
+    }
+}
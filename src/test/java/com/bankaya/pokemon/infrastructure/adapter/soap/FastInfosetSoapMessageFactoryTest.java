@@ -0,0 +1,141 @@
+package com.bankaya.pokemon.infrastructure.adapter.soap;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Iterator;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.ws.soap.saaj.SaajSoapMessage;
+import org.springframework.ws.transport.TransportInputStream;
+import org.w3c.dom.Node;
+
+import com.bankaya.pokemon.infrastructure.utils.FastInfosetDocuments;
+import com.bankaya.pokemon.infrastructure.utils.FastInfosetUtils;
+
+import jakarta.xml.soap.SOAPMessage;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FastInfosetSoapMessageFactoryTest {
+
+    private static final String NAMESPACE_URI = "http://bankaya.com/pokemon/soap";
+    private static final String ENVELOPE = """
+            <soapenv:Envelope xmlns:soapenv="http://schemas.xmlsoap.org/soap/envelope/">\
+            <soapenv:Body>\
+            <ns2:GetPokemonAbilitiesRequest xmlns:ns2="http://bankaya.com/pokemon/soap">\
+            <ns2:name>pikachu</ns2:name>\
+            </ns2:GetPokemonAbilitiesRequest>\
+            </soapenv:Body>\
+            </soapenv:Envelope>""";
+
+    private final FastInfosetSoapMessageFactory messageFactory = new FastInfosetSoapMessageFactory();
+    private final MockHttpServletRequest request = new MockHttpServletRequest("POST", "/pokemon/ws");
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        messageFactory.afterPropertiesSet();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request, response));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void shouldParseFastInfosetRequestWithoutTranscoding() throws Exception {
+        byte[] fastInfoset = FastInfosetDocuments.encode(ENVELOPE.getBytes(StandardCharsets.UTF_8));
+
+        SaajSoapMessage message = messageFactory.createWebServiceMessage(
+                new HttpInputStream(fastInfoset, FastInfosetUtils.CONTENT_TYPE));
+
+        Node payload = message.getSaajMessage().getSOAPBody().getFirstChild();
+        assertEquals("GetPokemonAbilitiesRequest", payload.getLocalName());
+        assertEquals("pikachu", payload.getTextContent());
+    }
+
+    @Test
+    void shouldWriteFastInfosetResponseWhenAccepted() throws Exception {
+        request.addHeader(HttpHeaders.ACCEPT, FastInfosetUtils.CONTENT_TYPE + ", text/xml");
+
+        byte[] body = writeResponse(messageFactory.createWebServiceMessage());
+
+        assertNotEquals('<', body[0]);
+        assertTrue(new String(FastInfosetUtils.toXml(body), StandardCharsets.UTF_8)
+                .contains("<ns2:name>static</ns2:name>"));
+    }
+
+    @Test
+    void shouldWriteTextResponseForTextClients() throws Exception {
+        request.addHeader(HttpHeaders.ACCEPT, "text/xml");
+
+        byte[] body = writeResponse(messageFactory.createWebServiceMessage());
+
+        assertTrue(new String(body, StandardCharsets.UTF_8).contains("<ns2:name>static</ns2:name>"));
+    }
+
+    @Test
+    void shouldAddVaryAcceptOnce() {
+        messageFactory.createWebServiceMessage();
+        // A fault creates the response again
+        messageFactory.createWebServiceMessage();
+
+        assertArrayEquals(new Object[] {HttpHeaders.ACCEPT}, response.getHeaders(HttpHeaders.VARY).toArray());
+    }
+
+    private byte[] writeResponse(SaajSoapMessage message) throws Exception {
+        SOAPMessage saajMessage = message.getSaajMessage();
+        saajMessage.getSOAPBody()
+                .addChildElement("GetPokemonAbilitiesResponse", "ns2", NAMESPACE_URI)
+                .addChildElement("name", "ns2")
+                .addTextNode("static");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        message.writeTo(out);
+        return out.toByteArray();
+    }
+
+    /**
+     * Request body with its Content-Type, as the HTTP transport hands it to the message factory
+     */
+    private static final class HttpInputStream extends TransportInputStream {
+
+        private final byte[] body;
+        private final String contentType;
+
+        private HttpInputStream(byte[] body, String contentType) {
+            this.body = body;
+            this.contentType = contentType;
+        }
+
+        @Override
+        protected InputStream createInputStream() {
+            return new ByteArrayInputStream(body);
+        }
+
+        @Override
+        public Iterator<String> getHeaderNames() {
+            return Collections.singletonList(HttpHeaders.CONTENT_TYPE).iterator();
+        }
+
+        @Override
+        public Iterator<String> getHeaders(String name) {
+            return HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(name)
+                    ? Collections.singletonList(contentType).iterator()
+                    : Collections.emptyIterator();
+        }
+    }
+}
@@ -1,8 +1,12 @@
 package com.bankaya.pokemon.infrastructure.adapter.soap;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.Map;
 import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -15,7 +19,11 @@ import org.junit.jupiter.params.provider.MethodSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
 import org.springframework.context.ApplicationContext;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.ActiveProfiles;
@@ -27,6 +35,7 @@ import org.springframework.xml.transform.StringSource;
 
 import lombok.extern.log4j.Log4j2;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -58,6 +67,9 @@ class PokemonEndpointIntegrationTest {
     @Autowired
     private TestRestTemplate restTemplate;
 
+    @LocalServerPort
+    private int port;
+
     private MockWebServiceClient mockClient;
 
     @BeforeEach
@@ -159,6 +171,46 @@ class PokemonEndpointIntegrationTest {
         assertNotNull(response.getBody(), "WSDL content should not be null");
         assertTrue(response.getBody().contains("definitions"), "WSDL should contain 'definitions' element");
         assertTrue(response.getBody().contains("pokemon"), "WSDL should contain 'pokemon' service definition");
+        assertTrue(response.getBody().contains("location=\"http://localhost:" + port + "/pokemon/ws\""),
+                "soap:address should point at the host the WSDL was requested from");
+    }
+
+    @Test
+    @DisplayName("Should revalidate the static WSDL with its ETag")
+    void testWsdlEtagRevalidation() {
+        ResponseEntity<String> first = restTemplate.getForEntity("/pokemon/ws/pokemon.wsdl", String.class);
+        String etag = first.getHeaders().getETag();
+        assertNotNull(etag, "WSDL response should carry an ETag");
+        assertNotNull(first.getBody());
+        assertTrue(first.getBody().contains("GetPokemonDetails"), "WSDL should expose every XSD operation");
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfNoneMatch(etag);
+        ResponseEntity<String> second = restTemplate.exchange(
+                "/pokemon/ws/pokemon.wsdl", HttpMethod.GET, new HttpEntity<>(headers), String.class);
+
+        assertSame(HttpStatus.NOT_MODIFIED, second.getStatusCode(), "Matching ETag should return HTTP 304");
+        assertEquals(etag, second.getHeaders().getETag());
+    }
+
+    @Test
+    @DisplayName("Should serve the static WSDL gzip compressed when accepted")
+    void testWsdlGzip() throws IOException {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        ResponseEntity<byte[]> response = restTemplate.exchange(
+                "/pokemon/ws/pokemon.wsdl", HttpMethod.GET, new HttpEntity<>(headers), byte[].class);
+
+        assertSame(HttpStatus.OK, response.getStatusCode());
+        assertEquals("gzip", response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertNotNull(response.getBody());
+
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(response.getBody()))) {
+            String wsdl = new String(gzip.readAllBytes(), StandardCharsets.UTF_8);
+            assertTrue(wsdl.contains("definitions"), "Decompressed WSDL should contain 'definitions' element");
+            assertTrue(wsdl.contains("location=\"http://localhost:" + port + "/pokemon/ws\""),
+                    "Gzip variant should carry the same soap:address");
+        }
     }
 
     @Test
@@ -196,4 +248,125 @@ class PokemonEndpointIntegrationTest {
                 .andExpect(ResponseMatchers.xpath("count(//ns:abilities)", NAMESPACE_MAP)
                         .evaluatesTo(2));
     }
+
+    @Test
+    @DisplayName("Should return only the requested fields for GetPokemonDetails")
+    void testDetailsRequestWithFieldMask() {
+        // Given - Details request selecting id, base experience and abilities
+        String soapRequest = """
+                <GetPokemonDetailsRequest xmlns="http://bankaya.com/pokemon/soap">
+                    <name>pikachu</name>
+                    <fields>ID</fields>
+                    <fields>BASE_EXPERIENCE</fields>
+                    <fields>ABILITIES</fields>
+                </GetPokemonDetailsRequest>
+                """;
+
+        // When & Then - The response carries the selected parts and nothing else
+        mockClient
+                .sendRequest(RequestCreators.withPayload(new StringSource(soapRequest)))
+                .andExpect(ResponseMatchers.noFault())
+                .andExpect(ResponseMatchers.xpath("//ns:GetPokemonDetailsResponse/ns:id", NAMESPACE_MAP)
+                        .evaluatesTo("25"))
+                .andExpect(ResponseMatchers.xpath("//ns:GetPokemonDetailsResponse/ns:baseExperience", NAMESPACE_MAP)
+                        .evaluatesTo("112"))
+                .andExpect(ResponseMatchers.xpath("count(//ns:GetPokemonDetailsResponse/ns:abilities)", NAMESPACE_MAP)
+                        .evaluatesTo(2))
+                .andExpect(ResponseMatchers.xpath("//ns:GetPokemonDetailsResponse/ns:name", NAMESPACE_MAP)
+                        .doesNotExist())
+                .andExpect(ResponseMatchers.xpath("//ns:GetPokemonDetailsResponse/ns:heldItems", NAMESPACE_MAP)
+                        .doesNotExist());
+    }
+
+    @Test
+    @DisplayName("Should return every field for GetPokemonDetails without field mask")
+    void testDetailsRequestWithoutFieldMask() {
+        // Given - Details request without fields
+        String soapRequest = """
+                <GetPokemonDetailsRequest xmlns="http://bankaya.com/pokemon/soap">
+                    <name>pikachu</name>
+                </GetPokemonDetailsRequest>
+                """;
+
+        // When & Then - All the fields are present
+        mockClient
+                .sendRequest(RequestCreators.withPayload(new StringSource(soapRequest)))
+                .andExpect(ResponseMatchers.noFault())
+                .andExpect(ResponseMatchers.xpath("//ns:GetPokemonDetailsResponse/ns:id", NAMESPACE_MAP)
+                        .evaluatesTo("25"))
+                .andExpect(ResponseMatchers.xpath("//ns:GetPokemonDetailsResponse/ns:name", NAMESPACE_MAP)
+                        .evaluatesTo("pikachu"))
+                .andExpect(ResponseMatchers.xpath("//ns:GetPokemonDetailsResponse/ns:locationAreaEncounters",
+                        NAMESPACE_MAP).exists());
+    }
+
+    @Test
+    @DisplayName("Should resolve a batch once per distinct name with the selected fields")
+    void testBatchRequestDeduplicatesNamesAndProjectsFields() {
+        // Given - Batch with a duplicated name (different case) and a field selection
+        String soapRequest = """
+                <GetPokemonBatchRequest xmlns="http://bankaya.com/pokemon/soap">
+                    <names>pikachu</names>
+                    <names>PIKACHU</names>
+                    <names>ditto</names>
+                    <fields>ID</fields>
+                    <fields>BASE_EXPERIENCE</fields>
+                </GetPokemonBatchRequest>
+                """;
+
+        // When & Then - One entry per distinct name, only the requested fields present
+        mockClient
+                .sendRequest(RequestCreators.withPayload(new StringSource(soapRequest)))
+                .andExpect(ResponseMatchers.noFault())
+                .andExpect(ResponseMatchers.xpath("count(//ns:pokemon)", NAMESPACE_MAP).evaluatesTo(2))
+                .andExpect(ResponseMatchers.xpath("//ns:pokemon[ns:requestedName='pikachu']/ns:details/ns:id",
+                        NAMESPACE_MAP).evaluatesTo(25))
+                .andExpect(ResponseMatchers.xpath("//ns:pokemon[ns:requestedName='ditto']/ns:details/ns:id",
+                        NAMESPACE_MAP).evaluatesTo(132))
+                .andExpect(ResponseMatchers.xpath("//ns:details/ns:baseExperience", NAMESPACE_MAP).exists())
+                .andExpect(ResponseMatchers.xpath("//ns:details/ns:abilities", NAMESPACE_MAP).doesNotExist())
+                .andExpect(ResponseMatchers.xpath("//ns:details/ns:name", NAMESPACE_MAP).doesNotExist());
+    }
+
+    @Test
+    @DisplayName("Should report not found names inside the batch without failing it")
+    void testBatchRequestReportsNotFoundPerEntry() {
+        // Given - Batch mixing an existing and a non-existent Pokemon
+        String soapRequest = """
+                <GetPokemonBatchRequest xmlns="http://bankaya.com/pokemon/soap">
+                    <names>pikachu</names>
+                    <names>nonexistentpokemon123456</names>
+                </GetPokemonBatchRequest>
+                """;
+
+        // When & Then - The missing Pokemon carries a NOT_FOUND error, the other one all its fields
+        mockClient
+                .sendRequest(RequestCreators.withPayload(new StringSource(soapRequest)))
+                .andExpect(ResponseMatchers.noFault())
+                .andExpect(ResponseMatchers.xpath(
+                        "//ns:pokemon[ns:requestedName='nonexistentpokemon123456']/ns:error/ns:code",
+                        NAMESPACE_MAP).evaluatesTo("NOT_FOUND"))
+                .andExpect(ResponseMatchers.xpath(
+                        "//ns:pokemon[ns:requestedName='pikachu']/ns:details/ns:name",
+                        NAMESPACE_MAP).evaluatesTo("pikachu"))
+                .andExpect(ResponseMatchers.xpath(
+                        "count(//ns:pokemon[ns:requestedName='pikachu']/ns:details/ns:abilities)",
+                        NAMESPACE_MAP).evaluatesTo(2));
+    }
+
+    @Test
+    @DisplayName("Should return CLIENT SOAP fault for a batch without valid names")
+    void testBatchRequestWithBlankNames() {
+        // Given - Batch whose names are all blank
+        String soapRequest = """
+                <GetPokemonBatchRequest xmlns="http://bankaya.com/pokemon/soap">
+                    <names> </names>
+                </GetPokemonBatchRequest>
+                """;
+
+        // When & Then - Send request and expect a CLIENT SOAP fault
+        mockClient
+                .sendRequest(RequestCreators.withPayload(new StringSource(soapRequest)))
+                .andExpect(ResponseMatchers.clientOrSenderFault());
+    }
 }
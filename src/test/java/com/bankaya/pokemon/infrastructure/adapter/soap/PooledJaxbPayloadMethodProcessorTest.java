@@ -0,0 +1,123 @@
+package com.bankaya.pokemon.infrastructure.adapter.soap;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.MethodParameter;
+import org.springframework.ws.context.DefaultMessageContext;
+import org.springframework.ws.context.MessageContext;
+import org.springframework.ws.soap.saaj.SaajSoapMessageFactory;
+
+import com.bankaya.pokemon.soap.GetPokemonAbilitiesResponse;
+import com.bankaya.pokemon.soap.GetPokemonBatchRequest;
+import com.bankaya.pokemon.soap.PokemonField;
+import com.bankaya.pokemon.soap.PokemonNameRequest;
+
+import jakarta.xml.bind.JAXBContext;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PooledJaxbPayloadMethodProcessorTest {
+
+    private static final String JAXB_PACKAGE = "com.bankaya.pokemon.soap";
+
+    private SaajSoapMessageFactory messageFactory;
+    private PooledJaxbPayloadMethodProcessor processor;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        messageFactory = new SaajSoapMessageFactory();
+        messageFactory.afterPropertiesSet();
+        processor = new PooledJaxbPayloadMethodProcessor(JAXBContext.newInstance(JAXB_PACKAGE), JAXB_PACKAGE, 2);
+    }
+
+    @Test
+    void supportsParameter_shouldAcceptGeneratedSoapTypes() throws Exception {
+        Method method = PokemonEndpoint.class.getMethod("getPokemonAbilities", PokemonNameRequest.class);
+
+        assertTrue(processor.supportsParameter(new MethodParameter(method, 0)));
+        assertTrue(processor.supportsReturnType(new MethodParameter(method, -1)));
+    }
+
+    @Test
+    void supportsParameter_shouldRejectTypesOutsideSoapPackage() throws Exception {
+        Method method = getClass().getDeclaredMethod("notAnEndpoint", String.class);
+
+        assertFalse(processor.supportsParameter(new MethodParameter(method, 0)));
+        assertFalse(processor.supportsReturnType(new MethodParameter(method, -1)));
+    }
+
+    @Test
+    void resolveArgument_shouldUnmarshalTypeOnlyRequest() throws Exception {
+        Method method = PokemonEndpoint.class.getMethod("getPokemonAbilities", PokemonNameRequest.class);
+        MessageContext context = messageContext("""
+                <GetPokemonAbilitiesRequest xmlns="http://bankaya.com/pokemon/soap">
+                    <name>pikachu</name>
+                </GetPokemonAbilitiesRequest>""");
+
+        Object request = processor.resolveArgument(context, new MethodParameter(method, 0));
+
+        assertInstanceOf(PokemonNameRequest.class, request);
+        assertEquals("pikachu", ((PokemonNameRequest) request).getName());
+    }
+
+    @Test
+    void resolveArgument_shouldUnmarshalRootElementRequest() throws Exception {
+        Method method = PokemonEndpoint.class.getMethod("getPokemonBatch", GetPokemonBatchRequest.class);
+        MessageContext context = messageContext("""
+                <GetPokemonBatchRequest xmlns="http://bankaya.com/pokemon/soap">
+                    <names>pikachu</names>
+                    <names>ditto</names>
+                    <fields>ID</fields>
+                </GetPokemonBatchRequest>""");
+
+        GetPokemonBatchRequest request =
+                (GetPokemonBatchRequest) processor.resolveArgument(context, new MethodParameter(method, 0));
+
+        assertEquals(2, request.getNames().size());
+        assertEquals(PokemonField.ID, request.getFields().getFirst());
+    }
+
+    @Test
+    void handleReturnValue_shouldMarshalResponseRepeatedlyWithPooledInstances() throws Exception {
+        Method method = PokemonEndpoint.class.getMethod("getPokemonAbilities", PokemonNameRequest.class);
+        GetPokemonAbilitiesResponse response = new GetPokemonAbilitiesResponse();
+
+        // More invocations than pooled instances: the pool must be returned to and reused
+        for (int i = 0; i < 5; i++) {
+            MessageContext context = messageContext("""
+                    <GetPokemonAbilitiesRequest xmlns="http://bankaya.com/pokemon/soap">
+                        <name>pikachu</name>
+                    </GetPokemonAbilitiesRequest>""");
+
+            processor.handleReturnValue(context, new MethodParameter(method, -1), response);
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            context.getResponse().writeTo(out);
+            assertTrue(out.toString(StandardCharsets.UTF_8).contains("GetPokemonAbilitiesResponse"));
+        }
+    }
+
+    private MessageContext messageContext(String payload) throws Exception {
+        String envelope = """
+                <soapenv:Envelope xmlns:soapenv="http://schemas.xmlsoap.org/soap/envelope/">
+                <soapenv:Body>%s</soapenv:Body>
+                </soapenv:Envelope>""".formatted(payload);
+        return new DefaultMessageContext(
+                messageFactory.createWebServiceMessage(
+                        new ByteArrayInputStream(envelope.getBytes(StandardCharsets.UTF_8))),
+                messageFactory);
+    }
+
+    @SuppressWarnings("unused")
+    private String notAnEndpoint(String value) {
+        return value;
+    }
+}
@@ -0,0 +1,310 @@
+package com.bankaya.pokemon.infrastructure.audit;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.bankaya.pokemon.domain.model.SoapAuditLog;
+import com.bankaya.pokemon.domain.ports.AuditSinkPort;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AuditPipelineTest {
+
+    @TempDir
+    private Path spoolDirectory;
+
+    private SimpleMeterRegistry meterRegistry;
+    private AuditSpool spool;
+    private List<SoapAuditLog> handled;
+    private CountDownLatch consumerReleased;
+    private AuditPipeline pipeline;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        handled = new CopyOnWriteArrayList<>();
+        consumerReleased = new CountDownLatch(1);
+        spool = new AuditSpool(spoolDirectory, 64 * 1024, 2, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        consumerReleased.countDown();
+        if (pipeline != null && pipeline.isRunning()) {
+            pipeline.stop();
+        }
+    }
+
+    @Test
+    void shouldSpoolRecordsWhenNotRunning() {
+        pipeline = pipeline(handled::addAll, OverflowPolicy.SPILL);
+
+        assertTrue(pipeline.publish(auditLog("getName")));
+
+        assertTrue(handled.isEmpty());
+        assertEquals(List.of("getName"),
+                spool.read(10).records().stream().map(SoapAuditLog::getSoapMethod).toList());
+    }
+
+    @Test
+    void shouldDrainQueuedRecordsOnStop() {
+        pipeline = pipeline(blockingHandler(), OverflowPolicy.SPILL);
+        pipeline.start();
+        pipeline.publish(auditLog("first"));
+        awaitConsumerBusy();
+        for (int i = 0; i < 4; i++) {
+            pipeline.publish(auditLog("getName" + i));
+        }
+
+        consumerReleased.countDown();
+        pipeline.stop();
+
+        assertEquals(5, handled.size());
+        assertEquals(0, pipeline.depth());
+        assertEquals(5, meterRegistry.counter("soap.audit.queue.published").count());
+    }
+
+    @Test
+    void shouldWriteFullBatchesAndFlushPartialBatchAfterMaxDelay() {
+        List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        pipeline = new AuditPipeline(List.of(new AuditSinkChannel("database", auditLogs -> {
+            batchSizes.add(auditLogs.size());
+            handled.addAll(auditLogs);
+        }, spool)), 16, 3, 500, WaitStrategy.PARKING, OverflowPolicy.SPILL, 10, meterRegistry);
+        pipeline.start();
+        for (int i = 0; i < 7; i++) {
+            pipeline.publish(auditLog("getName" + i));
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (handled.size() < 7 && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+
+        assertEquals(List.of(3, 3, 1), new ArrayList<>(batchSizes));
+        assertEquals(3, meterRegistry.summary("soap.audit.queue.batch.size").count());
+    }
+
+    @Test
+    void shouldDropOldestRecordsWhenFull() {
+        pipeline = pipeline(blockingHandler(), OverflowPolicy.DROP_OLDEST);
+        pipeline.start();
+        // El consumidor queda bloqueado en el primer registro; el resto llena el buffer
+        pipeline.publish(auditLog("first"));
+        awaitConsumerBusy();
+        for (int i = 0; i < 6; i++) {
+            assertTrue(pipeline.publish(auditLog("record" + i)));
+        }
+
+        consumerReleased.countDown();
+        pipeline.stop();
+
+        assertEquals(2, meterRegistry.counter("soap.audit.queue.dropped", "reason", "drop_oldest").count());
+        assertEquals(List.of("first", "record2", "record3", "record4", "record5"),
+                handled.stream().map(SoapAuditLog::getSoapMethod).toList());
+    }
+
+    @Test
+    void shouldSpillOverflowToSpool() {
+        pipeline = pipeline(blockingHandler(), OverflowPolicy.SPILL);
+        pipeline.start();
+        pipeline.publish(auditLog("first"));
+        awaitConsumerBusy();
+        for (int i = 0; i < 6; i++) {
+            assertTrue(pipeline.publish(auditLog("record" + i)));
+        }
+
+        assertEquals(4, pipeline.depth());
+        assertEquals(2, spool.depth());
+        assertEquals(List.of("record4", "record5"),
+                spool.read(10).records().stream().map(SoapAuditLog::getSoapMethod).toList());
+    }
+
+    @Test
+    void shouldDropWhenSpoolIsFull() {
+        int recordSize = AuditSpool.encode(auditLog("record0")).length + 8;
+        spool = new AuditSpool(spoolDirectory.resolve("small"), recordSize * 2, 1, meterRegistry);
+        pipeline = pipeline(blockingHandler(), OverflowPolicy.SPILL);
+        pipeline.start();
+        pipeline.publish(auditLog("first"));
+        awaitConsumerBusy();
+        for (int i = 0; i < 6; i++) {
+            pipeline.publish(auditLog("record" + i));
+        }
+
+        assertFalse(pipeline.publish(auditLog("record6")));
+        assertEquals(2, spool.depth());
+        assertEquals(1, meterRegistry.counter("soap.audit.queue.dropped", "reason", "spill_full").count());
+    }
+
+    @Test
+    void shouldSpoolBatchesWhenHandlerFails() {
+        List<Integer> attempts = new CopyOnWriteArrayList<>();
+        pipeline = pipeline(auditLogs -> {
+            attempts.add(auditLogs.size());
+            throw new IllegalStateException("Database down");
+        }, OverflowPolicy.SPILL);
+        pipeline.start();
+
+        pipeline.publish(auditLog("failed"));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (spool.depth() < 1 && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        // Durante el back-off los lotes van directo al spool sin esperar a la base de datos
+        pipeline.publish(auditLog("backoff"));
+        while (spool.depth() < 2 && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+
+        assertEquals(1, attempts.size());
+        assertEquals(List.of("failed", "backoff"),
+                spool.read(10).records().stream().map(SoapAuditLog::getSoapMethod).toList());
+    }
+
+    @Test
+    void shouldSpoolAndReplayOnlyForTheFailingSink() {
+        AuditSpool ndjsonSpool = new AuditSpool(spoolDirectory.resolve("ndjson"), 64 * 1024, 2, meterRegistry);
+        AtomicBoolean databaseDown = new AtomicBoolean(true);
+        List<SoapAuditLog> stored = new CopyOnWriteArrayList<>();
+        pipeline = new AuditPipeline(List.of(
+                new AuditSinkChannel("database", auditLogs -> {
+                    if (databaseDown.get()) {
+                        throw new IllegalStateException("Database down");
+                    }
+                    stored.addAll(auditLogs);
+                }, spool),
+                new AuditSinkChannel("ndjson", handled::addAll, ndjsonSpool)),
+                4, 1, 0, WaitStrategy.PARKING, OverflowPolicy.SPILL, 10, meterRegistry);
+        pipeline.start();
+
+        pipeline.publish(auditLog("failed"));
+        pipeline.publish(auditLog("backoff"));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while ((spool.depth() < 2 || handled.size() < 2) && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        databaseDown.set(false);
+        new AuditSpoolReplayer(pipeline.channels(), 10).replay();
+
+        // The healthy sink keeps receiving the batches during the back-off, and only once
+        assertEquals(List.of("failed", "backoff"), handled.stream().map(SoapAuditLog::getSoapMethod).toList());
+        assertEquals(0, ndjsonSpool.depth());
+        assertEquals(List.of("failed", "backoff"), stored.stream().map(SoapAuditLog::getSoapMethod).toList());
+        assertEquals(0, spool.depth());
+    }
+
+    @Test
+    void shouldKeepAsyncWritesInFlightAndSpoolThoseThatFail() {
+        List<CompletableFuture<Void>> writes = new CopyOnWriteArrayList<>();
+        pipeline = pipeline(new AuditSinkPort() {
+            @Override
+            public void write(List<SoapAuditLog> auditLogs) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public CompletableFuture<Void> writeAsync(List<SoapAuditLog> auditLogs) {
+                CompletableFuture<Void> write = new CompletableFuture<>();
+                writes.add(write);
+                return write;
+            }
+        }, OverflowPolicy.SPILL);
+        pipeline.start();
+
+        pipeline.publish(auditLog("written"));
+        pipeline.publish(auditLog("failed"));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (writes.size() < 2 && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        // The consumer does not wait for a write to complete before handing over the next batch
+        assertEquals(2, writes.size());
+        writes.get(0).complete(null);
+        CompletableFuture.delayedExecutor(100, TimeUnit.MILLISECONDS)
+                .execute(() -> writes.get(1).completeExceptionally(new IllegalStateException("Database down")));
+        pipeline.stop();
+
+        assertEquals(List.of("failed"), spool.read(10).records().stream().map(SoapAuditLog::getSoapMethod).toList());
+    }
+
+    @Test
+    void shouldKeepConsumingAfterHandlerError() {
+        pipeline = pipeline(auditLogs -> {
+            if ("error".equals(auditLogs.get(0).getSoapMethod())) {
+                throw new StackOverflowError("sink bug");
+            }
+            handled.addAll(auditLogs);
+        }, OverflowPolicy.SPILL);
+        pipeline.start();
+
+        pipeline.publish(auditLog("error"));
+        pipeline.publish(auditLog("next"));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (handled.isEmpty() && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+
+        assertEquals(List.of("next"), handled.stream().map(SoapAuditLog::getSoapMethod).toList());
+        assertEquals(List.of("error"),
+                spool.read(10).records().stream().map(SoapAuditLog::getSoapMethod).toList());
+    }
+
+    @Test
+    void shouldDropAfterBlockTimeout() {
+        pipeline = pipeline(blockingHandler(), OverflowPolicy.BLOCK);
+        pipeline.start();
+        pipeline.publish(auditLog("first"));
+        awaitConsumerBusy();
+        for (int i = 0; i < 4; i++) {
+            pipeline.publish(auditLog("record" + i));
+        }
+
+        assertFalse(pipeline.publish(auditLog("overflow")));
+        assertEquals(1, meterRegistry.counter("soap.audit.queue.dropped", "reason", "block_timeout").count());
+    }
+
+    private AuditPipeline pipeline(AuditSinkPort handler, OverflowPolicy overflowPolicy) {
+        return new AuditPipeline(List.of(new AuditSinkChannel("database", handler, spool)), 4, 1, 0,
+                WaitStrategy.PARKING, overflowPolicy, 10, meterRegistry);
+    }
+
+    private AuditSinkPort blockingHandler() {
+        return auditLogs -> {
+            try {
+                consumerReleased.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            handled.addAll(auditLogs);
+        };
+    }
+
+    private void awaitConsumerBusy() {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (pipeline.depth() > 0 && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+    }
+
+    private SoapAuditLog auditLog(String soapMethod) {
+        SoapAuditLog auditLog = SoapAuditLog.builder().build();
+        auditLog.setSoapMethod(soapMethod);
+        return auditLog;
+    }
+}
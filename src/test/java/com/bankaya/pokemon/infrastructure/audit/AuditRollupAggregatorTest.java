@@ -0,0 +1,105 @@
+package com.bankaya.pokemon.infrastructure.audit;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.bankaya.pokemon.domain.model.AuditRollup;
+import com.bankaya.pokemon.domain.ports.AuditRollupRepositoryPort;
+import com.bankaya.pokemon.infrastructure.adapter.enums.RequestStatus;
+import com.bankaya.pokemon.infrastructure.utils.DateTimeUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AuditRollupAggregatorTest {
+
+    private static final LocalDateTime MINUTE = LocalDateTime.of(2025, 1, 15, 10, 30);
+
+    @Mock
+    private AuditRollupRepositoryPort repository;
+
+    @Mock
+    private DateTimeUtils dateTimeUtils;
+
+    private SimpleMeterRegistry meterRegistry;
+    private AuditRollupAggregator aggregator;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        aggregator = new AuditRollupAggregator(repository, dateTimeUtils, meterRegistry, Duration.ofDays(90));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldFlushOneRollupPerMinuteMethodAndStatus() {
+        for (int i = 1; i <= 100; i++) {
+            aggregator.record("GetPokemonIdRequest", RequestStatus.SUCCESS, i, MINUTE.plusSeconds(i % 60));
+        }
+        aggregator.record("GetPokemonIdRequest", RequestStatus.FAULT, 5, MINUTE.plusSeconds(10));
+
+        aggregator.flushBefore(MINUTE.plusMinutes(1));
+
+        ArgumentCaptor<List<AuditRollup>> captor = ArgumentCaptor.forClass(List.class);
+        verify(repository).saveAll(captor.capture());
+        List<AuditRollup> rollups = captor.getValue().stream()
+                .sorted(Comparator.comparing(AuditRollup::getStatus))
+                .toList();
+        assertEquals(2, rollups.size());
+        assertEquals(MINUTE, rollups.get(0).getBucketStart());
+        assertEquals(RequestStatus.SUCCESS, rollups.get(0).getStatus());
+        assertEquals(100, rollups.get(0).getLatency().getTotalCount());
+        assertEquals(99, rollups.get(0).getLatency().getValueAtPercentile(99));
+        assertEquals(1, rollups.get(1).getLatency().getTotalCount());
+        assertEquals(2, meterRegistry.counter("soap.audit.rollup.flushed").count());
+    }
+
+    @Test
+    void shouldKeepOpenMinutesUntilTheyClose() {
+        aggregator.record("GetPokemonIdRequest", RequestStatus.SUCCESS, 10, MINUTE);
+
+        aggregator.flushBefore(MINUTE);
+
+        verify(repository, never()).saveAll(anyList());
+        assertEquals(1, meterRegistry.get("soap.audit.rollup.buckets").gauge().value());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldClampLatenciesAboveTrackableRange() {
+        aggregator.record(null, null, AuditRollupAggregator.HIGHEST_TRACKABLE_MS * 2, MINUTE);
+
+        aggregator.flushAll();
+
+        ArgumentCaptor<List<AuditRollup>> captor = ArgumentCaptor.forClass(List.class);
+        verify(repository).saveAll(captor.capture());
+        AuditRollup rollup = captor.getValue().get(0);
+        assertEquals("unknown", rollup.getSoapMethod());
+        assertEquals(RequestStatus.SUCCESS, rollup.getStatus());
+        assertEquals(1, rollup.getLatency().getTotalCount());
+    }
+
+    @Test
+    void shouldDeleteRollupsOlderThanRetention() {
+        when(dateTimeUtils.now()).thenReturn(MINUTE);
+
+        aggregator.purgeExpired();
+
+        verify(repository).deleteBefore(LocalDateTime.of(2024, 10, 17, 0, 0));
+    }
+}
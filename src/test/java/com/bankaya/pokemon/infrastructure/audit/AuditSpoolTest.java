@@ -0,0 +1,202 @@
+package com.bankaya.pokemon.infrastructure.audit;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.bankaya.pokemon.domain.model.PhaseTimings;
+import com.bankaya.pokemon.domain.model.SoapAuditLog;
+import com.bankaya.pokemon.infrastructure.adapter.enums.RequestStatus;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AuditSpoolTest {
+
+    @TempDir
+    private Path directory;
+
+    private SimpleMeterRegistry meterRegistry;
+    private int recordSize;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        recordSize = AuditSpool.encode(auditLog("record0")).length + 8;
+    }
+
+    @Test
+    void shouldKeepRecordsUntilCommitted() {
+        AuditSpool spool = new AuditSpool(directory, 64 * 1024, 2, meterRegistry);
+        for (int i = 0; i < 3; i++) {
+            assertTrue(spool.append(auditLog("record" + i)));
+        }
+
+        AuditSpool.Batch batch = spool.read(2);
+        assertEquals(List.of("record0", "record1"), methods(batch));
+        assertEquals(3, spool.depth());
+
+        spool.commit(batch);
+
+        assertEquals(1, spool.depth());
+        assertEquals(List.of("record2"), methods(spool.read(10)));
+        assertEquals(2, meterRegistry.counter("soap.audit.spool.replayed").count());
+    }
+
+    @Test
+    void shouldRecoverPendingRecordsAfterReopening() {
+        AuditSpool spool = new AuditSpool(directory, 64 * 1024, 2, meterRegistry);
+        for (int i = 0; i < 3; i++) {
+            spool.append(auditLog("record" + i));
+        }
+        spool.commit(spool.read(1));
+        spool.close();
+
+        AuditSpool reopened = new AuditSpool(directory, 64 * 1024, 2, new SimpleMeterRegistry());
+
+        assertEquals(2, reopened.depth());
+        assertEquals(List.of("record1", "record2"), methods(reopened.read(10)));
+        // Las escrituras continúan detrás de los registros recuperados
+        assertTrue(reopened.append(auditLog("record3")));
+        assertEquals(List.of("record1", "record2", "record3"), methods(reopened.read(10)));
+    }
+
+    @Test
+    void shouldRollSegmentsAndRecycleReplayedFiles() throws IOException {
+        AuditSpool spool = new AuditSpool(directory, recordSize * 2, 3, meterRegistry);
+        for (int i = 0; i < 5; i++) {
+            assertTrue(spool.append(auditLog("record" + i)));
+        }
+        assertEquals(3, meterRegistry.get("soap.audit.spool.segments").gauge().value());
+
+        spool.commit(spool.read(10));
+
+        assertEquals(0, spool.depth());
+        assertEquals(1, meterRegistry.get("soap.audit.spool.segments").gauge().value());
+        assertEquals(2, spareFiles());
+
+        // Los segmentos nuevos reutilizan los archivos reciclados sin exponer sus datos viejos
+        for (int i = 5; i < 10; i++) {
+            assertTrue(spool.append(auditLog("record" + i)));
+        }
+        assertEquals(0, spareFiles());
+        assertEquals(List.of("record5", "record6", "record7", "record8", "record9"), methods(spool.read(10)));
+    }
+
+    @Test
+    void shouldRejectRecordsWhenFull() {
+        AuditSpool spool = new AuditSpool(directory, recordSize * 2, 1, meterRegistry);
+
+        assertTrue(spool.append(auditLog("record0")));
+        assertTrue(spool.append(auditLog("record1")));
+        assertFalse(spool.append(auditLog("record2")));
+
+        assertEquals(2, spool.depth());
+        assertEquals(1, meterRegistry.counter("soap.audit.spool.rejected").count());
+    }
+
+    @Test
+    @Timeout(30)
+    void shouldReplayEveryRecordOnceWhileWritersAppendAndRoll() throws Exception {
+        int writers = 4;
+        int recordsPerWriter = 250;
+        AuditSpool spool = new AuditSpool(directory, recordSize * 8, 256, meterRegistry);
+        ExecutorService executor = Executors.newFixedThreadPool(writers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> appends = new ArrayList<>();
+        for (int writer = 0; writer < writers; writer++) {
+            String prefix = "w" + writer + "-";
+            appends.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < recordsPerWriter; i++) {
+                    assertTrue(spool.append(auditLog(prefix + i)));
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        List<String> replayed = new ArrayList<>();
+        while (replayed.size() < writers * recordsPerWriter) {
+            // Lectura y commit concurrentes con los escritores (checkpoint y reciclado incluidos)
+            AuditSpool.Batch batch = spool.read(50);
+            replayed.addAll(methods(batch));
+            spool.commit(batch);
+        }
+        for (Future<?> append : appends) {
+            append.get();
+        }
+        executor.shutdown();
+
+        assertEquals(writers * recordsPerWriter, replayed.size());
+        assertEquals(writers * recordsPerWriter, new HashSet<>(replayed).size());
+        assertEquals(0, spool.depth());
+        assertTrue(spool.read(10).isEmpty());
+    }
+
+    @Test
+    void shouldEncodeAndDecodeEveryField() {
+        SoapAuditLog auditLog = SoapAuditLog.builder()
+                .policyApplied(true)
+                .ipOrigin("10.0.0.1")
+                .requestDate(LocalDateTime.of(2025, 1, 15, 10, 30, 45))
+                .soapMethod("getAbilities")
+                .startTime(1736937045000L)
+                .durationMs(42L)
+                .requestPayload("<req>pikachu</req>")
+                .responsePayload("<res>static</res>")
+                .status(RequestStatus.SUCCESS)
+                .errorMessage(null)
+                .endpointClass("PokemonEndpoint")
+                .phaseTimings(new PhaseTimings(120, null, 35_000, 80, 15))
+                .build();
+
+        SoapAuditLog decoded = AuditSpool.decode(AuditSpool.encode(auditLog));
+
+        assertTrue(decoded.isPolicyApplied());
+        assertEquals("10.0.0.1", decoded.getIpOrigin());
+        assertEquals(auditLog.getRequestDate(), decoded.getRequestDate());
+        assertEquals("getAbilities", decoded.getSoapMethod());
+        assertEquals(1736937045000L, decoded.getStartTime());
+        assertEquals(42L, decoded.getDurationMs());
+        assertEquals("<req>pikachu</req>", decoded.getRequestPayload());
+        assertEquals("<res>static</res>", decoded.getResponsePayload());
+        assertEquals(RequestStatus.SUCCESS, decoded.getStatus());
+        assertEquals(null, decoded.getErrorMessage());
+        assertEquals("PokemonEndpoint", decoded.getEndpointClass());
+        assertEquals(new PhaseTimings(120, null, 35_000, 80, 15), decoded.getPhaseTimings());
+    }
+
+    private long spareFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().startsWith("spare-")).count();
+        }
+    }
+
+    private List<String> methods(AuditSpool.Batch batch) {
+        return batch.records().stream().map(SoapAuditLog::getSoapMethod).toList();
+    }
+
+    private SoapAuditLog auditLog(String soapMethod) {
+        SoapAuditLog auditLog = SoapAuditLog.builder().build();
+        auditLog.setSoapMethod(soapMethod);
+        return auditLog;
+    }
+}
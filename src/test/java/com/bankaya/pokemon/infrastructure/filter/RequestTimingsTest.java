@@ -0,0 +1,41 @@
+package com.bankaya.pokemon.infrastructure.filter;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import com.bankaya.pokemon.domain.model.PhaseTimings;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class RequestTimingsTest {
+
+    @Test
+    void shouldExcludeUpstreamTimeFromCachePhase() {
+        RequestTimings timings = new RequestTimings(0);
+        timings.add(RequestTimings.Phase.CACHE, 5_000_000);
+        timings.add(RequestTimings.Phase.UPSTREAM, 3_000_000);
+
+        PhaseTimings phaseTimings = timings.phaseTimings();
+
+        assertEquals(2_000, phaseTimings.cacheUs());
+        assertEquals(3_000, phaseTimings.upstreamUs());
+        assertNull(phaseTimings.parseUs());
+        assertEquals("cache;dur=2.0, upstream;dur=3.0, total;dur=10.5", timings.serverTiming(10_500_000));
+    }
+
+    @Test
+    void shouldReturnNullPhaseTimingsWhenNothingWasMeasured() {
+        assertNull(new RequestTimings(0).phaseTimings());
+        assertEquals("total;dur=0.25", new RequestTimings(0).serverTiming(250_000));
+    }
+
+    @Test
+    void shouldIgnoreRecordingOutsideRequest() {
+        RequestContextHolder.resetRequestAttributes();
+
+        RequestTimings.record(RequestTimings.Phase.CACHE, System.nanoTime());
+
+        assertNull(RequestTimings.current());
+    }
+}
@@ -0,0 +1,217 @@
+package com.bankaya.pokemon.infrastructure.filter;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.bankaya.pokemon.infrastructure.utils.CompressionUtils;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.Servlet;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SoapCompressionFilterTest {
+
+    private static final int MIN_SIZE = 64;
+    private static final int MAX_INFLATED_BYTES = 4096;
+    private static final String ENVELOPE = "<soapenv:Envelope>" + "<ns2:name>pikachu</ns2:name>".repeat(10)
+            + "</soapenv:Envelope>";
+
+    private Cache<ByteBuffer, byte[]> compressedBodies;
+    private SoapCompressionFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        compressedBodies = Caffeine.newBuilder().maximumSize(10).build();
+        filter = new SoapCompressionFilter(MIN_SIZE, MAX_INFLATED_BYTES, compressedBodies);
+    }
+
+    @Test
+    void shouldGzipResponseWhenAcceptedAndAboveMinSize() throws Exception {
+        MockHttpServletRequest request = soapRequest();
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, new MockFilterChain(respondingWith(ENVELOPE)));
+
+        assertEquals(CompressionUtils.GZIP, response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(ENVELOPE, gunzip(response.getContentAsByteArray()));
+        assertEquals(response.getContentAsByteArray().length, response.getContentLength());
+    }
+
+    @Test
+    void shouldNotCompressResponsesBelowMinSize() throws Exception {
+        MockHttpServletRequest request = soapRequest();
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, new MockFilterChain(respondingWith("<small/>")));
+
+        assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals("<small/>", response.getContentAsString());
+    }
+
+    @Test
+    void shouldNotCompressWhenClientDoesNotAcceptGzip() throws Exception {
+        MockHttpServletRequest request = soapRequest();
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, new MockFilterChain(respondingWith(ENVELOPE)));
+
+        assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(ENVELOPE, response.getContentAsString());
+        assertEquals(HttpHeaders.ACCEPT_ENCODING, response.getHeader(HttpHeaders.VARY));
+    }
+
+    @Test
+    void shouldReuseCompressedBytesForIdenticalResponses() throws Exception {
+        byte[] first = compressedResponse();
+        byte[] second = compressedResponse();
+
+        assertArrayEquals(first, second);
+        assertEquals(1, compressedBodies.estimatedSize());
+    }
+
+    @Test
+    void shouldDecodeGzipRequestBody() throws Exception {
+        MockHttpServletRequest request = soapRequest();
+        request.addHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        request.setContent(CompressionUtils.gzip(ENVELOPE.getBytes(StandardCharsets.UTF_8)));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, new MockFilterChain(echoServlet()));
+
+        assertEquals(ENVELOPE, response.getContentAsString());
+        assertNull(response.getHeader("X-Content-Encoding"));
+    }
+
+    @Test
+    void shouldRejectInvalidGzipRequestBody() throws Exception {
+        MockHttpServletRequest request = soapRequest();
+        request.addHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        request.setContent(ENVELOPE.getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, new MockFilterChain(echoServlet()));
+
+        assertEquals(HttpServletResponse.SC_BAD_REQUEST, response.getStatus());
+    }
+
+    @Test
+    void shouldRejectGzipRequestBodyInflatingBeyondLimit() throws Exception {
+        MockHttpServletRequest request = soapRequest();
+        request.addHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        // Pocos bytes comprimidos que se expanden por encima del límite
+        request.setContent(CompressionUtils.gzip(new byte[MAX_INFLATED_BYTES * 100]));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain(echoServlet());
+
+        filter.doFilter(request, response, chain);
+
+        assertEquals(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE, response.getStatus());
+        assertNull(chain.getRequest());
+    }
+
+    @Test
+    void shouldNotifyReadListenerOfTheInflatedBody() throws Exception {
+        MockHttpServletRequest request = soapRequest();
+        request.addHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        request.setContent(CompressionUtils.gzip(ENVELOPE.getBytes(StandardCharsets.UTF_8)));
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        ServletInputStream body = chain.getRequest().getInputStream();
+        ByteArrayOutputStream read = new ByteArrayOutputStream();
+        boolean[] allDataRead = new boolean[1];
+        body.setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() throws IOException {
+                while (body.isReady() && !body.isFinished()) {
+                    read.write(body.read());
+                }
+            }
+
+            @Override
+            public void onAllDataRead() {
+                allDataRead[0] = true;
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                throw new AssertionError(t);
+            }
+        });
+
+        assertEquals(ENVELOPE, read.toString(StandardCharsets.UTF_8));
+        assertTrue(allDataRead[0]);
+        assertEquals(ENVELOPE.length(), chain.getRequest().getContentLength());
+    }
+
+    private byte[] compressedResponse() throws Exception {
+        MockHttpServletRequest request = soapRequest();
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain(respondingWith(ENVELOPE)));
+        return response.getContentAsByteArray();
+    }
+
+    private MockHttpServletRequest soapRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/pokemon/ws");
+        request.setContentType("text/xml;charset=UTF-8");
+        return request;
+    }
+
+    private Servlet respondingWith(String body) {
+        return new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                resp.setContentType("text/xml;charset=UTF-8");
+                resp.getOutputStream().write(body.getBytes(StandardCharsets.UTF_8));
+            }
+        };
+    }
+
+    /**
+     * Writes back the request body, exposing the Content-Encoding header the servlet sees
+     */
+    private Servlet echoServlet() {
+        return new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                String encoding = req.getHeader(HttpHeaders.CONTENT_ENCODING);
+                if (encoding != null) {
+                    resp.setHeader("X-Content-Encoding", encoding);
+                }
+                resp.getOutputStream().write(req.getInputStream().readAllBytes());
+            }
+        };
+    }
+
+    private String gunzip(byte[] compressed) throws IOException {
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return new String(gzip.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
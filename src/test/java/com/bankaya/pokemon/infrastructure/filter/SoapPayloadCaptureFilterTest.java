@@ -0,0 +1,134 @@
+package com.bankaya.pokemon.infrastructure.filter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.bankaya.pokemon.infrastructure.filter.SoapPayloadCapture.CaptureBuffer;
+import com.bankaya.pokemon.infrastructure.utils.FastInfosetDocuments;
+import com.bankaya.pokemon.infrastructure.utils.FastInfosetUtils;
+
+import jakarta.servlet.Servlet;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class SoapPayloadCaptureFilterTest {
+
+    private static final String ENVELOPE = "<soapenv:Envelope><ns2:name>pikachu</ns2:name></soapenv:Envelope>";
+
+    private final List<String> completions = new ArrayList<>();
+    private final List<CaptureBuffer> borrowedBuffers = new ArrayList<>();
+
+    @Test
+    void shouldRunCompletionCallbackAfterResponseIsWritten() throws Exception {
+        SoapPayloadCaptureFilter filter = new SoapPayloadCaptureFilter(2, 1024);
+        MockHttpServletRequest request = soapRequest(ENVELOPE);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, new MockFilterChain(echoServlet(response)));
+
+        assertEquals(List.of("request=" + ENVELOPE, "response=" + ENVELOPE, "written=" + ENVELOPE), completions);
+        assertNull(request.getAttribute(SoapPayloadCapture.ATTRIBUTE));
+        assertNull(request.getAttribute(RequestTimings.ATTRIBUTE));
+    }
+
+    @Test
+    void shouldReusePooledBuffersAcrossRequests() throws Exception {
+        SoapPayloadCaptureFilter filter = new SoapPayloadCaptureFilter(2, 1024);
+
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        filter.doFilter(soapRequest(ENVELOPE), first, new MockFilterChain(echoServlet(first)));
+        completions.clear();
+        MockHttpServletResponse second = new MockHttpServletResponse();
+        filter.doFilter(soapRequest("<second/>"), second, new MockFilterChain(echoServlet(second)));
+
+        assertSame(borrowedBuffers.get(0), borrowedBuffers.get(2));
+        assertSame(borrowedBuffers.get(1), borrowedBuffers.get(3));
+        // The reused buffers were reset: only the second exchange is captured
+        assertEquals("request=<second/>", completions.get(0));
+        assertEquals("response=<second/>", completions.get(1));
+    }
+
+    @Test
+    void shouldNotPoolBuffersThatOutgrewTheLimit() throws Exception {
+        int maxPayloadBytes = 64 * 1024;
+        SoapPayloadCaptureFilter filter = new SoapPayloadCaptureFilter(2, maxPayloadBytes);
+        String largeEnvelope = "<soapenv:Envelope>" + "x".repeat(maxPayloadBytes / 2) + "</soapenv:Envelope>";
+
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        filter.doFilter(soapRequest(largeEnvelope), first, new MockFilterChain(echoServlet(first)));
+        MockHttpServletResponse second = new MockHttpServletResponse();
+        filter.doFilter(soapRequest(ENVELOPE), second, new MockFilterChain(echoServlet(second)));
+
+        assertNotSame(borrowedBuffers.get(0), borrowedBuffers.get(2));
+        assertNotSame(borrowedBuffers.get(1), borrowedBuffers.get(3));
+    }
+
+    @Test
+    void shouldCutCapturedPayloadsAtMaxBytesButWriteTheWholeResponse() throws Exception {
+        SoapPayloadCaptureFilter filter = new SoapPayloadCaptureFilter(2, 16);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(soapRequest(ENVELOPE), response, new MockFilterChain(echoServlet(response)));
+
+        assertEquals("request=" + ENVELOPE.substring(0, 16), completions.get(0));
+        assertEquals("response=" + ENVELOPE.substring(0, 16), completions.get(1));
+        assertEquals(ENVELOPE, response.getContentAsString());
+    }
+
+    @Test
+    void shouldDecodeFastInfosetPayloadsAsTextXml() throws Exception {
+        SoapPayloadCaptureFilter filter = new SoapPayloadCaptureFilter(2, 1024);
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/pokemon/ws");
+        request.setContentType(FastInfosetUtils.CONTENT_TYPE);
+        request.setContent(FastInfosetDocuments.encode(ENVELOPE.getBytes(StandardCharsets.UTF_8)));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, new MockFilterChain(echoServlet(response)));
+
+        assertEquals("request=" + ENVELOPE, completions.get(0));
+        assertEquals("response=" + ENVELOPE, completions.get(1));
+    }
+
+    private MockHttpServletRequest soapRequest(String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/pokemon/ws");
+        request.setContentType("text/xml;charset=UTF-8");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+
+    /**
+     * Echoes the request body and, like SoapAuditInterceptor, reads the captured payloads on completion
+     */
+    private Servlet echoServlet(MockHttpServletResponse clientResponse) {
+        return new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                SoapPayloadCapture capture = SoapPayloadCapture.from(req);
+                borrowedBuffers.add(capture.requestBuffer());
+                borrowedBuffers.add(capture.responseBuffer());
+                capture.whenComplete(completed -> {
+                    completions.add("request=" + completed.requestPayload());
+                    completions.add("response=" + completed.responsePayload());
+                    completions.add("written=" + new String(clientResponse.getContentAsByteArray(),
+                            StandardCharsets.UTF_8));
+                });
+
+                resp.setContentType(req.getContentType());
+                resp.getOutputStream().write(req.getInputStream().readAllBytes());
+            }
+        };
+    }
+}
@@ -0,0 +1,105 @@
+package com.bankaya.pokemon.infrastructure.filter;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StaticWsdlFilterTest {
+
+    private static final String WSDL = """
+            <wsdl:definitions xmlns:wsdl="http://schemas.xmlsoap.org/wsdl/" \
+            xmlns:soap="http://schemas.xmlsoap.org/wsdl/soap/">
+              <wsdl:service name="PokemonPortService">
+                <wsdl:port binding="tns:PokemonPortSoap11" name="PokemonPortSoap11">
+                  <soap:address location="http://localhost:8080/pokemon/ws"/>
+                </wsdl:port>
+              </wsdl:service>
+            </wsdl:definitions>
+            """;
+
+    private final StaticWsdlFilter filter = new StaticWsdlFilter(WSDL.getBytes(StandardCharsets.UTF_8));
+
+    @Test
+    void shouldRewriteSoapAddressToTheRequestHost() throws Exception {
+        MockHttpServletResponse response = get("https", "pokemon.example.com", 443);
+
+        assertTrue(response.getContentAsString().contains(
+                "<soap:address location=\"https://pokemon.example.com/pokemon/ws\"/>"));
+    }
+
+    @Test
+    void shouldKeepNonDefaultPort() throws Exception {
+        MockHttpServletResponse response = get("http", "10.0.0.5", 8081);
+
+        assertTrue(response.getContentAsString().contains("location=\"http://10.0.0.5:8081/pokemon/ws\""));
+    }
+
+    @Test
+    void shouldUseOneEtagPerHost() throws Exception {
+        String first = get("http", "a.example.com", 8081).getHeader(HttpHeaders.ETAG);
+        String second = get("http", "b.example.com", 8081).getHeader(HttpHeaders.ETAG);
+
+        assertNotEquals(first, second);
+        assertEquals(first, get("http", "a.example.com", 8081).getHeader(HttpHeaders.ETAG));
+
+        MockHttpServletRequest revalidation = request("http", "b.example.com", 8081);
+        revalidation.addHeader(HttpHeaders.IF_NONE_MATCH, first);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(revalidation, response, new MockFilterChain());
+        assertEquals(HttpServletResponse.SC_OK, response.getStatus());
+    }
+
+    @Test
+    void shouldUseADistinctEtagForTheGzipVariant() throws Exception {
+        String identity = get("http", "a.example.com", 8081).getHeader(HttpHeaders.ETAG);
+        MockHttpServletRequest gzipRequest = request("http", "a.example.com", 8081);
+        gzipRequest.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        MockHttpServletResponse gzip = new MockHttpServletResponse();
+        filter.doFilter(gzipRequest, gzip, new MockFilterChain());
+
+        assertEquals("gzip", gzip.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertNotEquals(identity, gzip.getHeader(HttpHeaders.ETAG));
+
+        // Revalidating the gzip body without gzip gets the identity body, not a 304
+        MockHttpServletRequest revalidation = request("http", "a.example.com", 8081);
+        revalidation.addHeader(HttpHeaders.IF_NONE_MATCH, gzip.getHeader(HttpHeaders.ETAG));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(revalidation, response, new MockFilterChain());
+        assertEquals(HttpServletResponse.SC_OK, response.getStatus());
+    }
+
+    @Test
+    void shouldServeHostsBeyondTheCacheLimit() throws Exception {
+        for (int i = 0; i <= StaticWsdlFilter.MAX_CACHED_HOSTS; i++) {
+            get("http", "host" + i + ".example.com", 80);
+        }
+
+        MockHttpServletResponse response = get("http", "extra.example.com", 80);
+
+        assertTrue(response.getContentAsString().contains("location=\"http://extra.example.com/pokemon/ws\""));
+    }
+
+    private MockHttpServletResponse get(String scheme, String host, int port) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request(scheme, host, port), response, new MockFilterChain());
+        return response;
+    }
+
+    private MockHttpServletRequest request(String scheme, String host, int port) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/pokemon/ws/pokemon.wsdl");
+        request.setScheme(scheme);
+        request.setServerName(host);
+        request.setServerPort(port);
+        return request;
+    }
+}
@@ -0,0 +1,28 @@
+package com.bankaya.pokemon.infrastructure.interceptor;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ClientIpResolverTest {
+
+    @Test
+    void shouldReturnSingleAddressWithoutCopying() {
+        String value = "10.0.0.1";
+
+        assertSame(value, ClientIpResolver.firstAddress(value));
+    }
+
+    @Test
+    void shouldReturnFirstAddressTrimmed() {
+        assertEquals("10.0.0.1", ClientIpResolver.firstAddress(" 10.0.0.1 , 10.0.0.2"));
+        assertEquals("10.0.0.1", ClientIpResolver.firstAddress("10.0.0.1,10.0.0.2"));
+        assertEquals("2001:db8::1", ClientIpResolver.firstAddress("\t2001:db8::1 "));
+    }
+
+    @Test
+    void shouldReturnEmptyForEmptyFirstToken() {
+        assertEquals("", ClientIpResolver.firstAddress(" , 10.0.0.2"));
+    }
+}
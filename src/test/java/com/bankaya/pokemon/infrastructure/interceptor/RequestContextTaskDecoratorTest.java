@@ -0,0 +1,59 @@
+package com.bankaya.pokemon.infrastructure.interceptor;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class RequestContextTaskDecoratorTest {
+
+    private final RequestContextTaskDecorator decorator = new RequestContextTaskDecorator();
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void shouldBindTheSubmittingRequestOnTheWorkerAndCleanUp() throws Exception {
+        RequestAttributes attributes = new ServletRequestAttributes(new MockHttpServletRequest());
+        RequestContextHolder.setRequestAttributes(attributes);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            RequestAttributes[] seen = new RequestAttributes[1];
+            executor.submit(decorator.decorate(() -> seen[0] = RequestContextHolder.getRequestAttributes())).get();
+
+            assertSame(attributes, seen[0]);
+            assertNull(CompletableFuture.supplyAsync(RequestContextHolder::getRequestAttributes, executor).get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void shouldRestoreTheCallerBindingWhenRunInline() {
+        RequestAttributes caller = new ServletRequestAttributes(new MockHttpServletRequest());
+        RequestContextHolder.setRequestAttributes(caller);
+        Runnable task = decorator.decorate(() -> { });
+
+        task.run();
+
+        assertSame(caller, RequestContextHolder.getRequestAttributes());
+    }
+
+    @Test
+    void shouldLeaveTasksUntouchedOutsideARequest() {
+        Runnable task = () -> { };
+
+        assertSame(task, decorator.decorate(task));
+    }
+}
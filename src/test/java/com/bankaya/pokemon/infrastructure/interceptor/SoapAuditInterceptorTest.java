@@ -3,6 +3,9 @@ package com.bankaya.pokemon.infrastructure.interceptor;
 import java.io.ByteArrayOutputStream;
 import java.lang.reflect.Method;
 import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
@@ -15,29 +18,46 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
 import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 import org.springframework.ws.context.MessageContext;
 import org.springframework.ws.server.endpoint.MethodEndpoint;
 import org.springframework.ws.soap.SoapBody;
-import org.springframework.ws.soap.SoapFault;
 import org.springframework.ws.soap.SoapMessage;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 
-import com.bankaya.pokemon.application.service.SoapAuditService;
+import com.bankaya.pokemon.domain.model.PhaseTimings;
 import com.bankaya.pokemon.domain.model.SoapAuditLog;
 import com.bankaya.pokemon.infrastructure.adapter.enums.RequestStatus;
+import com.bankaya.pokemon.infrastructure.audit.AuditPipeline;
+import com.bankaya.pokemon.infrastructure.audit.AuditRollupAggregator;
+import com.bankaya.pokemon.infrastructure.filter.RequestTimings;
+import com.bankaya.pokemon.infrastructure.filter.SoapPayloadCapture;
+import com.bankaya.pokemon.infrastructure.filter.SoapPayloadCaptureFilter;
+import com.bankaya.pokemon.infrastructure.utils.DateTimeUtils;
+
+import jakarta.servlet.Servlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -46,7 +66,13 @@ import static org.mockito.Mockito.when;
 class SoapAuditInterceptorTest {
 
     @Mock
-    private SoapAuditService auditService;
+    private AuditPipeline auditPipeline;
+
+    @Mock
+    private AuditRollupAggregator rollupAggregator;
+
+    @Spy
+    private DateTimeUtils dateTimeUtils = new DateTimeUtils("America/Mexico_City");
 
     @Mock
     private MessageContext messageContext;
@@ -60,9 +86,6 @@ class SoapAuditInterceptorTest {
     @Mock
     private SoapBody soapBody;
 
-    @Mock
-    private SoapFault soapFault;
-
     @InjectMocks
     private SoapAuditInterceptor interceptor;
 
@@ -73,6 +96,15 @@ class SoapAuditInterceptorTest {
         mockHttpRequest = new MockHttpServletRequest();
         mockHttpRequest.setRemoteAddr("127.0.0.1");
         RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(mockHttpRequest));
+
+        // Propiedades del MessageContext respaldadas por un mapa (el mock no guarda estado)
+        Map<String, Object> properties = new HashMap<>();
+        lenient().doAnswer(invocation -> properties.put(invocation.getArgument(0), invocation.getArgument(1)))
+                .when(messageContext).setProperty(anyString(), any());
+        lenient().when(messageContext.getProperty(anyString()))
+                .thenAnswer(invocation -> properties.get(invocation.<String>getArgument(0)));
+        lenient().doAnswer(invocation -> properties.remove(invocation.<String>getArgument(0)))
+                .when(messageContext).removeProperty(anyString());
     }
 
     @AfterEach
@@ -149,7 +181,9 @@ class SoapAuditInterceptorTest {
     }
 
     @Test
-    void handleResponse_withException_shouldReturnTrueAndLogError() {
+    void handleResponse_withException_shouldReturnTrueAndLogError() throws Exception {
+        setupHandleRequest();
+        interceptor.handleRequest(messageContext, null);
         when(messageContext.getResponse()).thenThrow(new RuntimeException("Test exception"));
 
         boolean result = interceptor.handleResponse(messageContext, null);
@@ -163,9 +197,8 @@ class SoapAuditInterceptorTest {
         interceptor.handleRequest(messageContext, null);
 
         when(messageContext.getResponse()).thenReturn(soapResponse);
-        when(soapResponse.getSoapBody()).thenReturn(soapBody);
-        when(soapBody.getFault()).thenReturn(soapFault);
-        when(soapFault.getFaultStringOrReason()).thenReturn("Pokemon not found");
+        when(soapResponse.hasFault()).thenReturn(true);
+        when(soapResponse.getFaultReason()).thenReturn("Pokemon not found");
         doAnswer(invocation -> {
             ByteArrayOutputStream out = invocation.getArgument(0);
             out.write("<soap>fault</soap>".getBytes(StandardCharsets.UTF_8));
@@ -178,7 +211,9 @@ class SoapAuditInterceptorTest {
     }
 
     @Test
-    void handleFault_withException_shouldReturnTrueAndLogError() {
+    void handleFault_withException_shouldReturnTrueAndLogError() throws Exception {
+        setupHandleRequest();
+        interceptor.handleRequest(messageContext, null);
         when(messageContext.getResponse()).thenThrow(new RuntimeException("Test exception"));
 
         boolean result = interceptor.handleFault(messageContext, null);
@@ -204,7 +239,7 @@ class SoapAuditInterceptorTest {
         interceptor.afterCompletion(messageContext, null, null);
 
         ArgumentCaptor<SoapAuditLog> captor = ArgumentCaptor.forClass(SoapAuditLog.class);
-        verify(auditService).saveAuditLog(captor.capture());
+        verify(auditPipeline).publish(captor.capture());
 
         SoapAuditLog savedLog = captor.getValue();
         assertNotNull(savedLog);
@@ -226,11 +261,13 @@ class SoapAuditInterceptorTest {
         interceptor.afterCompletion(messageContext, null, testException);
 
         ArgumentCaptor<SoapAuditLog> captor = ArgumentCaptor.forClass(SoapAuditLog.class);
-        verify(auditService).saveAuditLog(captor.capture());
+        verify(auditPipeline).publish(captor.capture());
 
         SoapAuditLog savedLog = captor.getValue();
         assertEquals(RequestStatus.ERROR, savedLog.getStatus());
         assertEquals("Test error", savedLog.getErrorMessage());
+        verify(rollupAggregator).record(eq(savedLog.getSoapMethod()), eq(RequestStatus.ERROR), anyLong(),
+                eq(savedLog.getRequestDate()));
     }
 
     @Test
@@ -239,9 +276,8 @@ class SoapAuditInterceptorTest {
         interceptor.handleRequest(messageContext, null);
 
         when(messageContext.getResponse()).thenReturn(soapResponse);
-        when(soapResponse.getSoapBody()).thenReturn(soapBody);
-        when(soapBody.getFault()).thenReturn(soapFault);
-        when(soapFault.getFaultStringOrReason()).thenReturn("SOAP Fault occurred");
+        when(soapResponse.hasFault()).thenReturn(true);
+        when(soapResponse.getFaultReason()).thenReturn("SOAP Fault occurred");
         doAnswer(invocation -> {
             ByteArrayOutputStream out = invocation.getArgument(0);
             out.write("<soap>fault</soap>".getBytes(StandardCharsets.UTF_8));
@@ -252,13 +288,66 @@ class SoapAuditInterceptorTest {
         interceptor.afterCompletion(messageContext, null, null);
 
         ArgumentCaptor<SoapAuditLog> captor = ArgumentCaptor.forClass(SoapAuditLog.class);
-        verify(auditService).saveAuditLog(captor.capture());
+        verify(auditPipeline).publish(captor.capture());
 
         SoapAuditLog savedLog = captor.getValue();
         assertEquals(RequestStatus.FAULT, savedLog.getStatus());
         assertEquals("SOAP Fault occurred", savedLog.getErrorMessage());
     }
 
+    @Test
+    void afterCompletion_onAnotherThread_shouldPublishTheAuditLogOfTheExchange() throws Exception {
+        setupHandleRequest();
+        interceptor.handleRequest(messageContext, null);
+
+        CompletableFuture.runAsync(() -> interceptor.afterCompletion(messageContext, null, null)).get();
+
+        ArgumentCaptor<SoapAuditLog> captor = ArgumentCaptor.forClass(SoapAuditLog.class);
+        verify(auditPipeline).publish(captor.capture());
+        assertEquals("127.0.0.1", captor.getValue().getIpOrigin());
+        assertNull(messageContext.getProperty(SoapAuditInterceptor.AUDIT_LOG_PROPERTY));
+    }
+
+    @Test
+    void afterCompletion_shouldSetServerTimingHeaderAndPhaseTimings() throws Exception {
+        MockHttpServletResponse httpResponse = new MockHttpServletResponse();
+        RequestTimings timings = new RequestTimings(System.nanoTime());
+        timings.add(RequestTimings.Phase.UPSTREAM, 2_000_000);
+        mockHttpRequest.setAttribute(RequestTimings.ATTRIBUTE, timings);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(mockHttpRequest, httpResponse));
+        setupHandleRequest();
+
+        interceptor.handleRequest(messageContext, null);
+        interceptor.afterCompletion(messageContext, null, null);
+
+        ArgumentCaptor<SoapAuditLog> captor = ArgumentCaptor.forClass(SoapAuditLog.class);
+        verify(auditPipeline).publish(captor.capture());
+        PhaseTimings phaseTimings = captor.getValue().getPhaseTimings();
+        assertNotNull(phaseTimings);
+        assertEquals(2_000, phaseTimings.upstreamUs());
+        assertNotNull(phaseTimings.parseUs());
+        assertNotNull(phaseTimings.auditUs());
+        assertNull(phaseTimings.cacheUs());
+
+        String serverTiming = httpResponse.getHeader(RequestTimings.SERVER_TIMING_HEADER);
+        assertNotNull(serverTiming);
+        assertTrue(serverTiming.startsWith("parse;dur="));
+        assertTrue(serverTiming.contains("upstream;dur=2.0"));
+        assertTrue(serverTiming.contains("total;dur="));
+        assertNull(messageContext.getProperty(SoapAuditInterceptor.TIMINGS_PROPERTY));
+    }
+
+    @Test
+    void afterCompletion_calledTwice_shouldPublishOnce() throws Exception {
+        setupHandleRequest();
+        interceptor.handleRequest(messageContext, null);
+
+        interceptor.afterCompletion(messageContext, null, null);
+        interceptor.afterCompletion(messageContext, null, null);
+
+        verify(auditPipeline).publish(any());
+    }
+
     @Test
     void extractClientIp_shouldReturnRemoteAddrByDefault() throws Exception {
         mockHttpRequest.setRemoteAddr("192.168.1.100");
@@ -268,7 +357,7 @@ class SoapAuditInterceptorTest {
         interceptor.afterCompletion(messageContext, null, null);
 
         ArgumentCaptor<SoapAuditLog> captor = ArgumentCaptor.forClass(SoapAuditLog.class);
-        verify(auditService).saveAuditLog(captor.capture());
+        verify(auditPipeline).publish(captor.capture());
         assertEquals("192.168.1.100", captor.getValue().getIpOrigin());
     }
 
@@ -281,7 +370,7 @@ class SoapAuditInterceptorTest {
         interceptor.afterCompletion(messageContext, null, null);
 
         ArgumentCaptor<SoapAuditLog> captor = ArgumentCaptor.forClass(SoapAuditLog.class);
-        verify(auditService).saveAuditLog(captor.capture());
+        verify(auditPipeline).publish(captor.capture());
         assertEquals("10.0.0.1", captor.getValue().getIpOrigin()); // First IP in the list
     }
 
@@ -294,7 +383,7 @@ class SoapAuditInterceptorTest {
         interceptor.afterCompletion(messageContext, null, null);
 
         ArgumentCaptor<SoapAuditLog> captor = ArgumentCaptor.forClass(SoapAuditLog.class);
-        verify(auditService).saveAuditLog(captor.capture());
+        verify(auditPipeline).publish(captor.capture());
         assertEquals("172.16.0.5", captor.getValue().getIpOrigin());
     }
 
@@ -308,7 +397,7 @@ class SoapAuditInterceptorTest {
         interceptor.afterCompletion(messageContext, null, null);
 
         ArgumentCaptor<SoapAuditLog> captor = ArgumentCaptor.forClass(SoapAuditLog.class);
-        verify(auditService).saveAuditLog(captor.capture());
+        verify(auditPipeline).publish(captor.capture());
         assertEquals("192.168.2.2", captor.getValue().getIpOrigin());
     }
 
@@ -329,7 +418,7 @@ class SoapAuditInterceptorTest {
 
         interceptor.afterCompletion(messageContext, null, null);
         ArgumentCaptor<SoapAuditLog> captor = ArgumentCaptor.forClass(SoapAuditLog.class);
-        verify(auditService).saveAuditLog(captor.capture());
+        verify(auditPipeline).publish(captor.capture());
 
         String payload = captor.getValue().getRequestPayload();
         assertTrue(payload.startsWith("Error extracting payload"));
@@ -338,7 +427,7 @@ class SoapAuditInterceptorTest {
     @Test
     void afterCompletion_withoutPreviousRequest_shouldNotSaveAuditLog() {
         interceptor.afterCompletion(messageContext, null, null);
-        verify(auditService, never()).saveAuditLog(any());
+        verify(auditPipeline, never()).publish(any());
     }
 
     @Test
@@ -359,7 +448,7 @@ class SoapAuditInterceptorTest {
         long endTime = System.currentTimeMillis();
 
         ArgumentCaptor<SoapAuditLog> captor = ArgumentCaptor.forClass(SoapAuditLog.class);
-        verify(auditService).saveAuditLog(captor.capture());
+        verify(auditPipeline).publish(captor.capture());
 
         SoapAuditLog savedLog = captor.getValue();
         assertNotNull(savedLog.getDurationMs());
@@ -377,7 +466,7 @@ class SoapAuditInterceptorTest {
         interceptor.afterCompletion(messageContext, null, null);
 
         ArgumentCaptor<SoapAuditLog> captor = ArgumentCaptor.forClass(SoapAuditLog.class);
-        verify(auditService).saveAuditLog(captor.capture());
+        verify(auditPipeline).publish(captor.capture());
 
         SoapAuditLog savedLog = captor.getValue();
         assertNull(savedLog.getEndpointClass());
@@ -392,12 +481,53 @@ class SoapAuditInterceptorTest {
         interceptor.afterCompletion(messageContext, null, null);
 
         ArgumentCaptor<SoapAuditLog> captor = ArgumentCaptor.forClass(SoapAuditLog.class);
-        verify(auditService).saveAuditLog(captor.capture());
+        verify(auditPipeline).publish(captor.capture());
 
         SoapAuditLog savedLog = captor.getValue();
         assertNull(savedLog.getEndpointClass());
     }
 
+    @Test
+    void afterCompletion_withCapturedPayloads_shouldSaveRawBytesWithoutSerializingEnvelopes() throws Exception {
+        mockHttpRequest.setContent("<soap>raw request</soap>".getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse httpResponse = new MockHttpServletResponse();
+        when(messageContext.getRequest()).thenReturn(soapRequest);
+        when(soapRequest.getSoapBody()).thenReturn(soapBody);
+        Document doc = createSoapDocument("getPokemonName");
+        when(soapBody.getPayloadSource()).thenReturn(new DOMSource(doc.getDocumentElement()));
+
+        // The servlet reads the request, runs the interceptor chain and only then writes the response
+        Servlet servlet = mock(Servlet.class);
+        doAnswer(invocation -> {
+            HttpServletRequest request = invocation.getArgument(0);
+            HttpServletResponse response = invocation.getArgument(1);
+            request.getInputStream().readAllBytes();
+            RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+            interceptor.handleRequest(messageContext, null);
+            interceptor.handleResponse(messageContext, null);
+            interceptor.afterCompletion(messageContext, null, null);
+            verify(auditPipeline, never()).publish(any());
+
+            response.getOutputStream().write("<soap>raw response</soap>".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(servlet).service(any(), any());
+
+        new SoapPayloadCaptureFilter(1, 1024).doFilter(mockHttpRequest, httpResponse, new MockFilterChain(servlet));
+
+        ArgumentCaptor<SoapAuditLog> captor = ArgumentCaptor.forClass(SoapAuditLog.class);
+        verify(auditPipeline).publish(captor.capture());
+        verify(soapRequest, never()).writeTo(any());
+        verify(soapResponse, never()).writeTo(any());
+
+        SoapAuditLog savedLog = captor.getValue();
+        assertEquals(RequestStatus.SUCCESS, savedLog.getStatus());
+        assertEquals("<soap>raw request</soap>", savedLog.getRequestPayload());
+        assertEquals("<soap>raw response</soap>", savedLog.getResponsePayload());
+        assertEquals("<soap>raw response</soap>", httpResponse.getContentAsString());
+        assertNull(mockHttpRequest.getAttribute(SoapPayloadCapture.ATTRIBUTE));
+    }
+
     private void setupHandleRequest() throws Exception {
         when(messageContext.getRequest()).thenReturn(soapRequest);
         when(soapRequest.getSoapBody()).thenReturn(soapBody);
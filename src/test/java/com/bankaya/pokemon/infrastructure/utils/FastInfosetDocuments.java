@@ -0,0 +1,43 @@
+package com.bankaya.pokemon.infrastructure.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParserFactory;
+
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import com.sun.xml.fastinfoset.sax.SAXDocumentSerializer;
+
+/**
+ * Fast Infoset documents for tests: the service only decodes them (FastInfosetUtils.toXml)
+ */
+public final class FastInfosetDocuments {
+
+    private FastInfosetDocuments() {
+    }
+
+    /**
+     * Encodes an XML text document as Fast Infoset
+     */
+    public static byte[] encode(byte[] xml) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        SAXDocumentSerializer serializer = new SAXDocumentSerializer();
+        serializer.setOutputStream(out);
+        try {
+            SAXParserFactory factory = SAXParserFactory.newInstance();
+            factory.setNamespaceAware(true);
+            XMLReader reader = factory.newSAXParser().getXMLReader();
+            reader.setContentHandler(serializer);
+            reader.setProperty("http://xml.org/sax/properties/lexical-handler", serializer);
+            reader.parse(new InputSource(new ByteArrayInputStream(xml)));
+        } catch (ParserConfigurationException | SAXException e) {
+            throw new IOException("Invalid XML document: " + e.getMessage(), e);
+        }
+        return out.toByteArray();
+    }
+}
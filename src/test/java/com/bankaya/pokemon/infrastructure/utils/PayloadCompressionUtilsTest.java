@@ -0,0 +1,66 @@
+package com.bankaya.pokemon.infrastructure.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.zip.Deflater;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PayloadCompressionUtilsTest {
+
+    private static final String RESPONSE = "<SOAP-ENV:Envelope xmlns:SOAP-ENV=\"http://schemas.xmlsoap.org/soap/envelope/\">"
+            + "<SOAP-ENV:Header/><SOAP-ENV:Body>"
+            + "<ns2:GetPokemonAbilitiesResponse xmlns:ns2=\"http://bankaya.com/pokemon/soap\">"
+            + "<ns2:abilities><ns2:name>static</ns2:name><ns2:url>https://pokeapi.co/api/v2/ability/9/</ns2:url>"
+            + "<ns2:isHidden>false</ns2:isHidden><ns2:slot>1</ns2:slot></ns2:abilities>"
+            + "</ns2:GetPokemonAbilitiesResponse></SOAP-ENV:Body></SOAP-ENV:Envelope>";
+
+    @Test
+    void shouldRoundTripPayload() {
+        String payload = RESPONSE + "<!-- \u00e9\u00f1 -->";
+
+        assertEquals(payload, PayloadCompressionUtils.decompress(PayloadCompressionUtils.compress(payload)));
+    }
+
+    @Test
+    void shouldKeepNullPayloads() {
+        assertNull(PayloadCompressionUtils.compress(null));
+        assertNull(PayloadCompressionUtils.decompress(null));
+    }
+
+    @Test
+    void shouldCompressSmallEnvelopesBetterThanPlainDeflate() {
+        byte[] compressed = PayloadCompressionUtils.compress(RESPONSE);
+
+        assertTrue(compressed.length < deflateWithoutDictionary(RESPONSE).length);
+        assertTrue(compressed.length * 3 < RESPONSE.length());
+    }
+
+    @Test
+    void shouldReadPayloadsCompressedWithoutDictionary() {
+        assertEquals(RESPONSE, PayloadCompressionUtils.decompress(deflateWithoutDictionary(RESPONSE)));
+    }
+
+    @Test
+    void shouldReadUncompressedTextAsIs() {
+        assertEquals(RESPONSE, PayloadCompressionUtils.decompress(RESPONSE.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private byte[] deflateWithoutDictionary(String payload) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setInput(payload.getBytes(StandardCharsets.UTF_8));
+            deflater.finish();
+            byte[] buffer = new byte[8192];
+            int length = deflater.deflate(buffer);
+            byte[] compressed = new byte[length];
+            System.arraycopy(buffer, 0, compressed, 0, length);
+            return compressed;
+        } finally {
+            deflater.end();
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package db.migration;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+
+import org.flywaydb.core.api.migration.Context;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.bankaya.pokemon.infrastructure.adapter.persistence.AuditPayloadStore;
+import com.bankaya.pokemon.infrastructure.utils.PayloadCompressionUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class V0_9__Move_inline_audit_payloadsTest {
+
+    private static final String REQUEST = "<GetPokemonIdRequest><name>pikachu</name></GetPokemonIdRequest>";
+    private static final String RESPONSE = "<GetPokemonIdResponse><id>25</id></GetPokemonIdResponse>";
+    // soap_audit_log as generated by Hibernate before the Flyway schema (IDENTITY ids, inline payloads)
+    private static final String BASELINE_TABLE_SQL = "CREATE TABLE soap_audit_log ("
+            + "id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, ip_origin varchar(255) NOT NULL, "
+            + "request_date timestamp NOT NULL, soap_method varchar(255) NOT NULL, duration_ms bigint, "
+            + "request_payload %1$s, response_payload %1$s, status varchar(20), error_message text, "
+            + "endpoint_class varchar(100))";
+
+    private final V0_9__Move_inline_audit_payloads migration = new V0_9__Move_inline_audit_payloads();
+    private Connection connection;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        connection = DriverManager.getConnection(
+                "jdbc:h2:mem:baseline-" + UUID.randomUUID() + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE", "sa", "");
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Test
+    void shouldMoveInlineTextPayloadsOfABaselineSchema() throws SQLException {
+        execute(String.format(BASELINE_TABLE_SQL, "text"));
+        insert(REQUEST, RESPONSE);
+        insert(REQUEST, null);
+        insert(null, null);
+
+        migration.migrate(context());
+
+        assertFalse(hasColumn("request_payload"));
+        assertFalse(hasColumn("response_payload"));
+        assertEquals(hash(REQUEST), hashOf(1, "request_payload_hash"));
+        assertEquals(hash(RESPONSE), hashOf(1, "response_payload_hash"));
+        assertEquals(hash(REQUEST), hashOf(2, "request_payload_hash"));
+        assertNull(hashOf(2, "response_payload_hash"));
+        assertNull(hashOf(3, "request_payload_hash"));
+        // One row per distinct payload, in the AuditPayloadStore format
+        assertEquals(2, count("SELECT count(*) FROM soap_audit_payload"));
+        assertEquals(REQUEST, storedPayload(hash(REQUEST)));
+        assertEquals(RESPONSE, storedPayload(hash(RESPONSE)));
+    }
+
+    @Test
+    void shouldLeaveNewDatabasesUntouched() throws SQLException {
+        migration.migrate(context());
+
+        assertEquals(0, count("SELECT count(*) FROM information_schema.tables WHERE table_name = 'soap_audit_payload'"));
+    }
+
+    private Context context() {
+        Context context = mock(Context.class);
+        when(context.getConnection()).thenReturn(connection);
+        return context;
+    }
+
+    private void execute(String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private void insert(String request, String response) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("INSERT INTO soap_audit_log "
+                + "(ip_origin, request_date, soap_method, request_payload, response_payload) "
+                + "VALUES ('10.0.0.1', CURRENT_TIMESTAMP, 'GetPokemonIdRequest', ?, ?)")) {
+            statement.setString(1, request);
+            statement.setString(2, response);
+            statement.executeUpdate();
+        }
+    }
+
+    private boolean hasColumn(String column) throws SQLException {
+        try (ResultSet columns = connection.getMetaData().getColumns(null, null, "soap_audit_log", column)) {
+            return columns.next();
+        }
+    }
+
+    private String hashOf(long id, String column) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT " + column + " FROM soap_audit_log WHERE id = " + id)) {
+            assertTrue(resultSet.next());
+            return resultSet.getString(1);
+        }
+    }
+
+    private String storedPayload(String hash) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT payload FROM soap_audit_payload WHERE hash = ?")) {
+            statement.setString(1, hash);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                assertTrue(resultSet.next());
+                return PayloadCompressionUtils.decompress(resultSet.getBytes(1));
+            }
+        }
+    }
+
+    private long count(String sql) throws SQLException {
+        try (Statement statement = connection.createStatement(); ResultSet resultSet = statement.executeQuery(sql)) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+    private static String hash(String payload) {
+        return AuditPayloadStore.sha256(payload.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,55 @@
+package com.bankaya.pokemon.wsdl;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.stream.StreamResult;
+
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.ws.wsdl.wsdl11.DefaultWsdl11Definition;
+import org.springframework.xml.xsd.SimpleXsdSchema;
+
+/**
+ * Build-time WSDL Generator
+ * Builds the WSDL from pokemon.xsd with the same conventions DefaultWsdl11Definition
+ * used at runtime and writes it as a static resource (Gradle task generateWsdl). Lives in its
+ * own source set, so it is not packaged with the application
+ * Usage: WsdlGenerator &lt;xsd file&gt; &lt;output wsdl file&gt; &lt;location uri&gt;
+ */
+public final class WsdlGenerator {
+
+    public static final String TARGET_NAMESPACE = "http://bankaya.com/pokemon/soap";
+    public static final String PORT_TYPE_NAME = "PokemonPort";
+
+    private WsdlGenerator() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 3) {
+            throw new IllegalArgumentException("Usage: WsdlGenerator <xsd file> <output wsdl file> <location uri>");
+        }
+
+        Path xsd = Path.of(args[0]);
+        Path output = Path.of(args[1]);
+
+        SimpleXsdSchema schema = new SimpleXsdSchema(new FileSystemResource(xsd));
+        schema.afterPropertiesSet();
+
+        DefaultWsdl11Definition definition = new DefaultWsdl11Definition();
+        definition.setPortTypeName(PORT_TYPE_NAME);
+        definition.setLocationUri(args[2]);
+        definition.setTargetNamespace(TARGET_NAMESPACE);
+        definition.setSchema(schema);
+        definition.afterPropertiesSet();
+
+        Transformer transformer = TransformerFactory.newInstance().newTransformer();
+        transformer.setOutputProperty(OutputKeys.INDENT, "yes");
+        transformer.setOutputProperty(OutputKeys.ENCODING, "UTF-8");
+
+        Files.createDirectories(output.toAbsolutePath().getParent());
+        transformer.transform(definition.getSource(), new StreamResult(output.toFile()));
+    }
+}